@@ -0,0 +1,343 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Indice della foresta di una visita in profondità basato sugli intervalli
+ * [tempo di scoperta, tempo di esplorazione] dei nodi, memorizzati in array di
+ * interi primitivi.
+ *
+ * In una foresta DFS un nodo u è antenato di v se e solo se l'intervallo di v
+ * è contenuto in quello di u (teorema delle parentesi), per cui le domande
+ * antenato/discendente si risolvono in tempo costante; inoltre, poiché il
+ * tempo avanza di uno ad ogni scoperta e ad ogni esplorazione, un sottoalbero
+ * con k nodi occupa un intervallo di ampiezza 2k - 1.
+ *
+ * L'indice può essere costruito direttamente sugli indici di un grafo, oppure
+ * letto dai tempi che {@link GenericGraphDFS} ha registrato nei nodi
+ * {@link GenericDFSNode}; in entrambi i casi non dipende più dallo stato
+ * mutabile dei nodi.
+ */
+public class DFSIntervalIndex<V> {
+
+	/* Numero minimo di nodi visitati da ogni compito della costruzione parallela */
+	private static final int TASK_NODES = 4096;
+
+	/* Istantanea con le etichette dei nodi */
+	private final IndexedGraph<V> graph;
+
+	/* Tempo di scoperta di ogni nodo */
+	private final int[] discovered;
+
+	/* Tempo di esplorazione di ogni nodo */
+	private final int[] explored;
+
+	/* Padre di ogni nodo nella foresta, -1 per le radici */
+	private final int[] father;
+
+	/**
+	 * Costruttore a partire dagli array già calcolati.
+	 * @param graph			istantanea con le etichette
+	 * @param discovered	tempi di scoperta
+	 * @param explored		tempi di esplorazione
+	 * @param father		padri
+	 */
+	private DFSIntervalIndex(IndexedGraph<V> graph, int[] discovered, int[] explored, int[] father) {
+		this.graph = graph;
+		this.discovered = discovered;
+		this.explored = explored;
+		this.father = father;
+	}
+
+	/**
+	 * Esegue una visita in profondità di un grafo e ne indicizza la foresta.
+	 * @param g		grafo
+	 * @return l'indice della foresta
+	 */
+	public static <V, E> DFSIntervalIndex<V> build(Graph<V, E> g) {
+		return build(IndexedGraph.of(g));
+	}
+
+	/**
+	 * Esegue una visita in profondità di un'istantanea e ne indicizza la
+	 * foresta. Le radici sono considerate in ordine di indice ed i successori
+	 * in ordine crescente di indice, per cui il risultato dipende solo dalla
+	 * struttura del grafo. Il primo nodo scoperto ha tempo 1.
+	 * @param graph		istantanea del grafo
+	 * @return l'indice della foresta
+	 */
+	public static <V> DFSIntervalIndex<V> build(IndexedGraph<V> graph) {
+		int n = graph.size();
+		int[] discovered = new int[n];
+		int[] explored = new int[n];
+		int[] father = new int[n];
+		int[] cursor = new int[n];
+		int[] stack = new int[n];
+		int time = 0;
+		for (int root = 0; root < n; root++) {
+			if (discovered[root] == 0) time = visit(graph, root, time, discovered, explored, father, cursor, stack);
+		}
+		return new DFSIntervalIndex<V>(graph, discovered, explored, father);
+	}
+
+	/**
+	 * Come {@link #build(IndexedGraph)}, ma costruisce in parallelo gli alberi
+	 * della foresta. I nodi vengono prima divisi nelle componenti debolmente
+	 * connesse, che nessun albero può attraversare; le visite delle componenti
+	 * sono indipendenti ed ognuna usa un proprio blocco di tempi, per cui gli
+	 * intervalli di alberi diversi restano disgiunti e le domande hanno la
+	 * stessa risposta della costruzione sequenziale, anche se i valori
+	 * assoluti dei tempi possono essere diversi. Le componenti piccole sono
+	 * raggruppate in compiti di almeno qualche migliaio di nodi, che il pool
+	 * distribuisce tra i thread per work stealing.
+	 * @param graph		istantanea del grafo
+	 * @param pool		pool di thread da usare
+	 * @return l'indice della foresta
+	 */
+	public static <V> DFSIntervalIndex<V> buildParallel(IndexedGraph<V> graph, ForkJoinPool pool) {
+		if (pool == null) throw new NullPointerException("Il pool di thread passato è null.");
+		final int n = graph.size();
+		final int[] discovered = new int[n];
+		final int[] explored = new int[n];
+		final int[] father = new int[n];
+		final int[] cursor = new int[n];
+		final WeaklyConnectedComponents wcc = new WeaklyConnectedComponents(graph);
+		List<ComponentVisit<V>> tasks = new ArrayList<ComponentVisit<V>>();
+		int base = 0;		/* Tempo che precede il blocco del gruppo di componenti */
+		int first = 0;		/* Prima componente del gruppo */
+		int nodes = 0;		/* Nodi del gruppo */
+		/* Raggruppo le componenti piccole per non creare un compito per ognuna */
+		for (int c = 0; c < wcc.componentCount(); c++) {
+			nodes += wcc.componentSize(c);
+			if (nodes >= TASK_NODES || c == wcc.componentCount() - 1) {
+				tasks.add(new ComponentVisit<V>(graph, wcc, first, c + 1, base, discovered, explored, father, cursor));
+				base += 2 * nodes;
+				first = c + 1;
+				nodes = 0;
+			}
+		}
+		pool.invoke(new RecursiveAction() {
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected void compute() {
+				invokeAll(tasks);
+			}
+		});
+		return new DFSIntervalIndex<V>(graph, discovered, explored, father);
+	}
+
+	/*
+	 * Visita di un gruppo di componenti debolmente connesse consecutive. Ogni
+	 * compito scrive solo nelle posizioni dei nodi delle proprie componenti.
+	 */
+	private static class ComponentVisit<V> extends RecursiveAction {
+		private static final long serialVersionUID = 1L;
+		private final IndexedGraph<V> graph;
+		private final WeaklyConnectedComponents wcc;
+
+		/* Componenti da visitare, da first incluso a last escluso */
+		private final int first;
+		private final int last;
+
+		/* Tempo che precede il blocco di tempi del gruppo */
+		private final int base;
+
+		/* Array condivisi tra i compiti, indicizzati per nodo */
+		private final int[] discovered;
+		private final int[] explored;
+		private final int[] father;
+		private final int[] cursor;
+
+		private ComponentVisit(IndexedGraph<V> graph, WeaklyConnectedComponents wcc, int first, int last, int base,
+				int[] discovered, int[] explored, int[] father, int[] cursor) {
+			this.graph = graph;
+			this.wcc = wcc;
+			this.first = first;
+			this.last = last;
+			this.base = base;
+			this.discovered = discovered;
+			this.explored = explored;
+			this.father = father;
+			this.cursor = cursor;
+		}
+
+		@Override
+		protected void compute() {
+			int largest = 0;
+			for (int c = first; c < last; c++) largest = Math.max(largest, wcc.componentSize(c));
+			int[] stack = new int[largest];
+			int time = base;
+			for (int k = wcc.membersStart(first); k < wcc.membersEnd(last - 1); k++) {
+				int root = wcc.member(k);
+				if (discovered[root] == 0) time = visit(graph, root, time, discovered, explored, father, cursor, stack);
+			}
+		}
+	}
+
+	/**
+	 * Visita iterativa dell'albero radicato in un nodo non ancora scoperto.
+	 * @param graph			istantanea del grafo
+	 * @param root			radice
+	 * @param time			tempo corrente
+	 * @param discovered	tempi di scoperta
+	 * @param explored		tempi di esplorazione
+	 * @param father		padri
+	 * @param cursor		prossimo successore da esaminare per ogni nodo
+	 * @param stack			pila di appoggio
+	 * @return tempo al termine della visita
+	 */
+	private static int visit(IndexedGraph<?> graph, int root, int time, int[] discovered, int[] explored,
+			int[] father, int[] cursor, int[] stack) {
+		int top = 0;
+		stack[0] = root;
+		father[root] = -1;
+		discovered[root] = ++time;
+		cursor[root] = graph.outStart(root);
+		while (top >= 0) {
+			int u = stack[top];
+			if (cursor[u] < graph.outEnd(u)) {
+				int v = graph.outTarget(cursor[u]++);
+				if (discovered[v] == 0) {
+					father[v] = u;
+					discovered[v] = ++time;
+					cursor[v] = graph.outStart(v);
+					stack[++top] = v;
+				}
+			} else {
+				explored[u] = ++time;
+				top--;
+			}
+		}
+		return time;
+	}
+
+	/**
+	 * Legge la foresta registrata nei nodi da una visita già eseguita con
+	 * {@link GenericGraphDFS#DFS(Graph)}.
+	 * @param g		grafo visitato
+	 * @return l'indice della foresta
+	 * @throws IllegalArgumentException se qualche nodo non è stato visitato
+	 */
+	public static <V extends GenericDFSNode, E> DFSIntervalIndex<V> fromNodes(Graph<V, E> g) {
+		IndexedGraph<V> graph = IndexedGraph.of(g);
+		int n = graph.size();
+		int[] discovered = new int[n];
+		int[] explored = new int[n];
+		int[] father = new int[n];
+		for (int i = 0; i < n; i++) {
+			V node = graph.labelAt(i);
+			discovered[i] = node.getTimeDiscovered();
+			explored[i] = node.getTimeExplored();
+			if (explored[i] <= discovered[i]) throw new IllegalArgumentException("Il nodo " + node + " non è stato visitato.");
+			@SuppressWarnings("unchecked")
+			V f = (V) node.getFather();
+			father[i] = f == null ? -1 : graph.indexOf(f);
+		}
+		return new DFSIntervalIndex<V>(graph, discovered, explored, father);
+	}
+
+	/**
+	 * Dice se un nodo è un antenato proprio di un altro nella foresta.
+	 * @param u		indice del possibile antenato
+	 * @param v		indice del possibile discendente
+	 * @return true se u è antenato di v e u != v
+	 */
+	public boolean isAncestor(int u, int v) {
+		return u != v && discovered[u] <= discovered[v] && explored[v] <= explored[u];
+	}
+
+	/**
+	 * Dice se un nodo è un antenato proprio di un altro nella foresta.
+	 * @param label1		etichetta del possibile antenato
+	 * @param label2		etichetta del possibile discendente
+	 * @return true se label1 è antenato di label2 e i due nodi sono diversi
+	 */
+	public boolean isAncestor(V label1, V label2) {
+		return isAncestor(graph.indexOf(label1), graph.indexOf(label2));
+	}
+
+	/**
+	 * Dice se un nodo è un discendente proprio di un altro nella foresta.
+	 * @param u		indice del possibile discendente
+	 * @param v		indice del possibile antenato
+	 * @return true se u è discendente di v e u != v
+	 */
+	public boolean isDescendant(int u, int v) {
+		return isAncestor(v, u);
+	}
+
+	/**
+	 * Ritorna il numero di nodi del sottoalbero radicato in un nodo, nodo compreso.
+	 * @param u		indice del nodo
+	 * @return dimensione del sottoalbero
+	 */
+	public int subtreeSize(int u) {
+		return (explored[u] - discovered[u] + 1) / 2;
+	}
+
+	/**
+	 * Ritorna il numero di nodi del sottoalbero radicato in un nodo, nodo compreso.
+	 * @param label		etichetta del nodo
+	 * @return dimensione del sottoalbero
+	 */
+	public int subtreeSize(V label) {
+		return subtreeSize(graph.indexOf(label));
+	}
+
+	/**
+	 * Ritorna il tempo di scoperta di un nodo.
+	 * @param u		indice del nodo
+	 * @return tempo di scoperta
+	 */
+	public int getTimeDiscovered(int u) {
+		return discovered[u];
+	}
+
+	/**
+	 * Ritorna il tempo di esplorazione di un nodo.
+	 * @param u		indice del nodo
+	 * @return tempo di esplorazione
+	 */
+	public int getTimeExplored(int u) {
+		return explored[u];
+	}
+
+	/**
+	 * Ritorna il padre di un nodo nella foresta.
+	 * @param u		indice del nodo
+	 * @return indice del padre, -1 se il nodo è una radice
+	 */
+	public int getFather(int u) {
+		return father[u];
+	}
+
+	/**
+	 * Ritorna il numero di nodi indicizzati.
+	 * @return numero di nodi
+	 */
+	public int size() {
+		return discovered.length;
+	}
+
+	/**
+	 * Ritorna l'istantanea con le etichette dei nodi.
+	 * @return istantanea del grafo
+	 */
+	public IndexedGraph<V> getGraph() {
+		return graph;
+	}
+
+	/**
+	 * Dice se due indici descrivono la stessa foresta con gli stessi tempi.
+	 * @param other		altro indice
+	 * @return true se tempi e padri coincidono
+	 */
+	public boolean sameForest(DFSIntervalIndex<?> other) {
+		return Arrays.equals(discovered, other.discovered) && Arrays.equals(explored, other.explored)
+				&& Arrays.equals(father, other.father);
+	}
+
+}
@@ -0,0 +1,135 @@
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+public class DFSIntervalIndexTest {
+
+	public static void main(String[] args) {
+
+		/* Grafo di esempio usato anche in GenericGraphDFSTest */
+		GraphMatrixDirected<String, Integer> g = new GraphMatrixDirected<String, Integer>();
+		for (String v : new String[] { "a", "b", "c", "x", "y", "z" }) g.addNode(v);
+		String[] edges = { "ab", "ax", "xb", "by", "yx", "zb", "zz", "cz" };
+		for (String e : edges) g.addEdge(e.substring(0, 1), e.substring(1), 0);
+		DFSIntervalIndex<String> example = DFSIntervalIndex.build(g);
+		IndexedGraph<String> snapshot = example.getGraph();
+		StringBuilder times = new StringBuilder();
+		for (int i = 0; i < snapshot.size(); i++)
+			times.append(snapshot.labelAt(i)).append(" [").append(example.getTimeDiscovered(i)).append(", ")
+					.append(example.getTimeExplored(i)).append("] ");
+		System.out.println("Intervalli: " + times);
+		System.out.println("a antenato di y: " + example.isAncestor("a", "y") + ", y antenato di a: " + example.isAncestor("y", "a")
+				+ ", c antenato di b: " + example.isAncestor("c", "b") + ", sottoalbero di a: " + example.subtreeSize("a"));
+
+		/* Costruzione parallela contro costruzione sequenziale, con controllo delle componenti debolmente connesse */
+		ForkJoinPool pool = new ForkJoinPool(4);
+		Random random = new Random(42);
+		int wrongPartition = 0, wrongForest = 0, wrongAnswers = 0;
+		for (int round = 0; round < 220; round++) {
+			/* Grafi piccoli, in un solo compito, e grafi sparsi con molte componenti, divisi in più compiti */
+			int n = round < 200 ? 1 + random.nextInt(60) : 10000 + random.nextInt(20000);
+			double degree = round < 200 ? 2 * random.nextDouble() : 0.5 + random.nextDouble();
+			IndexedGraph<Integer> r = GraphGenerator.erdosRenyi(n, Math.min(1, degree / n), random.nextLong()).toIndexedGraph();
+			if (!samePartition(r, new WeaklyConnectedComponents(r))) wrongPartition++;
+			DFSIntervalIndex<Integer> sequential = DFSIntervalIndex.build(r);
+			DFSIntervalIndex<Integer> parallel = DFSIntervalIndex.buildParallel(r, pool);
+			for (int u = 0; u < n; u++)
+				if (sequential.getFather(u) != parallel.getFather(u) || sequential.subtreeSize(u) != parallel.subtreeSize(u)) {
+					wrongForest++;
+					break;
+				}
+			/* Tutte le coppie sui grafi piccoli, un milione di coppie casuali su quelli grandi */
+			long pairs = round < 200 ? (long) n * n : 1000000;
+			for (long k = 0; k < pairs; k++) {
+				int u = round < 200 ? (int) (k / n) : random.nextInt(n);
+				int v = round < 200 ? (int) (k % n) : random.nextInt(n);
+				if (sequential.isAncestor(u, v) != parallel.isAncestor(u, v) || sequential.isDescendant(u, v) != parallel.isDescendant(u, v)) {
+					wrongAnswers++;
+					break;
+				}
+			}
+		}
+		System.out.println("220 grafi casuali, differenze: componenti debolmente connesse " + wrongPartition + ", foreste " + wrongForest
+				+ ", risposte " + wrongAnswers);
+
+		System.out.println();
+		System.out.println(" ----------------------------------------------------------");
+		System.out.println(" |    Costruzione su un grafo con molte componenti.       |");
+		System.out.println(" ----------------------------------------------------------");
+		IndexedGraph<Integer> large = GraphGenerator.erdosRenyi(2000000, 0.9 / 2000000, 7).toIndexedGraph();
+		WeaklyConnectedComponents wcc = new WeaklyConnectedComponents(large);
+		long sequentialTime = Long.MAX_VALUE;
+		long parallelTime = Long.MAX_VALUE;
+		DFSIntervalIndex<Integer> sequential = null;
+		DFSIntervalIndex<Integer> parallel = null;
+		/* Il primo giro serve solo a scaldare il compilatore JIT */
+		for (int round = 0; round < 2; round++) {
+			long start = System.nanoTime();
+			sequential = DFSIntervalIndex.build(large);
+			sequentialTime = Math.min(sequentialTime, System.nanoTime() - start);
+			start = System.nanoTime();
+			parallel = DFSIntervalIndex.buildParallel(large, pool);
+			parallelTime = Math.min(parallelTime, System.nanoTime() - start);
+		}
+		boolean same = true;
+		for (int u = 0; u < large.size(); u++)
+			if (sequential.getFather(u) != parallel.getFather(u) || sequential.subtreeSize(u) != parallel.subtreeSize(u)) same = false;
+		for (int k = 0; k < 1000000; k++) {
+			int u = random.nextInt(large.size());
+			int v = random.nextInt(large.size());
+			if (sequential.isAncestor(u, v) != parallel.isAncestor(u, v)) same = false;
+		}
+		System.out.println(large.size() + " nodi, " + large.edgeCount() + " archi, " + wcc.componentCount()
+				+ " componenti debolmente connesse, " + Runtime.getRuntime().availableProcessors() + " processori");
+		System.out.println("Sequenziale: " + sequentialTime / 1000000 + " ms, parallela (4 thread): " + parallelTime / 1000000
+				+ " ms, stessa foresta e stesse risposte: " + same);
+		pool.shutdown();
+	}
+
+	/**
+	 * Confronta le componenti debolmente connesse con una visita in ampiezza
+	 * della versione non diretta, e controlla la numerazione per nodo minimo
+	 * e l'ordine dei nodi di ogni componente.
+	 * @param g			istantanea del grafo
+	 * @param wcc		componenti calcolate
+	 * @return true se le componenti sono corrette
+	 */
+	private static boolean samePartition(IndexedGraph<Integer> g, WeaklyConnectedComponents wcc) {
+		int n = g.size();
+		int[] expected = new int[n];
+		for (int i = 0; i < n; i++) expected[i] = -1;
+		int[] queue = new int[n];
+		int count = 0;
+		for (int s = 0; s < n; s++) {
+			if (expected[s] != -1) continue;
+			int head = 0, tail = 0;
+			queue[tail++] = s;
+			expected[s] = count;
+			while (head < tail) {
+				int u = queue[head++];
+				for (int k = g.outStart(u); k < g.outEnd(u); k++)
+					if (expected[g.outTarget(k)] == -1) {
+						expected[g.outTarget(k)] = count;
+						queue[tail++] = g.outTarget(k);
+					}
+				for (int k = g.inStart(u); k < g.inEnd(u); k++)
+					if (expected[g.inTarget(k)] == -1) {
+						expected[g.inTarget(k)] = count;
+						queue[tail++] = g.inTarget(k);
+					}
+			}
+			count++;
+		}
+		if (wcc.componentCount() != count) return false;
+		for (int i = 0; i < n; i++)
+			if (wcc.componentOf(i) != expected[i]) return false;
+		for (int c = 0; c < count; c++) {
+			if (wcc.componentSize(c) != wcc.membersEnd(c) - wcc.membersStart(c)) return false;
+			for (int k = wcc.membersStart(c); k < wcc.membersEnd(c); k++) {
+				if (wcc.componentOf(wcc.member(k)) != c) return false;
+				if (k > wcc.membersStart(c) && wcc.member(k) <= wcc.member(k - 1)) return false;
+			}
+		}
+		return true;
+	}
+
+}
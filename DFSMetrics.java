@@ -0,0 +1,167 @@
+import java.lang.management.ManagementFactory;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/**
+ * Metriche di una o più visite in profondità eseguite da
+ * {@link GenericGraphDFS}: nodi scoperti, archi esaminati, profondità
+ * massima della pila, operazioni richieste al grafo e tempo speso in ogni
+ * fase.
+ *
+ * Le metriche sono facoltative: si attivano passando un oggetto di questa
+ * classe a {@link GenericGraphDFS#setMetrics(DFSMetrics)}, e quando non sono
+ * attive la visita paga soltanto un controllo su un riferimento null per
+ * ogni operazione. I contatori sono aggiornati dal thread che esegue la
+ * visita senza sincronizzazione: letti da un altro thread, ad esempio
+ * tramite JMX dopo {@link #register(String)}, possono essere leggermente in
+ * ritardo.
+ */
+public class DFSMetrics implements DFSMetricsMBean {
+
+	/* Contatori */
+	long runs;
+	long nodesDiscovered;
+	long edgesExamined;
+	int maxDepth;
+	long colorLookups;
+	long adjacencyLookups;
+	long indexLookups;
+
+	/* Tempi delle fasi in nanosecondi */
+	long initNanos;
+	long visitNanos;
+	long writeBackNanos;
+
+	/* Profondità corrente della visita */
+	int depth;
+
+	/**
+	 * Registra le metriche nel server JMX della piattaforma con il nome
+	 * <code>GenericGraphDFS:type=DFSMetrics,name=</code><i>name</i>.
+	 * @param name		nome che distingue queste metriche
+	 * @return il nome JMX con cui le metriche sono state registrate
+	 * @throws IllegalArgumentException se il nome non è valido o è già registrato
+	 */
+	public ObjectName register(String name) {
+		if (name == null) throw new NullPointerException("Il nome delle metriche è null.");
+		MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+		try {
+			ObjectName objectName = new ObjectName("GenericGraphDFS:type=DFSMetrics,name=" + ObjectName.quote(name));
+			server.registerMBean(this, objectName);
+			return objectName;
+		} catch (JMException e) {
+			throw new IllegalArgumentException("Impossibile registrare le metriche con il nome " + name + ".", e);
+		}
+	}
+
+	/**
+	 * Rimuove dal server JMX della piattaforma metriche registrate con {@link #register(String)}.
+	 * @param objectName		nome JMX restituito dalla registrazione
+	 */
+	public static void unregister(ObjectName objectName) {
+		try {
+			ManagementFactory.getPlatformMBeanServer().unregisterMBean(objectName);
+		} catch (JMException e) {
+			throw new IllegalArgumentException("Metriche non registrate con il nome " + objectName + ".", e);
+		}
+	}
+
+	/**
+	 * Aggiorna la profondità all'ingresso in un nodo.
+	 */
+	void enter() {
+		depth++;
+		if (depth > maxDepth) maxDepth = depth;
+	}
+
+	/**
+	 * Aggiorna la profondità all'uscita da un nodo.
+	 */
+	void exit() {
+		depth--;
+	}
+
+	@Override
+	public long getRuns() {
+		return runs;
+	}
+
+	@Override
+	public long getNodesDiscovered() {
+		return nodesDiscovered;
+	}
+
+	@Override
+	public long getEdgesExamined() {
+		return edgesExamined;
+	}
+
+	@Override
+	public int getMaxDepth() {
+		return maxDepth;
+	}
+
+	@Override
+	public long getColorLookups() {
+		return colorLookups;
+	}
+
+	@Override
+	public long getAdjacencyLookups() {
+		return adjacencyLookups;
+	}
+
+	@Override
+	public long getIndexLookups() {
+		return indexLookups;
+	}
+
+	@Override
+	public long getGraphLookups() {
+		return colorLookups + adjacencyLookups + indexLookups;
+	}
+
+	@Override
+	public long getInitNanos() {
+		return initNanos;
+	}
+
+	@Override
+	public long getVisitNanos() {
+		return visitNanos;
+	}
+
+	@Override
+	public long getWriteBackNanos() {
+		return writeBackNanos;
+	}
+
+	@Override
+	public void reset() {
+		runs = 0;
+		nodesDiscovered = 0;
+		edgesExamined = 0;
+		maxDepth = 0;
+		colorLookups = 0;
+		adjacencyLookups = 0;
+		indexLookups = 0;
+		initNanos = 0;
+		visitNanos = 0;
+		writeBackNanos = 0;
+		depth = 0;
+	}
+
+	/**
+	 * Riassunto delle metriche.
+	 */
+	@Override
+	public String toString() {
+		return "visite=" + runs + " nodi=" + nodesDiscovered + " archi=" + edgesExamined + " profondità=" + maxDepth
+				+ " colori=" + colorLookups + " adiacenze=" + adjacencyLookups + " indici=" + indexLookups
+				+ " inizializzazione=" + initNanos / 1000 + "us visita=" + visitNanos / 1000 + "us scrittura="
+				+ writeBackNanos / 1000 + "us";
+	}
+
+}
@@ -0,0 +1,77 @@
+/**
+ * Interfaccia di gestione JMX delle metriche di una visita in profondità,
+ * implementata da {@link DFSMetrics}.
+ */
+public interface DFSMetricsMBean {
+
+	/**
+	 * Ritorna il numero di visite complete misurate.
+	 * @return numero di visite
+	 */
+	public long getRuns();
+
+	/**
+	 * Ritorna il numero di nodi scoperti.
+	 * @return numero di nodi scoperti
+	 */
+	public long getNodesDiscovered();
+
+	/**
+	 * Ritorna il numero di archi esaminati.
+	 * @return numero di archi esaminati
+	 */
+	public long getEdgesExamined();
+
+	/**
+	 * Ritorna la massima profondità raggiunta dalla pila della visita.
+	 * @return profondità massima
+	 */
+	public int getMaxDepth();
+
+	/**
+	 * Ritorna il numero di letture e scritture dei colori sul grafo.
+	 * @return numero di chiamate a getColor e setColor
+	 */
+	public long getColorLookups();
+
+	/**
+	 * Ritorna il numero di richieste delle adiacenze al grafo.
+	 * @return numero di chiamate a successors e neighbors
+	 */
+	public long getAdjacencyLookups();
+
+	/**
+	 * Ritorna il numero di richieste degli indici dei nodi al grafo.
+	 * @return numero di chiamate a getNodeIndex e getNodeAtIndex
+	 */
+	public long getIndexLookups();
+
+	/**
+	 * Ritorna il numero totale di operazioni richieste al grafo.
+	 * @return somma di colori, adiacenze ed indici
+	 */
+	public long getGraphLookups();
+
+	/**
+	 * Ritorna il tempo speso nella fase di inizializzazione.
+	 * @return tempo in nanosecondi
+	 */
+	public long getInitNanos();
+
+	/**
+	 * Ritorna il tempo speso nella fase di visita.
+	 * @return tempo in nanosecondi
+	 */
+	public long getVisitNanos();
+
+	/**
+	 * Ritorna il tempo speso a scrivere i risultati nei nodi (solo visita parallela).
+	 * @return tempo in nanosecondi
+	 */
+	public long getWriteBackNanos();
+
+	/**
+	 * Azzera tutte le metriche.
+	 */
+	public void reset();
+}
@@ -0,0 +1,60 @@
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Evento di Java Flight Recorder emesso da ogni visita in profondità di
+ * {@link GenericGraphDFS}: dimensione del grafo, modalità della visita e
+ * profondità massima raggiunta. La durata dell'evento è quella della visita.
+ *
+ * La profondità viene misurata soltanto quando l'evento è attivo.
+ */
+@Name("graph.DFSRun")
+@Label("Visita in profondità")
+@Category({ "Graph" })
+@Description("Una visita in profondità completa di un grafo.")
+class DFSRunEvent extends Event {
+
+	/* Modalità della visita */
+	static final String SEQUENTIAL = "sequenziale";
+	static final String DETERMINISTIC = "deterministica";
+	static final String PARALLEL = "parallela";
+	static final String WEIGHTED = "pesata";
+
+	@Label("Grafo")
+	@Description("Classe del grafo.")
+	String graphClass;
+
+	@Label("Modalità")
+	String mode;
+
+	@Label("Nodi")
+	int nodes;
+
+	@Label("Archi")
+	int edges;
+
+	@Label("Profondità massima")
+	@Description("Massimo numero di nodi grigi contemporaneamente, cioè profondità massima della foresta più uno.")
+	int maxDepth;
+
+	/**
+	 * Completa i campi e registra l'evento, se la registrazione è attiva
+	 * e la durata supera la soglia configurata.
+	 * @param g				grafo visitato
+	 * @param mode			modalità della visita
+	 * @param maxDepth		profondità massima
+	 */
+	void commit(Graph<?, ?> g, String mode, int maxDepth) {
+		if (!shouldCommit()) return;
+		this.graphClass = g.getClass().getName();
+		this.mode = mode;
+		this.nodes = g.size();
+		this.edges = g.edgeCount();
+		this.maxDepth = maxDepth;
+		commit();
+	}
+
+}
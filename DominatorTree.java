@@ -0,0 +1,438 @@
+import java.util.Arrays;
+
+/**
+ * Albero dei dominatori di un grafo diretto a partire da un nodo di
+ * ingresso, come nei grafi di flusso di controllo: un nodo d domina un nodo
+ * v se ogni cammino dall'ingresso a v passa per d, ed il dominatore
+ * immediato di v è il dominatore stretto di v più vicino a v.
+ *
+ * I dominatori immediati sono calcolati con l'algoritmo di Lengauer e
+ * Tarjan nella versione con collegamento bilanciato (link/eval con gli
+ * array size e child), in tempo O(E &alpha;(E, V)). L'algoritmo parte dai
+ * numeri di una visita in profondità e dai padri nella foresta della
+ * visita; visita, compressione dei cammini e collegamento sono iterativi,
+ * per cui la profondità del grafo non è limitata dalla pila delle chiamate,
+ * e tutti gli array sono di interi primitivi indicizzati per numero di
+ * visita.
+ *
+ * {@link #iterativeDominators(IndexedGraph, int)} implementa l'algoritmo
+ * iterativo di Cooper, Harvey e Kennedy, più semplice ma quadratico nel caso
+ * peggiore; serve come riferimento per verificare e confrontare il
+ * risultato.
+ */
+public class DominatorTree<V> {
+
+	/* Istantanea su cui sono stati calcolati i dominatori */
+	private final IndexedGraph<V> graph;
+
+	/* Nodo di ingresso */
+	private final int entry;
+
+	/* Dominatore immediato di ogni nodo; l'ingresso domina sé stesso, -1 per i nodi non raggiungibili */
+	private final int[] idom;
+
+	/* Numero di ogni nodo nella visita in preordine dell'albero dei dominatori, -1 se non raggiungibile */
+	private final int[] preorder;
+
+	/* Numero di nodi del sottoalbero dei dominatori di ogni nodo */
+	private final int[] subtree;
+
+	/**
+	 * Calcola l'albero dei dominatori di un grafo.
+	 * @param g			grafo diretto
+	 * @param entry		nodo di ingresso
+	 */
+	public <E> DominatorTree(Graph<V, E> g, V entry) {
+		this(IndexedGraph.of(g), g.getNodeIndex(entry));
+	}
+
+	/**
+	 * Calcola l'albero dei dominatori di un'istantanea.
+	 * @param graph		istantanea del grafo, diretta
+	 * @param entry		indice del nodo di ingresso
+	 * @throws IllegalArgumentException se il grafo non è diretto
+	 * @throws IndexOutOfBoundsException se l'ingresso non è un nodo del grafo
+	 */
+	public DominatorTree(IndexedGraph<V> graph, int entry) {
+		if (graph == null) throw new NullPointerException("Tentativo di analizzare un grafo null.");
+		checkArguments(graph, entry);
+		this.graph = graph;
+		this.entry = entry;
+		this.idom = lengauerTarjan(graph, entry);
+		int n = graph.size();
+		this.preorder = new int[n];
+		this.subtree = new int[n];
+		numberTree();
+	}
+
+	/**
+	 * Verifica che il grafo sia diretto e che l'ingresso ne sia un nodo.
+	 * @param graph		istantanea del grafo
+	 * @param entry		indice del nodo di ingresso
+	 */
+	private static void checkArguments(IndexedGraph<?> graph, int entry) {
+		if (!graph.isDirected()) throw new IllegalArgumentException("I dominatori sono definiti solo su grafi diretti.");
+		if (entry < 0 || entry >= graph.size())
+			throw new IndexOutOfBoundsException("L'indice " + entry + " non corrisponde a nessun nodo.");
+	}
+
+	/**
+	 * Algoritmo di Lengauer e Tarjan con collegamento bilanciato. I nodi
+	 * sono rinumerati da 1 a k nell'ordine della visita in profondità
+	 * dall'ingresso; il numero 0 è la sentinella usata come antenato
+	 * assente, con semi[0] = label[0] = size[0] = 0.
+	 * @param graph		istantanea del grafo
+	 * @param entry		indice del nodo di ingresso
+	 * @return dominatori immediati indicizzati per nodo
+	 */
+	private static int[] lengauerTarjan(IndexedGraph<?> graph, int entry) {
+		int n = graph.size();
+		int[] number = new int[n];			/* Numero di visita di ogni nodo, 0 se non raggiungibile */
+		int[] vertex = new int[n + 1];		/* Nodo con un dato numero di visita */
+		int[] parent = new int[n + 1];		/* Numero del padre nella foresta della visita */
+
+		/* Visita in profondità iterativa: cursor contiene il prossimo successore da esaminare */
+		int[] cursor = new int[n + 1];
+		int[] stack = new int[n + 1];
+		int count = 0;
+		number[entry] = ++count;
+		vertex[count] = entry;
+		cursor[count] = graph.outStart(entry);
+		int top = 0;
+		stack[0] = count;
+		while (top >= 0) {
+			int u = stack[top];
+			int node = vertex[u];
+			if (cursor[u] == graph.outEnd(node)) {
+				top--;
+				continue;
+			}
+			int next = graph.outTarget(cursor[u]++);
+			if (number[next] == 0) {
+				number[next] = ++count;
+				vertex[count] = next;
+				parent[count] = u;
+				cursor[count] = graph.outStart(next);
+				stack[++top] = count;
+			}
+		}
+
+		int[] semi = new int[count + 1];
+		int[] label = new int[count + 1];
+		int[] ancestor = new int[count + 1];
+		int[] child = new int[count + 1];
+		int[] size = new int[count + 1];
+		int[] dom = new int[count + 1];
+		int[] bucket = new int[count + 1];		/* Primo nodo del secchiello di ogni semidominatore */
+		int[] bucketNext = new int[count + 1];	/* Nodo seguente nello stesso secchiello */
+		for (int w = 1; w <= count; w++) {
+			semi[w] = w;
+			label[w] = w;
+			size[w] = 1;
+		}
+		/* Lo stack della visita è ormai libero: serve alla compressione dei cammini */
+		for (int w = count; w >= 2; w--) {
+			int node = vertex[w];
+			/* Semidominatore: minimo su tutti i predecessori raggiungibili */
+			for (int k = graph.inStart(node); k < graph.inEnd(node); k++) {
+				int v = number[graph.inTarget(k)];
+				if (v == 0) continue;
+				int u = eval(v, ancestor, label, semi, stack);
+				if (semi[u] < semi[w]) semi[w] = semi[u];
+			}
+			bucketNext[w] = bucket[semi[w]];
+			bucket[semi[w]] = w;
+			int p = parent[w];
+			link(p, w, ancestor, label, semi, child, size);
+			/* Dominatori, anche solo provvisori, dei nodi con semidominatore p */
+			for (int v = bucket[p]; v != 0; v = bucketNext[v]) {
+				int u = eval(v, ancestor, label, semi, stack);
+				dom[v] = semi[u] < semi[v] ? u : p;
+			}
+			bucket[p] = 0;
+		}
+		for (int w = 2; w <= count; w++)
+			if (dom[w] != semi[w]) dom[w] = dom[dom[w]];
+
+		int[] idom = new int[n];
+		Arrays.fill(idom, -1);
+		idom[entry] = entry;
+		for (int w = 2; w <= count; w++) idom[vertex[w]] = vertex[dom[w]];
+		return idom;
+	}
+
+	/**
+	 * Ritorna il nodo con semidominatore minimo sul cammino della foresta
+	 * collegata da v alla sua radice, esclusa la radice. Gli array sono
+	 * quelli di {@link #lengauerTarjan(IndexedGraph, int)}.
+	 * @param v		numero del nodo
+	 * @return numero del nodo con semidominatore minimo
+	 */
+	private static int eval(int v, int[] ancestor, int[] label, int[] semi, int[] stack) {
+		if (ancestor[v] == 0) return label[v];
+		compress(v, ancestor, label, semi, stack);
+		return semi[label[ancestor[v]]] >= semi[label[v]] ? label[v] : label[ancestor[v]];
+	}
+
+	/**
+	 * Compressione dei cammini senza ricorsione: risale fino al nodo il cui
+	 * antenato è una radice, poi aggiorna etichette ed antenati scendendo.
+	 * Gli array sono quelli di {@link #lengauerTarjan(IndexedGraph, int)}.
+	 * @param v		numero del nodo
+	 */
+	private static void compress(int v, int[] ancestor, int[] label, int[] semi, int[] stack) {
+		int top = 0;
+		int x = v;
+		while (ancestor[ancestor[x]] != 0) {
+			stack[top++] = x;
+			x = ancestor[x];
+		}
+		while (top > 0) {
+			x = stack[--top];
+			int a = ancestor[x];
+			if (semi[label[a]] < semi[label[x]]) label[x] = label[a];
+			ancestor[x] = ancestor[a];
+		}
+	}
+
+	/**
+	 * Collega w, figlio di v nella foresta della visita, mantenendo gli
+	 * alberi bilanciati secondo le dimensioni dei sottoalberi. Gli array
+	 * sono quelli di {@link #lengauerTarjan(IndexedGraph, int)}.
+	 * @param v		numero del padre
+	 * @param w		numero del figlio
+	 */
+	private static void link(int v, int w, int[] ancestor, int[] label, int[] semi, int[] child, int[] size) {
+		int s = w;
+		while (semi[label[w]] < semi[label[child[s]]]) {
+			if (size[s] + size[child[child[s]]] >= 2 * size[child[s]]) {
+				ancestor[child[s]] = s;
+				child[s] = child[child[s]];
+			} else {
+				size[child[s]] = size[s];
+				s = ancestor[s] = child[s];
+			}
+		}
+		label[s] = label[w];
+		size[v] += size[w];
+		if (size[v] < 2 * size[w]) {
+			int t = s;
+			s = child[v];
+			child[v] = t;
+		}
+		while (s != 0) {
+			ancestor[s] = v;
+			s = child[s];
+		}
+	}
+
+	/**
+	 * Algoritmo iterativo di Cooper, Harvey e Kennedy: i nodi vengono
+	 * esaminati in ordine postordine inverso finché i dominatori non
+	 * cambiano più, ed il dominatore di un nodo è l'antenato comune dei suoi
+	 * predecessori già elaborati nell'albero provvisorio. Ogni passata costa
+	 * O(E) più la risalita degli alberi, che nel caso peggiore è lineare per
+	 * ogni arco.
+	 * @param graph		istantanea del grafo, diretta
+	 * @param entry		indice del nodo di ingresso
+	 * @return dominatori immediati indicizzati per nodo, come {@link #getImmediateDominators()}
+	 */
+	public static int[] iterativeDominators(IndexedGraph<?> graph, int entry) {
+		if (graph == null) throw new NullPointerException("Tentativo di analizzare un grafo null.");
+		checkArguments(graph, entry);
+		int n = graph.size();
+		/* Ordine postordine inverso: rpo[v] = 0 per l'ingresso, -1 per i nodi non raggiungibili */
+		int[] rpo = new int[n];
+		Arrays.fill(rpo, -1);
+		boolean[] visited = new boolean[n];
+		int[] nodes = new int[n];
+		int[] next = new int[n];
+		int[] order = new int[n];		/* Nodo con un dato numero postordine inverso */
+		int count = 0;
+		int post = 0;
+		int top = 0;
+		nodes[0] = entry;
+		next[0] = graph.outStart(entry);
+		visited[entry] = true;
+		while (top >= 0) {
+			int u = nodes[top];
+			if (next[top] == graph.outEnd(u)) {
+				order[post++] = u;
+				top--;
+				continue;
+			}
+			int v = graph.outTarget(next[top]++);
+			if (!visited[v]) {
+				visited[v] = true;
+				count++;
+				nodes[++top] = v;
+				next[top] = graph.outStart(v);
+			}
+		}
+		count++;
+		for (int k = 0; k < count; k++) {
+			int u = order[count - 1 - k];
+			rpo[u] = k;
+			nodes[k] = u;
+		}
+		/* Dominatori nello spazio dei numeri postordine inverso, -1 se non ancora noti */
+		int[] doms = new int[count];
+		Arrays.fill(doms, -1);
+		doms[0] = 0;
+		boolean changed = true;
+		while (changed) {
+			changed = false;
+			for (int b = 1; b < count; b++) {
+				int u = nodes[b];
+				int newIdom = -1;
+				for (int k = graph.inStart(u); k < graph.inEnd(u); k++) {
+					int p = rpo[graph.inTarget(k)];
+					if (p == -1 || doms[p] == -1) continue;
+					if (newIdom == -1) {
+						newIdom = p;
+						continue;
+					}
+					/* Antenato comune: risalgo dal nodo con numero maggiore */
+					int f1 = p;
+					int f2 = newIdom;
+					while (f1 != f2) {
+						while (f1 > f2) f1 = doms[f1];
+						while (f2 > f1) f2 = doms[f2];
+					}
+					newIdom = f1;
+				}
+				if (doms[b] != newIdom) {
+					doms[b] = newIdom;
+					changed = true;
+				}
+			}
+		}
+		int[] idom = new int[n];
+		Arrays.fill(idom, -1);
+		for (int b = 0; b < count; b++) idom[nodes[b]] = nodes[doms[b]];
+		return idom;
+	}
+
+	/**
+	 * Numera i nodi dell'albero dei dominatori in preordine e calcola la
+	 * dimensione dei sottoalberi, in modo che d domini v se e solo se il
+	 * numero di v cade nell'intervallo del sottoalbero di d.
+	 */
+	private void numberTree() {
+		int n = idom.length;
+		/* Figli di ogni nodo in formato CSR */
+		int[] offsets = new int[n + 1];
+		for (int v = 0; v < n; v++)
+			if (idom[v] != -1 && v != entry) offsets[idom[v] + 1]++;
+		for (int v = 0; v < n; v++) offsets[v + 1] += offsets[v];
+		int[] children = new int[offsets[n]];
+		int[] fill = Arrays.copyOf(offsets, n);
+		for (int v = 0; v < n; v++)
+			if (idom[v] != -1 && v != entry) children[fill[idom[v]]++] = v;
+		Arrays.fill(preorder, -1);
+		int[] stack = new int[n];
+		int[] cursor = new int[n];
+		int time = 0;
+		int top = 0;
+		stack[0] = entry;
+		cursor[0] = offsets[entry];
+		preorder[entry] = time++;
+		while (top >= 0) {
+			int u = stack[top];
+			if (cursor[top] == offsets[u + 1]) {
+				subtree[u] = time - preorder[u];
+				top--;
+				continue;
+			}
+			int v = children[cursor[top]++];
+			preorder[v] = time++;
+			stack[++top] = v;
+			cursor[top] = offsets[v];
+		}
+	}
+
+	/**
+	 * Ritorna l'istantanea su cui sono stati calcolati i dominatori.
+	 * @return istantanea del grafo
+	 */
+	public IndexedGraph<V> getGraph() {
+		return graph;
+	}
+
+	/**
+	 * Ritorna l'indice del nodo di ingresso.
+	 * @return indice dell'ingresso
+	 */
+	public int getEntry() {
+		return entry;
+	}
+
+	/**
+	 * Dice se un nodo è raggiungibile dall'ingresso.
+	 * @param i		indice del nodo
+	 * @return true se il nodo è raggiungibile
+	 */
+	public boolean isReachable(int i) {
+		return idom[i] != -1;
+	}
+
+	/**
+	 * Ritorna il dominatore immediato di un nodo.
+	 * @param i		indice del nodo
+	 * @return indice del dominatore immediato, l'ingresso stesso per
+	 * 		   l'ingresso, -1 se il nodo non è raggiungibile
+	 */
+	public int immediateDominator(int i) {
+		return idom[i];
+	}
+
+	/**
+	 * Ritorna il dominatore immediato di un nodo.
+	 * @param label		etichetta del nodo
+	 * @return etichetta del dominatore immediato, null per l'ingresso e per
+	 * 		   i nodi non raggiungibili
+	 */
+	public V immediateDominator(V label) {
+		int i = graph.indexOf(label);
+		return i == entry || idom[i] == -1 ? null : graph.labelAt(idom[i]);
+	}
+
+	/**
+	 * Ritorna i dominatori immediati di tutti i nodi.
+	 * @return array indicizzato per nodo con l'indice del dominatore
+	 * 		   immediato, l'ingresso stesso per l'ingresso, -1 per i nodi non
+	 * 		   raggiungibili
+	 */
+	public int[] getImmediateDominators() {
+		return idom.clone();
+	}
+
+	/**
+	 * Verifica in tempo costante se un nodo domina un altro; ogni nodo
+	 * raggiungibile domina sé stesso.
+	 * @param d		indice del possibile dominatore
+	 * @param v		indice del nodo
+	 * @return true se d domina v
+	 */
+	public boolean dominates(int d, int v) {
+		if (preorder[d] == -1 || preorder[v] == -1) return false;
+		return preorder[d] <= preorder[v] && preorder[v] < preorder[d] + subtree[d];
+	}
+
+	/**
+	 * Ritorna i dominatori di un nodo, dal nodo stesso all'ingresso.
+	 * @param i		indice del nodo
+	 * @return indici dei dominatori, vuoto se il nodo non è raggiungibile
+	 */
+	public int[] dominators(int i) {
+		if (idom[i] == -1) return new int[0];
+		int depth = 1;
+		for (int v = i; v != entry; v = idom[v]) depth++;
+		int[] result = new int[depth];
+		int k = 0;
+		for (int v = i; v != entry; v = idom[v]) result[k++] = v;
+		result[k] = entry;
+		return result;
+	}
+
+}
@@ -0,0 +1,166 @@
+import java.util.Arrays;
+import java.util.Random;
+
+public class DominatorTreeTest {
+
+	public static void main(String[] args) {
+
+		/* Grafo di esempio dell'articolo di Lengauer e Tarjan */
+		GraphMatrixDirected<String, Integer> g = new GraphMatrixDirected<String, Integer>();
+		String[] names = { "R", "A", "B", "C", "D", "E", "F", "G", "H", "I", "J", "K", "L", "U" };
+		for (String v : names) g.addNode(v);
+		String[] edges = { "RA", "RB", "RC", "AD", "BA", "BD", "BE", "CF", "CG", "DL", "EH", "FI", "GI", "GJ", "HE", "HK",
+				"IK", "JI", "KI", "KR", "LH", "UR" };
+		for (String e : edges) g.addEdge(e.substring(0, 1), e.substring(1), 0);
+		DominatorTree<String> tree = new DominatorTree<String>(g, "R");
+		StringBuilder idoms = new StringBuilder();
+		for (String v : names) idoms.append(v).append(':').append(tree.immediateDominator(v)).append(' ');
+		System.out.println("Dominatori immediati: " + idoms);
+		IndexedGraph<String> example = tree.getGraph();
+		int[] path = tree.dominators(example.indexOf("J"));
+		StringBuilder chain = new StringBuilder();
+		for (int v : path) chain.append(example.labelAt(v)).append(' ');
+		System.out.println("Dominatori di J: " + chain + ", C domina J: " + tree.dominates(example.indexOf("C"), example.indexOf("J"))
+				+ ", D domina H: " + tree.dominates(example.indexOf("D"), example.indexOf("H")) + ", U raggiungibile: "
+				+ tree.isReachable(example.indexOf("U")));
+		System.out.println("Cooper-Harvey-Kennedy: stessi dominatori "
+				+ Arrays.equals(tree.getImmediateDominators(), DominatorTree.iterativeDominators(example, example.indexOf("R"))));
+
+		/* Confronto con la definizione su grafi casuali piccoli */
+		Random random = new Random(42);
+		boolean same = true;
+		for (int round = 0; round < 200; round++) {
+			int n = 2 + random.nextInt(40);
+			ParallelGraphBuilder<Integer, Object> builder = new ParallelGraphBuilder<Integer, Object>();
+			for (int i = 0; i < n; i++) builder.addNode(i);
+			for (int k = random.nextInt(3 * n); k >= 0; k--) builder.addEdgeByIndex(random.nextInt(n), random.nextInt(n), null);
+			IndexedGraph<Integer> small = IndexedGraph.of(builder.build());
+			DominatorTree<Integer> t = new DominatorTree<Integer>(small, 0);
+			if (!Arrays.equals(t.getImmediateDominators(), DominatorTree.iterativeDominators(small, 0))) same = false;
+			for (int d = 0; d < n; d++) {
+				for (int v = 0; v < n; v++) {
+					boolean dominates = reach(small, 0, -1)[v] && (d == v || !reach(small, 0, d)[v]);
+					if (dominates != t.dominates(d, v)) same = false;
+				}
+			}
+		}
+		System.out.println("200 grafi casuali, confronto con la definizione e con Cooper-Harvey-Kennedy: " + same);
+
+		System.out.println();
+		System.out.println(" ----------------------------------------------------------");
+		System.out.println(" |    Grafi con un milione di nodi.                       |");
+		System.out.println(" ----------------------------------------------------------");
+		int n = 1000000;
+		compare("Casuale, 4 archi per nodo", random(n, random));
+		compare("Flusso di controllo, salti in avanti e cicli", controlFlow(n, random));
+		compare("Catena", ladder(n, false));
+		/* Ogni nodo della catena ha un arco verso l'ultimo: l'algoritmo iterativo risale la catena per ogni arco */
+		compare("Catena di 20000 nodi con archi verso l'ultimo", ladder(20000, true));
+	}
+
+	/**
+	 * Confronta i due algoritmi su un grafo, dopo un giro di riscaldamento.
+	 * @param name		descrizione del grafo
+	 * @param g			grafo
+	 */
+	private static void compare(String name, IndexedGraph<Integer> g) {
+		long lt = Long.MAX_VALUE;
+		long chk = Long.MAX_VALUE;
+		int[] a = null;
+		int[] b = null;
+		/* Il primo giro serve solo a scaldare il compilatore JIT */
+		for (int round = 0; round < 2; round++) {
+			long start = System.nanoTime();
+			a = new DominatorTree<Integer>(g, 0).getImmediateDominators();
+			lt = Math.min(lt, System.nanoTime() - start);
+			start = System.nanoTime();
+			b = DominatorTree.iterativeDominators(g, 0);
+			chk = Math.min(chk, System.nanoTime() - start);
+		}
+		int depth = 0;
+		for (int v = 0; v < g.size(); v++) {
+			int d = 0;
+			for (int u = v; a[u] != -1 && u != 0 && d < 100; u = a[u]) d++;
+			depth = Math.max(depth, d);
+		}
+		System.out.println(name + ": " + g.size() + " nodi, " + g.edgeCount() + " archi, profondità dell'albero "
+				+ (depth == 100 ? "almeno 100" : "" + depth));
+		System.out.println("  Lengauer-Tarjan: " + lt / 1000000 + " ms, Cooper-Harvey-Kennedy: " + chk / 1000000 + " ms, stessi dominatori: "
+				+ Arrays.equals(a, b));
+	}
+
+	/**
+	 * Nodi raggiungibili da un nodo evitando un altro nodo.
+	 * @param g			grafo
+	 * @param from		nodo di partenza
+	 * @param avoid		nodo da evitare, -1 per nessuno
+	 * @return nodi raggiungibili
+	 */
+	private static boolean[] reach(IndexedGraph<Integer> g, int from, int avoid) {
+		boolean[] seen = new boolean[g.size()];
+		if (from == avoid) return seen;
+		int[] stack = new int[g.size()];
+		int top = 0;
+		stack[top++] = from;
+		seen[from] = true;
+		while (top > 0) {
+			int u = stack[--top];
+			for (int k = g.outStart(u); k < g.outEnd(u); k++) {
+				int v = g.outTarget(k);
+				if (v != avoid && !seen[v]) {
+					seen[v] = true;
+					stack[top++] = v;
+				}
+			}
+		}
+		return seen;
+	}
+
+	/**
+	 * Grafo casuale con 4 archi uscenti per nodo.
+	 * @param n			numero di nodi
+	 * @param random	generatore
+	 * @return istantanea del grafo
+	 */
+	private static IndexedGraph<Integer> random(int n, Random random) {
+		ParallelGraphBuilder<Integer, Object> builder = new ParallelGraphBuilder<Integer, Object>();
+		for (int i = 0; i < n; i++) builder.addNode(i);
+		for (int i = 0; i < n; i++)
+			for (int k = 0; k < 4; k++) builder.addEdgeByIndex(i, random.nextInt(n), null);
+		return IndexedGraph.of(builder.build());
+	}
+
+	/**
+	 * Grafo simile ad un flusso di controllo: una sequenza di istruzioni con
+	 * salti in avanti brevi e, ogni tanto, un ritorno all'inizio di un ciclo.
+	 * @param n			numero di nodi
+	 * @param random	generatore
+	 * @return istantanea del grafo
+	 */
+	private static IndexedGraph<Integer> controlFlow(int n, Random random) {
+		ParallelGraphBuilder<Integer, Object> builder = new ParallelGraphBuilder<Integer, Object>();
+		for (int i = 0; i < n; i++) builder.addNode(i);
+		for (int i = 0; i + 1 < n; i++) {
+			builder.addEdgeByIndex(i, i + 1, null);
+			if (random.nextInt(4) == 0) builder.addEdgeByIndex(i, Math.min(n - 1, i + 2 + random.nextInt(20)), null);
+			if (random.nextInt(16) == 0) builder.addEdgeByIndex(i, Math.max(0, i - 1 - random.nextInt(100)), null);
+		}
+		return IndexedGraph.of(builder.build());
+	}
+
+	/**
+	 * Catena 0 -> 1 -> ... -> n - 1, eventualmente con un arco da ogni nodo all'ultimo.
+	 * @param n			numero di nodi
+	 * @param toLast	true per aggiungere gli archi verso l'ultimo nodo
+	 * @return istantanea del grafo
+	 */
+	private static IndexedGraph<Integer> ladder(int n, boolean toLast) {
+		ParallelGraphBuilder<Integer, Object> builder = new ParallelGraphBuilder<Integer, Object>();
+		for (int i = 0; i < n; i++) builder.addNode(i);
+		for (int i = 0; i + 1 < n; i++) builder.addEdgeByIndex(i, i + 1, null);
+		if (toLast)
+			for (int i = 0; i + 2 < n; i++) builder.addEdgeByIndex(i, n - 1, null);
+		return IndexedGraph.of(builder.build());
+	}
+
+}
@@ -0,0 +1,147 @@
+import java.util.HashSet;
+import java.util.Set;
+import java.util.function.Predicate;
+
+/**
+ * Vista con tutti i nodi del grafo sottostante e soltanto gli archi che
+ * soddisfano un predicato, ad esempio gli archi con peso superiore ad una
+ * soglia. Il predicato viene valutato ad ogni richiesta, per cui deve
+ * dipendere solo dall'arco.
+ */
+public class FilteredGraph<V, E> extends GraphView<V, E> {
+
+	/* Predicato che decide quali archi sono visibili */
+	private final Predicate<Edge<V, E>> filter;
+
+	/**
+	 * Costruttore della vista filtrata.
+	 * @param graph		grafo sottostante, diretto
+	 * @param filter	predicato vero per gli archi visibili
+	 */
+	public FilteredGraph(Graph<V, E> graph, Predicate<Edge<V, E>> filter) {
+		super(graph);
+		if (filter == null) throw new NullPointerException("Predicato null.");
+		this.filter = filter;
+	}
+
+	/**
+	 * Seleziona gli archi visibili di un insieme.
+	 * @param edges		archi del grafo sottostante
+	 * @return archi che soddisfano il predicato
+	 */
+	private Set<Edge<V, E>> accepted(Set<Edge<V, E>> edges) {
+		Set<Edge<V, E>> result = new HashSet<Edge<V, E>>();
+		for (Edge<V, E> e : edges)
+			if (filter.test(e)) result.add(e);
+		return result;
+	}
+
+	/**
+	 * Ritorna il numero di nodi.
+	 * @return numero di nodi del grafo sottostante
+	 */
+	@Override
+	public int size() {
+		return graph.size();
+	}
+
+	/**
+	 * Verifica la presenza di un nodo.
+	 * @param label		etichetta del nodo
+	 * @return true se il nodo è presente
+	 */
+	@Override
+	public boolean containsNode(V label) {
+		return graph.containsNode(label);
+	}
+
+	/**
+	 * Ritorna l'indice di un nodo, lo stesso del grafo sottostante.
+	 * @param label		etichetta del nodo
+	 * @return indice del nodo
+	 */
+	@Override
+	public int getNodeIndex(V label) {
+		int i = graph.getNodeIndex(label);
+		if (i == -1) throw new IllegalArgumentException("Il nodo " + label + " non è presente nel grafo.");
+		return i;
+	}
+
+	/**
+	 * Restituisce il nodo all'indice i.
+	 * @param i		indice del nodo
+	 * @return etichetta del nodo
+	 */
+	@Override
+	public V getNodeAtIndex(int i) {
+		return graph.getNodeAtIndex(i);
+	}
+
+	/**
+	 * Ritorna le destinazioni degli archi uscenti visibili.
+	 * @param label		etichetta del nodo
+	 * @return insieme dei successori
+	 */
+	@Override
+	public Set<V> successors(V label) {
+		Set<V> nodes = new HashSet<V>();
+		for (Edge<V, E> e : outgoingEdges(label)) nodes.add(e.getLabel2());
+		return nodes;
+	}
+
+	/**
+	 * Ritorna le sorgenti degli archi entranti visibili.
+	 * @param label		etichetta del nodo
+	 * @return insieme dei predecessori
+	 */
+	@Override
+	public Set<V> predecessors(V label) {
+		Set<V> nodes = new HashSet<V>();
+		for (Edge<V, E> e : ingoingEdges(label)) nodes.add(e.getLabel1());
+		return nodes;
+	}
+
+	/**
+	 * Verifica la presenza di un arco visibile.
+	 * @param label1		etichetta del nodo sorgente
+	 * @param label2		etichetta del nodo destinazione
+	 * @param label			etichetta dell'arco
+	 * @return true se l'arco è presente e soddisfa il predicato
+	 */
+	@Override
+	public boolean containsEdge(V label1, V label2, E label) {
+		return graph.containsEdge(label1, label2, label) && filter.test(new Edge<V, E>(label1, label2, label, true));
+	}
+
+	/**
+	 * Restituisce gli archi visibili tra due nodi.
+	 * @param label1		etichetta del nodo sorgente
+	 * @param label2		etichetta del nodo destinazione
+	 * @return insieme degli archi
+	 */
+	@Override
+	public Set<Edge<V, E>> getEdges(V label1, V label2) {
+		return accepted(graph.getEdges(label1, label2));
+	}
+
+	/**
+	 * Restituisce gli archi uscenti visibili.
+	 * @param label		etichetta del nodo
+	 * @return insieme degli archi uscenti
+	 */
+	@Override
+	public Set<Edge<V, E>> outgoingEdges(V label) {
+		return accepted(graph.outgoingEdges(label));
+	}
+
+	/**
+	 * Restituisce gli archi entranti visibili.
+	 * @param label		etichetta del nodo
+	 * @return insieme degli archi entranti
+	 */
+	@Override
+	public Set<Edge<V, E>> ingoingEdges(V label) {
+		return accepted(graph.ingoingEdges(label));
+	}
+
+}
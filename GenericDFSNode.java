@@ -8,7 +8,7 @@ public interface GenericDFSNode {
     public void setTimeDiscovered(int time);
     
     /**
-     * Ritorna il tempo discreto in cui  stato scoperto un nodo.
+     * Ritorna il tempo discreto in cui è stato scoperto un nodo.
      * @return time			tempo di scoperta del nodo
      */
     public int getTimeDiscovered();
@@ -20,7 +20,7 @@ public interface GenericDFSNode {
     public void setTimeExplored(int time);
     
     /**
-     * Ritorna il tempo discreto in cui  stato esplorato un nodo.
+     * Ritorna il tempo discreto in cui è stato esplorato un nodo.
      * @return time			tempo di esplorazione del nodo
      */
     public int getTimeExplored();
@@ -1,6 +1,11 @@
+import java.lang.ref.WeakReference;
+import java.util.Arrays;
+import java.util.Comparator;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
 
 public class GenericGraphDFS<V extends GenericDFSNode, E> {
 
@@ -9,10 +14,145 @@ public class GenericGraphDFS<V extends GenericDFSNode, E> {
 	 * un nodo viene scoperto e completamente esplorato. 
 	 */
 	private int time = 0;
+
+	/*
+	 * Se true la visita è deterministica: il tempo riparte da zero ad ogni
+	 * DFS, le radici sono considerate in ordine di indice ed i successori di
+	 * ogni nodo in ordine crescente di indice, invece che nell'ordine dei
+	 * set restituiti dal grafo, che dipende dai codici hash dei nodi.
+	 */
+	private boolean deterministic = false;
+
+	/* Metriche della visita, null se non attive */
+	private DFSMetrics metrics = null;
+
+	/*
+	 * Profondità corrente e massima della visita in corso, misurate solo
+	 * quando trackDepth è true, cioè quando l'evento DFSRunEvent di Java
+	 * Flight Recorder è attivo.
+	 */
+	private boolean trackDepth = false;
+	private int depth;
+	private int maxDepth;
+
+	/**
+	 * Ordini dei successori in base al peso degli archi.
+	 */
+	public enum WeightOrder {
+		/** Prima l'arco di peso minore. */
+		ASCENDING,
+		/** Prima l'arco di peso maggiore. */
+		DESCENDING
+	}
+
+	/* Ordine dei successori per peso, null per non usarlo */
+	private WeightOrder weightOrder = null;
+
+	/*
+	 * Adiacenze ordinate per peso dell'ultimo grafo visitato con un ordine
+	 * per peso, riutilizzate finché grafo, versione ed ordine non cambiano.
+	 * Il grafo è tenuto con un riferimento debole, per non impedirne la
+	 * raccolta quando chi lo usa lo rilascia.
+	 */
+	private WeakReference<Graph<V, E>> sortedGraph;
+	private long sortedVersion;
+	private WeightOrder sortedOrder;
+	private int[] sortedOffsets;
+	private int[] sortedTargets;
+
+	/* Colori della visita per peso, indicizzati come i nodi */
+	private int[] weightColors;
+
+	/**
+	 * Costruttore della visita nella modalità normale.
+	 */
+	public GenericGraphDFS() {
+	}
+
+	/**
+	 * Costruttore che permette di scegliere la modalità deterministica: due
+	 * grafi con gli stessi nodi inseriti nello stesso ordine e gli stessi
+	 * archi producono sempre gli stessi tempi di scoperta e di esplorazione,
+	 * che coincidono con quelli di {@link DFSIntervalIndex#build(Graph)}.
+	 * @param deterministic		true per la modalità deterministica
+	 */
+	public GenericGraphDFS(boolean deterministic) {
+		this.deterministic = deterministic;
+	}
+
+	/**
+	 * Imposta la modalità deterministica.
+	 * @param deterministic		true per la modalità deterministica
+	 */
+	public void setDeterministic(boolean deterministic) {
+		this.deterministic = deterministic;
+	}
+
+	/**
+	 * Dice se la visita è in modalità deterministica.
+	 * @return true se la visita è deterministica
+	 */
+	public boolean isDeterministic() {
+		return deterministic;
+	}
+
+	/**
+	 * Imposta l'ordine dei successori per peso degli archi. Se l'ordine non
+	 * è null la visita è deterministica come con {@link #setDeterministic(boolean)}
+	 * (tempo azzerato, radici in ordine di indice) ma i successori di ogni
+	 * nodo sono visitati in ordine di peso dell'arco che li collega, a
+	 * parità di peso in ordine di indice.
+	 *
+	 * Il peso di un arco è {@link Weight#getWeight()} se l'etichetta
+	 * implementa {@link Weight}, altrimenti l'etichetta stessa. I pesi
+	 * numerici sono confrontati come double, gli altri devono essere
+	 * {@link Comparable}. Gli archi senza peso (etichetta o peso null) sono
+	 * visitati per ultimi in entrambi gli ordini. Se tra due nodi ci sono
+	 * più archi conta quello che viene prima nell'ordine scelto.
+	 *
+	 * Le adiacenze ordinate vengono calcolate alla prima visita di un grafo
+	 * e riutilizzate finché la versione del grafo ({@link Graph#getVersion()})
+	 * non cambia. La visita non trattiene il grafo, ma conserva le adiacenze
+	 * dell'ultimo grafo visitato fino alla visita per peso successiva;
+	 * disattivando l'ordine per peso vengono rilasciate.
+	 * @param weightOrder		ordine dei successori, null per disattivarlo
+	 */
+	public void setWeightOrder(WeightOrder weightOrder) {
+		this.weightOrder = weightOrder;
+		if (weightOrder == null) {
+			sortedGraph = null;
+			sortedOffsets = null;
+			sortedTargets = null;
+		}
+	}
+
+	/**
+	 * Ritorna l'ordine dei successori per peso degli archi.
+	 * @return ordine dei successori, null se non attivo
+	 */
+	public WeightOrder getWeightOrder() {
+		return weightOrder;
+	}
+
+	/**
+	 * Attiva o disattiva la raccolta delle metriche delle visite successive.
+	 * @param metrics		metriche da aggiornare, null per disattivarle
+	 */
+	public void setMetrics(DFSMetrics metrics) {
+		this.metrics = metrics;
+	}
+
+	/**
+	 * Ritorna le metriche aggiornate dalle visite.
+	 * @return metriche, null se non attive
+	 */
+	public DFSMetrics getMetrics() {
+		return metrics;
+	}
 	
 	/**
 	 * La strategia adottata da questo algoritmo di visita consiste nel visitare il
-	 * grafo in profondit.
+	 * grafo in profondità.
 	 * Si comincia con il visitare un nodo qualsiasi che viene marcato come
 	 * scoperto, ovvero con il colore grigio.
 	 * La visita prosegue ispezionando tutti gli archi uscenti dal nodo corrente 
@@ -24,6 +164,26 @@ public class GenericGraphDFS<V extends GenericDFSNode, E> {
 	 * @param g grafo
 	 */
 	 public void DFS(Graph<V, E> g) {
+		 	DFSRunEvent event = new DFSRunEvent();
+		 	event.begin();
+		 	trackDepth = event.isEnabled();
+		 	depth = 0;
+		 	maxDepth = 0;
+		 	long start = metrics == null ? 0 : System.nanoTime();
+		 	if (weightOrder != null) DFSByWeight(g, start);
+		 	else if (deterministic) DFSByIndex(g, start);
+		 	else DFSBySet(g, start);
+		 	trackDepth = false;
+		 	event.commit(g, weightOrder != null ? DFSRunEvent.WEIGHTED
+		 			: deterministic ? DFSRunEvent.DETERMINISTIC : DFSRunEvent.SEQUENTIAL, maxDepth);
+	 }
+
+	/**
+	 * Visita normale: radici e successori nell'ordine dei set restituiti dal grafo.
+	 * @param g			grafo
+	 * @param start		inizio della visita, per le metriche
+	 */
+	 private void DFSBySet(Graph<V, E> g, long start) {
 		 	/* Creo un set contenente i nodi del grafo */
 			Set<V> nodes = g.getNodes();
 			/* Creo un iteratore per scorrere i nodi */
@@ -34,17 +194,398 @@ public class GenericGraphDFS<V extends GenericDFSNode, E> {
 	        	g.setColor(n, Graph.COLOR_WHITE);
 	        	n.setFather(null);		/* Pongo il padre di ogni nodo a null */
 	        }
+	        if (metrics != null) start = endInit(nodes.size(), start);
      
 		   it = nodes.iterator();		/* Azzero l'iteratore */
 		   while(it.hasNext()) {		/* Scorro nuovamente i nodi */
 			   V app = it.next();
-			   /* Se il colore del nodo  bianco lo visito */
+			   if (metrics != null) metrics.colorLookups++;
+			   /* Se il colore del nodo è bianco lo visito */
 			   if(g.getColor(app) == Graph.COLOR_WHITE) {	
 				   DFSVisit(g, app);
 			   }
 		   }
+		   if (metrics != null) endVisit(start);
 	 }
+
+	/**
+	 * Registra la fine della fase di inizializzazione.
+	 * @param nodes		numero di nodi colorati di bianco
+	 * @param start		inizio della fase
+	 * @return inizio della fase di visita
+	 */
+	private long endInit(int nodes, long start) {
+		long now = System.nanoTime();
+		metrics.colorLookups += nodes;
+		metrics.initNanos += now - start;
+		return now;
+	}
+
+	/**
+	 * Registra la fine della fase di visita.
+	 * @param start		inizio della fase
+	 */
+	private void endVisit(long start) {
+		metrics.visitNanos += System.nanoTime() - start;
+		metrics.runs++;
+	}
 	 
+	/**
+	 * Visita deterministica: tempo azzerato e radici in ordine di indice.
+	 * @param g			grafo
+	 * @param start		inizio della visita, per le metriche
+	 */
+	private void DFSByIndex(Graph<V, E> g, long start) {
+		time = 0;
+		if (g instanceof GraphMatrixDirected) {
+			DFSByIndex((GraphMatrixDirected<V, E>) g, start);
+			return;
+		}
+		for (int i = 0; i < g.size(); i++) {
+			V n = g.getNodeAtIndex(i);
+			g.setColor(n, Graph.COLOR_WHITE);
+			n.setFather(null);
+		}
+		if (metrics != null) {
+			metrics.indexLookups += g.size();
+			start = endInit(g.size(), start);
+		}
+		for (int i = 0; i < g.size(); i++) {
+			V n = g.getNodeAtIndex(i);
+			if (metrics != null) {
+				metrics.indexLookups++;
+				metrics.colorLookups++;
+			}
+			if (g.getColor(n) == Graph.COLOR_WHITE) DFSVisit(g, n);
+		}
+		if (metrics != null) endVisit(start);
+	}
+
+	/**
+	 * Visita deterministica sulla matrice di adiacenza: nodi, colori e
+	 * successori sono trattati per indice, senza calcolare codici hash
+	 * delle etichette; i tempi sono gli stessi della visita per etichetta.
+	 * @param g			grafo
+	 * @param start		inizio della visita, per le metriche
+	 */
+	private void DFSByIndex(GraphMatrixDirected<V, E> g, long start) {
+		for (int i = 0; i < g.size(); i++) {
+			g.setColorByIndex(i, Graph.COLOR_WHITE);
+			g.getNodeAtIndex(i).setFather(null);
+		}
+		if (metrics != null) start = endInit(g.size(), start);
+		for (int i = 0; i < g.size(); i++) {
+			if (metrics != null) metrics.colorLookups++;
+			if (g.getColorByIndex(i) == Graph.COLOR_WHITE) DFSVisitByIndex(g, i);
+		}
+		if (metrics != null) endVisit(start);
+	}
+
+	/**
+	 * Visita tutti i nodi raggiungibili dal nodo di indice s, scorrendo i
+	 * successori in ordine di indice.
+	 * @param g		grafo
+	 * @param s		indice del nodo da visitare
+	 */
+	private void DFSVisitByIndex(GraphMatrixDirected<V, E> g, int s) {
+		V node = g.getNodeAtIndex(s);
+		g.setColorByIndex(s, Graph.COLOR_GREY);
+		time = time + 1;
+		node.setTimeDiscovered(time);
+		if (trackDepth && ++depth > maxDepth) maxDepth = depth;
+		if (metrics != null) {
+			metrics.enter();
+			metrics.nodesDiscovered++;
+			metrics.colorLookups++;
+			metrics.adjacencyLookups++;
+		}
+		for (int j = g.nextSuccessorIndex(s, 0); j != -1; j = g.nextSuccessorIndex(s, j + 1)) {
+			if (metrics != null) {
+				metrics.edgesExamined++;
+				metrics.colorLookups++;
+			}
+			if (g.getColorByIndex(j) == Graph.COLOR_WHITE) {
+				g.getNodeAtIndex(j).setFather(node);
+				DFSVisitByIndex(g, j);
+			}
+		}
+		g.setColorByIndex(s, Graph.COLOR_BLACK);
+		time = time + 1;
+		node.setTimeExplored(time);
+		if (trackDepth) depth--;
+		if (metrics != null) {
+			metrics.colorLookups++;
+			metrics.exit();
+		}
+	}
+
+	/**
+	 * Visita con i successori in ordine di peso: tempo azzerato, radici in
+	 * ordine di indice, colori in un array durante la visita e scritti nel
+	 * grafo alla fine.
+	 * @param g			grafo
+	 * @param start		inizio della visita, per le metriche
+	 */
+	private void DFSByWeight(Graph<V, E> g, long start) {
+		time = 0;
+		sortAdjacency(g);
+		int n = g.size();
+		weightColors = new int[n];
+		for (int i = 0; i < n; i++) g.getNodeAtIndex(i).setFather(null);
+		if (metrics != null) {
+			metrics.indexLookups += n;
+			start = endInit(0, start);
+		}
+		for (int i = 0; i < n; i++) {
+			if (metrics != null) metrics.colorLookups++;
+			if (weightColors[i] == Graph.COLOR_WHITE) DFSVisitByWeight(g, i);
+		}
+		for (int i = 0; i < n; i++) g.setColor(g.getNodeAtIndex(i), Graph.COLOR_BLACK);
+		weightColors = null;
+		if (metrics != null) {
+			metrics.indexLookups += 2 * n;
+			metrics.colorLookups += n;
+			endVisit(start);
+		}
+	}
+
+	/**
+	 * Visita tutti i nodi raggiungibili dal nodo di indice s seguendo le
+	 * adiacenze ordinate per peso.
+	 * @param g		grafo
+	 * @param s		indice del nodo da visitare
+	 */
+	private void DFSVisitByWeight(Graph<V, E> g, int s) {
+		V node = g.getNodeAtIndex(s);
+		weightColors[s] = Graph.COLOR_GREY;
+		time = time + 1;
+		node.setTimeDiscovered(time);
+		if (trackDepth && ++depth > maxDepth) maxDepth = depth;
+		if (metrics != null) {
+			metrics.enter();
+			metrics.nodesDiscovered++;
+			metrics.colorLookups++;
+			metrics.indexLookups++;
+		}
+		for (int k = sortedOffsets[s]; k < sortedOffsets[s + 1]; k++) {
+			int j = sortedTargets[k];
+			if (metrics != null) {
+				metrics.edgesExamined++;
+				metrics.colorLookups++;
+			}
+			if (weightColors[j] == Graph.COLOR_WHITE) {
+				g.getNodeAtIndex(j).setFather(node);
+				if (metrics != null) metrics.indexLookups++;
+				DFSVisitByWeight(g, j);
+			}
+		}
+		weightColors[s] = Graph.COLOR_BLACK;
+		time = time + 1;
+		node.setTimeExplored(time);
+		if (trackDepth) depth--;
+		if (metrics != null) {
+			metrics.colorLookups++;
+			metrics.exit();
+		}
+	}
+
+	/**
+	 * Calcola le adiacenze del grafo ordinate per peso, se non sono già
+	 * state calcolate per la stessa versione del grafo e lo stesso ordine.
+	 * Per ogni nodo gli archi vengono ordinati una volta sola; se più
+	 * archi portano allo stesso nodo resta il primo.
+	 * @param g		grafo
+	 */
+	private void sortAdjacency(Graph<V, E> g) {
+		if (sortedGraph != null && g == sortedGraph.get() && g.getVersion() == sortedVersion && weightOrder == sortedOrder) return;
+		if (metrics != null) metrics.adjacencyLookups += g.size();
+		int n = g.size();
+		int[] offsets = new int[n + 1];
+		int[] targets = new int[16];
+		int count = 0;
+		/* Per ogni nodo, l'ultimo nodo (più uno) da cui è stato raggiunto */
+		int[] seen = new int[n];
+		final boolean descending = weightOrder == WeightOrder.DESCENDING;
+		for (int i = 0; i < n; i++) {
+			V label = g.getNodeAtIndex(i);
+			Set<Edge<V, E>> edges = g.isDirected() ? g.outgoingEdges(label) : g.getEdges(label);
+			final int[] other = new int[edges.size()];
+			final Object[] weights = new Object[edges.size()];
+			Integer[] order = new Integer[edges.size()];
+			int k = 0;
+			for (Edge<V, E> e : edges) {
+				V target = g.isDirected() || !e.getLabel2().equals(label) ? e.getLabel2() : e.getLabel1();
+				other[k] = g.getNodeIndex(target);
+				weights[k] = weightOf(e.getLabel());
+				order[k] = k;
+				k++;
+			}
+			Arrays.sort(order, new Comparator<Integer>() {
+				@Override
+				public int compare(Integer k1, Integer k2) {
+					int c = compareWeights(weights[k1], weights[k2], descending);
+					return c != 0 ? c : Integer.compare(other[k1], other[k2]);
+				}
+			});
+			if (count + order.length > targets.length) targets = Arrays.copyOf(targets, Math.max(2 * targets.length, count + order.length));
+			for (int q = 0; q < order.length; q++) {
+				/* Tengo solo il primo arco verso ogni nodo */
+				int j = other[order[q]];
+				if (seen[j] != i + 1) {
+					seen[j] = i + 1;
+					targets[count++] = j;
+				}
+			}
+			offsets[i + 1] = count;
+		}
+		sortedGraph = new WeakReference<Graph<V, E>>(g);
+		sortedVersion = g.getVersion();
+		sortedOrder = weightOrder;
+		sortedOffsets = offsets;
+		sortedTargets = targets;
+	}
+
+	/**
+	 * Ritorna il peso di un'etichetta di arco.
+	 * @param label		etichetta dell'arco
+	 * @return peso dell'arco, null se l'arco non ha peso
+	 */
+	private static Object weightOf(Object label) {
+		return label instanceof Weight ? ((Weight<?>) label).getWeight() : label;
+	}
+
+	/**
+	 * Confronta due pesi: i numeri come double, gli altri con compareTo;
+	 * i pesi null vengono dopo tutti gli altri in entrambi gli ordini.
+	 * @param w1			primo peso
+	 * @param w2			secondo peso
+	 * @param descending	true per l'ordine decrescente
+	 * @return negativo se w1 viene prima di w2, positivo se dopo, 0 se pari
+	 * @throws IllegalArgumentException se i pesi non sono confrontabili
+	 */
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	private static int compareWeights(Object w1, Object w2, boolean descending) {
+		if (w1 == null || w2 == null) return w1 == null ? (w2 == null ? 0 : 1) : -1;
+		int c;
+		if (w1 instanceof Number && w2 instanceof Number) c = Double.compare(((Number) w1).doubleValue(), ((Number) w2).doubleValue());
+		else if (w1 instanceof Comparable) {
+			try {
+				c = ((Comparable) w1).compareTo(w2);
+			} catch (ClassCastException e) {
+				throw new IllegalArgumentException("I pesi " + w1 + " e " + w2 + " non sono confrontabili.");
+			}
+		} else throw new IllegalArgumentException("Il peso " + w1 + " non è confrontabile.");
+		return descending ? -c : c;
+	}
+
+	/**
+	 * Ordina un insieme di nodi per indice crescente nel grafo.
+	 * @param g			grafo
+	 * @param nodes		nodi da ordinare
+	 * @return lista dei nodi ordinata per indice
+	 */
+	private List<V> sortByIndex(final Graph<V, E> g, Set<V> nodes) {
+		@SuppressWarnings("unchecked")
+		V[] sorted = (V[]) nodes.toArray(new GenericDFSNode[nodes.size()]);
+		Arrays.sort(sorted, new Comparator<V>() {
+			@Override
+			public int compare(V n1, V n2) {
+				if (metrics != null) metrics.indexLookups += 2;
+				return Integer.compare(g.getNodeIndex(n1), g.getNodeIndex(n2));
+			}
+		});
+		return Arrays.asList(sorted);
+	}
+
+	/**
+	 * Visita in profondità di tutto il grafo eseguita in parallelo.
+	 * I nodi vengono prima divisi nelle componenti debolmente connesse con una
+	 * struttura union-find; gli alberi di componenti diverse sono
+	 * indipendenti e vengono costruiti da compiti distinti di un pool
+	 * fork/join, che si distribuiscono il lavoro per work stealing. Durante
+	 * la visita tempi, padri e colori sono tenuti in array indicizzati per
+	 * nodo; al termine vengono scritti nei nodi ed i nodi sono colorati di
+	 * nero, come dopo {@link #DFS(Graph)}.
+	 *
+	 * Ogni componente usa un proprio blocco di tempi, per cui i tempi sono
+	 * coerenti all'interno di ogni albero e gli intervalli di alberi diversi
+	 * sono disgiunti. Radici e successori sono considerati in ordine di
+	 * indice. Usa il pool comune.
+	 * @param g			grafo
+	 * @return l'indice della foresta costruita, con i tempi in array di interi
+	 */
+	public DFSIntervalIndex<V> DFSParallel(Graph<V, E> g) {
+		return DFSParallel(g, ForkJoinPool.commonPool());
+	}
+
+	/**
+	 * Come {@link #DFSParallel(Graph)}, con un pool di thread dato.
+	 * @param g			grafo
+	 * @param pool		pool di thread da usare
+	 * @return l'indice della foresta costruita
+	 */
+	public DFSIntervalIndex<V> DFSParallel(Graph<V, E> g, ForkJoinPool pool) {
+		DFSRunEvent event = new DFSRunEvent();
+		event.begin();
+		long start = metrics == null ? 0 : System.nanoTime();
+		IndexedGraph<V> graph = IndexedGraph.of(g);
+		if (metrics != null) {
+			/* L'istantanea legge una volta le adiacenze e gli indici di ogni nodo */
+			metrics.adjacencyLookups += g.isDirected() ? 2 * graph.size() : graph.size();
+			metrics.indexLookups += graph.size();
+			start = endInit(0, start);
+		}
+		DFSIntervalIndex<V> forest = DFSIntervalIndex.buildParallel(graph, pool);
+		if (metrics != null) {
+			long now = System.nanoTime();
+			metrics.visitNanos += now - start;
+			metrics.runs++;
+			metrics.nodesDiscovered += graph.size();
+			metrics.edgesExamined += graph.edgeCount();
+			start = now;
+		}
+		/* Scrivo i risultati nei nodi */
+		for (int i = 0; i < graph.size(); i++) {
+			V n = graph.labelAt(i);
+			n.setTimeDiscovered(forest.getTimeDiscovered(i));
+			n.setTimeExplored(forest.getTimeExplored(i));
+			int f = forest.getFather(i);
+			n.setFather(f == -1 ? null : graph.labelAt(f));
+			g.setColor(n, Graph.COLOR_BLACK);
+		}
+		if (metrics != null) {
+			metrics.colorLookups += graph.size();
+			metrics.writeBackNanos += System.nanoTime() - start;
+		}
+		if (event.isEnabled()) event.commit(g, DFSRunEvent.PARALLEL, maxDepth(forest));
+		return forest;
+	}
+
+	/**
+	 * Calcola la profondità massima di una foresta risalendo i padri; la
+	 * profondità di ogni nodo viene calcolata una sola volta.
+	 * @param forest		foresta
+	 * @return massimo numero di nodi su un cammino da una radice, 0 se la foresta è vuota
+	 */
+	private static int maxDepth(DFSIntervalIndex<?> forest) {
+		int[] levels = new int[forest.size()];
+		int[] path = new int[forest.size()];
+		int max = 0;
+		for (int i = 0; i < levels.length; i++) {
+			/* Risalgo fino ad una radice o ad un nodo di cui conosco già la profondità */
+			int length = 0;
+			int u = i;
+			while (u != -1 && levels[u] == 0) {
+				path[length++] = u;
+				u = forest.getFather(u);
+			}
+			int level = u == -1 ? 0 : levels[u];
+			while (length > 0) levels[path[--length]] = ++level;
+			if (levels[i] > max) max = levels[i];
+		}
+		return max;
+	}
+
 	/**
 	 * Visita tutti i nodi raggiungibili da s.
 	 * @param g		grafo
@@ -53,16 +594,29 @@ public class GenericGraphDFS<V extends GenericDFSNode, E> {
 	public void DFSVisit(Graph<V, E> g, V s) {
 		/* Creo un set per i nodi successori di s */
 		Set<V> succ = new HashSet<V>();
-		g.setColor(s, Graph.COLOR_GREY);	/* Coloro s di grigio in quanto  stato scoperto */
+		g.setColor(s, Graph.COLOR_GREY);	/* Coloro s di grigio in quanto è stato scoperto */
 	    time = time + 1;		/* Incremento il tempo discreto */
-	    s.setTimeDiscovered(time); 		/* Imposto il tempo in cui  stato scoperto s */
+	    s.setTimeDiscovered(time); 		/* Imposto il tempo in cui è stato scoperto s */
+	    if (trackDepth && ++depth > maxDepth) maxDepth = depth;
+	    if (metrics != null) {
+	    	metrics.enter();
+	    	metrics.nodesDiscovered++;
+	    	metrics.colorLookups++;
+	    	metrics.adjacencyLookups++;
+	    }
 		if(g.isDirected())  {
-			 succ = g.successors(s);	/* Se il grafo  orientato cerco i successori di s */
+			 succ = g.successors(s);	/* Se il grafo è orientato cerco i successori di s */
 		}
 		else {
-			 succ = g.neighbors(s);		/* Se invece non  orientato i suoi adiacenti */
+			 succ = g.neighbors(s);		/* Se invece non è orientato i suoi adiacenti */
 		}
-		for(V successor : succ) {
+		/* In modalità deterministica scorro i successori in ordine di indice */
+		Iterable<V> ordered = deterministic ? sortByIndex(g, succ) : succ;
+		for(V successor : ordered) {
+			if (metrics != null) {
+				metrics.edgesExamined++;
+				metrics.colorLookups++;
+			}
 			if(g.getColor(successor) == Graph.COLOR_WHITE) {		/* Controllo che il colore dei successori sia bianco */
 				 successor.setFather(s);		/* Imposto il padre */
 				 DFSVisit(g,successor);			/* Visito i successori */
@@ -70,7 +624,12 @@ public class GenericGraphDFS<V extends GenericDFSNode, E> {
 		}
 		g.setColor(s, Graph.COLOR_BLACK); 		/* Imposto il colore di s come nero */
 		time = time + 1;        /* Incremento il tempo discreto */
-		s.setTimeExplored(time);	 		/* Imposto il tempo in cui  stato esplorato */
+		s.setTimeExplored(time);	 		/* Imposto il tempo in cui è stato esplorato */
+		if (trackDepth) depth--;
+		if (metrics != null) {
+			metrics.colorLookups++;
+			metrics.exit();
+		}
 	}
 	
 }
\ No newline at end of file
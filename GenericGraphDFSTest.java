@@ -1,5 +1,17 @@
+import java.lang.management.ManagementFactory;
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
 import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
 
 public class GenericGraphDFSTest {
 
@@ -35,7 +47,7 @@ public class GenericGraphDFSTest {
         System.out.println("Grafo: ");
         System.out.print(g);
         GenericGraphDFS<NodeDFS, WeighedEdge<Double>> dfsAlgorithm = new GenericGraphDFS<NodeDFS, WeighedEdge<Double>>();
-        dfsAlgorithm.DFS(g);		/* Eseguo la visita in profondit */
+        dfsAlgorithm.DFS(g);		/* Eseguo la visita in profondità */
         System.out.println();
         System.out.println("Depth first search: ");
         /* Stampo i nodi con i relativi tempi di scoperta e esplorazione */
@@ -45,6 +57,211 @@ public class GenericGraphDFSTest {
  		   NodeDFS s = it.next();
  		   System.out.print(s.printNodeTime());
  	    }
+
+ 	    /* Visita parallela: stessi alberi, un blocco di tempi per componente */
+ 	    System.out.println();
+ 	    System.out.println("Parallel depth first search: ");
+ 	    ForkJoinPool pool = new ForkJoinPool(4);
+ 	    dfsAlgorithm.DFSParallel(g, pool);
+ 	    for (int i = 0; i < g.size(); i++) {
+ 	    	NodeDFS s = g.getNodeAtIndex(i);
+ 	    	System.out.print(s.printNodeTime());
+ 	    }
+
+ 	    /* Grafo con molte componenti indipendenti */
+ 	    System.out.println();
+ 	    ParallelGraphBuilder<NodeDFS, WeighedEdge<Double>> builder = new ParallelGraphBuilder<NodeDFS, WeighedEdge<Double>>();
+ 	    int components = 5000;
+ 	    int size = 40;
+ 	    for (int i = 0; i < components * size; i++) builder.addNode(new NodeDFS("n" + i));
+ 	    Random random = new Random(42);
+ 	    for (int comp = 0; comp < components; comp++) {
+ 	    	for (int k = 0; k < 3 * size; k++)
+ 	    		builder.addEdgeByIndex(comp * size + random.nextInt(size), comp * size + random.nextInt(size), null);
+ 	    }
+ 	    Graph<NodeDFS, WeighedEdge<Double>> forest = builder.build();
+ 	    long start = System.nanoTime();
+ 	    dfsAlgorithm.DFS(forest);
+ 	    long sequential = System.nanoTime() - start;
+ 	    start = System.nanoTime();
+ 	    DFSIntervalIndex<NodeDFS> index = dfsAlgorithm.DFSParallel(forest, pool);
+ 	    long parallel = System.nanoTime() - start;
+ 	    boolean consistent = true;
+ 	    for (int i = 0; i < forest.size(); i++) {
+ 	    	NodeDFS s = forest.getNodeAtIndex(i);
+ 	    	GenericDFSNode f = s.getFather();
+ 	    	/* Ogni nodo deve essere contenuto nell'intervallo del padre */
+ 	    	if (f != null && !(f.getTimeDiscovered() < s.getTimeDiscovered() && s.getTimeExplored() < f.getTimeExplored()))
+ 	    		consistent = false;
+ 	    	if (forest.getColor(s) != Graph.COLOR_BLACK) consistent = false;
+ 	    }
+ 	    pool.shutdown();
+ 	    System.out.println("Grafo con " + components + " componenti, " + forest.size() + " nodi, " + forest.edgeCount() + " archi");
+ 	    System.out.println("DFS sequenziale: " + sequential / 1000000 + " ms, DFS parallela: " + parallel / 1000000 + " ms");
+ 	    /* Le radici sono prese per componente invece che per indice, ma gli alberi non cambiano */
+ 	    DFSIntervalIndex<NodeDFS> sequentialIndex = DFSIntervalIndex.build(IndexedGraph.of(forest));
+ 	    boolean sameFathers = true;
+ 	    for (int i = 0; i < forest.size(); i++)
+ 	    	if (index.getFather(i) != sequentialIndex.getFather(i)) sameFathers = false;
+ 	    System.out.println("Tempi coerenti con i padri: " + consistent + ", stessi alberi della costruzione sequenziale: "
+ 	    		+ sameFathers);
+
+ 	    /* Visita deterministica: stessi tempi ad ogni esecuzione e su una copia del grafo */
+ 	    System.out.println();
+ 	    System.out.println("Deterministic depth first search: ");
+ 	    GenericGraphDFS<NodeDFS, WeighedEdge<Double>> deterministic = new GenericGraphDFS<NodeDFS, WeighedEdge<Double>>(true);
+ 	    deterministic.DFS(g);
+ 	    String first = "";
+ 	    for (int i = 0; i < g.size(); i++) first += g.getNodeAtIndex(i).printNodeTime();
+ 	    System.out.print(first);
+ 	    deterministic.DFS(g);
+ 	    String second = "";
+ 	    for (int i = 0; i < g.size(); i++) second += g.getNodeAtIndex(i).printNodeTime();
+ 	    Graph<NodeDFS, WeighedEdge<Double>> copy = new GraphMatrixDirected<NodeDFS, WeighedEdge<Double>>();
+ 	    for (int i = 0; i < g.size(); i++) copy.addNode(new NodeDFS(g.getNodeAtIndex(i).getId()));
+ 	    for (Edge<NodeDFS, WeighedEdge<Double>> e : g.getEdges())
+ 	    	copy.addEdge(copy.getNodeAtIndex(g.getNodeIndex(e.getLabel1())), copy.getNodeAtIndex(g.getNodeIndex(e.getLabel2())), e.getLabel());
+ 	    deterministic.DFS(copy);
+ 	    String third = "";
+ 	    for (int i = 0; i < copy.size(); i++) third += copy.getNodeAtIndex(i).printNodeTime();
+ 	    System.out.println("Stessi tempi alla seconda esecuzione: " + first.equals(second) + ", sulla copia: " + first.equals(third)
+ 	    		+ ", uguali a DFSIntervalIndex: " + DFSIntervalIndex.fromNodes(g).sameForest(DFSIntervalIndex.build(g)));
+
+ 	    /* Metriche della visita, lette anche tramite JMX */
+ 	    System.out.println();
+ 	    DFSMetrics metrics = new DFSMetrics();
+ 	    deterministic.setMetrics(metrics);
+ 	    deterministic.DFS(g);
+ 	    System.out.println("Metriche: " + metrics);
+ 	    ObjectName name = metrics.register("esempio");
+ 	    try {
+ 	    	MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+ 	    	System.out.println("JMX " + name + ": NodesDiscovered=" + server.getAttribute(name, "NodesDiscovered")
+ 	    			+ " EdgesExamined=" + server.getAttribute(name, "EdgesExamined") + " MaxDepth=" + server.getAttribute(name, "MaxDepth"));
+ 	    } catch (JMException e) {
+ 	    	System.out.println("JMX non disponibile: " + e);
+ 	    }
+ 	    DFSMetrics.unregister(name);
+
+ 	    /* Costo delle metriche su un grafo più grande */
+ 	    Graph<NodeDFS, WeighedEdge<Double>> large = new GraphMatrixDirected<NodeDFS, WeighedEdge<Double>>();
+ 	    for (int i = 0; i < 2000; i++) large.addNode(new NodeDFS("m" + i));
+ 	    for (int i = 0; i < 8000; i++)
+ 	    	large.addEdge(large.getNodeAtIndex(random.nextInt(2000)), large.getNodeAtIndex(random.nextInt(2000)), null);
+ 	    GenericGraphDFS<NodeDFS, WeighedEdge<Double>> plain = new GenericGraphDFS<NodeDFS, WeighedEdge<Double>>();
+ 	    GenericGraphDFS<NodeDFS, WeighedEdge<Double>> measured = new GenericGraphDFS<NodeDFS, WeighedEdge<Double>>();
+ 	    DFSMetrics largeMetrics = new DFSMetrics();
+ 	    measured.setMetrics(largeMetrics);
+ 	    long plainTime = Long.MAX_VALUE;
+ 	    long measuredTime = Long.MAX_VALUE;
+ 	    for (int r = 0; r < 5; r++) {
+ 	    	start = System.nanoTime();
+ 	    	plain.DFS(large);
+ 	    	plainTime = Math.min(plainTime, System.nanoTime() - start);
+ 	    	start = System.nanoTime();
+ 	    	measured.DFS(large);
+ 	    	measuredTime = Math.min(measuredTime, System.nanoTime() - start);
+ 	    }
+ 	    System.out.println("DFS senza metriche: " + plainTime / 1000 + " us, con metriche: " + measuredTime / 1000 + " us");
+ 	    System.out.println("Metriche: " + largeMetrics);
+
+ 	    /* Successori in ordine di peso; gli archi senza peso (x -> b, b -> y) vengono per ultimi */
+ 	    System.out.println();
+ 	    GenericGraphDFS<NodeDFS, WeighedEdge<Double>> weighted = new GenericGraphDFS<NodeDFS, WeighedEdge<Double>>();
+ 	    for (GenericGraphDFS.WeightOrder order : GenericGraphDFS.WeightOrder.values()) {
+ 	    	weighted.setWeightOrder(order);
+ 	    	weighted.DFS(g);
+ 	    	System.out.println("Weighted depth first search (" + order + "): ");
+ 	    	for (int i = 0; i < g.size(); i++) System.out.print(g.getNodeAtIndex(i).printNodeTime());
+ 	    }
+
+ 	    /* Adiacenze ordinate una volta per versione del grafo */
+ 	    Graph<NodeDFS, WeighedEdge<Double>> heavy = new GraphMatrixDirected<NodeDFS, WeighedEdge<Double>>();
+ 	    for (int i = 0; i < 2000; i++) heavy.addNode(new NodeDFS("h" + i));
+ 	    for (int i = 0; i < 20000; i++)
+ 	    	heavy.addEdge(heavy.getNodeAtIndex(random.nextInt(2000)), heavy.getNodeAtIndex(random.nextInt(2000)),
+ 	    			new WeighedEdge<Double>(random.nextInt(10) == 0 ? null : random.nextDouble()));
+ 	    weighted.setWeightOrder(GenericGraphDFS.WeightOrder.ASCENDING);
+ 	    start = System.nanoTime();
+ 	    weighted.DFS(heavy);
+ 	    long firstVisit = System.nanoTime() - start;
+ 	    long repeated = Long.MAX_VALUE;
+ 	    for (int r = 0; r < 5; r++) {
+ 	    	start = System.nanoTime();
+ 	    	weighted.DFS(heavy);
+ 	    	repeated = Math.min(repeated, System.nanoTime() - start);
+ 	    }
+ 	    boolean ordered = true;
+ 	    for (int i = 0; i < heavy.size(); i++) {
+ 	    	/* Il primo figlio di ogni nodo deve essere raggiunto con l'arco più leggero verso un nodo ancora bianco */
+ 	    	NodeDFS v = heavy.getNodeAtIndex(i);
+ 	    	for (Edge<NodeDFS, WeighedEdge<Double>> e : heavy.outgoingEdges(v)) {
+ 	    		NodeDFS w = e.getLabel2();
+ 	    		if (w.getFather() == v && w.getTimeDiscovered() == v.getTimeDiscovered() + 1)
+ 	    			for (Edge<NodeDFS, WeighedEdge<Double>> f : heavy.outgoingEdges(v))
+ 	    				if (f.getLabel2().getTimeDiscovered() > v.getTimeDiscovered() && lighter(f, e)) ordered = false;
+ 	    	}
+ 	    }
+ 	    long manual = Long.MAX_VALUE;
+ 	    for (int r = 0; r < 5; r++) {
+ 	    	start = System.nanoTime();
+ 	    	manualWeightedDFS(heavy);
+ 	    	manual = Math.min(manual, System.nanoTime() - start);
+ 	    }
+ 	    heavy.addEdge(heavy.getNodeAtIndex(0), heavy.getNodeAtIndex(1), new WeighedEdge<Double>(-1.0));
+ 	    weighted.DFS(heavy);
+ 	    System.out.println("DFS pesata: prima visita " + firstVisit / 1000 + " us, visite successive " + repeated / 1000
+ 	    		+ " us, ordinando a ogni visita " + manual / 1000 + " us, primi figli corretti: " + ordered
+ 	    		+ ", dopo una modifica h1 è figlio di h0: " + (heavy.getNodeAtIndex(1).getFather() == heavy.getNodeAtIndex(0)));
+
+ 	    /* La visita conserva le adiacenze ordinate ma non il grafo */
+ 	    WeakReference<Graph<NodeDFS, WeighedEdge<Double>>> released = new WeakReference<Graph<NodeDFS, WeighedEdge<Double>>>(heavy);
+ 	    heavy = null;
+ 	    for (int r = 0; r < 10 && released.get() != null; r++) System.gc();
+ 	    System.out.println("Grafo rilasciato dopo la visita pesata: " + (released.get() == null));
+	}
+
+	/**
+	 * Dice se un arco ha peso strettamente minore di un altro, con i pesi
+	 * null dopo tutti gli altri.
+	 * @param f		primo arco
+	 * @param e		secondo arco
+	 * @return true se f viene prima di e
+	 */
+	private static boolean lighter(Edge<NodeDFS, WeighedEdge<Double>> f, Edge<NodeDFS, WeighedEdge<Double>> e) {
+		Double wf = f.getLabel().getWeight();
+		Double we = e.getLabel().getWeight();
+		return wf != null && (we == null || wf < we);
+	}
+
+	/**
+	 * Visita in ordine di peso scritta a mano, ordinando gli archi uscenti
+	 * ad ogni nodo visitato.
+	 * @param g		grafo
+	 */
+	private static void manualWeightedDFS(Graph<NodeDFS, WeighedEdge<Double>> g) {
+		for (int i = 0; i < g.size(); i++) g.setColor(g.getNodeAtIndex(i), Graph.COLOR_WHITE);
+		for (int i = 0; i < g.size(); i++)
+			if (g.getColor(g.getNodeAtIndex(i)) == Graph.COLOR_WHITE) manualVisit(g, g.getNodeAtIndex(i));
+	}
+
+	/**
+	 * Visita un nodo seguendo gli archi uscenti ordinati per peso.
+	 * @param g		grafo
+	 * @param s		nodo da visitare
+	 */
+	private static void manualVisit(Graph<NodeDFS, WeighedEdge<Double>> g, NodeDFS s) {
+		g.setColor(s, Graph.COLOR_GREY);
+		List<Edge<NodeDFS, WeighedEdge<Double>>> edges = new ArrayList<Edge<NodeDFS, WeighedEdge<Double>>>(g.outgoingEdges(s));
+		Collections.sort(edges, new Comparator<Edge<NodeDFS, WeighedEdge<Double>>>() {
+			@Override
+			public int compare(Edge<NodeDFS, WeighedEdge<Double>> e1, Edge<NodeDFS, WeighedEdge<Double>> e2) {
+				return lighter(e1, e2) ? -1 : lighter(e2, e1) ? 1 : 0;
+			}
+		});
+		for (Edge<NodeDFS, WeighedEdge<Double>> e : edges)
+			if (g.getColor(e.getLabel2()) == Graph.COLOR_WHITE) manualVisit(g, e.getLabel2());
+		g.setColor(s, Graph.COLOR_BLACK);
 	}
 
 }
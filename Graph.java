@@ -1,3 +1,4 @@
+import java.util.Arrays;
 import java.util.Set;
 
 /**
@@ -5,16 +6,16 @@ import java.util.Set;
  * elementi della classe V ed i cui archi sono etichettati con elementi della
  * classe E.
  * 
- * Il grafo pu essere diretto o non diretto, la classe che implementa questa
+ * Il grafo può essere diretto o non diretto, la classe che implementa questa
  * interfaccia specifica questo aspetto.
  * 
- * Le etichette dei vertici o nodi sono obbligatorie ed uniche, cio un nodo non
- * pu avere etichetta nulla e due nodi con la stessa etichetta sono lo stesso
+ * Le etichette dei vertici o nodi sono obbligatorie ed uniche, cioè un nodo non
+ * può avere etichetta nulla e due nodi con la stessa etichetta sono lo stesso
  * nodo.
  * 
  * Le etichette degli archi sono facoltative.
  * 
- * A nodi pu essere associato un colore che pu
+ * A nodi può essere associato un colore che può
  * essere usato dagli algoritmi generici che lavorano su grafi.
  * 
  * @author Luca Tesei
@@ -45,16 +46,16 @@ public interface Graph<V, E> {
     public int size();
 
     /**
-     * Determina se questo grafo  vuoto.
+     * Determina se questo grafo è vuoto.
      * 
-     * @return se questo grafo  vuoto, false altrimenti.
+     * @return se questo grafo è vuoto, false altrimenti.
      */
     public boolean isEmpty();
 
     /**
-     * Dice se questo grafo  diretto oppure no.
+     * Dice se questo grafo è diretto oppure no.
      * 
-     * @return true se questo grafo  diretto, false altrimenti.
+     * @return true se questo grafo è diretto, false altrimenti.
      */
     public boolean isDirected();
 
@@ -63,10 +64,10 @@ public interface Graph<V, E> {
      * 
      * @param label
      *            l'etichetta del nuovo nodo.
-     * @return true se il nodo  stato aggiunto, false altrimenti cio se
-     *         l'etichetta  gi presente.
+     * @return true se il nodo è stato aggiunto, false altrimenti cioè se
+     *         l'etichetta è già presente.
      * @throws NullPointerException
-     *             se l'oggetto passato  null.
+     *             se l'oggetto passato è null.
      */
     public boolean addNode(V label);
 
@@ -75,27 +76,27 @@ public interface Graph<V, E> {
      * 
      * @param label
      *            l'etichetta del nodo da rimuovere.
-     * @return true se il nodo  stato rimosso, false se il nodo non era
+     * @return true se il nodo è stato rimosso, false se il nodo non era
      *         presente.
      * @throws NullPointerException
-     *             se l'oggetto passato  null.
+     *             se l'oggetto passato è null.
      */
     public boolean removeNode(V label);
 
     /**
-     * Determina se c' un nodo in questo grafo con una certa etichetta data.
+     * Determina se c'è un nodo in questo grafo con una certa etichetta data.
      * 
      * @param label
      *            l'etichetta cercata.
      * @return true se esiste un nodo di questo grafo etichettato con label.
      * @throws NullPointerException
-     *             se l'oggetto passato  null.
+     *             se l'oggetto passato è null.
      */
     public boolean containsNode(V label);
 
     /**
      * Restituisce un indice unico attualmente associato a un certo nodo
-     * nell'intervallo <code>[0, this.size() - 1]</code>. Tale indice pu essere
+     * nell'intervallo <code>[0, this.size() - 1]</code>. Tale indice può essere
      * usato per identificare i nodi in strutture dati esterne come array o
      * liste che contengono informazioni aggiuntive calcolate, ad esempio, da un
      * algoritmo sul grafo.
@@ -104,11 +105,11 @@ public interface Graph<V, E> {
      *            l'etichetta del nodo.
      * 
      * @return un indice unico nell'intervallo <code>[0, this.size() - 1]</code>
-     *         attualmente associato al nodo con etichetta label. L'indice pu
+     *         attualmente associato al nodo con etichetta label. L'indice può
      *         cambiare se il grafo viene modificato togliendo dei nodi.
      * 
      * @throws NullPointerException
-     *             se l'oggetto passato  null.
+     *             se l'oggetto passato è null.
      * @throws IllegalArgumentException
      *             se il nodo non esiste.
      * 
@@ -124,7 +125,7 @@ public interface Graph<V, E> {
      * @return l'etichetta del nodo correntemente associato all'indice i.
      * 
      * @throws IndexOutOfBoundsException
-     *             se l'indice passato non corrisponde a nessun nodo o  fuori
+     *             se l'indice passato non corrisponde a nessun nodo o è fuori
      *             dai limiti dell'intervallo <code>[0, this.size() - 1]</code>.
      */
     public V getNodeAtIndex(int i);
@@ -139,7 +140,7 @@ public interface Graph<V, E> {
      * @throws IllegalArgumentException
      *             se il nodo non esiste.
      * @throws NullPointerException
-     *             se il nodo passato  nullo.
+     *             se il nodo passato è nullo.
      */
     public int getColor(V label);
 
@@ -153,12 +154,12 @@ public interface Graph<V, E> {
      * @throws IllegalArgumentException
      *             se il nodo non esiste.
      * @throws NullPointerException
-     *             se il nodo passato  nullo.
+     *             se il nodo passato è nullo.
      */
     public void setColor(V label, int color);
 
     /**
-     * Restituisce il grado di un nodo. Nel caso di grafo diretto  la somma del
+     * Restituisce il grado di un nodo. Nel caso di grafo diretto è la somma del
      * grado in entrata e del grado in uscita.
      * 
      * @param label
@@ -168,10 +169,44 @@ public interface Graph<V, E> {
      * @throws IllegalArgumentException
      *             se il nodo non esiste.
      * @throws NullPointerException
-     *             se il nodo passato  nullo.
+     *             se il nodo passato è nullo.
      */
     public int getDegree(V label);
 
+    /**
+     * Restituisce il grado entrante di un nodo in un grafo diretto, cioè il
+     * numero di archi che entrano nel nodo.
+     * 
+     * @param label
+     *            il nodo.
+     * @return il grado entrante del nodo in questo grafo.
+     * 
+     * @throws UnsupportedOperationException
+     *             se il grafo su cui il metodo è chiamato non è diretto.
+     * @throws IllegalArgumentException
+     *             se il nodo non esiste.
+     * @throws NullPointerException
+     *             se il nodo passato è nullo.
+     */
+    public int inDegree(V label);
+
+    /**
+     * Restituisce il grado uscente di un nodo in un grafo diretto, cioè il
+     * numero di archi che escono dal nodo.
+     * 
+     * @param label
+     *            il nodo.
+     * @return il grado uscente del nodo in questo grafo.
+     * 
+     * @throws UnsupportedOperationException
+     *             se il grafo su cui il metodo è chiamato non è diretto.
+     * @throws IllegalArgumentException
+     *             se il nodo non esiste.
+     * @throws NullPointerException
+     *             se il nodo passato è nullo.
+     */
+    public int outDegree(V label);
+
     /**
      * Restituisce l'insieme di tutti i nodi adiacenti a un certo nodo in un
      * grafo non diretto.
@@ -181,11 +216,11 @@ public interface Graph<V, E> {
      * @return l'insieme di tutti i nodi adiacenti al nodo label in un grafo non
      *         diretto.
      * @throws UnsupportedOperationException
-     *             se il grafo su cui il metodo  chiamato  diretto.
+     *             se il grafo su cui il metodo è chiamato è diretto.
      * @throws IllegalArgumentException
      *             se il nodo non esiste.
      * @throws NullPointerException
-     *             se il nodo passato  nullo.
+     *             se il nodo passato è nullo.
      */
     public Set<V> neighbors(V label);
 
@@ -198,11 +233,11 @@ public interface Graph<V, E> {
      * @return l'insieme dei nodi destinazione collegati al nodo sorgente dato
      *         in un grafo diretto.
      * @throws UnsupportedOperationException
-     *             se il grafo su cui il metodo  chiamato non  diretto.
+     *             se il grafo su cui il metodo è chiamato non è diretto.
      * @throws IllegalArgumentException
      *             se il nodo non esiste.
      * @throws NullPointerException
-     *             se il nodo passato  nullo.
+     *             se il nodo passato è nullo.
      * 
      */
     public Set<V> successors(V label);
@@ -216,11 +251,11 @@ public interface Graph<V, E> {
      * @return l'insieme dei nodi sorgente collegati al nodo destinazione dato
      *         in un grafo diretto.
      * @throws UnsupportedOperationException
-     *             se il grafo su cui il metodo  chiamato non  diretto.
+     *             se il grafo su cui il metodo è chiamato non è diretto.
      * @throws IllegalArgumentException
      *             se il nodo non esiste.
      * @throws NullPointerException
-     *             se il nodo passato  nullo.
+     *             se il nodo passato è nullo.
      * 
      */
     public Set<V> predecessors(V label);
@@ -243,8 +278,8 @@ public interface Graph<V, E> {
      *            diretto).
      * @param label
      *            etichetta del nuovo arco.
-     * @return true se l'arco  stato inserito, false se un arco esattamente
-     *         uguale gi esiste.
+     * @return true se l'arco è stato inserito, false se un arco esattamente
+     *         uguale già esiste.
      * @throws NullPointerException
      *             se le etichette passate dei nodi sono nulle.
      * @throws IllegalArgumentException
@@ -263,7 +298,7 @@ public interface Graph<V, E> {
      *            diretto).
      * @param label
      *            etichetta dell'arco.
-     * @return true se l'arco  stato rimosso, false se l'arco non era presente.
+     * @return true se l'arco è stato rimosso, false se l'arco non era presente.
      * @throws IllegalArgumentException
      *             se i nodi passati non esistono.
      * @throws NullPointerException
@@ -272,7 +307,7 @@ public interface Graph<V, E> {
     public boolean removeEdge(V label1, V label2, E label);
 
     /**
-     * Cerca se c' un certo arco in questo grafo.
+     * Cerca se c'è un certo arco in questo grafo.
      * 
      * @param label1
      *            etichetta del primo nodo (nodo sorgente in caso di grafo
@@ -282,7 +317,7 @@ public interface Graph<V, E> {
      *            diretto).
      * @param label
      *            etichetta dell'arco.
-     * @return true se in questo grafo c' un arco fra label1 e label2, false
+     * @return true se in questo grafo c'è un arco fra label1 e label2, false
      *         altrimenti.
      * 
      * @throws NullPointerException
@@ -322,11 +357,11 @@ public interface Graph<V, E> {
      *         etichetta label in questo grafo.
      * 
      * @throws UnsupportedOperationException
-     *             se il grafo su cui il metodo  chiamato  diretto.
+     *             se il grafo su cui il metodo è chiamato è diretto.
      * @throws IllegalArgumentException
      *             se il nodo non esiste.
      * @throws NullPointerException
-     *             se il nodo passato  nullo.
+     *             se il nodo passato è nullo.
      */
     public Set<Edge<V, E>> getEdges(V label);
 
@@ -341,11 +376,11 @@ public interface Graph<V, E> {
      *         etichetta label in questo grafo diretto.
      * 
      * @throws UnsupportedOperationException
-     *             se il grafo su cui il metodo  chiamato non  diretto.
+     *             se il grafo su cui il metodo è chiamato non è diretto.
      * @throws IllegalArgumentException
      *             se il nodo non esiste.
      * @throws NullPointerException
-     *             se il nodo passato  nullo.
+     *             se il nodo passato è nullo.
      */
     public Set<Edge<V, E>> outgoingEdges(V label);
 
@@ -360,11 +395,11 @@ public interface Graph<V, E> {
      *         etichetta label in questo grafo diretto.
      * 
      * @throws UnsupportedOperationException
-     *             se il grafo su cui il metodo  chiamato non  diretto.
+     *             se il grafo su cui il metodo è chiamato non è diretto.
      * @throws IllegalArgumentException
      *             se il nodo non esiste.
      * @throws NullPointerException
-     *             se il nodo passato  nullo.
+     *             se il nodo passato è nullo.
      */
     public Set<Edge<V, E>> ingoingEdges(V label);
 
@@ -387,4 +422,124 @@ public interface Graph<V, E> {
      * grafo vuoto.
      */
     public void clear();
+
+    /**
+     * Restituisce il contatore delle modifiche di questo grafo, incrementato
+     * da ogni operazione che cambia nodi o archi (aggiunta e rimozione di nodi
+     * e archi, cancellazione del grafo). I colori dei nodi non fanno parte
+     * della struttura e non cambiano la versione. Due chiamate che
+     * restituiscono lo stesso valore garantiscono che nel frattempo il grafo
+     * non è cambiato, per cui i risultati calcolati su di esso possono essere
+     * riutilizzati.
+     * 
+     * @return la versione corrente di questo grafo.
+     */
+    public long getVersion();
+
+    /**
+     * Verifica la presenza di molti archi con una sola chiamata: per ogni k
+     * result[k] diventa true se c'è un arco con etichetta labels[k] fra
+     * sources[k] e targets[k]. Il metodo di base chiama
+     * {@link #containsEdge(Object, Object, Object)} per ogni interrogazione;
+     * le implementazioni possono ordinare le interrogazioni per indice della
+     * sorgente, in modo da leggere la struttura del grafo in ordine.
+     * 
+     * @param sources
+     *            etichette dei nodi sorgente.
+     * @param targets
+     *            etichette dei nodi destinazione.
+     * @param labels
+     *            etichette degli archi.
+     * @param result
+     *            array in cui scrivere le risposte, lungo almeno quanto
+     *            sources.
+     * @throws IllegalArgumentException
+     *             se gli array non hanno lunghezze compatibili o se uno dei
+     *             nodi non esiste.
+     * @throws NullPointerException
+     *             se una delle etichette dei nodi è nulla.
+     */
+    public default void containsEdges(V[] sources, V[] targets, E[] labels, boolean[] result) {
+        IndexedGraph.checkBatch(sources.length, targets.length, labels.length, result.length);
+        for (int k = 0; k < sources.length; k++) result[k] = containsEdge(sources[k], targets[k], labels[k]);
+    }
+
+    /**
+     * Restituisce il numero totale di successori (adiacenti in caso di grafo
+     * non diretto) di un gruppo di nodi, cioè la lunghezza necessaria
+     * dell'array targets di {@link #successors(Object[], int[], int[])}.
+     * 
+     * @param nodes
+     *            etichette dei nodi.
+     * @return la somma dei gradi uscenti dei nodi.
+     * @throws IllegalArgumentException
+     *             se uno dei nodi non esiste.
+     */
+    public default int successorCount(V[] nodes) {
+        int count = 0;
+        for (V label : nodes) count += isDirected() ? outDegree(label) : neighbors(label).size();
+        return count;
+    }
+
+    /**
+     * Scrive i successori (adiacenti in caso di grafo non diretto) di un
+     * gruppo di nodi in formato CSR: gli indici dei successori di nodes[k]
+     * occupano le posizioni da offsets[k] a offsets[k + 1] - 1 di targets,
+     * in ordine crescente. Non vengono creati insiemi di etichette.
+     * 
+     * @param nodes
+     *            etichette dei nodi.
+     * @param offsets
+     *            array degli inizi delle liste, lungo almeno nodes.length + 1.
+     * @param targets
+     *            array in cui scrivere gli indici dei successori, lungo
+     *            almeno {@link #successorCount(Object[])}.
+     * @return il numero di indici scritti in targets.
+     * @throws IllegalArgumentException
+     *             se gli array sono troppo corti o se uno dei nodi non
+     *             esiste.
+     */
+    public default int successors(V[] nodes, int[] offsets, int[] targets) {
+        if (offsets.length < nodes.length + 1) throw new IllegalArgumentException("L'array degli inizi delle liste è troppo corto.");
+        int count = 0;
+        offsets[0] = 0;
+        for (int k = 0; k < nodes.length; k++) {
+            Set<V> succ = isDirected() ? successors(nodes[k]) : neighbors(nodes[k]);
+            if (count + succ.size() > targets.length) throw new IllegalArgumentException("L'array dei successori è troppo corto.");
+            for (V label : succ) targets[count++] = getNodeIndex(label);
+            Arrays.sort(targets, offsets[k], count);
+            offsets[k + 1] = count;
+        }
+        return count;
+    }
+
+    /**
+     * Risponde a molte interrogazioni di raggiungibilità con una sola
+     * chiamata: per ogni k result[k] diventa true se esiste un cammino da
+     * sources[k] a targets[k]. Le interrogazioni vengono ordinate per
+     * sorgente e quelle con la stessa sorgente sono risolte da una sola
+     * visita dell'istantanea {@link IndexedGraph} del grafo.
+     * 
+     * @param sources
+     *            etichette dei nodi sorgente.
+     * @param targets
+     *            etichette dei nodi destinazione.
+     * @param result
+     *            array in cui scrivere le risposte, lungo almeno quanto
+     *            sources.
+     * @throws IllegalArgumentException
+     *             se gli array non hanno lunghezze compatibili o se uno dei
+     *             nodi non esiste.
+     */
+    public default void reachable(V[] sources, V[] targets, boolean[] result) {
+        IndexedGraph.checkBatch(sources.length, targets.length, sources.length, result.length);
+        IndexedGraph<V> snapshot = IndexedGraph.of(this);
+        int[] s = new int[sources.length];
+        int[] t = new int[targets.length];
+        for (int k = 0; k < s.length; k++) {
+            s[k] = snapshot.indexOf(sources[k]);
+            t[k] = snapshot.indexOf(targets[k]);
+        }
+        snapshot.reachable(s, t, result);
+    }
 }
@@ -0,0 +1,122 @@
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+public class GraphBatchQueryTest {
+
+	public static void main(String[] args) {
+
+		/* Grafo casuale copiato nelle diverse rappresentazioni */
+		Random random = new Random(42);
+		int n = 2000;
+		GraphMatrixDirected<Integer, Integer> matrix = new GraphMatrixDirected<Integer, Integer>();
+		GraphMultiDirected<Integer, Integer> multi = new GraphMultiDirected<Integer, Integer>();
+		for (int i = 0; i < n; i++) {
+			matrix.addNode(i);
+			multi.addNode(i);
+		}
+		for (int i = 0; i < 8 * n; i++) {
+			int u = random.nextInt(n);
+			int v = random.nextInt(n);
+			matrix.addEdge(u, v, (u + v) % 3);
+			multi.addEdge(u, v, (u + v) % 3);
+		}
+		GraphCSRDirected<Integer, Integer> csr = GraphCSRDirected.copyOf(matrix);
+		List<Graph<Integer, Integer>> graphs = Arrays.<Graph<Integer, Integer>>asList(matrix, csr, multi,
+				new ReversedGraph<Integer, Integer>(new ReversedGraph<Integer, Integer>(matrix)));
+
+		/* Interrogazioni casuali, metà sugli archi esistenti */
+		int queries = 1000000;
+		Integer[] sources = new Integer[queries];
+		Integer[] targets = new Integer[queries];
+		Integer[] labels = new Integer[queries];
+		for (int k = 0; k < queries; k++) {
+			sources[k] = random.nextInt(n);
+			if (k % 2 == 0) {
+				Set<Integer> succ = matrix.successors(sources[k]);
+				targets[k] = succ.isEmpty() ? random.nextInt(n) : succ.iterator().next();
+			} else targets[k] = random.nextInt(n);
+			labels[k] = random.nextInt(3);
+		}
+		Integer[] nodes = new Integer[100000];
+		for (int k = 0; k < nodes.length; k++) nodes[k] = random.nextInt(n);
+
+		/* Il primo giro serve solo a scaldare il compilatore JIT */
+		for (Graph<Integer, Integer> g : graphs) {
+			measure(g, sources, targets, labels, nodes);
+			System.out.print(g.getClass().getName() + ":\n" + measure(g, sources, targets, labels, nodes));
+		}
+
+		/* Raggiungibilità: una visita per sorgente distinta */
+		int reach = 20000;
+		Integer[] s = new Integer[reach];
+		Integer[] t = new Integer[reach];
+		for (int k = 0; k < reach; k++) {
+			s[k] = random.nextInt(50);
+			t[k] = random.nextInt(n);
+		}
+		ReachabilityIndex<Integer> expected = ReachabilityIndex.build(matrix);
+		long start = System.nanoTime();
+		boolean[] result = new boolean[reach];
+		matrix.reachable(s, t, result);
+		long batched = System.nanoTime() - start;
+		boolean same = true;
+		for (int k = 0; k < reach; k++)
+			if (result[k] != expected.canReach(s[k], t[k])) same = false;
+		System.out.println("Raggiungibilità x " + reach + " da 50 sorgenti: " + batched / 1000000 + " ms, risultati corretti: " + same);
+
+		try {
+			matrix.containsEdges(s, t, new Integer[1], result);
+		} catch (IllegalArgumentException e) {
+			System.out.println("Array di lunghezze diverse: " + e.getMessage());
+		}
+	}
+
+	/**
+	 * Confronta le interrogazioni singole con quelle a gruppi.
+	 * @param g				grafo
+	 * @param sources		sorgenti degli archi cercati
+	 * @param targets		destinazioni degli archi cercati
+	 * @param labels		etichette degli archi cercati
+	 * @param nodes			nodi di cui chiedere i successori
+	 * @return tempi e verifiche, su due righe
+	 */
+	private static String measure(Graph<Integer, Integer> g, Integer[] sources, Integer[] targets, Integer[] labels, Integer[] nodes) {
+		int count = g instanceof GraphView ? sources.length / 10 : sources.length;
+		Integer[] s = Arrays.copyOf(sources, count);
+		Integer[] t = Arrays.copyOf(targets, count);
+		Integer[] w = Arrays.copyOf(labels, count);
+
+		long start = System.nanoTime();
+		boolean[] single = new boolean[count];
+		for (int k = 0; k < count; k++) single[k] = g.containsEdge(s[k], t[k], w[k]);
+		long one = System.nanoTime() - start;
+		start = System.nanoTime();
+		boolean[] batch = new boolean[count];
+		g.containsEdges(s, t, w, batch);
+		long all = System.nanoTime() - start;
+		String report = "  containsEdge x " + count + ": " + one / 1000000 + " ms, containsEdges: " + all / 1000000
+				+ " ms, stessi risultati: " + Arrays.equals(single, batch) + "\n";
+
+		int[] offsets = new int[nodes.length + 1];
+		int[] succ = new int[g.successorCount(nodes)];
+		start = System.nanoTime();
+		long sum = 0;
+		for (Integer v : nodes)
+			for (Integer x : g.successors(v)) sum += x;
+		one = System.nanoTime() - start;
+		start = System.nanoTime();
+		int written = g.successors(nodes, offsets, succ);
+		long sumBatch = 0;
+		for (int k = 0; k < written; k++) sumBatch += g.getNodeAtIndex(succ[k]);
+		all = System.nanoTime() - start;
+		boolean sorted = true;
+		for (int k = 0; k < nodes.length; k++)
+			for (int e = offsets[k] + 1; e < offsets[k + 1]; e++)
+				if (succ[e - 1] >= succ[e]) sorted = false;
+		return report + "  successors x " + nodes.length + ": " + one / 1000000 + " ms, in formato CSR: " + all / 1000000
+				+ " ms, stessi successori: " + (sum == sumBatch && written == succ.length) + ", ordinati: " + sorted + "\n";
+	}
+
+}
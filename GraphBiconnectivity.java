@@ -0,0 +1,218 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Calcola punti di articolazione, ponti e componenti biconnesse della
+ * versione non diretta di un grafo con un'unica visita in profondità basata
+ * sui valori low-link (algoritmo di Hopcroft e Tarjan), in tempo O(V + E).
+ *
+ * La visita è iterativa e lavora sugli indici dei nodi, per cui non dipende
+ * dalla profondità massima dello stack del thread. Nella versione non
+ * diretta due nodi sono adiacenti se esiste un arco in almeno una delle due
+ * direzioni; i cappi vengono ignorati.
+ *
+ * Le componenti biconnesse sono insiemi massimali di archi, restituiti come
+ * insiemi dei nodi che toccano: un nodo isolato non appartiene a nessuna
+ * componente, un punto di articolazione appartiene a più componenti.
+ */
+public class GraphBiconnectivity<V> {
+
+	/* Istantanea non diretta su cui è stata eseguita la visita */
+	private final IndexedGraph<V> graph;
+
+	/* Indici dei punti di articolazione in ordine crescente */
+	private final int[] articulationPoints;
+
+	/* Estremi dei ponti: il ponte k collega bridges[2k] e bridges[2k + 1] */
+	private final int[] bridges;
+
+	/* Nodi di ogni componente biconnessa, in ordine crescente */
+	private final List<int[]> components;
+
+	/**
+	 * Esegue la visita sulla versione non diretta di un grafo.
+	 * @param g		grafo
+	 */
+	public <E> GraphBiconnectivity(Graph<V, E> g) {
+		this(IndexedGraph.of(g));
+	}
+
+	/**
+	 * Esegue la visita sulla versione non diretta di un'istantanea.
+	 * @param snapshot		istantanea del grafo
+	 */
+	public GraphBiconnectivity(IndexedGraph<V> snapshot) {
+		if (snapshot == null) throw new NullPointerException("Tentativo di analizzare un grafo null.");
+		this.graph = snapshot.undirected();
+		int n = graph.size();
+		int[] disc = new int[n];		/* Tempo di scoperta, 0 se non ancora scoperto */
+		int[] low = new int[n];			/* Minimo tempo di scoperta raggiungibile dal sottoalbero */
+		int[] parent = new int[n];		/* Padre nell'albero della visita */
+		int[] cursor = new int[n];		/* Prossimo vicino da esaminare */
+		boolean[] articulation = new boolean[n];
+		int[] stack = new int[n];		/* Pila dei nodi della visita */
+		int[] edgeStack = new int[2 * graph.edgeCount() + 2];		/* Pila degli archi per le componenti */
+		int[] bridgeBuffer = new int[16];
+		int bridgeCount = 0;
+		List<int[]> comps = new ArrayList<int[]>();
+		boolean[] inComponent = new boolean[n];
+		int time = 0;
+
+		for (int root = 0; root < n; root++) {
+			if (disc[root] != 0) continue;
+			int top = 0;
+			int edgeTop = 0;
+			int rootChildren = 0;
+			stack[0] = root;
+			parent[root] = -1;
+			disc[root] = low[root] = ++time;
+			cursor[root] = graph.outStart(root);
+			while (top >= 0) {
+				int u = stack[top];
+				if (cursor[u] < graph.outEnd(u)) {
+					int v = graph.outTarget(cursor[u]++);
+					if (disc[v] == 0) {		/* Arco dell'albero */
+						parent[v] = u;
+						disc[v] = low[v] = ++time;
+						cursor[v] = graph.outStart(v);
+						edgeStack[edgeTop++] = u;
+						edgeStack[edgeTop++] = v;
+						stack[++top] = v;
+						if (u == root) rootChildren++;
+					} else if (v != parent[u] && disc[v] < disc[u]) {		/* Arco all'indietro */
+						if (disc[v] < low[u]) low[u] = disc[v];
+						edgeStack[edgeTop++] = u;
+						edgeStack[edgeTop++] = v;
+					}
+					continue;
+				}
+				/* Tutti i vicini di u sono stati esaminati: chiudo u */
+				top--;
+				int p = parent[u];
+				if (p == -1) continue;
+				if (low[u] < low[p]) low[p] = low[u];
+				if (low[u] >= disc[p]) {
+					/* p separa il sottoalbero di u: estraggo la componente fino all'arco (p, u) */
+					if (p != root) articulation[p] = true;
+					int start = edgeTop;
+					do {
+						start -= 2;
+					} while (edgeStack[start] != p || edgeStack[start + 1] != u);
+					comps.add(collect(edgeStack, start, edgeTop, inComponent));
+					edgeTop = start;
+					if (low[u] > disc[p]) {		/* L'arco (p, u) è un ponte */
+						if (bridgeCount + 2 > bridgeBuffer.length) bridgeBuffer = Arrays.copyOf(bridgeBuffer, 2 * bridgeBuffer.length);
+						bridgeBuffer[bridgeCount++] = Math.min(p, u);
+						bridgeBuffer[bridgeCount++] = Math.max(p, u);
+					}
+				}
+			}
+			if (rootChildren > 1) articulation[root] = true;
+		}
+
+		int count = 0;
+		for (int i = 0; i < n; i++) if (articulation[i]) count++;
+		this.articulationPoints = new int[count];
+		count = 0;
+		for (int i = 0; i < n; i++) if (articulation[i]) articulationPoints[count++] = i;
+		this.bridges = Arrays.copyOf(bridgeBuffer, bridgeCount);
+		this.components = comps;
+	}
+
+	/**
+	 * Raccoglie i nodi, senza ripetizioni, degli archi di una componente.
+	 * @param edgeStack		pila degli archi
+	 * @param from			prima posizione della componente
+	 * @param to			posizione successiva all'ultima
+	 * @param seen			marcatura di appoggio, azzerata prima di ritornare
+	 * @return indici ordinati dei nodi della componente
+	 */
+	private static int[] collect(int[] edgeStack, int from, int to, boolean[] seen) {
+		int[] nodes = new int[to - from];
+		int count = 0;
+		for (int k = from; k < to; k++) {
+			int w = edgeStack[k];
+			if (!seen[w]) {
+				seen[w] = true;
+				nodes[count++] = w;
+			}
+		}
+		nodes = Arrays.copyOf(nodes, count);
+		for (int w : nodes) seen[w] = false;
+		Arrays.sort(nodes);
+		return nodes;
+	}
+
+	/**
+	 * Ritorna gli indici dei punti di articolazione.
+	 * @return indici dei punti di articolazione in ordine crescente
+	 */
+	public int[] getArticulationPointIndices() {
+		return articulationPoints.clone();
+	}
+
+	/**
+	 * Ritorna i punti di articolazione.
+	 * @return insieme delle etichette dei punti di articolazione
+	 */
+	public Set<V> getArticulationPoints() {
+		Set<V> ret = new HashSet<V>();
+		for (int i : articulationPoints) ret.add(graph.labelAt(i));
+		return ret;
+	}
+
+	/**
+	 * Ritorna gli estremi dei ponti: il ponte k collega i nodi con indici
+	 * ret[2k] e ret[2k + 1], con ret[2k] minore di ret[2k + 1].
+	 * @return estremi dei ponti
+	 */
+	public int[] getBridgeIndices() {
+		return bridges.clone();
+	}
+
+	/**
+	 * Ritorna i ponti come archi non diretti senza etichetta.
+	 * @return lista dei ponti
+	 */
+	public <E> List<Edge<V, E>> getBridges() {
+		List<Edge<V, E>> ret = new ArrayList<Edge<V, E>>(bridges.length / 2);
+		for (int k = 0; k < bridges.length; k += 2)
+			ret.add(new Edge<V, E>(graph.labelAt(bridges[k]), graph.labelAt(bridges[k + 1]), false));
+		return ret;
+	}
+
+	/**
+	 * Ritorna il numero di componenti biconnesse.
+	 * @return numero di componenti biconnesse
+	 */
+	public int componentCount() {
+		return components.size();
+	}
+
+	/**
+	 * Ritorna gli indici dei nodi di una componente biconnessa.
+	 * @param k		numero della componente
+	 * @return indici ordinati dei nodi della componente
+	 */
+	public int[] getComponentIndices(int k) {
+		return components.get(k).clone();
+	}
+
+	/**
+	 * Ritorna le componenti biconnesse come insiemi di etichette.
+	 * @return lista delle componenti biconnesse
+	 */
+	public List<Set<V>> getComponents() {
+		List<Set<V>> ret = new ArrayList<Set<V>>(components.size());
+		for (int[] c : components) {
+			Set<V> s = new HashSet<V>();
+			for (int i : c) s.add(graph.labelAt(i));
+			ret.add(s);
+		}
+		return ret;
+	}
+
+}
@@ -0,0 +1,190 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+public class GraphBiconnectivityTest {
+
+	public static void main(String[] args) {
+
+		/* Due triangoli uniti nel nodo c, un ponte c - d ed una coda d - e, con un cappio ed una coppia di archi opposti */
+		GraphMatrixDirected<String, Integer> g = new GraphMatrixDirected<String, Integer>();
+		for (String v : new String[] { "a", "b", "c", "d", "e", "x", "y", "w" }) g.addNode(v);
+		g.addEdge("a", "b", 0);
+		g.addEdge("b", "a", 0);		/* Arco opposto: nella versione non diretta resta un solo arco */
+		g.addEdge("b", "c", 0);
+		g.addEdge("c", "a", 0);
+		g.addEdge("c", "x", 0);
+		g.addEdge("x", "y", 0);
+		g.addEdge("y", "c", 0);
+		g.addEdge("c", "d", 0);
+		g.addEdge("d", "e", 0);
+		g.addEdge("e", "e", 0);		/* Cappio: viene ignorato */
+		GraphBiconnectivity<String> bc = new GraphBiconnectivity<String>(g);
+		List<String> bridges = new ArrayList<String>();
+		for (Edge<String, Object> e : bc.<Object>getBridges()) bridges.add(e.getLabel1() + "-" + e.getLabel2());
+		System.out.println("Punti di articolazione: " + bc.getArticulationPoints() + ", ponti: " + bridges);
+		System.out.println("Componenti biconnesse (" + bc.componentCount() + "): " + bc.getComponents() + ", w isolato in nessuna");
+
+		/* Confronto con la rimozione di nodi ed archi ed il conteggio delle componenti connesse */
+		Random random = new Random(42);
+		int rounds = 500;
+		int wrongPoints = 0, wrongBridges = 0, wrongComponents = 0;
+		for (int round = 0; round < rounds; round++) {
+			int n = 1 + random.nextInt(12);
+			GraphMatrixDirected<Integer, Integer> r = new GraphMatrixDirected<Integer, Integer>();
+			for (int i = 0; i < n; i++) r.addNode(i);
+			boolean[][] adj = new boolean[n][n];
+			for (int k = random.nextInt(2 * n + 1); k > 0; k--) {
+				int u = random.nextInt(n);
+				int v = random.nextInt(n);
+				r.addEdge(u, v, 0);
+				if (random.nextInt(4) == 0) r.addEdge(v, u, 0);		/* Coppie di archi opposti */
+				if (u != v) adj[u][v] = adj[v][u] = true;
+			}
+			GraphBiconnectivity<Integer> b = new GraphBiconnectivity<Integer>(r);
+			if (!b.getArticulationPoints().equals(articulationPoints(adj))) wrongPoints++;
+			Set<String> found = new HashSet<String>();
+			for (Edge<Integer, Object> e : b.<Object>getBridges())
+				found.add(Math.min(e.getLabel1(), e.getLabel2()) + "-" + Math.max(e.getLabel1(), e.getLabel2()));
+			if (found.size() != b.getBridgeIndices().length / 2 || !found.equals(bridges(adj))) wrongBridges++;
+			if (b.componentCount() != blocks(adj).size() || !new HashSet<Set<Integer>>(b.getComponents()).equals(blocks(adj)))
+				wrongComponents++;
+		}
+		System.out.println(rounds + " grafi casuali con cappi ed archi opposti, risultati diversi dalla forza bruta: punti di articolazione "
+				+ wrongPoints + ", ponti " + wrongBridges + ", componenti " + wrongComponents);
+
+		/* Visita iterativa: una catena lunga non esaurisce lo stack */
+		System.out.println();
+		System.out.println(" ----------------------------------------------------------");
+		System.out.println(" |    Catena di un milione di nodi.                       |");
+		System.out.println(" ----------------------------------------------------------");
+		int n = 1000000;
+		ParallelGraphBuilder<Integer, Object> builder = new ParallelGraphBuilder<Integer, Object>();
+		for (int i = 0; i < n; i++) builder.addNode(i);
+		for (int i = 0; i + 1 < n; i++) builder.addEdgeByIndex(i, i + 1, null);
+		IndexedGraph<Integer> chain = IndexedGraph.of(builder.build());
+		long start = System.nanoTime();
+		GraphBiconnectivity<Integer> cb = new GraphBiconnectivity<Integer>(chain);
+		long elapsed = System.nanoTime() - start;
+		System.out.println("Catena: " + elapsed / 1000000 + " ms, punti di articolazione " + cb.getArticulationPointIndices().length
+				+ ", ponti " + cb.getBridgeIndices().length / 2 + ", componenti " + cb.componentCount());
+	}
+
+	/**
+	 * Componenti connesse dei nodi non rimossi, senza l'arco escluso.
+	 * @param adj		matrice di adiacenza non diretta
+	 * @param removed	nodo rimosso, -1 per nessuno
+	 * @param eu		primo estremo dell'arco escluso, -1 per nessuno
+	 * @param ev		secondo estremo dell'arco escluso
+	 * @return etichetta della componente di ogni nodo, -1 per il nodo rimosso; in ultima posizione il numero di componenti
+	 */
+	private static int[] components(boolean[][] adj, int removed, int eu, int ev) {
+		int n = adj.length;
+		int[] comp = new int[n + 1];
+		Arrays.fill(comp, -1);
+		int count = 0;
+		int[] stack = new int[n];
+		for (int s = 0; s < n; s++) {
+			if (s == removed || comp[s] != -1) continue;
+			int top = 0;
+			stack[top++] = s;
+			comp[s] = count;
+			while (top > 0) {
+				int u = stack[--top];
+				for (int v = 0; v < n; v++) {
+					if (!adj[u][v] || v == removed || comp[v] != -1) continue;
+					if ((u == eu && v == ev) || (u == ev && v == eu)) continue;
+					comp[v] = count;
+					stack[top++] = v;
+				}
+			}
+			count++;
+		}
+		comp[n] = count;
+		return comp;
+	}
+
+	/**
+	 * Punti di articolazione per forza bruta: un nodo con almeno un vicino lo
+	 * è se rimuoverlo aumenta il numero di componenti connesse.
+	 * @param adj		matrice di adiacenza non diretta
+	 * @return punti di articolazione
+	 */
+	private static Set<Integer> articulationPoints(boolean[][] adj) {
+		int n = adj.length;
+		int base = components(adj, -1, -1, -1)[n];
+		Set<Integer> ret = new HashSet<Integer>();
+		for (int v = 0; v < n; v++) {
+			boolean isolated = true;
+			for (int w = 0; w < n; w++)
+				if (adj[v][w]) isolated = false;
+			if (!isolated && components(adj, v, -1, -1)[n] > base) ret.add(v);
+		}
+		return ret;
+	}
+
+	/**
+	 * Ponti per forza bruta: archi la cui rimozione aumenta il numero di componenti connesse.
+	 * @param adj		matrice di adiacenza non diretta
+	 * @return ponti come stringhe "u-v" con u minore di v
+	 */
+	private static Set<String> bridges(boolean[][] adj) {
+		int n = adj.length;
+		int base = components(adj, -1, -1, -1)[n];
+		Set<String> ret = new HashSet<String>();
+		for (int u = 0; u < n; u++)
+			for (int v = u + 1; v < n; v++)
+				if (adj[u][v] && components(adj, -1, u, v)[n] > base) ret.add(u + "-" + v);
+		return ret;
+	}
+
+	/**
+	 * Componenti biconnesse per forza bruta: due archi stanno nella stessa
+	 * componente se, tolto un nodo qualsiasi, i loro estremi rimasti restano
+	 * nella stessa componente connessa.
+	 * @param adj		matrice di adiacenza non diretta
+	 * @return insiemi dei nodi delle componenti
+	 */
+	private static Set<Set<Integer>> blocks(boolean[][] adj) {
+		int n = adj.length;
+		List<int[]> edges = new ArrayList<int[]>();
+		for (int u = 0; u < n; u++)
+			for (int v = u + 1; v < n; v++)
+				if (adj[u][v]) edges.add(new int[] { u, v });
+		int m = edges.size();
+		int[] block = new int[m];
+		for (int e = 0; e < m; e++) block[e] = e;
+		int[][] cut = new int[n + 1][];
+		for (int x = -1; x < n; x++) cut[x + 1] = components(adj, x, -1, -1);
+		for (int e = 0; e < m; e++) {
+			for (int f = e + 1; f < m; f++) {
+				boolean together = true;
+				for (int x = -1; x < n && together; x++) {
+					int ce = cut[x + 1][edges.get(e)[0] == x ? edges.get(e)[1] : edges.get(e)[0]];
+					int cf = cut[x + 1][edges.get(f)[0] == x ? edges.get(f)[1] : edges.get(f)[0]];
+					if (ce != cf) together = false;
+				}
+				if (together) {
+					int from = block[f], to = block[e];
+					for (int k = 0; k < m; k++)
+						if (block[k] == from) block[k] = to;
+				}
+			}
+		}
+		List<Set<Integer>> sets = new ArrayList<Set<Integer>>();
+		for (int e = 0; e < m; e++) {
+			while (sets.size() <= block[e]) sets.add(null);
+			if (sets.get(block[e]) == null) sets.set(block[e], new HashSet<Integer>());
+			sets.get(block[e]).add(edges.get(e)[0]);
+			sets.get(block[e]).add(edges.get(e)[1]);
+		}
+		Set<Set<Integer>> ret = new HashSet<Set<Integer>>();
+		for (Set<Integer> s : sets)
+			if (s != null) ret.add(s);
+		return ret;
+	}
+
+}
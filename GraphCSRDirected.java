@@ -0,0 +1,469 @@
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Grafo orientato di sola lettura memorizzato in formato CSR (Compressed
+ * Sparse Row): per ogni nodo i successori sono contigui ed ordinati per indice
+ * in un unico array di interi, con le etichette degli archi nelle stesse
+ * posizioni, ed i predecessori sono memorizzati allo stesso modo insieme alla
+ * posizione del corrispondente arco uscente.
+ *
+ * Il grafo viene costruito da {@link ParallelGraphBuilder}; la sua struttura
+ * non può più cambiare, per cui tutti i metodi che aggiungono o tolgono nodi
+ * ed archi lanciano {@link UnsupportedOperationException}. Gli unici dati
+ * modificabili sono i colori dei nodi, memorizzati in un array di interi.
+ *
+ * Come {@link GraphMatrixDirected}, tra due nodi esiste al più un arco.
+ */
+public class GraphCSRDirected<V, E> implements Graph<V, E> {
+
+	/* Struttura del grafo: etichette dei nodi e liste di adiacenza */
+	private final IndexedGraph<V> structure;
+
+	/* Etichette degli archi, nelle stesse posizioni dei successori */
+	private final Object[] edgeLabels;
+
+	/* Per ogni posizione dei predecessori, posizione del relativo arco tra i successori */
+	private final int[] inEdges;
+
+	/* Colore di ogni nodo */
+	private final int[] colors;
+
+	/**
+	 * Costruttore a partire dagli array già calcolati.
+	 * @param structure		struttura del grafo, diretta
+	 * @param edgeLabels	etichette degli archi
+	 * @param inEdges		posizioni degli archi entranti tra i successori
+	 */
+	GraphCSRDirected(IndexedGraph<V> structure, Object[] edgeLabels, int[] inEdges) {
+		this.structure = structure;
+		this.edgeLabels = edgeLabels;
+		this.inEdges = inEdges;
+		this.colors = new int[structure.size()];
+	}
+
+	/**
+	 * Costruisce la copia di sola lettura di un grafo orientato.
+	 * @param g		grafo da copiare
+	 * @return la copia in formato CSR
+	 * @throws IllegalArgumentException se il grafo non è diretto
+	 */
+	public static <V, E> GraphCSRDirected<V, E> copyOf(Graph<V, E> g) {
+		if (g == null) throw new NullPointerException("Tentativo di copiare un grafo null.");
+		if (!g.isDirected()) throw new IllegalArgumentException("Il grafo da copiare non è diretto.");
+		ParallelGraphBuilder<V, E> builder = new ParallelGraphBuilder<V, E>();
+		for (int i = 0; i < g.size(); i++) builder.addNode(g.getNodeAtIndex(i));
+		for (Edge<V, E> e : g.getEdges()) builder.addEdge(e.getLabel1(), e.getLabel2(), e.getLabel());
+		return builder.build();
+	}
+
+	/**
+	 * Ritorna la struttura del grafo senza copiarla; usata da
+	 * {@link IndexedGraph#of(Graph)}.
+	 * @return istantanea indicizzata del grafo
+	 */
+	IndexedGraph<V> snapshot() {
+		return structure;
+	}
+
+	/**
+	 * Ritorna il numero di nodi del grafo.
+	 * @return numero di nodi
+	 */
+	@Override
+	public int size() {
+		return structure.size();
+	}
+
+	/**
+	 * Dice se il grafo è vuoto.
+	 * @return true se il grafo non ha nodi
+	 */
+	@Override
+	public boolean isEmpty() {
+		return structure.size() == 0;
+	}
+
+	/**
+	 * Il grafo è sempre orientato.
+	 * @return true
+	 */
+	@Override
+	public boolean isDirected() {
+		return true;
+	}
+
+	/**
+	 * Operazione non supportata: il grafo è di sola lettura.
+	 */
+	@Override
+	public boolean addNode(V label) {
+		throw new UnsupportedOperationException("Il grafo CSR è di sola lettura.");
+	}
+
+	/**
+	 * Operazione non supportata: il grafo è di sola lettura.
+	 */
+	@Override
+	public boolean removeNode(V label) {
+		throw new UnsupportedOperationException("Il grafo CSR è di sola lettura.");
+	}
+
+	/**
+	 * Verifica la presenza di un nodo.
+	 * @param label		etichetta del nodo
+	 * @return true se il nodo è presente
+	 */
+	@Override
+	public boolean containsNode(V label) {
+		if (label == null) throw new NullPointerException("Tentativo di ricerca di nodo null");
+		return structure.containsNode(label);
+	}
+
+	/**
+	 * Ritorna l'indice di un nodo, che non cambia mai.
+	 * @param label		etichetta del nodo
+	 * @return indice del nodo
+	 */
+	@Override
+	public int getNodeIndex(V label) {
+		return structure.indexOf(label);
+	}
+
+	/**
+	 * Restituisce il nodo all'indice i.
+	 * @param i		indice del nodo
+	 * @return etichetta del nodo
+	 */
+	@Override
+	public V getNodeAtIndex(int i) {
+		if (i < 0 || i >= size()) throw new IndexOutOfBoundsException("L'indice non corrisponde a nessun nodo.");
+		return structure.labelAt(i);
+	}
+
+	/**
+	 * Ritorna il colore di un nodo.
+	 * @param label		etichetta del nodo
+	 * @return colore del nodo
+	 */
+	@Override
+	public int getColor(V label) {
+		return colors[structure.indexOf(label)];
+	}
+
+	/**
+	 * Imposta il colore di un nodo.
+	 * @param label		etichetta del nodo
+	 * @param color		colore da impostare
+	 */
+	@Override
+	public void setColor(V label, int color) {
+		colors[structure.indexOf(label)] = color;
+	}
+
+	/**
+	 * Restituisce il grado di un nodo, somma del grado entrante e uscente.
+	 * @param label		etichetta del nodo
+	 * @return grado del nodo
+	 */
+	@Override
+	public int getDegree(V label) {
+		int i = structure.indexOf(label);
+		return structure.outDegree(i) + structure.inDegree(i);
+	}
+
+	/**
+	 * Restituisce il grado entrante di un nodo.
+	 * @param label		etichetta del nodo
+	 * @return numero di archi entranti
+	 */
+	@Override
+	public int inDegree(V label) {
+		return structure.inDegree(structure.indexOf(label));
+	}
+
+	/**
+	 * Restituisce il grado uscente di un nodo.
+	 * @param label		etichetta del nodo
+	 * @return numero di archi uscenti
+	 */
+	@Override
+	public int outDegree(V label) {
+		return structure.outDegree(structure.indexOf(label));
+	}
+
+	/**
+	 * Metodo non supportato per grafi orientati.
+	 */
+	@Override
+	public Set<V> neighbors(V label) {
+		throw new UnsupportedOperationException("Non è possibile restituire l'insieme dei nodi adiacenti in quanto il grafo è orientato.");
+	}
+
+	/**
+	 * Ritorna i successori di un nodo.
+	 * @param label		etichetta del nodo
+	 * @return insieme dei successori
+	 */
+	@Override
+	public Set<V> successors(V label) {
+		int i = structure.indexOf(label);
+		Set<V> nodes = new HashSet<V>();
+		for (int k = structure.outStart(i); k < structure.outEnd(i); k++) nodes.add(structure.labelAt(structure.outTarget(k)));
+		return nodes;
+	}
+
+	/**
+	 * Ritorna i predecessori di un nodo.
+	 * @param label		etichetta del nodo
+	 * @return insieme dei predecessori
+	 */
+	@Override
+	public Set<V> predecessors(V label) {
+		int i = structure.indexOf(label);
+		Set<V> nodes = new HashSet<V>();
+		for (int k = structure.inStart(i); k < structure.inEnd(i); k++) nodes.add(structure.labelAt(structure.inTarget(k)));
+		return nodes;
+	}
+
+	/**
+	 * Ritorna l'insieme dei nodi del grafo.
+	 * @return insieme dei nodi
+	 */
+	@Override
+	public Set<V> getNodes() {
+		Set<V> nodes = new HashSet<V>();
+		for (int i = 0; i < size(); i++) nodes.add(structure.labelAt(i));
+		return nodes;
+	}
+
+	/**
+	 * Operazione non supportata: il grafo è di sola lettura.
+	 */
+	@Override
+	public boolean addEdge(V label1, V label2, E label) {
+		throw new UnsupportedOperationException("Il grafo CSR è di sola lettura.");
+	}
+
+	/**
+	 * Operazione non supportata: il grafo è di sola lettura.
+	 */
+	@Override
+	public boolean removeEdge(V label1, V label2, E label) {
+		throw new UnsupportedOperationException("Il grafo CSR è di sola lettura.");
+	}
+
+	/**
+	 * Cerca la posizione dell'arco tra due nodi con una ricerca binaria nei
+	 * successori della sorgente.
+	 * @param u		indice della sorgente
+	 * @param v		indice della destinazione
+	 * @return posizione dell'arco, -1 se l'arco non esiste
+	 */
+	private int edgePosition(int u, int v) {
+		int lo = structure.outStart(u);
+		int hi = structure.outEnd(u) - 1;
+		while (lo <= hi) {
+			int mid = (lo + hi) >>> 1;
+			int w = structure.outTarget(mid);
+			if (w < v) lo = mid + 1;
+			else if (w > v) hi = mid - 1;
+			else return mid;
+		}
+		return -1;
+	}
+
+	/**
+	 * Ritorna l'etichetta dell'arco memorizzato in una posizione.
+	 * @param k		posizione dell'arco
+	 * @return etichetta dell'arco, anche null
+	 */
+	@SuppressWarnings("unchecked")
+	private E edgeLabel(int k) {
+		return (E) edgeLabels[k];
+	}
+
+	/**
+	 * Verifica la presenza di un arco con una certa etichetta.
+	 * @param label1		etichetta del nodo sorgente
+	 * @param label2		etichetta del nodo destinazione
+	 * @param label			etichetta dell'arco
+	 * @return true se l'arco è presente
+	 */
+	@Override
+	public boolean containsEdge(V label1, V label2, E label) {
+		int k = edgePosition(structure.indexOf(label1), structure.indexOf(label2));
+		if (k == -1) return false;
+		E edgeLabel = edgeLabel(k);
+		return edgeLabel == null ? label == null : edgeLabel.equals(label);
+	}
+
+	/**
+	 * Verifica la presenza di molti archi con ricerche binarie nei
+	 * successori; le interrogazioni vengono ordinate per indice della
+	 * sorgente, in modo da leggere gli array in ordine.
+	 * @param sources		etichette dei nodi sorgente
+	 * @param targets		etichette dei nodi destinazione
+	 * @param labels		etichette degli archi
+	 * @param result		array delle risposte
+	 */
+	@Override
+	public void containsEdges(V[] sources, V[] targets, E[] labels, boolean[] result) {
+		IndexedGraph.checkBatch(sources.length, targets.length, labels.length, result.length);
+		int[] s = new int[sources.length];
+		for (int k = 0; k < s.length; k++) s[k] = structure.indexOf(sources[k]);
+		int[] t = new int[targets.length];
+		for (int k = 0; k < t.length; k++) t[k] = structure.indexOf(targets[k]);
+		for (int q : IndexedGraph.orderBySource(s, structure.size())) {
+			int k = edgePosition(s[q], t[q]);
+			E edgeLabel = k == -1 ? null : edgeLabel(k);
+			result[q] = k != -1 && (edgeLabel == null ? labels[q] == null : edgeLabel.equals(labels[q]));
+		}
+	}
+
+	/**
+	 * Restituisce il numero totale di successori di un gruppo di nodi.
+	 * @param nodes		etichette dei nodi
+	 * @return somma dei gradi uscenti
+	 */
+	@Override
+	public int successorCount(V[] nodes) {
+		int count = 0;
+		for (V label : nodes) count += structure.outDegree(structure.indexOf(label));
+		return count;
+	}
+
+	/**
+	 * Scrive i successori di un gruppo di nodi in formato CSR copiando le
+	 * liste di adiacenza, già ordinate.
+	 * @param nodes			etichette dei nodi
+	 * @param offsets		inizi delle liste
+	 * @param targets		indici dei successori
+	 * @return numero di indici scritti
+	 */
+	@Override
+	public int successors(V[] nodes, int[] offsets, int[] targets) {
+		if (offsets.length < nodes.length + 1) throw new IllegalArgumentException("L'array degli inizi delle liste è troppo corto.");
+		int count = 0;
+		offsets[0] = 0;
+		for (int k = 0; k < nodes.length; k++) {
+			int i = structure.indexOf(nodes[k]);
+			if (count + structure.outDegree(i) > targets.length) throw new IllegalArgumentException("L'array dei successori è troppo corto.");
+			for (int e = structure.outStart(i); e < structure.outEnd(i); e++) targets[count++] = structure.outTarget(e);
+			offsets[k + 1] = count;
+		}
+		return count;
+	}
+
+	/**
+	 * Restituisce l'insieme degli archi tra due nodi, vuoto o con un solo arco.
+	 * @param label1		etichetta del nodo sorgente
+	 * @param label2		etichetta del nodo destinazione
+	 * @return insieme degli archi
+	 */
+	@Override
+	public Set<Edge<V, E>> getEdges(V label1, V label2) {
+		Set<Edge<V, E>> edges = new HashSet<Edge<V, E>>();
+		int k = edgePosition(structure.indexOf(label1), structure.indexOf(label2));
+		if (k != -1) edges.add(new Edge<V, E>(label1, label2, edgeLabel(k), true));
+		return edges;
+	}
+
+	/**
+	 * Operazione non supportata per grafo diretto.
+	 */
+	@Override
+	public Set<Edge<V, E>> getEdges(V label) {
+		throw new UnsupportedOperationException("Non è possibile restituire l'insieme di tutti gli archi connessi a un certo nodo in " +
+				"quanto il grafo è orientato.");
+	}
+
+	/**
+	 * Restituisce l'insieme di tutti gli archi del grafo.
+	 * @return insieme degli archi
+	 */
+	@Override
+	public Set<Edge<V, E>> getEdges() {
+		Set<Edge<V, E>> edges = new HashSet<Edge<V, E>>();
+		for (int u = 0; u < size(); u++) {
+			V label1 = structure.labelAt(u);
+			for (int k = structure.outStart(u); k < structure.outEnd(u); k++)
+				edges.add(new Edge<V, E>(label1, structure.labelAt(structure.outTarget(k)), edgeLabel(k), true));
+		}
+		return edges;
+	}
+
+	/**
+	 * Restituisce gli archi uscenti da un nodo.
+	 * @param label		etichetta del nodo
+	 * @return insieme degli archi uscenti
+	 */
+	@Override
+	public Set<Edge<V, E>> outgoingEdges(V label) {
+		int u = structure.indexOf(label);
+		Set<Edge<V, E>> edges = new HashSet<Edge<V, E>>();
+		for (int k = structure.outStart(u); k < structure.outEnd(u); k++)
+			edges.add(new Edge<V, E>(label, structure.labelAt(structure.outTarget(k)), edgeLabel(k), true));
+		return edges;
+	}
+
+	/**
+	 * Restituisce gli archi entranti in un nodo.
+	 * @param label		etichetta del nodo
+	 * @return insieme degli archi entranti
+	 */
+	@Override
+	public Set<Edge<V, E>> ingoingEdges(V label) {
+		int v = structure.indexOf(label);
+		Set<Edge<V, E>> edges = new HashSet<Edge<V, E>>();
+		for (int k = structure.inStart(v); k < structure.inEnd(v); k++)
+			edges.add(new Edge<V, E>(structure.labelAt(structure.inTarget(k)), label, edgeLabel(inEdges[k]), true));
+		return edges;
+	}
+
+	/**
+	 * Ritorna il numero di archi del grafo.
+	 * @return numero di archi
+	 */
+	@Override
+	public int edgeCount() {
+		return structure.edgeCount();
+	}
+
+	/**
+	 * Operazione non supportata: il grafo è di sola lettura.
+	 */
+	@Override
+	public void clear() {
+		throw new UnsupportedOperationException("Il grafo CSR è di sola lettura.");
+	}
+
+	/**
+	 * Il grafo non cambia mai, per cui la versione è sempre zero.
+	 * @return 0
+	 */
+	@Override
+	public long getVersion() {
+		return 0;
+	}
+
+	/**
+	 * Rappresentazione degli archi del grafo con le relative etichette, nello
+	 * stesso formato di {@link GraphMatrixDirected#toString()}.
+	 */
+	@Override
+	public String toString() {
+		StringBuilder app = new StringBuilder();
+		for (int u = 0; u < size(); u++) {
+			V node = structure.labelAt(u);
+			for (int k = structure.outStart(u); k < structure.outEnd(u); k++) {
+				V s = structure.labelAt(structure.outTarget(k));
+				app.append("(" + node + ") --> (" + s + ")\t");
+				app.append("w(" + node + "," + s + ") = " + edgeLabel(k));
+				app.append("\n");
+			}
+		}
+		return app.toString();
+	}
+
+}
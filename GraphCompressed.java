@@ -0,0 +1,1110 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+import java.util.Set;
+
+/**
+ * Grafo orientato di sola lettura con le liste di adiacenza compresse, nello
+ * stile di WebGraph. La lista dei successori di ogni nodo, ordinata per
+ * indice, è memorizzata come sequenza di interi a lunghezza variabile
+ * (varint: 7 bit per byte, l'ottavo indica se segue un altro byte):
+ * <ul>
+ * <li>il grado uscente;</li>
+ * <li>la differenza tra il primo successore e il nodo stesso, con il segno
+ * nel bit meno significativo (zigzag);</li>
+ * <li>per ogni successore seguente, la distanza dal precedente meno uno.</li>
+ * </ul>
+ * Quando i successori hanno indici vicini tra loro o al nodo (come dopo una
+ * rinumerazione di {@link GraphReordering}) le distanze sono piccole e la
+ * maggior parte occupa un solo byte, invece dei 4 di un array di interi. I
+ * predecessori sono memorizzati allo stesso modo.
+ *
+ * Le liste sono scritte in pagine di byte: una lista non attraversa mai il
+ * confine tra due pagine, per cui si decodifica da un solo array, ed il
+ * numero totale di byte non è limitato dalla lunghezza massima di un array.
+ * Le etichette degli archi sono memorizzate solo se almeno una non è null.
+ *
+ * Oltre che da un grafo già costruito ({@link #copyOf(Graph)},
+ * {@link #compress(IndexedGraph)}) il grafo può essere scritto una sorgente
+ * alla volta con un {@link Builder}, senza passare da un'istantanea CSR: le
+ * liste dei successori sono compresse man mano e quelle dei predecessori
+ * sono ottenute alla fine con una trasposizione per conteggio scritta
+ * direttamente nelle pagine. {@link ParallelGraphBuilder#buildCompressed()}
+ * e {@link GraphGenerator#toCompressed(java.util.function.IntFunction, Object)}
+ * lo usano per archi che arrivano in ordine qualsiasi.
+ *
+ * I byte delle liste non hanno limite, ma il numero di archi sì: al più
+ * {@link #MAX_EDGES}, perché {@link #edgeCount()} è un int e le etichette,
+ * quando ci sono, stanno in un solo array indicizzato per arco.
+ *
+ * Come {@link GraphCSRDirected}, la struttura non può cambiare: i metodi che
+ * aggiungono o tolgono nodi ed archi lanciano
+ * {@link UnsupportedOperationException}; tra due nodi esiste al più un arco.
+ */
+public class GraphCompressed<V, E> implements Graph<V, E> {
+
+	/* Etichette dei nodi, indicizzate per indice */
+	private final Object[] labels;
+
+	/* Tabella inversa etichetta -> indice */
+	private final HashMap<V, Integer> index;
+
+	/* Liste dei successori e dei predecessori */
+	private final Lists out;
+	private final Lists in;
+
+	/* Numero di archi */
+	private final int edgeCount;
+
+	/* Posizione del primo arco uscente di ogni nodo in edgeLabels (size() + 1 elementi), null senza etichette */
+	private final int[] firstEdge;
+
+	/* Etichette degli archi in ordine di sorgente e destinazione, null se sono tutte null */
+	private final Object[] edgeLabels;
+
+	/* Colore di ogni nodo */
+	private final int[] colors;
+
+	/* Bit di una posizione riservati all'indirizzo all'interno della pagina */
+	private static final int PAGE_BITS = 24;
+
+	/** Numero massimo di archi di un grafo compresso. */
+	public static final int MAX_EDGES = Integer.MAX_VALUE - 8;
+
+	/**
+	 * Costruttore a partire dalle parti già calcolate.
+	 * @param labels		etichette dei nodi
+	 * @param index			tabella inversa
+	 * @param out			successori
+	 * @param in			predecessori
+	 * @param edgeCount		numero di archi
+	 * @param firstEdge		posizione del primo arco di ogni nodo, null senza etichette
+	 * @param edgeLabels	etichette degli archi, null se sono tutte null
+	 */
+	private GraphCompressed(Object[] labels, HashMap<V, Integer> index, Lists out, Lists in, int edgeCount,
+			int[] firstEdge, Object[] edgeLabels) {
+		this.labels = labels;
+		this.index = index;
+		this.out = out;
+		this.in = in;
+		this.edgeCount = edgeCount;
+		this.firstEdge = firstEdge;
+		this.edgeLabels = edgeLabels;
+		this.colors = new int[labels.length];
+	}
+
+	/**
+	 * Comprime un grafo orientato, etichette degli archi comprese. Gli
+	 * indici dei nodi restano quelli del grafo di partenza.
+	 * @param g		grafo da comprimere
+	 * @return il grafo compresso
+	 * @throws IllegalArgumentException se il grafo non è diretto
+	 */
+	public static <V, E> GraphCompressed<V, E> copyOf(Graph<V, E> g) {
+		if (g == null) throw new NullPointerException("Tentativo di comprimere un grafo null.");
+		if (!g.isDirected()) throw new IllegalArgumentException("Il grafo da comprimere non è diretto.");
+		IndexedGraph<V> snapshot = IndexedGraph.of(g);
+		int n = snapshot.size();
+		/* Le etichette sono allocate solo alla prima diversa da null */
+		Object[] edgeLabels = null;
+		for (int u = 0; u < n; u++) {
+			for (Edge<V, E> e : g.outgoingEdges(snapshot.labelAt(u))) {
+				if (e.getLabel() == null) continue;
+				if (edgeLabels == null) edgeLabels = new Object[snapshot.edgeCount()];
+				edgeLabels[edgePosition(snapshot, u, snapshot.indexOf(e.getLabel2()))] = e.getLabel();
+			}
+		}
+		int[] firstEdge = null;
+		if (edgeLabels != null) {
+			firstEdge = new int[n + 1];
+			for (int u = 0; u < n; u++) firstEdge[u + 1] = snapshot.outEnd(u);
+		}
+		return compress(snapshot, firstEdge, edgeLabels);
+	}
+
+	/**
+	 * Cerca per bisezione la posizione di un arco tra quelli uscenti da un
+	 * nodo di un'istantanea, che sono ordinati per destinazione.
+	 * @param g		istantanea
+	 * @param u		indice della sorgente
+	 * @param v		indice della destinazione, che deve essere un successore di u
+	 * @return posizione dell'arco in outTarget
+	 */
+	private static int edgePosition(IndexedGraph<?> g, int u, int v) {
+		int low = g.outStart(u);
+		int high = g.outEnd(u) - 1;
+		while (low < high) {
+			int mid = (low + high) >>> 1;
+			if (g.outTarget(mid) < v) low = mid + 1;
+			else high = mid;
+		}
+		return low;
+	}
+
+	/**
+	 * Comprime un'istantanea indicizzata; gli archi non hanno etichetta.
+	 * @param g		istantanea di un grafo diretto
+	 * @return il grafo compresso
+	 * @throws IllegalArgumentException se l'istantanea non è diretta
+	 */
+	public static <V> GraphCompressed<V, Object> compress(IndexedGraph<V> g) {
+		if (g == null) throw new NullPointerException("Tentativo di comprimere un grafo null.");
+		if (!g.isDirected()) throw new IllegalArgumentException("Il grafo da comprimere non è diretto.");
+		return compress(g, null, null);
+	}
+
+	/**
+	 * Comprime le liste di un'istantanea.
+	 * @param g				istantanea
+	 * @param firstEdge		posizione del primo arco di ogni nodo, null senza etichette
+	 * @param edgeLabels	etichette degli archi, null senza etichette
+	 * @return il grafo compresso
+	 */
+	private static <V, E> GraphCompressed<V, E> compress(IndexedGraph<V> g, int[] firstEdge, Object[] edgeLabels) {
+		int n = g.size();
+		Object[] labels = new Object[n];
+		HashMap<V, Integer> index = new HashMap<V, Integer>(2 * n);
+		for (int i = 0; i < n; i++) {
+			labels[i] = g.labelAt(i);
+			index.put(g.labelAt(i), i);
+		}
+		Lists out = new Lists(n);
+		Lists in = new Lists(n);
+		int[] buffer = new int[16];
+		for (int i = 0; i < n; i++) {
+			int d = g.outDegree(i);
+			if (d > buffer.length) buffer = new int[Math.max(d, 2 * buffer.length)];
+			for (int k = 0; k < d; k++) buffer[k] = g.outTarget(g.outStart(i) + k);
+			out.append(i, buffer, d);
+			d = g.inDegree(i);
+			if (d > buffer.length) buffer = new int[Math.max(d, 2 * buffer.length)];
+			for (int k = 0; k < d; k++) buffer[k] = g.inTarget(g.inStart(i) + k);
+			in.append(i, buffer, d);
+		}
+		out.trim();
+		in.trim();
+		return new GraphCompressed<V, E>(labels, index, out, in, g.edgeCount(), firstEdge, edgeLabels);
+	}
+
+	/**
+	 * Calcola le liste dei predecessori trasponendo per conteggio quelle dei
+	 * successori già compresse, in due passate su di esse: la prima misura i
+	 * byte della lista di ogni nodo, la seconda vi scrive i predecessori, che
+	 * arrivano in ordine crescente di indice. Oltre alle liste usa tre array
+	 * di n interi, indipendentemente dal numero di archi.
+	 * @param out	liste dei successori
+	 * @param n		numero di nodi
+	 * @return liste dei predecessori
+	 */
+	private static Lists transpose(Lists out, int n) {
+		Lists in = new Lists(n);
+		if (n == 0) {
+			in.trim();
+			return in;
+		}
+		int[] last = new int[n];			/* Ultimo predecessore incontrato di ogni nodo, -1 per nessuno */
+		int[] degree = new int[n];
+		int[] cursor = new int[n];			/* Prima byte dei valori della lista, poi posizione di scrittura */
+		Arrays.fill(last, -1);
+		NeighborIterator it = new NeighborIterator(out, 0);
+		for (int u = 0; u < n; u++) {
+			for (it.reset(u); it.hasNext();) {
+				int v = it.nextInt();
+				cursor[v] += Lists.varintSize(last[v] == -1 ? Lists.zigzag(u - v) : u - last[v] - 1);
+				if (cursor[v] > Integer.MAX_VALUE - 16) throw new IllegalStateException("Troppi predecessori per un nodo.");
+				last[v] = u;
+				degree[v]++;
+			}
+		}
+		for (int v = 0; v < n; v++) cursor[v] = in.reserve(v, degree[v], cursor[v]);
+		Arrays.fill(last, -1);
+		for (int u = 0; u < n; u++) {
+			for (it.reset(u); it.hasNext();) {
+				int v = it.nextInt();
+				byte[] page = in.pages[(int) (in.positions[v] >>> PAGE_BITS)];
+				cursor[v] = Lists.writeVarint(page, cursor[v], last[v] == -1 ? Lists.zigzag(u - v) : u - last[v] - 1);
+				last[v] = u;
+			}
+		}
+		in.trim();
+		return in;
+	}
+
+	/**
+	 * Costruttore incrementale di un grafo compresso, che comprime le liste
+	 * dei successori man mano che arrivano. I nodi vanno registrati tutti
+	 * prima degli archi, che vanno aggiunti per sorgente non decrescente; gli
+	 * archi di una stessa sorgente possono arrivare in qualunque ordine e
+	 * ripetuti, nel qual caso resta l'etichetta della prima aggiunta. In
+	 * memoria restano solo le liste compresse, la riga della sorgente
+	 * corrente e qualche array di n interi; le etichette degli archi sono
+	 * allocate solo alla prima diversa da null.
+	 */
+	public static class Builder<V, E> {
+
+		/* Etichette dei nodi registrati, in ordine di indice */
+		private final ArrayList<V> nodes = new ArrayList<V>();
+
+		/* Tabella inversa etichetta -> indice */
+		private final HashMap<V, Integer> index = new HashMap<V, Integer>();
+
+		/* Liste dei successori, create al primo arco */
+		private Lists out;
+
+		/* Posizione del primo arco uscente di ogni nodo */
+		private int[] firstEdge;
+
+		/* Etichette degli archi, null finché sono tutte null */
+		private Object[] edgeLabels;
+
+		/* Numero di archi delle righe già scritte */
+		private int edgeCount;
+
+		/* Primo nodo la cui lista non è ancora stata scritta */
+		private int next;
+
+		/* Sorgente della riga corrente, -1 prima del primo arco */
+		private int source = -1;
+
+		/* Archi della riga corrente: chiavi (destinazione << 32) | ordine di arrivo, ed etichette */
+		private long[] row = new long[16];
+		private Object[] rowLabels = new Object[16];
+		private int rowSize;
+
+		/* Destinazioni distinte della riga corrente */
+		private int[] targets = new int[16];
+
+		/* true dopo che il grafo è stato costruito */
+		private boolean built;
+
+		/**
+		 * Registra un nodo, che riceve come indice il numero di nodi già registrati.
+		 * @param label		etichetta del nodo
+		 * @return true se il nodo è stato registrato, false se era già presente
+		 * @throws IllegalStateException se sono già stati aggiunti archi
+		 */
+		public boolean addNode(V label) {
+			if (label == null) throw new NullPointerException("Tentativo di inserimento di nodo null");
+			if (out != null || built) throw new IllegalStateException("I nodi vanno registrati prima degli archi.");
+			if (index.containsKey(label)) return false;
+			index.put(label, nodes.size());
+			nodes.add(label);
+			return true;
+		}
+
+		/**
+		 * Ritorna il numero di nodi registrati.
+		 * @return numero di nodi
+		 */
+		public int size() {
+			return nodes.size();
+		}
+
+		/**
+		 * Aggiunge un arco tra due nodi registrati.
+		 * @param label1		etichetta del nodo sorgente
+		 * @param label2		etichetta del nodo destinazione
+		 * @param label			etichetta dell'arco, anche null
+		 * @throws IllegalArgumentException se uno dei nodi non è registrato
+		 * @throws IllegalStateException se la sorgente precede quella dell'arco precedente
+		 */
+		public void addEdge(V label1, V label2, E label) {
+			addEdgeByIndex(indexOf(label1), indexOf(label2), label);
+		}
+
+		/**
+		 * Aggiunge un arco tra due nodi identificati dal loro indice.
+		 * @param u			indice del nodo sorgente
+		 * @param v			indice del nodo destinazione
+		 * @param label		etichetta dell'arco, anche null
+		 * @throws IndexOutOfBoundsException se uno degli indici non corrisponde a un nodo
+		 * @throws IllegalStateException se u precede la sorgente dell'arco precedente
+		 * o se il grafo è già stato costruito
+		 */
+		public void addEdgeByIndex(int u, int v, E label) {
+			if (built) throw new IllegalStateException("Il grafo è già stato costruito.");
+			int n = nodes.size();
+			if (u < 0 || u >= n || v < 0 || v >= n) throw new IndexOutOfBoundsException("L'indice non corrisponde a nessun nodo.");
+			if (u < source) throw new IllegalStateException("Gli archi vanno aggiunti per sorgente non decrescente.");
+			if (out == null) {
+				out = new Lists(n);
+				firstEdge = new int[n + 1];
+			}
+			if (u != source) {
+				flush();
+				source = u;
+			}
+			if (rowSize == row.length) {
+				row = Arrays.copyOf(row, 2 * rowSize);
+				rowLabels = Arrays.copyOf(rowLabels, 2 * rowSize);
+			}
+			row[rowSize] = ((long) v << 32) | rowSize;
+			rowLabels[rowSize] = label;
+			rowSize++;
+		}
+
+		/**
+		 * Costruisce il grafo; il costruttore non può più essere usato.
+		 * @return il grafo compresso
+		 * @throws IllegalStateException se il grafo è già stato costruito
+		 */
+		public GraphCompressed<V, E> build() {
+			if (built) throw new IllegalStateException("Il grafo è già stato costruito.");
+			int n = nodes.size();
+			if (out == null) {
+				out = new Lists(n);
+				firstEdge = new int[n + 1];
+			}
+			flush();
+			skipTo(n);
+			built = true;
+			out.trim();
+			Lists in = transpose(out, n);
+			GraphCompressed<V, E> g = new GraphCompressed<V, E>(nodes.toArray(), index, out, in, edgeCount,
+					edgeLabels == null ? null : firstEdge, edgeLabels == null ? null : Arrays.copyOf(edgeLabels, edgeCount));
+			out = null;
+			firstEdge = null;
+			edgeLabels = null;
+			row = null;
+			rowLabels = null;
+			targets = null;
+			return g;
+		}
+
+		/**
+		 * Ordina la riga corrente, ne toglie gli archi ripetuti e la scrive.
+		 */
+		private void flush() {
+			if (source == -1) return;
+			skipTo(source);
+			Arrays.sort(row, 0, rowSize);
+			if (rowSize > targets.length) targets = new int[Math.max(rowSize, 2 * targets.length)];
+			int d = 0;
+			for (int k = 0; k < rowSize; k++) {
+				int v = (int) (row[k] >>> 32);
+				if (d > 0 && targets[d - 1] == v) continue;
+				if (edgeCount + d >= MAX_EDGES) throw new IllegalStateException("Troppi archi per un grafo compresso.");
+				setLabel(edgeCount + d, rowLabels[(int) row[k]]);
+				targets[d++] = v;
+			}
+			Arrays.fill(rowLabels, 0, rowSize, null);
+			rowSize = 0;
+			out.append(source, targets, d);
+			edgeCount += d;
+			firstEdge[source + 1] = edgeCount;
+			next = source + 1;
+		}
+
+		/**
+		 * Scrive liste vuote per i nodi senza archi uscenti fino ad un nodo escluso.
+		 * @param u		primo nodo da non scrivere
+		 */
+		private void skipTo(int u) {
+			for (; next < u; next++) {
+				out.append(next, targets, 0);
+				firstEdge[next + 1] = edgeCount;
+			}
+		}
+
+		/**
+		 * Memorizza l'etichetta di un arco, allocando le etichette alla prima
+		 * diversa da null.
+		 * @param k			numero dell'arco
+		 * @param label		etichetta
+		 */
+		private void setLabel(int k, Object label) {
+			if (label == null) return;
+			if (edgeLabels == null) edgeLabels = new Object[Math.max(16, k + 1)];
+			else if (k >= edgeLabels.length) edgeLabels = Arrays.copyOf(edgeLabels, (int) Math.min(MAX_EDGES, Math.max(k + 1, 2L * edgeLabels.length)));
+			edgeLabels[k] = label;
+		}
+
+		/**
+		 * Cerca l'indice di un nodo registrato.
+		 * @param label		etichetta del nodo
+		 * @return indice del nodo
+		 * @throws IllegalArgumentException se il nodo non è registrato
+		 */
+		private int indexOf(V label) {
+			if (label == null) throw new NullPointerException("Tentativo di ricerca dell'indice di un nodo nullo.");
+			Integer i = index.get(label);
+			if (i == null) throw new IllegalArgumentException("Il nodo non è stato registrato.");
+			return i;
+		}
+	}
+
+	/*
+	 * Liste di interi compresse, una per nodo, scritte in pagine di byte.
+	 * La posizione di una lista contiene il numero di pagina nei bit alti e
+	 * l'indirizzo nella pagina nei PAGE_BITS bit bassi.
+	 */
+	private static class Lists {
+
+		/* Pagine di byte */
+		private byte[][] pages = new byte[1][];
+
+		/* Numero di pagine usate */
+		private int pageCount;
+
+		/* Byte usati nell'ultima pagina */
+		private int used;
+
+		/* Posizione della lista di ogni nodo */
+		private final long[] positions;
+
+		/* Byte occupati da tutte le liste */
+		private long bytes;
+
+		private Lists(int n) {
+			this.positions = new long[n];
+		}
+
+		/**
+		 * Aggiunge la lista di un nodo, ordinata e senza ripetizioni.
+		 * @param node		indice del nodo
+		 * @param values	valori della lista
+		 * @param d			numero di valori
+		 */
+		private void append(int node, int[] values, int d) {
+			/* Al più 5 byte per ogni intero */
+			int start = open(node, 5 * (d + 2));
+			byte[] page = pages[pageCount - 1];
+			int p = writeVarint(page, start, d);
+			if (d > 0) {
+				p = writeVarint(page, p, zigzag(values[0] - node));
+				for (int k = 1; k < d; k++) p = writeVarint(page, p, values[k] - values[k - 1] - 1);
+			}
+			bytes += p - start;
+			used = p;
+		}
+
+		/**
+		 * Riserva lo spazio esatto per la lista di un nodo e ne scrive il
+		 * grado; i valori vanno scritti dopo, a partire dalla posizione
+		 * restituita.
+		 * @param node		indice del nodo
+		 * @param d			numero di valori
+		 * @param size		byte occupati dai valori
+		 * @return posizione nella pagina del primo valore
+		 */
+		private int reserve(int node, int d, int size) {
+			int total = varintSize(d) + size;
+			int start = open(node, total);
+			used = start + total;
+			bytes += total;
+			return writeVarint(pages[pageCount - 1], start, d);
+		}
+
+		/**
+		 * Fissa la posizione della lista di un nodo, nell'ultima pagina se vi
+		 * sono abbastanza byte liberi ed altrimenti in una pagina nuova.
+		 * @param node		indice del nodo
+		 * @param max		byte massimi della lista
+		 * @return posizione della lista nell'ultima pagina
+		 */
+		private int open(int node, int max) {
+			/* L'inizio della lista deve stare nei PAGE_BITS bit */
+			if (pageCount == 0 || used + max > pages[pageCount - 1].length || used >= 1 << PAGE_BITS) {
+				if (pageCount > 0) pages[pageCount - 1] = Arrays.copyOf(pages[pageCount - 1], used);
+				if (pageCount == pages.length) pages = Arrays.copyOf(pages, 2 * pages.length);
+				pages[pageCount++] = new byte[Math.max(1 << PAGE_BITS, max)];
+				used = 0;
+			}
+			positions[node] = ((long) (pageCount - 1) << PAGE_BITS) | used;
+			return used;
+		}
+
+		/**
+		 * Codifica una differenza con segno come intero non negativo, con il
+		 * segno nel bit meno significativo.
+		 * @param value		differenza
+		 * @return valore codificato
+		 */
+		private static int zigzag(int value) {
+			return (value << 1) ^ (value >> 31);
+		}
+
+		/**
+		 * Ritorna i byte occupati da un intero in formato varint.
+		 * @param value		valore, senza segno
+		 * @return numero di byte, da 1 a 5
+		 */
+		private static int varintSize(int value) {
+			return 1 + (31 - Integer.numberOfLeadingZeros(value | 1)) / 7;
+		}
+
+		/**
+		 * Scrive un intero non negativo in formato varint.
+		 * @param page		pagina
+		 * @param p			posizione del primo byte
+		 * @param value		valore
+		 * @return posizione dopo l'ultimo byte scritto
+		 */
+		private static int writeVarint(byte[] page, int p, int value) {
+			while ((value & ~0x7F) != 0) {
+				page[p++] = (byte) ((value & 0x7F) | 0x80);
+				value >>>= 7;
+			}
+			page[p++] = (byte) value;
+			return p;
+		}
+
+		/**
+		 * Riduce l'ultima pagina ai byte usati.
+		 */
+		private void trim() {
+			if (pageCount > 0) pages[pageCount - 1] = Arrays.copyOf(pages[pageCount - 1], used);
+			pages = Arrays.copyOf(pages, pageCount);
+		}
+
+		/**
+		 * Ritorna la lunghezza della lista di un nodo.
+		 * @param node		indice del nodo
+		 * @return numero di valori
+		 */
+		private int length(int node) {
+			long position = positions[node];
+			byte[] page = pages[(int) (position >>> PAGE_BITS)];
+			int p = (int) position & ((1 << PAGE_BITS) - 1);
+			int value = 0;
+			for (int shift = 0;; shift += 7) {
+				byte b = page[p++];
+				value |= (b & 0x7F) << shift;
+				if (b >= 0) return value;
+			}
+		}
+	}
+
+	/**
+	 * Iteratore sui successori o sui predecessori di un nodo, in ordine
+	 * crescente di indice, che decodifica la lista compressa man mano.
+	 * Può essere riposizionato su un altro nodo con {@link #reset(int)},
+	 * in modo che una visita non debba crearne uno per ogni nodo.
+	 */
+	public static class NeighborIterator implements PrimitiveIterator.OfInt {
+
+		/* Liste su cui lavora l'iteratore */
+		private final Lists lists;
+
+		/* Pagina e posizione del prossimo byte */
+		private byte[] page;
+		private int p;
+
+		/* Valori rimasti e ultimo valore restituito */
+		private int remaining;
+		private int last;
+
+		/* true finché non è stato restituito il primo valore */
+		private boolean first;
+
+		/* Nodo della lista */
+		private int node;
+
+		private NeighborIterator(Lists lists, int node) {
+			this.lists = lists;
+			reset(node);
+		}
+
+		/**
+		 * Riposiziona l'iteratore all'inizio della lista di un nodo.
+		 * @param node		indice del nodo
+		 */
+		public void reset(int node) {
+			long position = lists.positions[node];
+			this.node = node;
+			this.page = lists.pages[(int) (position >>> PAGE_BITS)];
+			this.p = (int) position & ((1 << PAGE_BITS) - 1);
+			this.remaining = readVarint();
+			this.first = true;
+		}
+
+		/**
+		 * Legge un intero in formato varint.
+		 * @return valore letto
+		 */
+		private int readVarint() {
+			byte b = page[p++];
+			if (b >= 0) return b;
+			int value = b & 0x7F;
+			for (int shift = 7;; shift += 7) {
+				b = page[p++];
+				value |= (b & 0x7F) << shift;
+				if (b >= 0) return value;
+			}
+		}
+
+		@Override
+		public boolean hasNext() {
+			return remaining > 0;
+		}
+
+		@Override
+		public int nextInt() {
+			if (remaining == 0) throw new NoSuchElementException();
+			remaining--;
+			int value = readVarint();
+			if (first) {
+				first = false;
+				last = node + ((value >>> 1) ^ -(value & 1));
+			} else last += value + 1;
+			return last;
+		}
+	}
+
+	/**
+	 * Crea un iteratore sui successori di un nodo.
+	 * @param i		indice del nodo
+	 * @return iteratore riposizionabile
+	 */
+	public NeighborIterator successorIterator(int i) {
+		checkIndex(i);
+		return new NeighborIterator(out, i);
+	}
+
+	/**
+	 * Crea un iteratore sui predecessori di un nodo.
+	 * @param i		indice del nodo
+	 * @return iteratore riposizionabile
+	 */
+	public NeighborIterator predecessorIterator(int i) {
+		checkIndex(i);
+		return new NeighborIterator(in, i);
+	}
+
+	/**
+	 * Decodifica tutti i successori di un nodo in un array.
+	 * @param i			indice del nodo
+	 * @param buffer	array di destinazione, lungo almeno quanto il grado uscente
+	 * @return numero di successori scritti
+	 */
+	public int successors(int i, int[] buffer) {
+		NeighborIterator it = successorIterator(i);
+		int d = 0;
+		while (it.hasNext()) buffer[d++] = it.nextInt();
+		return d;
+	}
+
+	/**
+	 * Ritorna il grado uscente di un nodo.
+	 * @param i		indice del nodo
+	 * @return numero di successori
+	 */
+	public int outDegree(int i) {
+		checkIndex(i);
+		return out.length(i);
+	}
+
+	/**
+	 * Ritorna il grado entrante di un nodo.
+	 * @param i		indice del nodo
+	 * @return numero di predecessori
+	 */
+	public int inDegree(int i) {
+		checkIndex(i);
+		return in.length(i);
+	}
+
+	/**
+	 * Ritorna i byte occupati dalle liste dei successori.
+	 * @return byte delle liste compresse dei successori
+	 */
+	public long successorBytes() {
+		return out.bytes;
+	}
+
+	/**
+	 * Ritorna i byte occupati dalle liste dei predecessori.
+	 * @return byte delle liste compresse dei predecessori
+	 */
+	public long predecessorBytes() {
+		return in.bytes;
+	}
+
+	/**
+	 * Ritorna il numero medio di bit per arco delle liste dei successori,
+	 * gradi compresi; un array di interi ne usa 32.
+	 * @return bit per arco
+	 */
+	public double bitsPerEdge() {
+		return edgeCount == 0 ? 0 : 8.0 * out.bytes / edgeCount;
+	}
+
+	/**
+	 * Controlla che un indice corrisponda ad un nodo.
+	 * @param i		indice del nodo
+	 * @throws IndexOutOfBoundsException se l'indice non corrisponde a nessun nodo
+	 */
+	private void checkIndex(int i) {
+		if (i < 0 || i >= labels.length) throw new IndexOutOfBoundsException("L'indice non corrisponde a nessun nodo.");
+	}
+
+	/**
+	 * Cerca l'indice di un nodo che deve essere presente.
+	 * @param label		etichetta del nodo
+	 * @return indice del nodo
+	 * @throws IllegalArgumentException se il nodo non esiste
+	 */
+	private int indexOf(V label) {
+		if (label == null) throw new NullPointerException("Tentativo di ricerca dell'indice di un nodo nullo.");
+		Integer i = index.get(label);
+		if (i == null) throw new IllegalArgumentException("Il nodo non è presente nel grafo.");
+		return i;
+	}
+
+	/**
+	 * Ritorna l'etichetta del nodo con un certo indice.
+	 * @param i		indice del nodo
+	 * @return etichetta del nodo
+	 */
+	@SuppressWarnings("unchecked")
+	private V labelAt(int i) {
+		return (V) labels[i];
+	}
+
+	/**
+	 * Ritorna l'etichetta di un arco uscente.
+	 * @param u		indice della sorgente
+	 * @param k		posizione dell'arco tra i successori di u
+	 * @return etichetta dell'arco, anche null
+	 */
+	@SuppressWarnings("unchecked")
+	private E edgeLabel(int u, int k) {
+		return edgeLabels == null ? null : (E) edgeLabels[firstEdge[u] + k];
+	}
+
+	/**
+	 * Cerca la posizione di un arco tra i successori della sorgente.
+	 * @param u		indice della sorgente
+	 * @param v		indice della destinazione
+	 * @return posizione dell'arco, -1 se l'arco non esiste
+	 */
+	private int edgePosition(int u, int v) {
+		NeighborIterator it = new NeighborIterator(out, u);
+		for (int k = 0; it.hasNext(); k++) {
+			int w = it.nextInt();
+			if (w == v) return k;
+			if (w > v) break;
+		}
+		return -1;
+	}
+
+	/**
+	 * Ritorna il numero di nodi del grafo.
+	 * @return numero di nodi
+	 */
+	@Override
+	public int size() {
+		return labels.length;
+	}
+
+	/**
+	 * Dice se il grafo è vuoto.
+	 * @return true se il grafo non ha nodi
+	 */
+	@Override
+	public boolean isEmpty() {
+		return labels.length == 0;
+	}
+
+	/**
+	 * Il grafo è sempre orientato.
+	 * @return true
+	 */
+	@Override
+	public boolean isDirected() {
+		return true;
+	}
+
+	/**
+	 * Operazione non supportata: il grafo è di sola lettura.
+	 */
+	@Override
+	public boolean addNode(V label) {
+		throw new UnsupportedOperationException("Il grafo compresso è di sola lettura.");
+	}
+
+	/**
+	 * Operazione non supportata: il grafo è di sola lettura.
+	 */
+	@Override
+	public boolean removeNode(V label) {
+		throw new UnsupportedOperationException("Il grafo compresso è di sola lettura.");
+	}
+
+	/**
+	 * Verifica la presenza di un nodo.
+	 * @param label		etichetta del nodo
+	 * @return true se il nodo è presente
+	 */
+	@Override
+	public boolean containsNode(V label) {
+		if (label == null) throw new NullPointerException("Tentativo di ricerca di nodo null");
+		return index.containsKey(label);
+	}
+
+	/**
+	 * Ritorna l'indice di un nodo, che non cambia mai.
+	 * @param label		etichetta del nodo
+	 * @return indice del nodo
+	 */
+	@Override
+	public int getNodeIndex(V label) {
+		return indexOf(label);
+	}
+
+	/**
+	 * Restituisce il nodo all'indice i.
+	 * @param i		indice del nodo
+	 * @return etichetta del nodo
+	 */
+	@Override
+	public V getNodeAtIndex(int i) {
+		checkIndex(i);
+		return labelAt(i);
+	}
+
+	/**
+	 * Ritorna il colore di un nodo.
+	 * @param label		etichetta del nodo
+	 * @return colore del nodo
+	 */
+	@Override
+	public int getColor(V label) {
+		return colors[indexOf(label)];
+	}
+
+	/**
+	 * Imposta il colore di un nodo.
+	 * @param label		etichetta del nodo
+	 * @param color		colore da impostare
+	 */
+	@Override
+	public void setColor(V label, int color) {
+		colors[indexOf(label)] = color;
+	}
+
+	/**
+	 * Restituisce il grado di un nodo, somma del grado entrante e uscente.
+	 * @param label		etichetta del nodo
+	 * @return grado del nodo
+	 */
+	@Override
+	public int getDegree(V label) {
+		int i = indexOf(label);
+		return out.length(i) + in.length(i);
+	}
+
+	/**
+	 * Restituisce il grado entrante di un nodo.
+	 * @param label		etichetta del nodo
+	 * @return numero di archi entranti
+	 */
+	@Override
+	public int inDegree(V label) {
+		return in.length(indexOf(label));
+	}
+
+	/**
+	 * Restituisce il grado uscente di un nodo.
+	 * @param label		etichetta del nodo
+	 * @return numero di archi uscenti
+	 */
+	@Override
+	public int outDegree(V label) {
+		return out.length(indexOf(label));
+	}
+
+	/**
+	 * Metodo non supportato per grafi orientati.
+	 */
+	@Override
+	public Set<V> neighbors(V label) {
+		throw new UnsupportedOperationException("Non è possibile restituire l'insieme dei nodi adiacenti in quanto il grafo è orientato.");
+	}
+
+	/**
+	 * Ritorna i successori di un nodo.
+	 * @param label		etichetta del nodo
+	 * @return insieme dei successori
+	 */
+	@Override
+	public Set<V> successors(V label) {
+		NeighborIterator it = new NeighborIterator(out, indexOf(label));
+		Set<V> nodes = new HashSet<V>();
+		while (it.hasNext()) nodes.add(labelAt(it.nextInt()));
+		return nodes;
+	}
+
+	/**
+	 * Ritorna i predecessori di un nodo.
+	 * @param label		etichetta del nodo
+	 * @return insieme dei predecessori
+	 */
+	@Override
+	public Set<V> predecessors(V label) {
+		NeighborIterator it = new NeighborIterator(in, indexOf(label));
+		Set<V> nodes = new HashSet<V>();
+		while (it.hasNext()) nodes.add(labelAt(it.nextInt()));
+		return nodes;
+	}
+
+	/**
+	 * Ritorna l'insieme dei nodi del grafo.
+	 * @return insieme dei nodi
+	 */
+	@Override
+	public Set<V> getNodes() {
+		Set<V> nodes = new HashSet<V>();
+		for (int i = 0; i < size(); i++) nodes.add(labelAt(i));
+		return nodes;
+	}
+
+	/**
+	 * Operazione non supportata: il grafo è di sola lettura.
+	 */
+	@Override
+	public boolean addEdge(V label1, V label2, E label) {
+		throw new UnsupportedOperationException("Il grafo compresso è di sola lettura.");
+	}
+
+	/**
+	 * Operazione non supportata: il grafo è di sola lettura.
+	 */
+	@Override
+	public boolean removeEdge(V label1, V label2, E label) {
+		throw new UnsupportedOperationException("Il grafo compresso è di sola lettura.");
+	}
+
+	/**
+	 * Verifica la presenza di un arco con una certa etichetta.
+	 * @param label1		etichetta del nodo sorgente
+	 * @param label2		etichetta del nodo destinazione
+	 * @param label			etichetta dell'arco
+	 * @return true se l'arco è presente
+	 */
+	@Override
+	public boolean containsEdge(V label1, V label2, E label) {
+		int u = indexOf(label1);
+		int k = edgePosition(u, indexOf(label2));
+		if (k == -1) return false;
+		E edgeLabel = edgeLabel(u, k);
+		return edgeLabel == null ? label == null : edgeLabel.equals(label);
+	}
+
+	/**
+	 * Restituisce l'insieme degli archi tra due nodi, vuoto o con un solo arco.
+	 * @param label1		etichetta del nodo sorgente
+	 * @param label2		etichetta del nodo destinazione
+	 * @return insieme degli archi
+	 */
+	@Override
+	public Set<Edge<V, E>> getEdges(V label1, V label2) {
+		Set<Edge<V, E>> edges = new HashSet<Edge<V, E>>();
+		int u = indexOf(label1);
+		int k = edgePosition(u, indexOf(label2));
+		if (k != -1) edges.add(new Edge<V, E>(label1, label2, edgeLabel(u, k), true));
+		return edges;
+	}
+
+	/**
+	 * Operazione non supportata per grafo diretto.
+	 */
+	@Override
+	public Set<Edge<V, E>> getEdges(V label) {
+		throw new UnsupportedOperationException("Non è possibile restituire l'insieme di tutti gli archi connessi a un certo nodo in " +
+				"quanto il grafo è orientato.");
+	}
+
+	/**
+	 * Restituisce l'insieme di tutti gli archi del grafo.
+	 * @return insieme degli archi
+	 */
+	@Override
+	public Set<Edge<V, E>> getEdges() {
+		Set<Edge<V, E>> edges = new HashSet<Edge<V, E>>();
+		for (int u = 0; u < size(); u++) edges.addAll(outgoingEdges(labelAt(u)));
+		return edges;
+	}
+
+	/**
+	 * Restituisce gli archi uscenti da un nodo.
+	 * @param label		etichetta del nodo
+	 * @return insieme degli archi uscenti
+	 */
+	@Override
+	public Set<Edge<V, E>> outgoingEdges(V label) {
+		int u = indexOf(label);
+		NeighborIterator it = new NeighborIterator(out, u);
+		Set<Edge<V, E>> edges = new HashSet<Edge<V, E>>();
+		for (int k = 0; it.hasNext(); k++) edges.add(new Edge<V, E>(label, labelAt(it.nextInt()), edgeLabel(u, k), true));
+		return edges;
+	}
+
+	/**
+	 * Restituisce gli archi entranti in un nodo. L'etichetta di ogni arco
+	 * si trova decodificando i successori del predecessore.
+	 * @param label		etichetta del nodo
+	 * @return insieme degli archi entranti
+	 */
+	@Override
+	public Set<Edge<V, E>> ingoingEdges(V label) {
+		int v = indexOf(label);
+		NeighborIterator it = new NeighborIterator(in, v);
+		Set<Edge<V, E>> edges = new HashSet<Edge<V, E>>();
+		while (it.hasNext()) {
+			int u = it.nextInt();
+			edges.add(new Edge<V, E>(labelAt(u), label, edgeLabels == null ? null : edgeLabel(u, edgePosition(u, v)), true));
+		}
+		return edges;
+	}
+
+	/**
+	 * Ritorna il numero di archi del grafo.
+	 * @return numero di archi
+	 */
+	@Override
+	public int edgeCount() {
+		return edgeCount;
+	}
+
+	/**
+	 * Operazione non supportata: il grafo è di sola lettura.
+	 */
+	@Override
+	public void clear() {
+		throw new UnsupportedOperationException("Il grafo compresso è di sola lettura.");
+	}
+
+	/**
+	 * Il grafo non cambia mai, per cui la versione è sempre zero.
+	 * @return 0
+	 */
+	@Override
+	public long getVersion() {
+		return 0;
+	}
+
+	/**
+	 * Rappresentazione degli archi del grafo con le relative etichette, nello
+	 * stesso formato di {@link GraphMatrixDirected#toString()}.
+	 */
+	@Override
+	public String toString() {
+		StringBuilder app = new StringBuilder();
+		for (int u = 0; u < size(); u++) {
+			V node = labelAt(u);
+			NeighborIterator it = new NeighborIterator(out, u);
+			for (int k = 0; it.hasNext(); k++) {
+				V s = labelAt(it.nextInt());
+				app.append("(" + node + ") --> (" + s + ")\t");
+				app.append("w(" + node + "," + s + ") = " + edgeLabel(u, k));
+				app.append("\n");
+			}
+		}
+		return app.toString();
+	}
+
+}
@@ -0,0 +1,333 @@
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Random;
+import java.util.function.IntFunction;
+
+public class GraphCompressedTest {
+
+	public static void main(String[] args) {
+
+		/* Grafo di esempio usato anche in GenericGraphDFSTest */
+		Graph<NodeDFS, WeighedEdge<Double>> g = new GraphMatrixDirected<NodeDFS, WeighedEdge<Double>>();
+		NodeDFS a = new NodeDFS("a");
+		NodeDFS b = new NodeDFS("b");
+		NodeDFS c = new NodeDFS("c");
+		NodeDFS x = new NodeDFS("x");
+		NodeDFS y = new NodeDFS("y");
+		NodeDFS z = new NodeDFS("z");
+		g.addNode(a);
+		g.addNode(b);
+		g.addNode(c);
+		g.addNode(x);
+		g.addNode(y);
+		g.addNode(z);
+		g.addEdge(a, b, new WeighedEdge<Double>(1.5));
+		g.addEdge(a, x, new WeighedEdge<Double>(-2.0));
+		g.addEdge(x, b, new WeighedEdge<Double>(null));
+		g.addEdge(b, y, new WeighedEdge<Double>(null));
+		g.addEdge(y, x, new WeighedEdge<Double>(1.0));
+		g.addEdge(z, b, new WeighedEdge<Double>(0.6));
+		g.addEdge(z, z, new WeighedEdge<Double>(0.5));
+		g.addEdge(c, z, new WeighedEdge<Double>(2.0));
+
+		GraphCompressed<NodeDFS, WeighedEdge<Double>> compressed = GraphCompressed.copyOf(g);
+		System.out.print(compressed);
+		System.out.println("Stessi archi: " + compressed.getEdges().equals(g.getEdges()) + ", archi entranti in b: "
+				+ compressed.ingoingEdges(b).equals(g.ingoingEdges(b)) + ", grado di b: " + compressed.inDegree(b) + " entrante, "
+				+ compressed.outDegree(b) + " uscente, z -> z con peso 0.5: " + compressed.containsEdge(z, z, new WeighedEdge<Double>(0.5))
+				+ ", " + compressed.successorBytes() + " byte di successori");
+		GenericGraphDFS<NodeDFS, WeighedEdge<Double>> dfs = new GenericGraphDFS<NodeDFS, WeighedEdge<Double>>(true);
+		dfs.DFS(compressed);
+		String times = a.printNodeTime() + b.printNodeTime() + z.printNodeTime();
+		dfs.DFS(g);
+		System.out.println("Stessi tempi della matrice: " + times.equals(a.printNodeTime() + b.printNodeTime() + z.printNodeTime()));
+		try {
+			compressed.addEdge(a, c, null);
+		} catch (UnsupportedOperationException e) {
+			System.out.println("addEdge: " + e.getMessage());
+		}
+
+		/* Costruzione incrementale e da ParallelGraphBuilder confrontate con copyOf su grafi casuali */
+		Random random = new Random(42);
+		int wrongBuilder = 0, wrongParallel = 0;
+		for (int round = 0; round < 300; round++) {
+			int n = 1 + random.nextInt(40);
+			int m = random.nextInt(4 * n);
+			boolean labelled = random.nextBoolean();
+			int[][] edges = new int[m][];
+			for (int k = 0; k < m; k++) edges[k] = new int[] { random.nextInt(n), random.nextInt(n), labelled ? random.nextInt(5) : -1 };
+			/* Il costruttore incrementale vuole le sorgenti in ordine: l'ordinamento è stabile */
+			Arrays.sort(edges, new Comparator<int[]>() {
+				@Override
+				public int compare(int[] e, int[] f) {
+					return Integer.compare(e[0], f[0]);
+				}
+			});
+			GraphMatrixDirected<Integer, Integer> matrix = new GraphMatrixDirected<Integer, Integer>();
+			GraphCompressed.Builder<Integer, Integer> incremental = new GraphCompressed.Builder<Integer, Integer>();
+			ParallelGraphBuilder<Integer, Integer> parallel = new ParallelGraphBuilder<Integer, Integer>();
+			for (int i = 0; i < n; i++) {
+				matrix.addNode(i);
+				incremental.addNode(i);
+				parallel.addNode(i);
+			}
+			boolean[][] seen = new boolean[n][n];
+			for (int[] e : edges) {
+				Integer label = e[2] == -1 ? null : e[2];
+				/* Per gli archi ripetuti resta la prima etichetta, mentre la matrice terrebbe l'ultima */
+				if (!seen[e[0]][e[1]]) matrix.addEdge(e[0], e[1], label);
+				seen[e[0]][e[1]] = true;
+				incremental.addEdgeByIndex(e[0], e[1], label);
+				parallel.addEdgeByIndex(e[0], e[1], label);
+			}
+			GraphCompressed<Integer, Integer> expected = GraphCompressed.copyOf(matrix);
+			if (!sameGraph(expected, incremental.build())) wrongBuilder++;
+			if (!sameGraph(expected, parallel.buildCompressed())) wrongParallel++;
+		}
+		System.out.println("300 grafi casuali, diversi da copyOf: costruttore incrementale " + wrongBuilder + ", ParallelGraphBuilder "
+				+ wrongParallel);
+		GraphCompressed.Builder<String, Object> unordered = new GraphCompressed.Builder<String, Object>();
+		unordered.addNode("u");
+		unordered.addNode("v");
+		unordered.addEdge("v", "u", null);
+		try {
+			unordered.addEdge("u", "v", null);
+		} catch (IllegalStateException e) {
+			System.out.println("Sorgente fuori ordine: " + e.getMessage());
+		}
+
+		System.out.println();
+		System.out.println(" ----------------------------------------------------------");
+		System.out.println(" |    Memoria usata dalla costruzione.                    |");
+		System.out.println(" ----------------------------------------------------------");
+		final GraphGenerator generator = GraphGenerator.erdosRenyi(1000000, 12.0 / 1000000, 7);
+		IntFunction<Integer> identity = new IntFunction<Integer>() {
+			@Override
+			public Integer apply(int i) {
+				return i;
+			}
+		};
+		/* Erdos-Renyi produce gli archi per sorgente crescente, per cui possono andare direttamente al costruttore incrementale */
+		long base = resetPeak();
+		final GraphCompressed.Builder<Integer, Object> streamed = new GraphCompressed.Builder<Integer, Object>();
+		for (int i = 0; i < generator.nodeCount(); i++) streamed.addNode(i);
+		generator.generate(new GraphGenerator.EdgeSink() {
+			@Override
+			public void edge(int source, int target) {
+				streamed.addEdgeByIndex(source, target, null);
+			}
+		});
+		GraphCompressed<Integer, Object> reference = streamed.build();
+		long streamedPeak = peak() - base;
+		System.out.println(generator + ": " + reference.edgeCount() + " archi, " + (reference.successorBytes() + reference.predecessorBytes()) / (1 << 20)
+				+ " MB di liste compresse");
+		System.out.println("  costruttore incrementale: picco " + streamedPeak / (1 << 20) + " MB");
+		base = resetPeak();
+		GraphCompressed<Integer, Object> fromBuilder = generator.toCompressed(identity, null);
+		System.out.println("  ParallelGraphBuilder.buildCompressed: picco " + (peak() - base) / (1 << 20) + " MB, stesso grafo: "
+				+ sameLists(reference, fromBuilder));
+		fromBuilder = null;
+		base = resetPeak();
+		GraphCompressed<Integer, Object> fromSnapshot = GraphCompressed.compress(generator.toIndexedGraph());
+		System.out.println("  istantanea CSR e compress: picco " + (peak() - base) / (1 << 20) + " MB, stesso grafo: "
+				+ sameLists(reference, fromSnapshot));
+		fromSnapshot = null;
+
+		System.out.println();
+		System.out.println(" ----------------------------------------------------------");
+		System.out.println(" |    Bit per arco e visite su un grafo grande.           |");
+		System.out.println(" ----------------------------------------------------------");
+		/* Grafo con archi locali (4 per nodo, a distanza al più 64) e indici rimescolati */
+		int n = 1000000;
+		ParallelGraphBuilder<Integer, Object> builder = new ParallelGraphBuilder<Integer, Object>();
+		for (int i = 0; i < n; i++) builder.addNode(i);
+		for (int i = 0; i < n; i++)
+			for (int k = 0; k < 4; k++) {
+				int v = i + random.nextInt(129) - 64;
+				if (v >= 0 && v < n) builder.addEdgeByIndex(i, v, null);
+			}
+		IndexedGraph<Integer> local = IndexedGraph.of(builder.build());
+		int[] shuffle = new int[n];
+		for (int i = 0; i < n; i++) shuffle[i] = i;
+		for (int i = n - 1; i > 0; i--) {
+			int j = random.nextInt(i + 1);
+			int t = shuffle[i];
+			shuffle[i] = shuffle[j];
+			shuffle[j] = t;
+		}
+		IndexedGraph<Integer> shuffled = GraphReordering.permute(local, shuffle);
+		IndexedGraph<Integer> reordered = GraphReordering.permute(shuffled, GraphReordering.order(shuffled, GraphReordering.Strategy.RCM));
+		report("Indici locali", local);
+		report("Indici rimescolati", shuffled);
+		report("Dopo RCM", reordered);
+	}
+
+	/**
+	 * Comprime un grafo e confronta occupazione e visita con il formato CSR.
+	 * @param name		descrizione del grafo
+	 * @param g			grafo
+	 */
+	private static void report(String name, IndexedGraph<Integer> g) {
+		long start = System.nanoTime();
+		GraphCompressed<Integer, Object> compressed = GraphCompressed.compress(g);
+		long built = System.nanoTime() - start;
+		long csr = 4L * (g.edgeCount() + g.size() + 1);
+		long csrTime = Long.MAX_VALUE;
+		long compressedTime = Long.MAX_VALUE;
+		long csrSum = 0;
+		long compressedSum = 0;
+		for (int r = 0; r < 3; r++) {
+			start = System.nanoTime();
+			csrSum = dfs(g);
+			csrTime = Math.min(csrTime, System.nanoTime() - start);
+			start = System.nanoTime();
+			compressedSum = dfs(compressed);
+			compressedTime = Math.min(compressedTime, System.nanoTime() - start);
+		}
+		System.out.println(name + ": " + g.edgeCount() + " archi, compressione in " + built / 1000000 + " ms");
+		System.out.printf("  successori: %.2f bit per arco (CSR %.2f), %d KB contro %d KB%n", compressed.bitsPerEdge(),
+				8.0 * csr / g.edgeCount(), compressed.successorBytes() / 1024, csr / 1024);
+		System.out.println("  DFS: CSR " + csrTime / 1000000 + " ms (" + g.edgeCount() / Math.max(1, csrTime / 1000) + " Marchi/s), compresso "
+				+ compressedTime / 1000000 + " ms (" + g.edgeCount() / Math.max(1, compressedTime / 1000) + " Marchi/s), stesso ordine: "
+				+ (csrSum == compressedSum));
+	}
+
+	/**
+	 * Visita in profondità con stack esplicito in formato CSR.
+	 * @param g		grafo
+	 * @return somma dei prodotti tra ordine di scoperta e indice dei nodi
+	 */
+	private static long dfs(IndexedGraph<Integer> g) {
+		int n = g.size();
+		boolean[] visited = new boolean[n];
+		int[] nodes = new int[n];
+		int[] next = new int[n];
+		long sum = 0;
+		int time = 0;
+		for (int root = 0; root < n; root++) {
+			if (visited[root]) continue;
+			int top = 0;
+			nodes[0] = root;
+			next[0] = g.outStart(root);
+			visited[root] = true;
+			sum += (long) ++time * root;
+			while (top >= 0) {
+				int u = nodes[top];
+				if (next[top] == g.outEnd(u)) {
+					top--;
+					continue;
+				}
+				int v = g.outTarget(next[top]++);
+				if (!visited[v]) {
+					visited[v] = true;
+					sum += (long) ++time * v;
+					nodes[++top] = v;
+					next[top] = g.outStart(v);
+				}
+			}
+		}
+		return sum;
+	}
+
+	/**
+	 * Visita in profondità con uno stack di iteratori riposizionabili.
+	 * @param g		grafo compresso
+	 * @return somma dei prodotti tra ordine di scoperta e indice dei nodi
+	 */
+	private static long dfs(GraphCompressed<Integer, Object> g) {
+		int n = g.size();
+		boolean[] visited = new boolean[n];
+		GraphCompressed.NeighborIterator[] stack = new GraphCompressed.NeighborIterator[16];
+		long sum = 0;
+		int time = 0;
+		for (int root = 0; root < n; root++) {
+			if (visited[root]) continue;
+			int top = 0;
+			if (stack[0] == null) stack[0] = g.successorIterator(root);
+			else stack[0].reset(root);
+			visited[root] = true;
+			sum += (long) ++time * root;
+			while (top >= 0) {
+				GraphCompressed.NeighborIterator it = stack[top];
+				if (!it.hasNext()) {
+					top--;
+					continue;
+				}
+				int v = it.nextInt();
+				if (!visited[v]) {
+					visited[v] = true;
+					sum += (long) ++time * v;
+					if (++top == stack.length) stack = Arrays.copyOf(stack, 2 * top);
+					if (stack[top] == null) stack[top] = g.successorIterator(v);
+					else stack[top].reset(v);
+				}
+			}
+		}
+		return sum;
+	}
+
+	/**
+	 * Confronta due grafi compressi: liste dei successori e dei predecessori
+	 * ed etichette degli archi.
+	 * @param expected	grafo atteso
+	 * @param actual	grafo da controllare
+	 * @return true se i grafi sono uguali
+	 */
+	private static boolean sameGraph(GraphCompressed<Integer, Integer> expected, GraphCompressed<Integer, Integer> actual) {
+		return sameLists(expected, actual) && expected.getEdges().equals(actual.getEdges());
+	}
+
+	/**
+	 * Confronta le liste dei successori e dei predecessori di due grafi compressi.
+	 * @param expected	grafo atteso
+	 * @param actual	grafo da controllare
+	 * @return true se le liste sono uguali
+	 */
+	private static boolean sameLists(GraphCompressed<Integer, ?> expected, GraphCompressed<Integer, ?> actual) {
+		if (expected.size() != actual.size() || expected.edgeCount() != actual.edgeCount()) return false;
+		if (expected.successorBytes() != actual.successorBytes() || expected.predecessorBytes() != actual.predecessorBytes()) return false;
+		for (int u = 0; u < expected.size(); u++) {
+			GraphCompressed.NeighborIterator e = expected.successorIterator(u);
+			GraphCompressed.NeighborIterator a = actual.successorIterator(u);
+			while (e.hasNext() && a.hasNext())
+				if (e.nextInt() != a.nextInt()) return false;
+			if (e.hasNext() || a.hasNext()) return false;
+			e = expected.predecessorIterator(u);
+			a = actual.predecessorIterator(u);
+			while (e.hasNext() && a.hasNext())
+				if (e.nextInt() != a.nextInt()) return false;
+			if (e.hasNext() || a.hasNext()) return false;
+		}
+		return true;
+	}
+
+	/**
+	 * Raccoglie i rifiuti ed azzera i picchi di occupazione dell'heap.
+	 * @return heap occupato dopo la raccolta, in byte
+	 */
+	private static long resetPeak() {
+		for (int r = 0; r < 3; r++) System.gc();
+		long used = 0;
+		for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans())
+			if (pool.getType() == MemoryType.HEAP) {
+				pool.resetPeakUsage();
+				used += pool.getUsage().getUsed();
+			}
+		return used;
+	}
+
+	/**
+	 * Somma dei picchi di occupazione delle zone dell'heap dall'ultimo azzeramento.
+	 * @return picco in byte
+	 */
+	private static long peak() {
+		long peak = 0;
+		for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans())
+			if (pool.getType() == MemoryType.HEAP) peak += pool.getPeakUsage().getUsed();
+		return peak;
+	}
+
+}
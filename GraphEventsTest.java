@@ -0,0 +1,89 @@
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeMap;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
+public class GraphEventsTest {
+
+	public static void main(String[] args) throws IOException {
+
+		/* Registrazione con i soli eventi dei grafi, senza soglia di durata */
+		Recording recording = new Recording();
+		recording.enable("graph.GraphOperation").withThreshold(java.time.Duration.ZERO);
+		recording.enable("graph.DFSRun").withThreshold(java.time.Duration.ZERO);
+		recording.start();
+
+		/* Grafo di esempio usato anche in GenericGraphDFSTest, inserito a blocchi */
+		GraphMatrixDirected<NodeDFS, WeighedEdge<Double>> g = new GraphMatrixDirected<NodeDFS, WeighedEdge<Double>>();
+		NodeDFS a = new NodeDFS("a");
+		NodeDFS b = new NodeDFS("b");
+		NodeDFS c = new NodeDFS("c");
+		NodeDFS x = new NodeDFS("x");
+		NodeDFS y = new NodeDFS("y");
+		NodeDFS z = new NodeDFS("z");
+		List<NodeDFS> nodes = new ArrayList<NodeDFS>();
+		nodes.add(a);
+		nodes.add(b);
+		nodes.add(c);
+		nodes.add(x);
+		nodes.add(y);
+		nodes.add(z);
+		System.out.println("Nodi inseriti: " + g.addNodes(nodes));
+		List<Edge<NodeDFS, WeighedEdge<Double>>> edges = new ArrayList<Edge<NodeDFS, WeighedEdge<Double>>>();
+		edges.add(new Edge<NodeDFS, WeighedEdge<Double>>(a, b, new WeighedEdge<Double>(1.5), true));
+		edges.add(new Edge<NodeDFS, WeighedEdge<Double>>(a, x, new WeighedEdge<Double>(-2.0), true));
+		edges.add(new Edge<NodeDFS, WeighedEdge<Double>>(x, b, new WeighedEdge<Double>(null), true));
+		edges.add(new Edge<NodeDFS, WeighedEdge<Double>>(b, y, new WeighedEdge<Double>(null), true));
+		edges.add(new Edge<NodeDFS, WeighedEdge<Double>>(y, x, new WeighedEdge<Double>(1.0), true));
+		edges.add(new Edge<NodeDFS, WeighedEdge<Double>>(z, b, new WeighedEdge<Double>(0.6), true));
+		edges.add(new Edge<NodeDFS, WeighedEdge<Double>>(z, z, new WeighedEdge<Double>(0.5), true));
+		edges.add(new Edge<NodeDFS, WeighedEdge<Double>>(c, z, new WeighedEdge<Double>(2.0), true));
+		System.out.println("Archi inseriti: " + g.addEdges(edges));
+		System.out.println("Archi: " + g.getEdges().size());
+
+		GenericGraphDFS<NodeDFS, WeighedEdge<Double>> dfs = new GenericGraphDFS<NodeDFS, WeighedEdge<Double>>(true);
+		dfs.DFS(g);
+		dfs.DFSParallel(g);
+
+		/* Un grafo più grande per avere durate misurabili */
+		Random random = new Random(42);
+		GraphMatrixDirected<Integer, Object> r = new GraphMatrixDirected<Integer, Object>();
+		List<Integer> labels = new ArrayList<Integer>();
+		for (int i = 0; i < 2000; i++) labels.add(i);
+		r.addNodes(labels);
+		List<Edge<Integer, Object>> randomEdges = new ArrayList<Edge<Integer, Object>>();
+		for (int i = 0; i < 8000; i++)
+			randomEdges.add(new Edge<Integer, Object>(random.nextInt(2000), random.nextInt(2000), null, true));
+		r.addEdges(randomEdges);
+		r.getEdges();
+		r.removeNode(0);
+		recording.stop();
+
+		/* Rileggo la registrazione */
+		Path file = Files.createTempFile("graph", ".jfr");
+		recording.dump(file);
+		recording.close();
+		TreeMap<String, Integer> counts = new TreeMap<String, Integer>();
+		for (RecordedEvent e : RecordingFile.readAllEvents(file)) {
+			String key = e.getEventType().getName() + " " + (e.hasField("operation") ? e.getString("operation") : e.getString("mode"));
+			counts.put(key, counts.containsKey(key) ? counts.get(key) + 1 : 1);
+			if (e.hasField("operation"))
+				System.out.println(e.getString("operation") + ": elementi=" + e.getInt("items") + " celle=" + e.getLong("cells")
+						+ " nodi=" + e.getInt("nodes") + " archi=" + e.getInt("edges") + " durata="
+						+ e.getDuration().toNanos() / 1000 + "us");
+			else
+				System.out.println("DFS " + e.getString("mode") + ": nodi=" + e.getInt("nodes") + " archi=" + e.getInt("edges")
+						+ " profondità=" + e.getInt("maxDepth") + " durata=" + e.getDuration().toNanos() / 1000 + "us");
+		}
+		Files.delete(file);
+		System.out.println("Eventi registrati: " + counts);
+	}
+
+}
@@ -0,0 +1,346 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.function.IntFunction;
+
+/**
+ * Generatore di grafi orientati sintetici per le prove su grafi grandi: i
+ * nodi sono gli interi <code>[0, nodeCount() - 1]</code> e gli archi vengono
+ * prodotti uno alla volta e passati ad un {@link EdgeSink}, senza essere
+ * memorizzati, per cui la memoria usata dalla generazione non dipende dal
+ * numero di archi (tranne che per Barabási-Albert, che deve ricordare gli
+ * estremi degli archi già prodotti).
+ *
+ * A parità di parametri e di seme ogni chiamata di {@link #generate(EdgeSink)}
+ * produce gli stessi archi nello stesso ordine, per cui lo stesso grafo può
+ * essere caricato in rappresentazioni diverse e confrontato. Alcuni modelli
+ * possono produrre lo stesso arco più volte o dei cappi: i grafi che non
+ * ammettono archi ripetuti ne tengono uno solo.
+ */
+public abstract class GraphGenerator {
+
+	/**
+	 * Destinazione degli archi prodotti da un generatore.
+	 */
+	public interface EdgeSink {
+
+		/**
+		 * Riceve un arco.
+		 * @param source	indice del nodo sorgente
+		 * @param target	indice del nodo destinazione
+		 */
+		void edge(int source, int target);
+	}
+
+	/* Numero di nodi */
+	protected final int nodes;
+
+	/* Seme del generatore casuale */
+	protected final long seed;
+
+	/**
+	 * Costruttore del generatore.
+	 * @param nodes		numero di nodi
+	 * @param seed		seme del generatore casuale
+	 */
+	protected GraphGenerator(int nodes, long seed) {
+		if (nodes < 0) throw new IllegalArgumentException("Il numero di nodi non può essere negativo.");
+		this.nodes = nodes;
+		this.seed = seed;
+	}
+
+	/**
+	 * Ritorna il numero di nodi dei grafi generati.
+	 * @return numero di nodi
+	 */
+	public int nodeCount() {
+		return nodes;
+	}
+
+	/**
+	 * Produce gli archi del grafo.
+	 * @param sink		destinazione degli archi
+	 */
+	public abstract void generate(EdgeSink sink);
+
+	/**
+	 * Grafo casuale di Erd&#337;s e Rényi G(n, p): ogni arco tra due nodi distinti
+	 * è presente con probabilità p, indipendentemente dagli altri. Le coppie
+	 * sono scorse in ordine e le assenti vengono saltate in blocco con una
+	 * distribuzione geometrica (Batagelj e Brandes), per cui il tempo è
+	 * proporzionale al numero di archi prodotti e non a n².
+	 * @param n			numero di nodi
+	 * @param p			probabilità di ogni arco
+	 * @param seed		seme del generatore casuale
+	 * @return generatore
+	 */
+	public static GraphGenerator erdosRenyi(int n, final double p, long seed) {
+		if (p < 0 || p > 1) throw new IllegalArgumentException("La probabilità deve essere compresa tra 0 e 1.");
+		return new GraphGenerator(n, seed) {
+			@Override
+			public void generate(EdgeSink sink) {
+				if (p == 0 || nodes == 0) return;
+				SplittableRandom random = new SplittableRandom(seed);
+				double logq = Math.log(1 - p);
+				long pairs = (long) nodes * nodes;
+				/* Posizione della coppia nell'ordine per sorgente e destinazione */
+				long w = -1;
+				while (true) {
+					w += p == 1 ? 1 : 1 + (long) Math.floor(Math.log(1 - random.nextDouble()) / logq);
+					if (w >= pairs || w < 0) return;
+					int u = (int) (w / nodes);
+					int v = (int) (w % nodes);
+					if (u != v) sink.edge(u, v);
+				}
+			}
+
+			@Override
+			public String toString() {
+				return "Erdos-Renyi(" + nodes + ", " + p + ")";
+			}
+		};
+	}
+
+	/**
+	 * Grafo ad attaccamento preferenziale di Barabási e Albert: ogni nuovo
+	 * nodo aggiunge m archi verso nodi già presenti, scelti con probabilità
+	 * proporzionale al loro grado, per cui i gradi seguono una legge di
+	 * potenza. La scelta è costante per arco (Batagelj e Brandes): un estremo
+	 * a caso tra quelli degli archi già prodotti. Gli archi vanno dal nuovo
+	 * nodo a quelli vecchi; il primo nodo ha m cappi.
+	 * @param n			numero di nodi
+	 * @param m			archi aggiunti da ogni nodo
+	 * @param seed		seme del generatore casuale
+	 * @return generatore
+	 */
+	public static GraphGenerator barabasiAlbert(int n, final int m, long seed) {
+		if (m < 1) throw new IllegalArgumentException("Ogni nodo deve aggiungere almeno un arco.");
+		if ((long) 2 * n * m > Integer.MAX_VALUE) throw new IllegalArgumentException("Troppi archi per un grafo di Barabasi-Albert.");
+		return new GraphGenerator(n, seed) {
+			@Override
+			public void generate(EdgeSink sink) {
+				SplittableRandom random = new SplittableRandom(seed);
+				/* Estremi degli archi prodotti: sorgente in posizione pari, destinazione in posizione dispari */
+				int[] ends = new int[2 * nodes * m];
+				for (int v = 0; v < nodes; v++) {
+					for (int i = 0; i < m; i++) {
+						int k = 2 * (v * m + i);
+						ends[k] = v;
+						int target = ends[random.nextInt(k + 1)];
+						ends[k + 1] = target;
+						sink.edge(v, target);
+					}
+				}
+			}
+
+			@Override
+			public String toString() {
+				return "Barabasi-Albert(" + nodes + ", " + m + ")";
+			}
+		};
+	}
+
+	/**
+	 * Grafo R-MAT (Chakrabarti, Zhan e Faloutsos) con 2^scale nodi: ogni arco
+	 * sceglie ricorsivamente uno dei quattro quadranti della matrice di
+	 * adiacenza con probabilità a, b, c ed 1 - a - b - c. Con a maggiore
+	 * delle altre i gradi sono molto sbilanciati, come nei grafi reali.
+	 * @param scale		logaritmo in base 2 del numero di nodi
+	 * @param edges		numero di archi prodotti, ripetizioni e cappi compresi
+	 * @param a			probabilità del quadrante in alto a sinistra
+	 * @param b			probabilità del quadrante in alto a destra
+	 * @param c			probabilità del quadrante in basso a sinistra
+	 * @param seed		seme del generatore casuale
+	 * @return generatore
+	 */
+	public static GraphGenerator rmat(final int scale, final long edges, final double a, final double b, final double c, long seed) {
+		if (scale < 0 || scale > 30) throw new IllegalArgumentException("La scala deve essere compresa tra 0 e 30.");
+		if (a < 0 || b < 0 || c < 0 || a + b + c > 1) throw new IllegalArgumentException("Probabilità dei quadranti non valide.");
+		return new GraphGenerator(1 << scale, seed) {
+			@Override
+			public void generate(EdgeSink sink) {
+				SplittableRandom random = new SplittableRandom(seed);
+				double ab = a + b;
+				double abc = a + b + c;
+				for (long e = 0; e < edges; e++) {
+					int u = 0;
+					int v = 0;
+					for (int bit = scale - 1; bit >= 0; bit--) {
+						double r = random.nextDouble();
+						if (r >= abc) {
+							u |= 1 << bit;
+							v |= 1 << bit;
+						} else if (r >= ab) {
+							u |= 1 << bit;
+						} else if (r >= a) {
+							v |= 1 << bit;
+						}
+					}
+					sink.edge(u, v);
+				}
+			}
+
+			@Override
+			public String toString() {
+				return "R-MAT(" + scale + ", " + edges + ")";
+			}
+		};
+	}
+
+	/**
+	 * Griglia di rows x cols nodi, con il nodo (r, c) di indice r * cols + c
+	 * ed un arco verso il nodo a destra e verso quello sotto.
+	 * @param rows		numero di righe
+	 * @param cols		numero di colonne
+	 * @return generatore
+	 */
+	public static GraphGenerator grid(final int rows, final int cols) {
+		if (rows < 0 || cols < 0 || (long) rows * cols > Integer.MAX_VALUE)
+			throw new IllegalArgumentException("Dimensioni della griglia non valide.");
+		return new GraphGenerator(rows * cols, 0) {
+			@Override
+			public void generate(EdgeSink sink) {
+				for (int r = 0; r < rows; r++) {
+					for (int c = 0; c < cols; c++) {
+						int v = r * cols + c;
+						if (c + 1 < cols) sink.edge(v, v + 1);
+						if (r + 1 < rows) sink.edge(v, v + cols);
+					}
+				}
+			}
+
+			@Override
+			public String toString() {
+				return "Griglia(" + rows + " x " + cols + ")";
+			}
+		};
+	}
+
+	/**
+	 * Catena 0 -> 1 -> ... -> n - 1: una visita in profondità dal primo nodo
+	 * raggiunge profondità n.
+	 * @param n		numero di nodi
+	 * @return generatore
+	 */
+	public static GraphGenerator chain(int n) {
+		return new GraphGenerator(n, 0) {
+			@Override
+			public void generate(EdgeSink sink) {
+				for (int v = 0; v + 1 < nodes; v++) sink.edge(v, v + 1);
+			}
+
+			@Override
+			public String toString() {
+				return "Catena(" + nodes + ")";
+			}
+		};
+	}
+
+	/**
+	 * Aggiunge ad un grafo i nodi e gli archi generati. Su
+	 * {@link GraphMatrixDirected} i nodi sono inseriti in blocco, con un solo
+	 * ridimensionamento della matrice, e gli archi per indice; sugli altri
+	 * grafi le etichette dei nodi sono create una sola volta e gli archi sono
+	 * inseriti con {@link Graph#addEdge(Object, Object, Object)}.
+	 * @param g			grafo, che può già contenere nodi
+	 * @param labels	etichetta del nodo di ogni indice generato
+	 * @param label		etichetta di tutti gli archi
+	 */
+	public <V, E> void addTo(final Graph<V, E> g, IntFunction<V> labels, final E label) {
+		if (g == null || labels == null) throw new NullPointerException("Grafo ed etichette dei nodi non possono essere null.");
+		List<V> list = new ArrayList<V>(nodes);
+		for (int i = 0; i < nodes; i++) list.add(labels.apply(i));
+		if (g instanceof GraphMatrixDirected) {
+			final GraphMatrixDirected<V, E> matrix = (GraphMatrixDirected<V, E>) g;
+			matrix.addNodes(list);
+			/* Indice nel grafo di ogni nodo generato */
+			final int[] index = new int[nodes];
+			for (int i = 0; i < nodes; i++) index[i] = matrix.getNodeIndex(list.get(i));
+			generate(new EdgeSink() {
+				@Override
+				public void edge(int source, int target) {
+					matrix.addEdgeByIndex(index[source], index[target], label);
+				}
+			});
+		} else {
+			for (V v : list) g.addNode(v);
+			final List<V> nodeLabels = list;
+			generate(new EdgeSink() {
+				@Override
+				public void edge(int source, int target) {
+					g.addEdge(nodeLabels.get(source), nodeLabels.get(target), label);
+				}
+			});
+		}
+	}
+
+	/**
+	 * Costruisce il grafo generato in formato CSR con {@link ParallelGraphBuilder}.
+	 * @param labels	etichetta del nodo di ogni indice generato
+	 * @param label		etichetta di tutti gli archi
+	 * @return grafo costruito
+	 */
+	public <V, E> GraphCSRDirected<V, E> toCSR(IntFunction<V> labels, final E label) {
+		if (labels == null) throw new NullPointerException("Le etichette dei nodi non possono essere null.");
+		final ParallelGraphBuilder<V, E> builder = new ParallelGraphBuilder<V, E>();
+		for (int i = 0; i < nodes; i++) builder.addNode(labels.apply(i));
+		generate(new EdgeSink() {
+			@Override
+			public void edge(int source, int target) {
+				builder.addEdgeByIndex(source, target, label);
+			}
+		});
+		return builder.build();
+	}
+
+	/**
+	 * Costruisce il grafo generato in formato compresso con
+	 * {@link ParallelGraphBuilder#buildCompressed()}, senza passare dal
+	 * formato CSR.
+	 * @param labels	etichetta del nodo di ogni indice generato
+	 * @param label		etichetta di tutti gli archi
+	 * @return grafo costruito
+	 */
+	public <V, E> GraphCompressed<V, E> toCompressed(IntFunction<V> labels, final E label) {
+		if (labels == null) throw new NullPointerException("Le etichette dei nodi non possono essere null.");
+		final ParallelGraphBuilder<V, E> builder = new ParallelGraphBuilder<V, E>();
+		for (int i = 0; i < nodes; i++) builder.addNode(labels.apply(i));
+		generate(new EdgeSink() {
+			@Override
+			public void edge(int source, int target) {
+				builder.addEdgeByIndex(source, target, label);
+			}
+		});
+		return builder.buildCompressed();
+	}
+
+	/**
+	 * Costruisce l'istantanea indicizzata del grafo generato, con i nodi
+	 * etichettati dal proprio indice.
+	 * @return istantanea del grafo
+	 */
+	public IndexedGraph<Integer> toIndexedGraph() {
+		return IndexedGraph.of(toCSR(new IntFunction<Integer>() {
+			@Override
+			public Integer apply(int i) {
+				return i;
+			}
+		}, null));
+	}
+
+	/**
+	 * Conta gli archi prodotti, ripetizioni comprese, generandoli.
+	 * @return numero di archi prodotti
+	 */
+	public long countEdges() {
+		final long[] count = new long[1];
+		generate(new EdgeSink() {
+			@Override
+			public void edge(int source, int target) {
+				count[0]++;
+			}
+		});
+		return count[0];
+	}
+
+}
@@ -0,0 +1,141 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.IntFunction;
+
+public class GraphGeneratorTest {
+
+	public static void main(String[] args) throws InterruptedException {
+
+		/* Velocità e riproducibilità dei generatori */
+		int n = 1000000;
+		GraphGenerator[] generators = { GraphGenerator.erdosRenyi(n, 4.0 / n, 42), GraphGenerator.barabasiAlbert(n, 4, 42),
+				GraphGenerator.rmat(20, 4 * n, 0.57, 0.19, 0.19, 42), GraphGenerator.grid(1000, 1000), GraphGenerator.chain(n) };
+		for (GraphGenerator gen : generators) {
+			gen.countEdges();		/* Il primo giro serve solo a scaldare il compilatore JIT */
+			long start = System.nanoTime();
+			long edges = gen.countEdges();
+			long elapsed = System.nanoTime() - start;
+			System.out.println(gen + ": " + edges + " archi in " + elapsed / 1000000 + " ms ("
+					+ edges / Math.max(1, elapsed / 1000) + " Marchi/s), stessi archi ad ogni generazione: " + checksum(gen).equals(checksum(gen)));
+		}
+
+		/* La visita ricorsiva con lo stack predefinito non arriva in fondo ad una catena lunga */
+		GraphCSRDirected<NodeDFS, Object> chain = GraphGenerator.chain(100000).toCSR(labels(100000), null);
+		try {
+			new GenericGraphDFS<NodeDFS, Object>(true).DFS(chain);
+			System.out.println("Catena di 100000 nodi visitata con lo stack predefinito");
+		} catch (StackOverflowError e) {
+			System.out.println("Catena di 100000 nodi con lo stack predefinito: StackOverflowError");
+		}
+
+		/* Confronto delle visite tra le rappresentazioni, in un thread con uno stack abbastanza grande per la ricorsione */
+		Thread check = new Thread(null, new Runnable() {
+			@Override
+			public void run() {
+				System.out.println();
+				System.out.println(" ----------------------------------------------------------");
+				System.out.println(" |    Stessa visita in tutte le rappresentazioni.         |");
+				System.out.println(" ----------------------------------------------------------");
+				int small = 3000;
+				crossCheck(GraphGenerator.erdosRenyi(small, 3.0 / small, 1), true);
+				crossCheck(GraphGenerator.barabasiAlbert(small, 3, 2), true);
+				crossCheck(GraphGenerator.rmat(11, 4 * 2048, 0.57, 0.19, 0.19, 3), true);
+				crossCheck(GraphGenerator.grid(50, 60), true);
+				crossCheck(GraphGenerator.chain(small), true);
+				int large = 200000;
+				crossCheck(GraphGenerator.erdosRenyi(large, 4.0 / large, 1), false);
+				crossCheck(GraphGenerator.barabasiAlbert(large, 4, 2), false);
+				crossCheck(GraphGenerator.rmat(17, 4 * 131072, 0.57, 0.19, 0.19, 3), false);
+				crossCheck(GraphGenerator.grid(400, 500), false);
+				crossCheck(GraphGenerator.chain(large), false);
+			}
+		}, "cross-check", 1L << 30);
+		check.start();
+		check.join();
+	}
+
+	/**
+	 * Visita lo stesso grafo generato in tutte le rappresentazioni con
+	 * {@link GenericGraphDFS} deterministica e confronta tempi e padri con la
+	 * visita iterativa di {@link DFSIntervalIndex} sull'istantanea.
+	 * @param gen			generatore
+	 * @param withMatrix	true per includere la matrice di adiacenza, che occupa O(n²)
+	 */
+	private static void crossCheck(GraphGenerator gen, boolean withMatrix) {
+		long start = System.nanoTime();
+		DFSIntervalIndex<Integer> reference = DFSIntervalIndex.build(gen.toIndexedGraph());
+		long elapsed = System.nanoTime() - start;
+		System.out.println(gen + ", riferimento (CSR e visita iterativa): " + elapsed / 1000000 + " ms");
+		IntFunction<NodeDFS> labels = labels(gen.nodeCount());
+		List<Graph<NodeDFS, Object>> graphs = new ArrayList<Graph<NodeDFS, Object>>();
+		List<Long> loads = new ArrayList<Long>();
+		start = System.nanoTime();
+		GraphCSRDirected<NodeDFS, Object> csr = gen.toCSR(labels, null);
+		graphs.add(csr);
+		loads.add(System.nanoTime() - start);
+		start = System.nanoTime();
+		GraphMultiDirected<NodeDFS, Object> multi = new GraphMultiDirected<NodeDFS, Object>();
+		gen.addTo(multi, labels, null);
+		graphs.add(multi);
+		loads.add(System.nanoTime() - start);
+		if (withMatrix) {
+			start = System.nanoTime();
+			GraphMatrixDirected<NodeDFS, Object> matrix = new GraphMatrixDirected<NodeDFS, Object>();
+			gen.addTo(matrix, labels, null);
+			graphs.add(matrix);
+			loads.add(System.nanoTime() - start);
+		}
+		start = System.nanoTime();
+		graphs.add(GraphCompressed.copyOf(csr));
+		loads.add(System.nanoTime() - start);
+		graphs.add(new ReversedGraph<NodeDFS, Object>(new ReversedGraph<NodeDFS, Object>(csr)));
+		loads.add(0L);
+		GenericGraphDFS<NodeDFS, Object> dfs = new GenericGraphDFS<NodeDFS, Object>(true);
+		StringBuilder report = new StringBuilder();
+		for (int k = 0; k < graphs.size(); k++) {
+			Graph<NodeDFS, Object> g = graphs.get(k);
+			start = System.nanoTime();
+			dfs.DFS(g);
+			elapsed = System.nanoTime() - start;
+			boolean same = DFSIntervalIndex.fromNodes(g).sameForest(reference);
+			report.append("  ").append(g.getClass().getName()).append(": caricamento ").append(loads.get(k) / 1000000)
+					.append(" ms, visita ").append(elapsed / 1000000).append(" ms, stessa visita: ").append(same).append('\n');
+		}
+		System.out.print(report);
+	}
+
+	/**
+	 * Etichette dei nodi generati, create una volta per indice.
+	 * @param n		numero di nodi
+	 * @return funzione dagli indici alle etichette
+	 */
+	private static IntFunction<NodeDFS> labels(int n) {
+		final NodeDFS[] nodes = new NodeDFS[n];
+		for (int i = 0; i < n; i++) nodes[i] = new NodeDFS("v" + i);
+		return new IntFunction<NodeDFS>() {
+			@Override
+			public NodeDFS apply(int i) {
+				return nodes[i];
+			}
+		};
+	}
+
+	/**
+	 * Numero di archi e somma delle loro posizioni, per verificare che due
+	 * generazioni producano gli stessi archi nello stesso ordine.
+	 * @param gen		generatore
+	 * @return riassunto degli archi
+	 */
+	private static String checksum(GraphGenerator gen) {
+		final long[] sum = new long[2];
+		gen.generate(new GraphGenerator.EdgeSink() {
+			@Override
+			public void edge(int source, int target) {
+				sum[0]++;
+				sum[1] = 31 * sum[1] + ((long) source << 32 | target);
+			}
+		});
+		return sum[0] + "/" + sum[1];
+	}
+
+}
@@ -1,199 +1,76 @@
 import java.util.*;
+import java.util.function.Consumer;
+import java.util.function.IntFunction;
+import java.util.function.IntUnaryOperator;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 public class GraphMatrixDirected<V, E> implements Graph<V, E>{
 	
     /*
-     * L'insieme dei nodi del grafo. Si usa una list invece che un set per poter
-     * avere un indice automaticamente associato ad ogni nodo. Si controlla che
-     * non vengano inseriti duplicati o elementi nulli. Si usa la classe interna
-     * Node per associare al nodo informazioni aggiuntive come un indice
-     * numerico univoco e crescente o come il colore.
+     * Registro dei nodi del grafo: associa ad ogni etichetta un indice
+     * numerico univoco nell'intervallo [0, size() - 1], calcolando il codice
+     * hash dell'etichetta una sola volta per operazione. Tutte le
+     * operazioni lavorano sugli indici; quelle con le etichette cercano
+     * l'indice e poi chiamano le corrispondenti operazioni sugli indici.
      */
-    private ArrayList<Node> nodes;
+    private NodeRegistry<V> registry;
+
+    /* Colore di ogni nodo, indicizzato come le righe della matrice */
+    private int[] colors;
 
     /*
-     * Rappresentazione con matrice di adiacenza.
+     * Rappresentazione con matrice di adiacenza. La cella (i, j) contiene
+     * l'identificativo dell'arco dal nodo di indice i al nodo di indice j
+     * aumentato di uno, oppure 0 se l'arco non esiste: gli estremi dell'arco
+     * sono quindi impliciti nella posizione della cella. La matrice ha una
+     * capacità che può superare il numero di nodi per evitare di
+     * ricopiarla ad ogni inserimento.
      */
-    private ArrayList<ArrayList<AdjacentMatrixElement>> adjmatrix;
+    private int[][] adjmatrix;
 
     /*
-     * Classe privata che serve per rappresentare un nodo del grafo, con
-     * informazioni aggiuntive, ad esempio il colore corrente del nodo.
+     * Etichette degli archi memorizzate per colonna, indicizzate per
+     * identificativo dell'arco. Un arco presente può avere etichetta null.
      */
-    private class Node {
-        /* Puntatore all'etichetta del nodo del grafo */
-        private final V el;
-
-        /* Colore associato al nodo */
-        private int color;
-        
-        /**
-         *  Costruttore del nodo senza colore.
-         *  @param el	etichetta del nodo
-         */
-        private Node(V el) {
-            this.el = el;
-        }
+    private Object[] edgeLabels;
 
-        /**
-         *  Costruttore del nodo con colore.
-         *  @param el		etichetta nodo
-         *  @param color	colore del nodo
-         */
-        private Node(V el, int color) {
-            this.el = el;
-            this.color = color;
-        }
-        
-        /**
-         * Override del metodo hashCode().
-         */
-		@Override
-		public int hashCode() {
-			final int prime = 31;		/* Numero primo */
-			int result = 1;		/* Risultato */
-			/* Calcolo il risultato */
-			result = prime * result + color;
-			result = prime * result + ((el == null) ? 0 : el.hashCode());
-			return result;		/* Ritorno il risultato */
-		}
+    /* Primo identificativo di arco mai usato */
+    private int edgeIdTop;
 
-		/**
-		 * Override metodo equals().
-		 */
-		@Override
-		public boolean equals(Object obj) {
-			if (this == obj) return true;		/* Controllo se gli oggetti sono uguali */
-			if (obj == null) return false;		/* Controllo se obj  null */
-			@SuppressWarnings("unchecked")
-			Node other = (Node) obj;
-			/* Controllo se il colore dei nodi  differente */
-			if (color != other.color) return false;
-			/* Controllo se uno dei due nodi  null mentre l'altro no */
-			if (el == null) {
-				if (other.el != null) return false;
-			/* Controllo se i due nodi sono uguali */	
-			} else if (!el.equals(other.el)) return false;
-			return true;
-		}
-        
-    }
-    
-    /* Classe privata per la matrice di adiacenza */
-    private class AdjacentMatrixElement {
-    	
-    	/* Etichetta del primo nodo */
-        private final V nodeLabel1;
-        
-        /* Etichetta del secondo nodo */
-        private final V nodeLabel2;
-        
-        /* Etichetta dell'arco */
-		private final E edgeLabel;
-		
-		/* Ulteriore bit che specifica la presenza dell'arco anche nel
-		 * caso in cui la sua etichetta sia null
-		 */
-		private final boolean edge;
-		
-		/**
-		 * Costruttore di un elemento della matrice di adiacenza.
-		 * @param nodeLabel1	etichetta nodo da cui esce l'arco
-		 * @param nodeLabel2	etichetta nodo in cui entra l'arco
-		 * @param edgeLabel		etichetta arco
-		 * @param edge			bit presenza arco
-		 */
-        public AdjacentMatrixElement(V nodeLabel1, V nodeLabel2, E edgeLabel, boolean edge) {
-			this.nodeLabel1 = nodeLabel1;		
-			this.nodeLabel2 = nodeLabel2;
-			this.edgeLabel = edgeLabel;
-			this.edge = edge;
-		}
-        
-        /**
-         * Ritorna l'etichetta dell'arco.
-         * @return edgeLabel	etichetta dell'arco
-         */
-        public E getEdge() {
-        	return this.edgeLabel;
-        }
-        
-        /**
-         * Ritorna l'etichetta del nodo da cui esce l'arco.
-         * @return nodeLabel1	etichetta nodo
-         */
-		public V getNodeLabel1() {
-			return nodeLabel1;
-		}
-		
-		/**
-		 * Ritorna l'etichetta del nodo in cui entra l'arco.
-		 * @return nodeLabel2	etichetta nodo
-		 */
-		public V getNodeLabel2() {
-			return nodeLabel2;
-		}
-        
-		/**
-		 * Ritorna il bit che indica la presenza dell'arco.
-		 * @return edge		presenza/assenza arco
-		 */
-		public boolean edgeIsPresent() {
-			return edge;
-		}
+    /* Identificativi di archi rimossi, riutilizzati dai nuovi archi */
+    private int[] freeEdgeIds;
 
-		/**
-		 * Override metodo hashCode().
-		 */
-		@Override
-		public int hashCode() {
-			final int prime = 31;		/* Numero primo */
-			int result = 1;		/* Risultato */
-			/* Calcolo il risultato */
-			result = prime * result + (edge ? 1231 : 1237);
-			result = prime * result + ((edgeLabel == null) ? 0 : edgeLabel.hashCode());
-			result = prime * result + ((nodeLabel1 == null) ? 0 : nodeLabel1.hashCode());
-			result = prime * result + ((nodeLabel2 == null) ? 0 : nodeLabel2.hashCode());
-			return result;
-		}
+    /* Numero di identificativi liberi in freeEdgeIds */
+    private int freeEdgeCount;
 
-		/**
-		 * Override metodo equals().
-		 */
-		@Override
-		public boolean equals(Object obj) {
-			if (this == obj) return true;		/* Controllo se i due oggetti sono uguali */
-			if (obj == null) return false;		/* Controllo se obj  null */
-			@SuppressWarnings("unchecked")
-			AdjacentMatrixElement other = (AdjacentMatrixElement) obj;
-			/* Controllo se i due bit che indicano la presenza dell'arco sono diversi */
-			if (edge != other.edge) return false;
-			/* Controllo se una delle due etichette  null mentre l'altra no */
-			if (edgeLabel == null) {
-				if (other.edgeLabel != null) return false;
-			/* Verifico se le due etichette sono uguali */	
-			} else if (!edgeLabel.equals(other.edgeLabel)) return false;
-			/* Verifico se uno dei due nodi sorgente  null mentre l'altro no */
-			if (nodeLabel1 == null) {
-				if (other.nodeLabel1 != null) return false;
-			/* Verifico se i nodi sorgente sono uguali */	
-			} else if (!nodeLabel1.equals(other.nodeLabel1)) return false;
-			/* Verifico se uno dei due nodi di destinazione  null mentre l'altro no */
-			if (nodeLabel2 == null) {
-				if (other.nodeLabel2 != null) return false;
-			/* Verifico se i due nodi di destinazione sono uguali */
-			} else if (!nodeLabel2.equals(other.nodeLabel2)) return false;
-			return true;
-		}
+    /* Numero di archi del grafo */
+    private int numEdges;
+
+    /* Grado uscente di ogni nodo, indicizzato come le righe della matrice */
+    private int[] outDegrees;
+
+    /* Grado entrante di ogni nodo, indicizzato come le colonne della matrice */
+    private int[] inDegrees;
+
+    /* Contatore delle modifiche della struttura del grafo */
+    private long version;
+
+    /* Capacità iniziale della matrice e degli array degli archi */
+    private static final int INITIAL_CAPACITY = 8;
 
-    }
-    
     /**
      *  Costruttore grafo orientato vuoto.
      */
     public GraphMatrixDirected() {
-    	this.nodes = new ArrayList<Node>();		/* Creazione della lista dei nodi vuota */
-    	this.adjmatrix = new ArrayList<ArrayList<AdjacentMatrixElement>>();	/* Creazione della matrice di adiacenza vuota */
+    	this.registry = new NodeRegistry<V>();		/* Creazione del registro dei nodi vuoto */
+    	this.adjmatrix = new int[INITIAL_CAPACITY][INITIAL_CAPACITY];	/* Creazione della matrice di adiacenza vuota */
+    	this.edgeLabels = new Object[INITIAL_CAPACITY];		/* Creazione dell'array delle etichette degli archi */
+    	this.freeEdgeIds = new int[INITIAL_CAPACITY];
+    	this.outDegrees = new int[INITIAL_CAPACITY];		/* Creazione dei contatori dei gradi */
+    	this.inDegrees = new int[INITIAL_CAPACITY];
+    	this.colors = new int[INITIAL_CAPACITY];
     }
 
     /**
@@ -204,10 +81,17 @@ public class GraphMatrixDirected<V, E> implements Graph<V, E>{
     public GraphMatrixDirected(Set<V> nodes, Set<Edge<V, E>> edges) {
     	/* Controllo che i set dei nodi e degli archi non siano vuoti */
         if (nodes == null || edges == null) throw new NullPointerException("Tentativo di creazione di grafo con insieme dei nodi o degli archi nullo");
-        /* Creo la lista dei nodi vuoti */
-        this.nodes = new ArrayList<Node>();
-        /* Creo la matrice di adiacenza vuota */
-        this.adjmatrix = new ArrayList<ArrayList<AdjacentMatrixElement>>();
+        /* Creo il registro dei nodi vuoto */
+        this.registry = new NodeRegistry<V>(nodes.size());
+        /* Creo la matrice di adiacenza vuota e l'array delle etichette degli archi */
+        int capacity = Math.max(INITIAL_CAPACITY, nodes.size());
+        this.adjmatrix = new int[capacity][capacity];
+        this.edgeLabels = new Object[Math.max(INITIAL_CAPACITY, edges.size())];
+        this.freeEdgeIds = new int[INITIAL_CAPACITY];
+        /* Creo i contatori dei gradi ed i colori */
+        this.outDegrees = new int[capacity];
+        this.inDegrees = new int[capacity];
+        this.colors = new int[capacity];
         /* Aggiungo i nodi del set */
         for (V n : nodes) {
             this.addNode(n);
@@ -225,27 +109,27 @@ public class GraphMatrixDirected<V, E> implements Graph<V, E>{
     public String printMatrix() {
     	String app = new String();		/* Stringa contenente la matrice di adiacenza */
     	String sign = new String();		/* Stringa di appoggio per verificare la presenza di etichette negative */
-    	AdjacentMatrixElement tmp;		/* Variabile d'appoggio */
+    	int tmp;		/* Variabile d'appoggio */
     	app += "    ";			/* Angolo della matrice */
-    	for(int i = 0; i < adjmatrix.size(); i++) app += nodes.get(i).el + "    ";		/* Inserimento dei nodi nell'intestazione */
+    	for(int i = 0; i < this.size(); i++) app += registry.labelOf(i) + "    ";		/* Inserimento dei nodi nell'intestazione */
         app += "\n";	
-        for (int i = 0; i < adjmatrix.size(); i++)
+        for (int i = 0; i < this.size(); i++)
         {
-           app += nodes.get(i).el + "   ";		/* Inserimento ogni nodo per riga */
+           app += registry.labelOf(i) + "   ";		/* Inserimento ogni nodo per riga */
            sign += " ";
-           for (int j = 0; j < adjmatrix.size(); j++)
+           for (int j = 0; j < this.size(); j++)
            {
         	  
-        	  tmp = adjmatrix.get(i).get(j);
-        	  if(tmp == null) app += "0";		/* Se l'arco non esiste tra due nodi inserisco 0 */
-        	  else if(tmp.getEdge() == null && tmp.edgeIsPresent()) app += tmp.getEdge();		/* Se l'arco esiste ma ha etichetta nulla lo inserisco */
+        	  tmp = adjmatrix[i][j];
+        	  if(tmp == 0) app += "0";		/* Se l'arco non esiste tra due nodi inserisco 0 */
+        	  else if(edgeLabels[tmp - 1] == null) app += edgeLabels[tmp - 1];		/* Se l'arco esiste ma ha etichetta nulla lo inserisco */
         	  else {	/* Se l'arco esiste inserisco l'etichetta associata all'arco nella matrice */
-        		  app += adjmatrix.get(i).get(j).getEdge();
-        		  sign += tmp.getEdge();
+        		  app += edgeLabels[tmp - 1];
+        		  sign += edgeLabels[tmp - 1];
         	  }
         	  /* Inserisco lo spazio tra ogni colonna */
-              if(tmp == null) app += "    ";	  
-              else if(tmp.getEdge() == null && tmp.edgeIsPresent()) app += " ";
+              if(tmp == 0) app += "    ";	  
+              else if(edgeLabels[tmp - 1] == null) app += " ";
               else if(sign.contains("-")) app += " ";
               else app += "  ";
            }
@@ -261,7 +145,7 @@ public class GraphMatrixDirected<V, E> implements Graph<V, E>{
      */
 	@Override
 	public int size() {
-		return adjmatrix.size();
+		return registry.size();
 	}
 
 	/**
@@ -273,7 +157,7 @@ public class GraphMatrixDirected<V, E> implements Graph<V, E>{
 	}
 
 	/**
-	 * Ritorna true se il grafo  orientato.
+	 * Ritorna true se il grafo è orientato.
 	 */
 	@Override
 	public boolean isDirected() {
@@ -283,48 +167,131 @@ public class GraphMatrixDirected<V, E> implements Graph<V, E>{
 	/**
 	 * Aggiunge un nuovo nodo al grafo.
 	 * @param label		nodo da inserire nel grafo
-	 * @return true 	se il nodo  stato inserito correttamente
+	 * @return true 	se il nodo è stato inserito correttamente
 	 */
     @Override
     public boolean addNode(V label) {
     	/* Verifico che il nodo non sia null */
         if (label == null) throw new NullPointerException("Tentativo di inserimento di nodo null");
-        /* Verifico che il nodo non sia gi presente nel grafo */
-        if (this.containsNode(label)) {
+        /* Verifico che il nodo non sia già presente nel grafo */
+        if (registry.contains(label)) {
             return false;
         } else {
-            /* Aggiungo il nodo nella lista dei nodi */
-            nodes.add(new Node(label));
-            /* Creo una nuova riga della matrice di adiacenza */
-            ArrayList<AdjacentMatrixElement> row = new ArrayList<AdjacentMatrixElement>(nodes.size()-1);
-            for (int i = 0; i < nodes.size(); i++) {
-                  row.add(null);	/* Inizializzo tutti gli elementi della riga */
-            }
-            adjmatrix.add(row);		/* Aggiungo la riga alla matrice di adiacenza */
-            resizeMatrix();		/* Ridimensiono la matrice */
-            return true;		/* Il nodo  stato inserito correttamente per cui ritorno true */
+            /* Se la matrice è piena ne raddoppio la capacità */
+            if (registry.size() == adjmatrix.length) resizeMatrix(2 * adjmatrix.length);
+            /* Registro il nodo: la riga, la colonna ed il colore
+             * corrispondenti sono già vuoti */
+            registry.intern(label);
+            version++;
+            return true;		/* Il nodo è stato inserito correttamente per cui ritorno true */
         }
     }
 
     /**
-     * Metodo privato utilizzato per ridimensionare la matrice dopo l'aggiunta di un 
-     * nuovo nodo nel grafo.
+     * Aggiunge al grafo un blocco di nodi. La matrice viene ridimensionata
+     * una sola volta per l'intero blocco. L'operazione viene registrata
+     * come evento {@link GraphOperationEvent} di Java Flight Recorder.
+     * @param labels		nodi da inserire nel grafo
+     * @return numero di nodi effettivamente inseriti
      */
-    private void resizeMatrix() {
-    	/* Utilizzo due indici per scorrere righe e colonne */
-    	for (int i = 0; i < nodes.size(); i++) {
-           for (int j = 0; j < nodes.size(); j++) {
-        	   int size = adjmatrix.get(i).size();	  /* Trovo la dimensione delle righe */
-        	   /* Se la dimensione delle righe  maggiore delle colonne, aggiungo elementi null alle
-        	    * colonne in quanto la matrice di adiacenza dev'essere quadrata
-        	    */
-        	   if(size < nodes.size())  adjmatrix.get(i).add(null);
-           }
-        }
+    public int addNodes(Collection<? extends V> labels) {
+    	if (labels == null) throw new NullPointerException("Tentativo di inserimento di un insieme di nodi null");
+    	GraphOperationEvent event = new GraphOperationEvent();
+    	event.begin();
+    	/* Riservo subito lo spazio per tutti i nodi */
+    	int capacity = adjmatrix.length;
+    	while (capacity < registry.size() + labels.size()) capacity *= 2;
+    	if (capacity > adjmatrix.length) resizeMatrix(capacity);
+    	int added = 0;
+    	for (V label : labels) {
+    		if (this.addNode(label)) added++;
+    	}
+    	event.commit(this, GraphOperationEvent.ADD_NODES, added, 0);
+    	return added;
+    }
+
+    /**
+     * Aggiunge al grafo un blocco di archi fra nodi già presenti.
+     * L'operazione viene registrata come evento {@link GraphOperationEvent}
+     * di Java Flight Recorder.
+     * @param edges		archi da inserire nel grafo
+     * @return numero di archi inseriti o di cui è cambiata l'etichetta
+     */
+    public int addEdges(Collection<? extends Edge<V, E>> edges) {
+    	if (edges == null) throw new NullPointerException("Tentativo di inserimento di un insieme di archi null");
+    	GraphOperationEvent event = new GraphOperationEvent();
+    	event.begin();
+    	int added = 0;
+    	for (Edge<V, E> e : edges) {
+    		if (this.addEdge(e.getLabel1(), e.getLabel2(), e.getLabel())) added++;
+    	}
+    	event.commit(this, GraphOperationEvent.ADD_EDGES, added, 0);
+    	return added;
+    }
+
+    /**
+     * Metodo privato utilizzato per ridimensionare la matrice quando la sua
+     * capacità non basta per un nuovo nodo. Raddoppiando la capacità il costo
+     * delle copie, ripartito sugli inserimenti, resta proporzionale al numero
+     * di nodi per ogni inserimento.
+     * @param capacity		nuova capacità della matrice
+     */
+    private void resizeMatrix(int capacity) {
+    	int[][] matrix = new int[capacity][];
+    	/* Copio le righe esistenti allungandole, le nuove righe sono vuote */
+    	for (int i = 0; i < capacity; i++) {
+    		matrix[i] = i < registry.size() ? Arrays.copyOf(adjmatrix[i], capacity) : new int[capacity];
+    	}
+    	adjmatrix = matrix;
+    	outDegrees = Arrays.copyOf(outDegrees, capacity);
+    	inDegrees = Arrays.copyOf(inDegrees, capacity);
+    	colors = Arrays.copyOf(colors, capacity);
+    }
+
+    /**
+     * Assegna un identificativo ad un nuovo arco e ne memorizza l'etichetta.
+     * @param label		etichetta dell'arco
+     * @return identificativo dell'arco
+     */
+    private int newEdgeId(E label) {
+    	int id;
+    	if (freeEdgeCount > 0) id = freeEdgeIds[--freeEdgeCount];		/* Riutilizzo un identificativo libero */
+    	else {
+    		if (edgeIdTop == edgeLabels.length) edgeLabels = Arrays.copyOf(edgeLabels, 2 * edgeLabels.length);
+    		id = edgeIdTop++;
+    	}
+    	edgeLabels[id] = label;
+    	return id;
+    }
+
+    /**
+     * Libera l'identificativo di un arco rimosso.
+     * @param id		identificativo dell'arco
+     */
+    private void freeEdgeId(int id) {
+    	edgeLabels[id] = null;		/* Rilascio il riferimento all'etichetta */
+    	if (freeEdgeCount == freeEdgeIds.length) freeEdgeIds = Arrays.copyOf(freeEdgeIds, 2 * freeEdgeIds.length);
+    	freeEdgeIds[freeEdgeCount++] = id;
+    }
+
+    /**
+     * Ritorna l'etichetta dell'arco memorizzato in una cella della matrice.
+     * @param cell		valore della cella, diverso da 0
+     * @return etichetta dell'arco
+     */
+    @SuppressWarnings("unchecked")
+    private E edgeLabel(int cell) {
+    	return (E) edgeLabels[cell - 1];
     }
     
     /**
-     * Rimuove un nodo dal grafo.
+     * Rimuove un nodo dal grafo. Per non spostare tutte le righe e le
+     * colonne successive, il posto del nodo rimosso viene occupato
+     * dall'ultimo nodo: la rimozione costa un tempo proporzionale al numero
+     * di nodi e cambia soltanto l'indice dell'ultimo nodo, che assume
+     * l'indice del nodo rimosso. Gli identificativi degli archi rimossi
+     * restano liberi per i nuovi archi; {@link #compact()} restituisce lo
+     * spazio non più usato.
      * @param label		nodo da cancellare dal grafo
      * @return true 	se il nodo viene cancellato correttamente
      */
@@ -333,19 +300,102 @@ public class GraphMatrixDirected<V, E> implements Graph<V, E>{
 		/* Controllo che il nodo da cancellare non sia null */
         if (label == null) throw new NullPointerException("Tentativo di cancellazione di nodo null.");
         /* Controllo che il nodo sia presente nel grafo */
-	    if(!this.containsNode(label)) throw new NoSuchElementException("Il nodo non  presente nel grafo.");
+	    if(!registry.contains(label)) throw new NoSuchElementException("Il nodo non è presente nel grafo.");
 	    else {
-	    	int index = this.getNodeIndex(label);		/* Trovo l'indice in cui  memorizzato il nodo */
-	    	this.nodes.remove(this.getNodeIndex(label));		/* Rimuovo il nodo dalla lista dei nodi */
-	    	/* Rimuovo la colonna del nodo nella matrice */
-			for(int i=0; i<nodes.size(); i++)   adjmatrix.get(i).remove(index); 		
-			    adjmatrix.remove(index);		/* Rimuovo la riga del nodo */
-	    	return true;		/* Il nodo  stato rimosso correttamente per cui ritorno true */
+	    	GraphOperationEvent event = new GraphOperationEvent();
+	    	event.begin();
+	    	int index = registry.idOf(label);		/* Trovo l'indice in cui è memorizzato il nodo */
+	    	int last = registry.size() - 1;		/* Indice dell'ultimo nodo */
+	    	int removed = numEdges;
+	    	/* Libero gli archi uscenti ed entranti nel nodo aggiornando i gradi degli altri estremi */
+	    	for (int i = 0; i <= last; i++) {
+	    		if (adjmatrix[index][i] != 0) {
+	    			freeEdgeId(adjmatrix[index][i] - 1);
+	    			adjmatrix[index][i] = 0;
+	    			inDegrees[i]--;
+	    			numEdges--;
+	    		}
+	    		if (adjmatrix[i][index] != 0) {
+	    			freeEdgeId(adjmatrix[i][index] - 1);
+	    			adjmatrix[i][index] = 0;
+	    			outDegrees[i]--;
+	    			numEdges--;
+	    		}
+	    	}
+	    	if (index != last) {
+	    		/* Sposto l'ultimo nodo al posto di quello rimosso: scambio le righe, ora vuota quella del nodo rimosso */
+	    		int[] row = adjmatrix[index];
+	    		adjmatrix[index] = adjmatrix[last];
+	    		adjmatrix[last] = row;
+	    		/* Sposto la colonna dell'ultimo nodo, compreso un eventuale cappio */
+	    		for (int i = 0; i < last; i++) {
+	    			adjmatrix[i][index] = adjmatrix[i][last];
+	    			adjmatrix[i][last] = 0;
+	    		}
+	    		outDegrees[index] = outDegrees[last];
+	    		inDegrees[index] = inDegrees[last];
+	    		colors[index] = colors[last];
+	    	}
+	    	outDegrees[last] = 0;
+	    	inDegrees[last] = 0;
+	    	colors[last] = 0;
+	    	registry.remove(label);		/* Il registro assegna all'ultimo nodo l'indice di quello rimosso */
+			version++;
+			/* Le celle lette sono quelle della riga e della colonna del nodo e della colonna spostata */
+			event.commit(this, GraphOperationEvent.REMOVE_NODE, removed - numEdges, 3L * (last + 1));
+	    	return true;		/* Il nodo è stato rimosso correttamente per cui ritorno true */
 	    }
 	}
 
 	/**
-	 * Verifico se un nodo  presente nel grafo.
+	 * Riduce la memoria occupata dopo molte rimozioni: la matrice e gli
+	 * array dei gradi tornano alla capacità strettamente necessaria e gli
+	 * identificativi degli archi vengono rinumerati in modo contiguo,
+	 * svuotando la lista degli identificativi liberi. Nodi, indici, archi
+	 * e versione del grafo non cambiano: gli stream aperti continuano a
+	 * scorrere la matrice e le etichette precedenti, che non vengono
+	 * modificate. Costa un tempo proporzionale alla dimensione della matrice.
+	 */
+	public void compact() {
+		GraphOperationEvent event = new GraphOperationEvent();
+		event.begin();
+		int n = registry.size();
+		int capacity = Math.max(INITIAL_CAPACITY, n);
+		int[][] matrix = new int[capacity][capacity];
+		Object[] labels = new Object[Math.max(INITIAL_CAPACITY, numEdges)];
+		int id = 0;
+		/* Copio le celle degli archi assegnando identificativi consecutivi */
+		for (int i = 0; i < n; i++) {
+			for (int j = 0; j < n; j++) {
+				if (adjmatrix[i][j] != 0) {
+					labels[id] = edgeLabels[adjmatrix[i][j] - 1];
+					matrix[i][j] = ++id;
+				}
+			}
+		}
+		long cells = (long) adjmatrix.length * adjmatrix.length;
+		adjmatrix = matrix;
+		edgeLabels = labels;
+		edgeIdTop = id;
+		freeEdgeIds = new int[INITIAL_CAPACITY];
+		freeEdgeCount = 0;
+		outDegrees = Arrays.copyOf(outDegrees, capacity);
+		inDegrees = Arrays.copyOf(inDegrees, capacity);
+		colors = Arrays.copyOf(colors, capacity);
+		event.commit(this, GraphOperationEvent.COMPACT, n, cells);
+	}
+
+	/**
+	 * Capacità attuale della matrice di adiacenza, cioè il numero di nodi
+	 * che il grafo può contenere senza ricopiarla.
+	 * @return capacità della matrice
+	 */
+	public int capacity() {
+		return adjmatrix.length;
+	}
+
+	/**
+	 * Verifico se un nodo è presente nel grafo.
 	 * @param label		nodo da cercare nel grafo
 	 * @return true 	se il nodo viene trovato nel grafo
 	 */
@@ -353,7 +403,7 @@ public class GraphMatrixDirected<V, E> implements Graph<V, E>{
     public boolean containsNode(V label) {
     	/* Verifico che label non sia null */
         if (label == null) throw new NullPointerException("Tentativo di ricerca di nodo null");
-        return this.nodes.contains(new Node(label));
+        return registry.contains(label);
     }
 
     /**
@@ -365,20 +415,7 @@ public class GraphMatrixDirected<V, E> implements Graph<V, E>{
     public int getNodeIndex(V label) {
 		/* Controllo che label non sia null */
         if (label == null) throw new NullPointerException("Tentativo di ricerca dell'indice di un nodo nullo.");
-        int i = 0;		/* Indice di appoggio */
-        boolean trovato = false;		/* Variabile boolean di appoggio per verificare se viene trovato il nodo */
-        V nodeLabel = null;			/* Creo un nodo di appoggio */
-        /* Scorro la lista dei nodi */
-        while (i < this.nodes.size() && !trovato) {
-            nodeLabel = this.nodes.get(i).el;
-            if (nodeLabel.equals(label))
-                trovato = true;    /* Quando trovo il nodo imposto trovato a true */
-            else
-                i++; /* Altrimenti incremento l'indice */
-        }
-        if (trovato)
-            return i;		/* Ritorno l'indice corrispondente al nodo */
-        else return -1;		/* Altrimenti ritorno -1 */
+        return registry.idOf(label);		/* Cerco il nodo nel registro, -1 se non è presente */
     }
 
 	/**
@@ -388,9 +425,8 @@ public class GraphMatrixDirected<V, E> implements Graph<V, E>{
 	 */
 	@Override
 	public V getNodeAtIndex(int i) {
-		/* Controllo che i non sia inferiore a 0 o superiore al numero di nodi presenti nel grafo */
-		if(i<0 || i >= this.size()) throw new IndexOutOfBoundsException("L'indice non corrisponde a nessun nodo.");
-		return this.nodes.get(i).el;
+		/* Il registro controlla che i corrisponda ad un nodo */
+		return registry.labelOf(i);
 	}
 
 	/**
@@ -401,11 +437,9 @@ public class GraphMatrixDirected<V, E> implements Graph<V, E>{
 	@Override
 	public int getColor(V label) {
         /* Controllo che label non sia null */
-        if (label == null) throw new NullPointerException("Il nodo passato  null.");
-        /* Cerco l'indice corrispondente a label */
-        int i = this.getNodeIndex(label);
-        /* Restituisco il colore di label */
-        return this.nodes.get(i).color;
+        if (label == null) throw new NullPointerException("Il nodo passato è null.");
+        /* Restituisco il colore dell'indice corrispondente a label */
+        return colors[this.existingNodeIndex(label)];
 	}
 
 	/**
@@ -417,14 +451,12 @@ public class GraphMatrixDirected<V, E> implements Graph<V, E>{
 	public void setColor(V label, int color) {
         /* Controllo che label non sia null */
         if (label == null) throw new NullPointerException("Tentativo di assegnare un colore ad un nodo null.");
-        /* Cerco l'indice corrispondente a label */
-        int i = this.getNodeIndex(label);
-        /* Assegno il colore al nodo */
-        this.nodes.get(i).color = color;		
+        /* Assegno il colore all'indice corrispondente a label */
+        colors[this.existingNodeIndex(label)] = color;
 	}
 
 	/**
-	 * Restituisce il grado di un nodo. Nel caso di grafo diretto  la somma del
+	 * Restituisce il grado di un nodo. Nel caso di grafo diretto è la somma del
      * grado in entrata e del grado in uscita.
      * @param label		nodo di cui si vuole sapere il grado
      * @return il grado del nodo 
@@ -432,27 +464,251 @@ public class GraphMatrixDirected<V, E> implements Graph<V, E>{
 	@Override
 	public int getDegree(V label) {
 		/* Controllo che label non sia null */
-		if (label == null) throw new NullPointerException("Il nodo di cui si vuole sapere il grado  null.");
+		if (label == null) throw new NullPointerException("Il nodo di cui si vuole sapere il grado è null.");
 		/* Cerco l'indice del nodo */
+		int index = this.existingNodeIndex(label);
+		/* Sommo il grado uscente con quello entrante per sapere il grado del nodo */
+		return outDegrees[index] + inDegrees[index];
+	}
+
+	/**
+	 * Restituisce il grado entrante di un nodo.
+	 * @param label		nodo di cui si vuole sapere il grado entrante
+	 * @return il numero di archi entranti nel nodo
+	 */
+	@Override
+	public int inDegree(V label) {
+		/* Controllo che label non sia null */
+		if (label == null) throw new NullPointerException("Il nodo di cui si vuole sapere il grado è null.");
+		return inDegrees[this.existingNodeIndex(label)];
+	}
+
+	/**
+	 * Restituisce il grado uscente di un nodo.
+	 * @param label		nodo di cui si vuole sapere il grado uscente
+	 * @return il numero di archi uscenti dal nodo
+	 */
+	@Override
+	public int outDegree(V label) {
+		/* Controllo che label non sia null */
+		if (label == null) throw new NullPointerException("Il nodo di cui si vuole sapere il grado è null.");
+		return outDegrees[this.existingNodeIndex(label)];
+	}
+
+	/**
+	 * Ritorna l'indice di un nodo che deve essere presente nel grafo.
+	 * @param label		etichetta del nodo
+	 * @return l'indice del nodo
+	 * @throws IllegalArgumentException se il nodo non esiste
+	 */
+	private int existingNodeIndex(V label) {
 		int index = this.getNodeIndex(label);
-		int outgoingedges = 0;		/* Grado uscente */ 
-		int ingoingedges = 0;		/* Grado entrante */
-		int degree = 0;				/* Grado del nodo */
-		
-		/* Scorro la colonna corrispondente al nodo per contare gli archi uscenti */
-		for(int i=0; i<adjmatrix.size(); i++) {
-			 if(adjmatrix.get(index).get(i) != null) {
-				 outgoingedges++;		
-			 }
-		}	 
-		/* Scorro la riga corrispondente al nodo per contare gli archi entranti */
-		for(int i=0; i<adjmatrix.size(); i++) {
-			 if(adjmatrix.get(i).get(index) != null) {
-				 ingoingedges++;
-			 }
+		if (index == -1) throw new IllegalArgumentException("Il nodo non è presente nel grafo.");
+		return index;
+	}
+
+	/*
+	 * Operazioni sugli indici dei nodi. Non calcolano codici hash delle
+	 * etichette e non creano insiemi; gli indici restano validi finché non
+	 * viene rimosso un nodo.
+	 */
+
+	/**
+	 * Controlla che un indice corrisponda ad un nodo.
+	 * @param i		indice del nodo
+	 * @throws IndexOutOfBoundsException se l'indice non corrisponde a nessun nodo
+	 */
+	private void checkIndex(int i) {
+		if (i < 0 || i >= registry.size()) throw new IndexOutOfBoundsException("L'indice " + i + " non corrisponde a nessun nodo.");
+	}
+
+	/**
+	 * Ritorna gli indici dei successori di un nodo in ordine crescente.
+	 * @param i		indice del nodo
+	 * @return indici dei successori
+	 */
+	public int[] successorIndices(int i) {
+		checkIndex(i);
+		int[] result = new int[outDegrees[i]];
+		int k = 0;
+		for (int j = 0; k < result.length; j++)
+			if (adjmatrix[i][j] != 0) result[k++] = j;
+		return result;
+	}
+
+	/**
+	 * Ritorna gli indici dei predecessori di un nodo in ordine crescente.
+	 * @param i		indice del nodo
+	 * @return indici dei predecessori
+	 */
+	public int[] predecessorIndices(int i) {
+		checkIndex(i);
+		int[] result = new int[inDegrees[i]];
+		int k = 0;
+		for (int j = 0; k < result.length; j++)
+			if (adjmatrix[j][i] != 0) result[k++] = j;
+		return result;
+	}
+
+	/**
+	 * Cerca il primo successore di un nodo con indice maggiore o uguale ad
+	 * un valore dato; permette di scorrere i successori senza creare array.
+	 * @param i			indice del nodo
+	 * @param from		primo indice da considerare
+	 * @return indice del successore, -1 se non ce ne sono altri
+	 */
+	public int nextSuccessorIndex(int i, int from) {
+		checkIndex(i);
+		int[] row = adjmatrix[i];
+		for (int j = Math.max(0, from); j < registry.size(); j++)
+			if (row[j] != 0) return j;
+		return -1;
+	}
+
+	/**
+	 * Verifica la presenza di un arco fra due nodi, con qualsiasi etichetta.
+	 * @param i		indice del nodo sorgente
+	 * @param j		indice del nodo destinazione
+	 * @return true se l'arco è presente
+	 */
+	public boolean hasEdgeByIndex(int i, int j) {
+		checkIndex(i);
+		checkIndex(j);
+		return adjmatrix[i][j] != 0;
+	}
+
+	/**
+	 * Verifica la presenza di un arco fra due nodi con una certa etichetta.
+	 * @param i			indice del nodo sorgente
+	 * @param j			indice del nodo destinazione
+	 * @param label		etichetta dell'arco, anche null
+	 * @return true se l'arco è presente con quell'etichetta
+	 */
+	public boolean hasEdgeByIndex(int i, int j, E label) {
+		if (!hasEdgeByIndex(i, j)) return false;
+		/* Verifico che l'etichetta dell'arco corrisponda, anche se nulla */
+		E edgeLabel = this.edgeLabel(adjmatrix[i][j]);
+		return edgeLabel == null ? label == null : edgeLabel.equals(label);
+	}
+
+	/**
+	 * Ritorna l'etichetta dell'arco fra due nodi.
+	 * @param i		indice del nodo sorgente
+	 * @param j		indice del nodo destinazione
+	 * @return etichetta dell'arco, null se l'arco non esiste o non ha etichetta
+	 */
+	public E getEdgeLabelByIndex(int i, int j) {
+		return hasEdgeByIndex(i, j) ? this.edgeLabel(adjmatrix[i][j]) : null;
+	}
+
+	/**
+	 * Aggiunge un arco fra due nodi, o ne sostituisce l'etichetta.
+	 * @param i			indice del nodo sorgente
+	 * @param j			indice del nodo destinazione
+	 * @param label		etichetta dell'arco
+	 * @return true se l'arco è stato aggiunto o l'etichetta è cambiata
+	 */
+	public boolean addEdgeByIndex(int i, int j, E label) {
+		/* Controllo che l'arco non sia già presente nel grafo */
+		if (hasEdgeByIndex(i, j, label)) return false;
+		if (adjmatrix[i][j] != 0) {
+			/* Esiste già un arco con etichetta diversa fra i due nodi: ne sostituisco l'etichetta */
+			edgeLabels[adjmatrix[i][j] - 1] = label;
+		} else {
+			/* Inserisco l'identificativo del nuovo arco nella giusta posizione nella matrice di adiacenza */
+			adjmatrix[i][j] = newEdgeId(label) + 1;
+			outDegrees[i]++;		/* Aggiorno i contatori */
+			inDegrees[j]++;
+			numEdges++;
 		}
-		degree = ingoingedges + outgoingedges;		/* Sommo il grado uscente con quello entrante per sapere il grado del nodo */
-		return degree;		/* Ritorno il grado */
+		version++;
+		return true;
+	}
+
+	/**
+	 * Rimuove l'arco fra due nodi, qualunque sia la sua etichetta.
+	 * @param i		indice del nodo sorgente
+	 * @param j		indice del nodo destinazione
+	 * @return true se l'arco era presente
+	 */
+	public boolean removeEdgeByIndex(int i, int j) {
+		if (!hasEdgeByIndex(i, j)) return false;
+		freeEdgeId(adjmatrix[i][j] - 1);		/* Libero l'identificativo dell'arco */
+		adjmatrix[i][j] = 0;		/* Cancello l'arco */
+		outDegrees[i]--;		/* Aggiorno i contatori */
+		inDegrees[j]--;
+		numEdges--;
+		version++;
+		return true;
+	}
+
+	/**
+	 * Ritorna il colore di un nodo.
+	 * @param i		indice del nodo
+	 * @return colore del nodo
+	 */
+	public int getColorByIndex(int i) {
+		checkIndex(i);
+		return colors[i];
+	}
+
+	/**
+	 * Imposta il colore di un nodo.
+	 * @param i			indice del nodo
+	 * @param color		colore da impostare
+	 */
+	public void setColorByIndex(int i, int color) {
+		checkIndex(i);
+		colors[i] = color;
+	}
+
+	/**
+	 * Ritorna il grado uscente di un nodo.
+	 * @param i		indice del nodo
+	 * @return numero di archi uscenti
+	 */
+	public int outDegreeByIndex(int i) {
+		checkIndex(i);
+		return outDegrees[i];
+	}
+
+	/**
+	 * Ritorna il grado entrante di un nodo.
+	 * @param i		indice del nodo
+	 * @return numero di archi entranti
+	 */
+	public int inDegreeByIndex(int i) {
+		checkIndex(i);
+		return inDegrees[i];
+	}
+
+	/**
+	 * Costruisce l'istantanea indicizzata del grafo leggendo direttamente
+	 * la matrice; usata da {@link IndexedGraph#of(Graph)}.
+	 * @return istantanea indicizzata del grafo
+	 */
+	IndexedGraph<V> snapshot() {
+		int n = registry.size();
+		int[] outOffsets = new int[n + 1];
+		int[] inOffsets = new int[n + 1];
+		for (int i = 0; i < n; i++) {
+			outOffsets[i + 1] = outOffsets[i] + outDegrees[i];
+			inOffsets[i + 1] = inOffsets[i] + inDegrees[i];
+		}
+		int[] outTargets = new int[numEdges];
+		int[] inTargets = new int[numEdges];
+		int[] inNext = Arrays.copyOf(inOffsets, n);
+		/* Righe in ordine: i successori ed i predecessori risultano ordinati */
+		for (int i = 0; i < n; i++) {
+			int k = outOffsets[i];
+			for (int j = 0; j < n; j++) {
+				if (adjmatrix[i][j] != 0) {
+					outTargets[k++] = j;
+					inTargets[inNext[j]++] = i;
+				}
+			}
+		}
+		return new IndexedGraph<V>(registry.toArray(), registry.toMap(), outOffsets, outTargets, inOffsets, inTargets, true);
 	}
 
 	/**
@@ -461,10 +717,10 @@ public class GraphMatrixDirected<V, E> implements Graph<V, E>{
 	@Override
 	public Set<V> neighbors(V label) {
         /*
-         * Questo grafo  diretto quindi lancio l'eccezione di operazione
+         * Questo grafo è diretto quindi lancio l'eccezione di operazione
          * non supportata.
          */
-        throw new UnsupportedOperationException("Non  possibile restituire l'insieme dei nodi adiacenti in quanto il grafo  orientato.");
+        throw new UnsupportedOperationException("Non è possibile restituire l'insieme dei nodi adiacenti in quanto il grafo è orientato.");
 	}
 
 	/**
@@ -477,14 +733,10 @@ public class GraphMatrixDirected<V, E> implements Graph<V, E>{
 	public Set<V> successors(V label) {
 		/* Creo un set di nodi vuoto */
 		HashSet<V> nodes = new HashSet<V>();
-		/* Creo un set contenente gli archi uscenti da label */
-		Set<Edge<V, E>> outgoingEdges = this.outgoingEdges(label);
-        Iterator<Edge<V, E>> it = outgoingEdges.iterator();		/* Iteratore per gli archi */
-        /* Scorro la lista di archi */
-        while(it.hasNext()) {
-        	Edge<V, E> am = it.next();
-        	nodes.add(am.getLabel2());		/* Ottengo i nodi collegati agli archi uscenti di label */
-        }
+		int index = this.existingNodeIndex(label);
+		/* Scorro la riga del nodo: ogni cella non vuota è un arco uscente */
+		for (int j = 0; j < registry.size(); j++)
+			if (adjmatrix[index][j] != 0) nodes.add(registry.labelOf(j));
 		return nodes;	/* Ritorno il set */
 	}
 
@@ -498,17 +750,10 @@ public class GraphMatrixDirected<V, E> implements Graph<V, E>{
 	public Set<V> predecessors(V label) {
 		/* Creo un set di nodi vuoto */
 		Set<V> nodes = new HashSet<V>();
-		/* Invoco ingoingEdges per ottenere gli archi entranti in label */
-		Set<Edge<V, E>> ingoingEdges = this.ingoingEdges(label);
-		/* Creo un iteratore per gli archi */
-        Iterator<Edge<V, E>> it = ingoingEdges.iterator();
-        while(it.hasNext()) {
-        	Edge<V, E> am = it.next();
-        	/* Aggiungo al set di nodi tutti i nodi da cui escono
-        	 * gli archi che entrano in label
-        	 */
-        	nodes.add(am.getLabel1());
-        }
+		int index = this.existingNodeIndex(label);
+		/* Scorro la colonna del nodo: ogni cella non vuota è un arco entrante */
+		for (int i = 0; i < registry.size(); i++)
+			if (adjmatrix[i][index] != 0) nodes.add(registry.labelOf(i));
 		return nodes;		/* Ritorno il set */
 	}
 
@@ -518,7 +763,7 @@ public class GraphMatrixDirected<V, E> implements Graph<V, E>{
 	 */
 	@Override
 	public Set<V> getNodes() {
-        /* Creo un set che conterr i nodi presenti nel grafo */
+        /* Creo un set che conterrà i nodi presenti nel grafo */
         Set<V> ret = new HashSet<V>();
         /* Aggiungo tutti i nodi del grafo al set */
 	    for(int i=0; i<this.size(); i++) {
@@ -539,19 +784,12 @@ public class GraphMatrixDirected<V, E> implements Graph<V, E>{
     public boolean addEdge(V label1, V label2, E label) {
     	/* Controllo che le etichette dei nodi non siano null */
         if (label1 == null || label2 == null) throw new NullPointerException("Tentativo di inserire un arco tra uno o entrambi nodi nulli.");
+        int index = this.getNodeIndex(label1);		/* Ottengo l'indice del nodo da cui uscirà l'arco */
+        int index2 = this.getNodeIndex(label2);		/* Ottengo l'indice del nodo in cui entrerà l'arco */
         /* Controllo che i nodi siano effettivamente presenti nel grafo */
-        if (this.getNodeIndex(label1) == -1 || this.getNodeIndex(label2) == -1) 
+        if (index == -1 || index2 == -1)
         	throw new IllegalArgumentException("Tentativo di inserire un arco tra uno o entrambi nodi non esistenti");
-        /* Controllo che l'arco non sia gi presente nel grafo */
-        if (this.containsEdge(label1, label2, label)) return false;
-        boolean edge = true;		/* Variabile booleana che specifica la presenza dell'arco */
-        int index = this.getNodeIndex(label1);		/* Ottengo l'indice del nodo da cui uscir l'arco */
-        int index2 = this.getNodeIndex(label2);		/* Ottengo l'indice del nodo in cui entrer l'arco */
-        /* Creo un nuovo elemento della matrice di adiacenza */
-        AdjacentMatrixElement m = new AdjacentMatrixElement(label1, label2, label, edge);
-        /* Inserisco l'elemento appena creato nella giusta posizione nella matrice di adiacenza */
-        adjmatrix.get(index).set(index2, m);
-        return true;
+        return this.addEdgeByIndex(index, index2, label);
     }
 
     /**
@@ -559,21 +797,20 @@ public class GraphMatrixDirected<V, E> implements Graph<V, E>{
 	 * @param label1		etichetta del primo nodo
 	 * @param label2		etichetta del secondo nodo
 	 * @param label			etichetta dell'arco
-	 * @return true se l'arco  presente e viene rimosso correttamente
+	 * @return true se l'arco è presente e viene rimosso correttamente
      */
 	@Override
 	public boolean removeEdge(V label1, V label2, E label) {
         /* Controllo che i due nodi non siano null entrambi o uno dei due */
         if (label1 == null || label2 == null) throw new NullPointerException("Tentativo di rimuovere un arco tra uno o entrambi nodi nulli.");
+        int index = this.getNodeIndex(label1);		/* Ottengo l'indice del primo nodo */
+		int index2 = this.getNodeIndex(label2);		/* Ottengo l'indice del secondo nodo */
         /* Controllo che i nodi siano effettivamente presenti nel grafo */
-        if (this.getNodeIndex(label1) == -1 || this.getNodeIndex(label2) == -1)
+        if (index == -1 || index2 == -1)
             throw new IllegalArgumentException("Tentativo di inserire un arco tra uno o entrambi nodi non esistenti.");
         /* Controllo che tra i due nodi ci sia un arco con etichetta label che li collega */
-        if (!this.containsEdge(label1, label2, label)) return false;
-        int index = this.getNodeIndex(label1);		/* Ottengo l'indice del primo nodo */	
-		int index2 = this.getNodeIndex(label2);		/* Ottengo l'indice del secondo nodo */
-        adjmatrix.get(index).set(index2, null);		/* Cancello l'arco */
-		return true;
+        if (!this.hasEdgeByIndex(index, index2, label)) return false;
+        return this.removeEdgeByIndex(index, index2);
 	}
 
 	/**
@@ -581,16 +818,71 @@ public class GraphMatrixDirected<V, E> implements Graph<V, E>{
 	 * @param label1		etichetta del primo nodo
 	 * @param label2		etichetta del secondo nodo
 	 * @param label			etichetta dell'arco
-	 * @return true se l'arco  presente
+	 * @return true se l'arco è presente
 	 */
 	@Override
 	public boolean containsEdge(V label1, V label2, E label) {
-		int index = this.getNodeIndex(label1);		/* Ottengo l'indice del primo nodo */
-		int index2 = this.getNodeIndex(label2);		/* Ottengo l'indice del secondo nodo */
-		if(adjmatrix.get(index).get(index2) == null) return false;		/* Cerco nella matrice se l'arco  presente */
-		/* Verifico che l'etichetta dell'arco corrisponda */
-		else if(adjmatrix.get(index).get(index2) != null && adjmatrix.get(index).get(index2).getEdge().equals(label)) return true;
-		else return false;
+		/* Ottengo gli indici dei due nodi e cerco l'arco nella matrice */
+		return this.hasEdgeByIndex(this.existingNodeIndex(label1), this.existingNodeIndex(label2), label);
+	}
+
+	/**
+	 * Verifica la presenza di molti archi leggendo la matrice riga per riga:
+	 * le interrogazioni vengono ordinate per indice della sorgente.
+	 * @param sources		etichette dei nodi sorgente
+	 * @param targets		etichette dei nodi destinazione
+	 * @param labels		etichette degli archi
+	 * @param result		array delle risposte
+	 */
+	@Override
+	public void containsEdges(V[] sources, V[] targets, E[] labels, boolean[] result) {
+		IndexedGraph.checkBatch(sources.length, targets.length, labels.length, result.length);
+		int[] s = new int[sources.length];
+		for (int k = 0; k < s.length; k++) s[k] = this.existingNodeIndex(sources[k]);
+		int[] t = new int[targets.length];
+		for (int k = 0; k < t.length; k++) t[k] = this.existingNodeIndex(targets[k]);
+		for (int q : IndexedGraph.orderBySource(s, registry.size())) {
+			int cell = adjmatrix[s[q]][t[q]];
+			E edgeLabel = cell == 0 ? null : this.edgeLabel(cell);
+			result[q] = cell != 0 && (edgeLabel == null ? labels[q] == null : edgeLabel.equals(labels[q]));
+		}
+	}
+
+	/**
+	 * Restituisce il numero totale di successori di un gruppo di nodi.
+	 * @param nodes		etichette dei nodi
+	 * @return somma dei gradi uscenti
+	 */
+	@Override
+	public int successorCount(V[] nodes) {
+		int count = 0;
+		for (V label : nodes) count += outDegrees[this.existingNodeIndex(label)];
+		return count;
+	}
+
+	/**
+	 * Scrive i successori di un gruppo di nodi in formato CSR scorrendo le
+	 * righe della matrice, senza creare insiemi.
+	 * @param nodes			etichette dei nodi
+	 * @param offsets		inizi delle liste
+	 * @param targets		indici dei successori
+	 * @return numero di indici scritti
+	 */
+	@Override
+	public int successors(V[] nodes, int[] offsets, int[] targets) {
+		if (offsets.length < nodes.length + 1) throw new IllegalArgumentException("L'array degli inizi delle liste è troppo corto.");
+		int count = 0;
+		offsets[0] = 0;
+		for (int k = 0; k < nodes.length; k++) {
+			int i = this.existingNodeIndex(nodes[k]);
+			if (count + outDegrees[i] > targets.length) throw new IllegalArgumentException("L'array dei successori è troppo corto.");
+			int end = count + outDegrees[i];
+			int[] row = adjmatrix[i];
+			for (int j = 0; count < end; j++)
+				if (row[j] != 0) targets[count++] = j;
+			offsets[k + 1] = count;
+		}
+		return count;
 	}
 
 	/**
@@ -603,10 +895,11 @@ public class GraphMatrixDirected<V, E> implements Graph<V, E>{
 	public Set<Edge<V, E>> getEdges(V label1, V label2) {
 		/* Creo un set vuoto per gli archi */
 	    Set<Edge<V, E>> archi = new HashSet<Edge<V, E>>();
-	    int index = this.getNodeIndex(label1);		/* Ottengo l'indice del primo nodo */
-		int index2 = this.getNodeIndex(label2);		/* Ottengo l'indice del secondo nodo */
-		E tmp = adjmatrix.get(index).get(index2).getEdge();		/* Ottengo l'arco che li collega */
-        archi.add(new Edge<V, E>(label1, label2, tmp, true));		/* Aggiungo i nodi e l'arco nel set */
+	    int index = this.existingNodeIndex(label1);		/* Ottengo l'indice del primo nodo */
+		int index2 = this.existingNodeIndex(label2);		/* Ottengo l'indice del secondo nodo */
+		/* Se i nodi sono collegati aggiungo i nodi e l'arco nel set */
+		if (adjmatrix[index][index2] != 0)
+			archi.add(new Edge<V, E>(label1, label2, this.edgeLabel(adjmatrix[index][index2]), true));
 		return archi;
 	}
 
@@ -620,8 +913,7 @@ public class GraphMatrixDirected<V, E> implements Graph<V, E>{
 	    int index = this.getNodeIndex(label1);		/* Indice del primo nodo */
 		int index2 = this.getNodeIndex(label2);		/* Indice del secondo nodo */
 		/* Ottengo l'arco che collega i due nodi */
-		E tmp = adjmatrix.get(index).get(index2).getEdge();
-		return tmp;
+		return this.edgeLabel(adjmatrix[index][index2]);
 	}
 	
 	/**
@@ -630,11 +922,11 @@ public class GraphMatrixDirected<V, E> implements Graph<V, E>{
 	@Override
 	public Set<Edge<V, E>> getEdges(V label) {
         /*
-         * Questo grafo  diretto quindi lancio l'eccezione di operazione
+         * Questo grafo è diretto quindi lancio l'eccezione di operazione
          * non supportata.
          */
-        throw new UnsupportedOperationException("Non  possibile restituire l'insieme di tutti gli archi connessi a un certo nodo in " +
-         "quanto il grafo  orientato.");
+        throw new UnsupportedOperationException("Non è possibile restituire l'insieme di tutti gli archi connessi a un certo nodo in " +
+         "quanto il grafo è orientato.");
 	}
 	
     /**
@@ -643,23 +935,209 @@ public class GraphMatrixDirected<V, E> implements Graph<V, E>{
      */
 	@Override
 	public Set<Edge<V, E>> getEdges() {
+		GraphOperationEvent event = new GraphOperationEvent();
+		event.begin();
 		/* Creo un set di archi vuoto */
 		Set<Edge<V, E>> archi = new HashSet<Edge<V, E>>();
 		/* Scorro la matrice di adiacenza */
-	    for (int i = 0; i < nodes.size(); i++) {
-	        for (int j = 0; j < nodes.size(); j++) {
-	  			if(adjmatrix.get(i).get(j) != null) {
-	  				/* Ottengo i nodi tra loro adiacenti */
-	  				V label = adjmatrix.get(i).get(j).getNodeLabel1();
-					V label2 = adjmatrix.get(i).get(j).getNodeLabel2();
+	    for (int i = 0; i < registry.size(); i++) {
+	        for (int j = 0; j < registry.size(); j++) {
+	  			if(adjmatrix[i][j] != 0) {
+	  				/* Ottengo i nodi tra loro adiacenti dalla posizione della cella */
+	  				V label = registry.labelOf(i);
+					V label2 = registry.labelOf(j);
 					/* Inserisco nel set i nodi ed i relativi archi che li collegano */
-			        archi.add(new Edge<V, E>(label,label2 , adjmatrix.get(i).get(j).getEdge(),true));
+			        archi.add(new Edge<V, E>(label,label2 , this.edgeLabel(adjmatrix[i][j]),true));
 				 }
 	        }
 	    }
+	    event.commit(this, GraphOperationEvent.GET_EDGES, archi.size(), (long) registry.size() * registry.size());
 		return archi;		/* Ritorno il set */
 	}
 
+	/*
+	 * Flussi dei nodi e degli archi. Non copiano la struttura del grafo:
+	 * gli elementi vengono prodotti durante la scansione della matrice,
+	 * che può essere divisa per righe ed eseguita in parallelo. Il grafo
+	 * non deve essere modificato mentre un flusso viene consumato.
+	 */
+
+	/**
+	 * Flusso degli indici dei nodi, da 0 a size() - 1.
+	 * @return flusso degli indici
+	 */
+	public IntStream nodeIndexStream() {
+		return IntStream.range(0, registry.size());
+	}
+
+	/**
+	 * Flusso delle etichette dei nodi in ordine di indice.
+	 * @return flusso dei nodi
+	 */
+	public Stream<V> nodeStream() {
+		return nodeIndexStream().mapToObj(new IntFunction<V>() {
+			@Override
+			public V apply(int i) {
+				return registry.labelOf(i);
+			}
+		});
+	}
+
+	/**
+	 * Flusso dei gradi uscenti dei nodi in ordine di indice.
+	 * @return flusso dei gradi uscenti
+	 */
+	public IntStream outDegreeStream() {
+		final int[] degrees = outDegrees;
+		return nodeIndexStream().map(new IntUnaryOperator() {
+			@Override
+			public int applyAsInt(int i) {
+				return degrees[i];
+			}
+		});
+	}
+
+	/**
+	 * Flusso dei gradi entranti dei nodi in ordine di indice.
+	 * @return flusso dei gradi entranti
+	 */
+	public IntStream inDegreeStream() {
+		final int[] degrees = inDegrees;
+		return nodeIndexStream().map(new IntUnaryOperator() {
+			@Override
+			public int applyAsInt(int i) {
+				return degrees[i];
+			}
+		});
+	}
+
+	/**
+	 * Flusso degli archi del grafo, in ordine di riga e di colonna della
+	 * matrice. Ogni arco viene creato solo quando il flusso lo raggiunge.
+	 * @return flusso sequenziale degli archi, parallelizzabile con parallel()
+	 */
+	public Stream<Edge<V, E>> edgeStream() {
+		return StreamSupport.stream(new CellSpliterator<Edge<V, E>>(true, 0, registry.size(), numEdges), false);
+	}
+
+	/**
+	 * Flusso delle etichette degli archi, anche null, nello stesso ordine
+	 * di {@link #edgeStream()} ma senza creare gli archi.
+	 * @return flusso sequenziale delle etichette, parallelizzabile con parallel()
+	 */
+	public Stream<E> edgeLabelStream() {
+		return StreamSupport.stream(new CellSpliterator<E>(false, 0, registry.size(), numEdges), false);
+	}
+
+	/*
+	 * Scansione di un intervallo di righe della matrice che produce gli
+	 * archi o le loro etichette. Si divide a metà delle righe; lancia
+	 * ConcurrentModificationException se il grafo cambia durante la
+	 * scansione.
+	 */
+	private class CellSpliterator<T> implements Spliterator<T> {
+
+		/* true per produrre gli archi, false per le sole etichette */
+		private final boolean edges;
+
+		/* Riga e colonna della prossima cella da esaminare */
+		private int row;
+		private int column;
+
+		/* Prima riga esclusa */
+		private final int end;
+
+		/* Stima del numero di archi rimasti */
+		private long estimate;
+
+		/* Struttura e versione del grafo all'inizio della scansione: matrice
+		 * ed etichette sono catturate insieme, perché compact() rinumera gli
+		 * identificativi degli archi senza cambiare la versione */
+		private final int[][] matrix;
+		private final Object[] labels;
+		private final int n;
+		private final long expectedVersion;
+
+		private CellSpliterator(boolean edges, int row, int end, long estimate) {
+			this.edges = edges;
+			this.row = row;
+			this.end = end;
+			this.estimate = estimate;
+			this.matrix = adjmatrix;
+			this.labels = edgeLabels;
+			this.n = registry.size();
+			this.expectedVersion = version;
+		}
+
+		/* Prima parte di una scansione divisa, sulla stessa struttura */
+		private CellSpliterator(CellSpliterator<T> parent, int end, long estimate) {
+			this.edges = parent.edges;
+			this.row = parent.row;
+			this.column = parent.column;
+			this.end = end;
+			this.estimate = estimate;
+			this.matrix = parent.matrix;
+			this.labels = parent.labels;
+			this.n = parent.n;
+			this.expectedVersion = parent.expectedVersion;
+		}
+
+		@SuppressWarnings("unchecked")
+		private T element(int i, int j) {
+			E label = (E) labels[matrix[i][j] - 1];
+			return edges ? (T) new Edge<V, E>(registry.labelOf(i), registry.labelOf(j), label, true) : (T) label;
+		}
+
+		@Override
+		public boolean tryAdvance(Consumer<? super T> action) {
+			if (version != expectedVersion) throw new ConcurrentModificationException();
+			for (; row < end; row++, column = 0) {
+				int[] cells = matrix[row];
+				for (; column < n; column++) {
+					if (cells[column] != 0) {
+						action.accept(element(row, column++));
+						return true;
+					}
+				}
+			}
+			return false;
+		}
+
+		@Override
+		public void forEachRemaining(Consumer<? super T> action) {
+			for (; row < end; row++, column = 0) {
+				int[] cells = matrix[row];
+				for (; column < n; column++)
+					if (cells[column] != 0) action.accept(element(row, column));
+			}
+			if (version != expectedVersion) throw new ConcurrentModificationException();
+		}
+
+		@Override
+		public Spliterator<T> trySplit() {
+			/* Divido solo righe non ancora iniziate */
+			int first = column == 0 ? row : row + 1;
+			int mid = (first + end) >>> 1;
+			if (mid <= first) return null;
+			long half = estimate / 2;
+			estimate -= half;
+			CellSpliterator<T> prefix = new CellSpliterator<T>(this, mid, half);
+			row = mid;
+			column = 0;
+			return prefix;
+		}
+
+		@Override
+		public long estimateSize() {
+			return estimate;
+		}
+
+		@Override
+		public int characteristics() {
+			return edges ? ORDERED | DISTINCT | NONNULL : ORDERED;
+		}
+	}
+
 	/**
 	 * Restituisce l'insieme di tutti gli archi uscenti dal nodo label.
 	 * @param label		nodo di cui si vogliono conoscere gli archi uscenti
@@ -670,19 +1148,19 @@ public class GraphMatrixDirected<V, E> implements Graph<V, E>{
 		/* Creo un set vuoto per gli archi uscenti */
 		Set<Edge<V, E>> archi = new HashSet<Edge<V, E>>();
 		/* Ottengo l'indice corrispondente a label */
-	    int index = this.getNodeIndex(label);
-	       for (int i = 0; i < nodes.size(); i++) {
+	    int index = this.existingNodeIndex(label);
+	       for (int i = 0; i < registry.size(); i++) {
 	    	   /* Scorro la colonna corrispondente a label nella matrice di adiancenza
 	    	    * per determinare gli archi uscenti
 	    	    */
-	  		   if(adjmatrix.get(index).get(i) != null) {
+	  		   if(adjmatrix[index][i] != 0) {
 	  			   /* Ottengo il nodo in cui entra l'arco uscente da label */
-	  			   V label2 = adjmatrix.get(index).get(i).getNodeLabel2();
+	  			   V label2 = registry.labelOf(i);
 				   /* Aggiungo al set il nodo in cui l'arco entra, label ovvero
 				    * il nodo in cui l'arco esce, l'etichetta del nodo ed il
 				    * bit che indica la presenza dell'arco
 				    */
-			       archi.add(new Edge<V, E>(label,label2 , adjmatrix.get(index).get(i).getEdge(),true));
+			       archi.add(new Edge<V, E>(label,label2 , this.edgeLabel(adjmatrix[index][i]),true));
 				 }
 	        }
 		return archi;		/* Ritorno il set */
@@ -698,17 +1176,17 @@ public class GraphMatrixDirected<V, E> implements Graph<V, E>{
 		/* Creo un set vuoto per gli archi entranti */
 		Set<Edge<V, E>> archi = new HashSet<Edge<V, E>>();
 		/* Ottengo l'indice di label */
-	    int index = this.getNodeIndex(label);
+	    int index = this.existingNodeIndex(label);
 	    /* Scorro le righe della matrice di adiacenza */
-		for(int i=0; i<adjmatrix.size(); i++) {
-			 if(adjmatrix.get(i).get(index) != null) {
+		for(int i=0; i<this.size(); i++) {
+			 if(adjmatrix[i][index] != 0) {
 				 /* Ottengo il nodo da cui esce l'arco entrante in label */
-				 V label2 = adjmatrix.get(i).get(index).getNodeLabel1();	
+				 V label2 = registry.labelOf(i);
 				 /* Aggiungo al set il nodo da cui l'arco esce, label ovvero
 				  * il nodo in cui l'arco entra, l'etichetta del nodo ed il
 				  * bit che indica la presenza dell'arco
 				  */
-		         archi.add(new Edge<V, E>(label2,label , adjmatrix.get(i).get(index).getEdge(),true));
+		         archi.add(new Edge<V, E>(label2,label , this.edgeLabel(adjmatrix[i][index]),true));
 			 }
 		}
 		return archi;		/* Ritorno il set */
@@ -716,34 +1194,40 @@ public class GraphMatrixDirected<V, E> implements Graph<V, E>{
 
 
 	/**
-	 * Conta il numero di archi del grafo.
+	 * Ritorna il numero di archi del grafo, mantenuto aggiornato dalle
+	 * operazioni che modificano il grafo.
 	 * @return il numero di archi del grafo
 	 */
 	@Override
 	public int edgeCount() {
-		int count = 0;	/* Contatore */
-		/* Scorro le righe e le colonne della matrice di adiancenza
-		 * nel caso in cui trovo un valore diverso da null, significa
-		 *  presente un arco in quella posizione per cui incremento il
-		 * contatore
-		 */
-	    for (int i = 0; i < adjmatrix.size(); i++) {
-	        for (int j = 0; j < adjmatrix.size(); j++) {
-	    		if(adjmatrix.get(i).get(j) != null){
-	    			count++;		
-	    		}
-	           }
-	        }
-		return count;    /* Ritorno il numero di archi */
+		return numEdges;    /* Ritorno il numero di archi */
 	}
 
+
     /**
      * Cancella tutti i nodi e gli archi di del grafo.
      */
 	@Override
 	public void clear() {
-	       this.adjmatrix.clear();		/* Azzeramento matrice adiacenza */
-	       this.nodes.clear();			/* Azzeramento lista di nodi */
+	       this.adjmatrix = new int[INITIAL_CAPACITY][INITIAL_CAPACITY];		/* Azzeramento matrice adiacenza */
+	       this.edgeLabels = new Object[INITIAL_CAPACITY];		/* Azzeramento etichette degli archi */
+	       this.edgeIdTop = 0;
+	       this.freeEdgeCount = 0;
+	       this.numEdges = 0;		/* Azzeramento contatori */
+	       this.outDegrees = new int[INITIAL_CAPACITY];
+	       this.inDegrees = new int[INITIAL_CAPACITY];
+	       this.colors = new int[INITIAL_CAPACITY];
+	       this.registry.clear();		/* Azzeramento del registro dei nodi */
+	       this.version++;
+	}
+
+	/**
+	 * Ritorna il contatore delle modifiche del grafo.
+	 * @return versione corrente del grafo
+	 */
+	@Override
+	public long getVersion() {
+		return version;
 	}
   
 	/**
@@ -751,9 +1235,9 @@ public class GraphMatrixDirected<V, E> implements Graph<V, E>{
 	 * che li collegano.
 	 */
 	public String toString() {
-	    String app = new String();		/* Stringa che conterr il grafo */
+	    String app = new String();		/* Stringa che conterrà il grafo */
 	    /* Per ogni nodo del grafo cerco i successori */
-        for(int i=0; i<nodes.size(); i++) {		
+        for(int i=0; i<registry.size(); i++) {		
         	V node = this.getNodeAtIndex(i);
         	Set<V> n = this.successors(node);
      	    Iterator<V> it = n.iterator();
@@ -780,8 +1264,15 @@ public class GraphMatrixDirected<V, E> implements Graph<V, E>{
 		final int prime = 31;	 /* Numero primo */
 		int result = 1;		/* Risultato */
 		/* Calcolo il risultato */
-		result = prime * result + ((adjmatrix == null) ? 0 : adjmatrix.hashCode());
-		result = prime * result + ((nodes == null) ? 0 : nodes.hashCode());
+		/* Calcolo il contributo delle celle, che non dipende dagli identificativi degli archi */
+		for (int i = 0; i < this.size(); i++) {
+			for (int j = 0; j < this.size(); j++) {
+				int cell = adjmatrix[i][j];
+				result = prime * result + (cell == 0 ? 0 : (edgeLabels[cell - 1] == null ? 1 : edgeLabels[cell - 1].hashCode()));
+			}
+		}
+		/* Contributo delle etichette dei nodi in ordine di indice */
+		for (int i = 0; i < this.size(); i++) result = prime * result + registry.labelOf(i).hashCode();
 		return result;
 	}
 
@@ -791,21 +1282,25 @@ public class GraphMatrixDirected<V, E> implements Graph<V, E>{
 	@Override
 	public boolean equals(Object obj) {
 		if (this == obj) return true;		/* Controllo se gli oggetti sono uguali */
-		if (obj == null) return false;		/* Controllo se obj  null */
+		if (obj == null) return false;		/* Controllo se obj è null */
 		 /* Verifico che obj sia un'istanza di GraphMatrixDirected */
 		if(!(obj instanceof GraphMatrixDirected)) return false;   
 		@SuppressWarnings("unchecked")
 		GraphMatrixDirected<V,E> other = (GraphMatrixDirected<V,E>) obj;
-		/* Verifico se una delle due matrici di adiacenza  null mentre l'altra no */
-		if (adjmatrix == null) {
-			if (other.adjmatrix != null) return false;
-	    /* Verifico se le matrici di adiacenza sono diverse */
-		} else if (!adjmatrix.equals(other.adjmatrix)) return false;
-		/* Verifico i nodi */
-		if (nodes == null) {
-			if (other.nodes != null) return false;
-	    /* Verifico che i nodi dei grafi siano uguali */
-		} else if (!nodes.equals(other.nodes)) return false;
+		/* Verifico se i grafi hanno un numero diverso di nodi */
+		if (this.size() != other.size()) return false;
+	    /* Verifico se le matrici di adiacenza sono diverse, confrontando presenza ed etichetta degli archi */
+		for (int i = 0; i < this.size(); i++) {
+			for (int j = 0; j < this.size(); j++) {
+				int cell = adjmatrix[i][j];
+				int otherCell = other.adjmatrix[i][j];
+				if ((cell == 0) != (otherCell == 0)) return false;
+				if (cell != 0 && !Objects.equals(edgeLabels[cell - 1], other.edgeLabels[otherCell - 1])) return false;
+			}
+		}
+	    /* Verifico che i nodi dei grafi siano uguali e con gli stessi indici; i colori non contano */
+		for (int i = 0; i < this.size(); i++)
+			if (!registry.labelOf(i).equals(other.registry.labelOf(i))) return false;
 		return true;
 	}
 	
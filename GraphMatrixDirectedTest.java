@@ -1,5 +1,6 @@
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.Random;
 import java.util.Set;
 
 public class GraphMatrixDirectedTest {
@@ -83,6 +84,112 @@ public class GraphMatrixDirectedTest {
 		     System.out.println("("+am.getLabel1() +") --> ("+ am.getLabel2()+")");
 		 }
 		 System.out.println("Eliminazione del nodo s: " + g.removeNode("s"));    
-	     System.out.println("Verifico se s  ancora presente nel grafo: " + g.containsNode("s"));
+	     System.out.println("Verifico se s è ancora presente nel grafo: " + g.containsNode("s"));
+	     System.out.println("Nodo all'indice di s: " + g.getNodeAtIndex(1) + ", archi rimasti: " + g.edgeCount());
+	     System.out.print(g);
+
+	     /* Inserimenti e rimozioni ripetuti confrontati con un insieme di archi di riferimento */
+	     System.out.println();
+	     System.out.println(" ----------------------------------------------------------");
+	     System.out.println(" |    Inserimenti e rimozioni di nodi ripetuti.           |");
+	     System.out.println(" ----------------------------------------------------------");
+	     Random random = new Random(42);
+	     GraphMatrixDirected<Integer, Integer> churn = new GraphMatrixDirected<Integer, Integer>();
+	     Set<Long> reference = new HashSet<Long>();		/* Archi codificati come sorgente * KEY + destinazione */
+	     int size = 3000;
+	     for (int i = 0; i < size; i++) churn.addNode(i);
+	     for (int i = 0; i < 4 * size; i++) {
+	    	 int u = random.nextInt(size);
+	    	 int v = random.nextInt(size);
+	    	 churn.addEdge(u, v, u + v);
+	    	 reference.add((long) u * KEY + v);
+	     }
+	     long elapsed = 0;
+	     for (int next = size; next < size + 2000; next++) {
+	    	 /* Rimuovo un nodo a caso e ne inserisco uno nuovo collegato al grafo */
+	    	 int removed = churn.getNodeAtIndex(random.nextInt(churn.size()));
+	    	 long start = System.nanoTime();
+	    	 churn.removeNode(removed);
+	    	 churn.addNode(next);
+	    	 elapsed += System.nanoTime() - start;
+	    	 Iterator<Long> keys = reference.iterator();
+	    	 while (keys.hasNext()) {
+	    		 long e = keys.next();
+	    		 if (e / KEY == removed || e % KEY == removed) keys.remove();
+	    	 }
+	    	 for (int k = 0; k < 4; k++) {
+	    		 int v = churn.getNodeAtIndex(random.nextInt(churn.size()));
+	    		 churn.addEdge(next, v, next + v);
+	    		 reference.add((long) next * KEY + v);
+	    	 }
+	     }
+	     boolean same = churn.edgeCount() == reference.size();
+	     for (Edge<Integer, Integer> e : churn.getEdges())
+	    	 if (!reference.contains((long) e.getLabel1() * KEY + e.getLabel2())
+	    			 || e.getLabel() != e.getLabel1() + e.getLabel2()) same = false;
+	     boolean indices = true;
+	     for (int i = 0; i < churn.size(); i++)
+	    	 if (churn.getNodeIndex(churn.getNodeAtIndex(i)) != i) indices = false;
+	     System.out.println("2000 rimozioni e inserimenti: " + elapsed / 2000000 + " us per coppia, archi corretti: " + same
+	    		 + ", indici corretti: " + indices);
+	     for (int i = 0; i < 2000; i++) churn.removeNode(churn.getNodeAtIndex(churn.size() - 1));
+	     System.out.print("Dopo altre 2000 rimozioni: capacità " + churn.capacity());
+	     churn.compact();
+	     System.out.println(", dopo compact() " + churn.capacity() + " per " + churn.size() + " nodi e "
+	    		 + churn.edgeCount() + " archi");
+
+	     System.out.println();
+	     System.out.println(" ----------------------------------------------------------");
+	     System.out.println(" |    Operazioni per etichetta e per indice.              |");
+	     System.out.println(" ----------------------------------------------------------");
+	     GraphMatrixDirected<NodeDFS, Integer> ids = new GraphMatrixDirected<NodeDFS, Integer>();
+	     NodeDFS[] nodes = new NodeDFS[1000];
+	     for (int i = 0; i < nodes.length; i++) {
+	    	 nodes[i] = new NodeDFS("n" + i);
+	    	 ids.addNode(nodes[i]);
+	     }
+	     int[] sources = new int[200000];
+	     int[] targets = new int[sources.length];
+	     for (int k = 0; k < sources.length; k++) {
+	    	 sources[k] = random.nextInt(nodes.length);
+	    	 targets[k] = random.nextInt(nodes.length);
+	     }
+	     long start = System.nanoTime();
+	     int found = 0;
+	     for (int k = 0; k < sources.length; k++) {
+	    	 ids.addEdge(nodes[sources[k]], nodes[targets[k]], k);
+	    	 if (ids.containsEdge(nodes[targets[k]], nodes[sources[k]], k - 1)) found++;
+	     }
+	     long byLabel = System.nanoTime() - start;
+	     ids.clear();
+	     for (int i = 0; i < nodes.length; i++) ids.addNode(nodes[i]);
+	     start = System.nanoTime();
+	     int foundByIndex = 0;
+	     for (int k = 0; k < sources.length; k++) {
+	    	 ids.addEdgeByIndex(sources[k], targets[k], k);
+	    	 if (ids.hasEdgeByIndex(targets[k], sources[k], k - 1)) foundByIndex++;
+	     }
+	     long byIndex = System.nanoTime() - start;
+	     System.out.println("Inserimenti e ricerche per etichetta: " + byLabel / 1000000 + " ms, per indice: " + byIndex / 1000000
+	    		 + " ms, stessi risultati: " + (found == foundByIndex));
+	     int i0 = ids.getNodeIndex(nodes[0]);
+	     int[] succ = ids.successorIndices(i0);
+	     System.out.println("Successori di n0: " + succ.length + " = " + ids.outDegree(nodes[0]) + ", primo: "
+	    		 + (succ.length == 0 ? "nessuno" : ids.getNodeAtIndex(succ[0]) + " con etichetta " + ids.getEdgeLabelByIndex(i0, succ[0]))
+	    		 + ", contiene n1 dopo setColor: " + setAndCheck(ids, nodes[1]));
+	 }
+
+	 /**
+	  * Cambia il colore di un nodo e verifica che il nodo sia ancora presente.
+	  * @param g		grafo
+	  * @param n		nodo
+	  * @return true se il nodo è ancora contenuto nel grafo
+	  */
+	 private static boolean setAndCheck(GraphMatrixDirected<NodeDFS, Integer> g, NodeDFS n) {
+		 g.setColor(n, Graph.COLOR_GREY);
+		 return g.containsNode(n);
 	 }
+
+	 /* Base della codifica degli archi di riferimento */
+	 private static final long KEY = 1 << 20;
 }
@@ -0,0 +1,757 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Multigrafo orientato: tra due nodi possono esistere più archi, purché con
+ * etichette diverse, ad esempio più collegamenti di trasporto tra le stesse
+ * due località. Due archi con gli stessi estremi e la stessa etichetta sono
+ * lo stesso arco.
+ *
+ * Per ogni nodo i successori distinti sono memorizzati in un array ordinato
+ * per indice; gli archi verso uno stesso successore formano un fascio di
+ * etichette contigue in un secondo array, delimitato da un array di
+ * posizioni come nel formato CSR. Cercare gli archi tra due nodi costa una
+ * ricerca binaria più la lunghezza del fascio, e {@link #successors(Object)}
+ * restituisce ogni successore una sola volta, per cui una visita non esamina
+ * più volte la stessa coppia di nodi. Dei predecessori si memorizza il
+ * numero di archi provenienti da ognuno.
+ *
+ * Come in {@link GraphMatrixDirected}, la rimozione di un nodo sposta
+ * l'ultimo nodo al suo posto; i gradi contano anche gli archi paralleli.
+ */
+public class GraphMultiDirected<V, E> implements Graph<V, E> {
+
+	/* Nodi del grafo in ordine di indice */
+	private ArrayList<Node> nodes;
+
+	/* Tabella che associa ad ogni etichetta l'indice del suo nodo */
+	private HashMap<V, Integer> indices;
+
+	/* Numero di archi del grafo, contando anche quelli paralleli */
+	private int numEdges;
+
+	/* Contatore delle modifiche della struttura del grafo */
+	private long version;
+
+	/* Array vuoti condivisi dai nodi senza archi */
+	private static final int[] NO_INTS = new int[0];
+	private static final Object[] NO_LABELS = new Object[0];
+
+	/* Capacità minima degli array di un nodo quando vengono allungati */
+	private static final int INITIAL_CAPACITY = 4;
+
+	/*
+	 * Classe privata che rappresenta un nodo con il suo colore, i suoi
+	 * fasci di archi uscenti ed i suoi predecessori.
+	 */
+	private class Node {
+		/* Etichetta del nodo */
+		private final V el;
+
+		/* Colore associato al nodo */
+		private int color;
+
+		/* Successori distinti in ordine crescente di indice */
+		private int[] targets = NO_INTS;
+
+		/* Il fascio del successore targets[k] occupa le posizioni da starts[k] a starts[k + 1] escluso */
+		private int[] starts = new int[1];
+
+		/* Etichette degli archi uscenti, raggruppate per successore */
+		private Object[] labels = NO_LABELS;
+
+		/* Numero di successori distinti */
+		private int targetCount;
+
+		/* Predecessori distinti in ordine crescente di indice */
+		private int[] sources = NO_INTS;
+
+		/* Numero di archi provenienti da ogni predecessore */
+		private int[] multiplicities = NO_INTS;
+
+		/* Numero di predecessori distinti */
+		private int sourceCount;
+
+		/* Numero di archi entranti */
+		private int inEdges;
+
+		/**
+		 * Costruttore del nodo senza archi.
+		 * @param el	etichetta del nodo
+		 */
+		private Node(V el) {
+			this.el = el;
+		}
+
+		/**
+		 * Numero di archi uscenti.
+		 * @return numero di archi uscenti, compresi quelli paralleli
+		 */
+		private int outEdges() {
+			return starts[targetCount];
+		}
+
+		/**
+		 * Cerca un successore.
+		 * @param t		indice del successore
+		 * @return posizione del successore, oppure -(posizione di inserimento) - 1
+		 */
+		private int findTarget(int t) {
+			return Arrays.binarySearch(targets, 0, targetCount, t);
+		}
+
+		/**
+		 * Cerca un'etichetta nel fascio di un successore.
+		 * @param k			posizione del successore
+		 * @param label		etichetta cercata, anche null
+		 * @return posizione dell'etichetta in labels, -1 se non presente
+		 */
+		private int findLabel(int k, Object label) {
+			for (int p = starts[k]; p < starts[k + 1]; p++)
+				if (label == null ? labels[p] == null : label.equals(labels[p])) return p;
+			return -1;
+		}
+
+		/**
+		 * Inserisce un nuovo successore con un fascio vuoto.
+		 * @param k		posizione di inserimento
+		 * @param t		indice del successore
+		 */
+		private void insertTarget(int k, int t) {
+			if (targetCount == targets.length) {
+				int capacity = Math.max(INITIAL_CAPACITY, 2 * targets.length);
+				targets = Arrays.copyOf(targets, capacity);
+				starts = Arrays.copyOf(starts, capacity + 1);
+			}
+			System.arraycopy(targets, k, targets, k + 1, targetCount - k);
+			targets[k] = t;
+			/* Il nuovo fascio comincia e finisce dove cominciava quello che ora lo segue */
+			System.arraycopy(starts, k, starts, k + 1, targetCount - k + 1);
+			targetCount++;
+		}
+
+		/**
+		 * Rimuove un successore il cui fascio è vuoto.
+		 * @param k		posizione del successore
+		 */
+		private void removeTarget(int k) {
+			System.arraycopy(targets, k + 1, targets, k, targetCount - k - 1);
+			System.arraycopy(starts, k + 1, starts, k, targetCount - k);
+			targetCount--;
+		}
+
+		/**
+		 * Aggiunge etichette in fondo al fascio di un successore.
+		 * @param k			posizione del successore
+		 * @param added		etichette da aggiungere
+		 */
+		private void appendLabels(int k, Object[] added) {
+			int end = outEdges();
+			if (end + added.length > labels.length)
+				labels = Arrays.copyOf(labels, Math.max(Math.max(INITIAL_CAPACITY, 2 * labels.length), end + added.length));
+			int p = starts[k + 1];
+			System.arraycopy(labels, p, labels, p + added.length, end - p);
+			System.arraycopy(added, 0, labels, p, added.length);
+			for (int q = k + 1; q <= targetCount; q++) starts[q] += added.length;
+		}
+
+		/**
+		 * Rimuove etichette consecutive dal fascio di un successore, ed il
+		 * successore se il fascio resta vuoto.
+		 * @param k			posizione del successore
+		 * @param p			posizione della prima etichetta
+		 * @param count		numero di etichette
+		 */
+		private void removeLabels(int k, int p, int count) {
+			int end = outEdges();
+			System.arraycopy(labels, p + count, labels, p, end - p - count);
+			Arrays.fill(labels, end - count, end, null);		/* Rilascio i riferimenti alle etichette */
+			for (int q = k + 1; q <= targetCount; q++) starts[q] -= count;
+			if (starts[k] == starts[k + 1]) removeTarget(k);
+		}
+
+		/**
+		 * Aggiunge un arco uscente.
+		 * @param t			indice del successore
+		 * @param label		etichetta dell'arco
+		 * @return true se l'arco non era già presente
+		 */
+		private boolean addOut(int t, Object label) {
+			int k = findTarget(t);
+			if (k >= 0) {
+				if (findLabel(k, label) != -1) return false;
+			} else {
+				k = -k - 1;
+				insertTarget(k, t);
+			}
+			appendLabels(k, new Object[] { label });
+			return true;
+		}
+
+		/**
+		 * Rimuove un arco uscente.
+		 * @param t			indice del successore
+		 * @param label		etichetta dell'arco
+		 * @return true se l'arco era presente
+		 */
+		private boolean removeOut(int t, Object label) {
+			int k = findTarget(t);
+			if (k < 0) return false;
+			int p = findLabel(k, label);
+			if (p == -1) return false;
+			removeLabels(k, p, 1);
+			return true;
+		}
+
+		/**
+		 * Rimuove tutti gli archi verso un successore.
+		 * @param t		indice del successore
+		 * @return etichette degli archi rimossi
+		 */
+		private Object[] removeBundle(int t) {
+			int k = findTarget(t);
+			if (k < 0) return NO_LABELS;
+			Object[] bundle = Arrays.copyOfRange(labels, starts[k], starts[k + 1]);
+			removeLabels(k, starts[k], bundle.length);
+			return bundle;
+		}
+
+		/**
+		 * Sposta gli archi verso un successore su un altro indice, non usato.
+		 * @param from		indice attuale del successore
+		 * @param to		nuovo indice del successore
+		 */
+		private void renameTarget(int from, int to) {
+			Object[] bundle = removeBundle(from);
+			int k = -findTarget(to) - 1;
+			insertTarget(k, to);
+			appendLabels(k, bundle);
+		}
+
+		/**
+		 * Aggiunge archi entranti da un predecessore.
+		 * @param s			indice del predecessore
+		 * @param count		numero di archi
+		 */
+		private void addIn(int s, int count) {
+			int k = Arrays.binarySearch(sources, 0, sourceCount, s);
+			if (k < 0) {
+				k = -k - 1;
+				if (sourceCount == sources.length) {
+					int capacity = Math.max(INITIAL_CAPACITY, 2 * sources.length);
+					sources = Arrays.copyOf(sources, capacity);
+					multiplicities = Arrays.copyOf(multiplicities, capacity);
+				}
+				System.arraycopy(sources, k, sources, k + 1, sourceCount - k);
+				System.arraycopy(multiplicities, k, multiplicities, k + 1, sourceCount - k);
+				sources[k] = s;
+				multiplicities[k] = 0;
+				sourceCount++;
+			}
+			multiplicities[k] += count;
+			inEdges += count;
+		}
+
+		/**
+		 * Rimuove archi entranti da un predecessore, ed il predecessore se
+		 * non ne restano.
+		 * @param s			indice del predecessore
+		 * @param count		numero di archi, -1 per rimuoverli tutti
+		 * @return numero di archi rimossi
+		 */
+		private int removeIn(int s, int count) {
+			int k = Arrays.binarySearch(sources, 0, sourceCount, s);
+			if (k < 0) return 0;
+			if (count == -1) count = multiplicities[k];
+			multiplicities[k] -= count;
+			inEdges -= count;
+			if (multiplicities[k] == 0) {
+				System.arraycopy(sources, k + 1, sources, k, sourceCount - k - 1);
+				System.arraycopy(multiplicities, k + 1, multiplicities, k, sourceCount - k - 1);
+				sourceCount--;
+			}
+			return count;
+		}
+	}
+
+	/**
+	 * Costruttore del multigrafo vuoto.
+	 */
+	public GraphMultiDirected() {
+		this.nodes = new ArrayList<Node>();
+		this.indices = new HashMap<V, Integer>();
+	}
+
+	/**
+	 * Ritorna l'indice di un nodo controllando che esista.
+	 * @param label		etichetta del nodo
+	 * @return indice del nodo
+	 */
+	private int index(V label) {
+		if (label == null) throw new NullPointerException("Tentativo di ricerca di nodo null.");
+		Integer i = indices.get(label);
+		if (i == null) throw new IllegalArgumentException("Il nodo " + label + " non è presente nel grafo.");
+		return i;
+	}
+
+	/**
+	 * Ritorna il nodo con una certa etichetta.
+	 * @param label		etichetta del nodo
+	 * @return nodo
+	 */
+	private Node node(V label) {
+		return nodes.get(index(label));
+	}
+
+	/**
+	 * Ritorna l'etichetta di un arco.
+	 * @param label		etichetta memorizzata
+	 * @return etichetta dell'arco, anche null
+	 */
+	@SuppressWarnings("unchecked")
+	private E edgeLabel(Object label) {
+		return (E) label;
+	}
+
+	/**
+	 * Ritorna il numero di nodi del grafo.
+	 * @return numero di nodi
+	 */
+	@Override
+	public int size() {
+		return nodes.size();
+	}
+
+	/**
+	 * Dice se il grafo è vuoto.
+	 * @return true se il grafo non ha nodi
+	 */
+	@Override
+	public boolean isEmpty() {
+		return nodes.isEmpty();
+	}
+
+	/**
+	 * Il multigrafo è sempre orientato.
+	 * @return true
+	 */
+	@Override
+	public boolean isDirected() {
+		return true;
+	}
+
+	/**
+	 * Aggiunge un nuovo nodo al grafo.
+	 * @param label		nodo da inserire
+	 * @return true se il nodo è stato inserito, false se era già presente
+	 */
+	@Override
+	public boolean addNode(V label) {
+		if (label == null) throw new NullPointerException("Tentativo di inserimento di nodo null");
+		if (indices.containsKey(label)) return false;
+		nodes.add(new Node(label));
+		indices.put(label, nodes.size() - 1);
+		version++;
+		return true;
+	}
+
+	/**
+	 * Rimuove un nodo ed i suoi archi. L'ultimo nodo prende l'indice del
+	 * nodo rimosso; il costo è proporzionale ai gradi dei due nodi ed ai
+	 * gradi dei loro vicini.
+	 * @param label		nodo da rimuovere
+	 * @return true se il nodo è stato rimosso, false se non era presente
+	 */
+	@Override
+	public boolean removeNode(V label) {
+		if (label == null) throw new NullPointerException("Tentativo di cancellazione di nodo null.");
+		Integer index = indices.get(label);
+		if (index == null) return false;
+		int i = index;
+		Node x = nodes.get(i);
+		/* Rimuovo gli archi del nodo dalle liste dei vicini */
+		int loops = x.removeBundle(i).length;
+		x.removeIn(i, -1);
+		for (int k = 0; k < x.targetCount; k++) nodes.get(x.targets[k]).removeIn(i, -1);
+		for (int k = 0; k < x.sourceCount; k++) nodes.get(x.sources[k]).removeBundle(i);
+		numEdges -= x.outEdges() + x.inEdges + loops;
+		/* Sposto l'ultimo nodo al posto di quello rimosso */
+		int last = nodes.size() - 1;
+		if (i != last) {
+			Node moved = nodes.get(last);
+			int movedLoops = moved.findTarget(last) >= 0 ? moved.removeIn(last, -1) : 0;
+			for (int k = 0; k < moved.targetCount; k++) {
+				if (moved.targets[k] == last) continue;
+				Node t = nodes.get(moved.targets[k]);
+				t.addIn(i, t.removeIn(last, -1));
+			}
+			for (int k = 0; k < moved.sourceCount; k++) nodes.get(moved.sources[k]).renameTarget(last, i);
+			if (movedLoops > 0) {
+				moved.renameTarget(last, i);
+				moved.addIn(i, movedLoops);
+			}
+			nodes.set(i, moved);
+			indices.put(moved.el, i);
+		}
+		nodes.remove(last);
+		indices.remove(label);
+		version++;
+		return true;
+	}
+
+	/**
+	 * Verifica la presenza di un nodo.
+	 * @param label		etichetta del nodo
+	 * @return true se il nodo è presente
+	 */
+	@Override
+	public boolean containsNode(V label) {
+		if (label == null) throw new NullPointerException("Tentativo di ricerca di nodo null");
+		return indices.containsKey(label);
+	}
+
+	/**
+	 * Ritorna l'indice di un nodo.
+	 * @param label		etichetta del nodo
+	 * @return indice del nodo
+	 */
+	@Override
+	public int getNodeIndex(V label) {
+		return index(label);
+	}
+
+	/**
+	 * Restituisce il nodo all'indice i.
+	 * @param i		indice del nodo
+	 * @return etichetta del nodo
+	 */
+	@Override
+	public V getNodeAtIndex(int i) {
+		if (i < 0 || i >= size()) throw new IndexOutOfBoundsException("L'indice non corrisponde a nessun nodo.");
+		return nodes.get(i).el;
+	}
+
+	/**
+	 * Ritorna il colore di un nodo.
+	 * @param label		etichetta del nodo
+	 * @return colore del nodo
+	 */
+	@Override
+	public int getColor(V label) {
+		return node(label).color;
+	}
+
+	/**
+	 * Imposta il colore di un nodo.
+	 * @param label		etichetta del nodo
+	 * @param color		colore da impostare
+	 */
+	@Override
+	public void setColor(V label, int color) {
+		node(label).color = color;
+	}
+
+	/**
+	 * Restituisce il grado di un nodo, somma del grado entrante e uscente.
+	 * @param label		etichetta del nodo
+	 * @return grado del nodo
+	 */
+	@Override
+	public int getDegree(V label) {
+		Node n = node(label);
+		return n.outEdges() + n.inEdges;
+	}
+
+	/**
+	 * Restituisce il grado entrante di un nodo.
+	 * @param label		etichetta del nodo
+	 * @return numero di archi entranti, compresi quelli paralleli
+	 */
+	@Override
+	public int inDegree(V label) {
+		return node(label).inEdges;
+	}
+
+	/**
+	 * Restituisce il grado uscente di un nodo.
+	 * @param label		etichetta del nodo
+	 * @return numero di archi uscenti, compresi quelli paralleli
+	 */
+	@Override
+	public int outDegree(V label) {
+		return node(label).outEdges();
+	}
+
+	/**
+	 * Ritorna il numero di archi tra due nodi.
+	 * @param label1		etichetta del nodo sorgente
+	 * @param label2		etichetta del nodo destinazione
+	 * @return numero di archi paralleli da label1 a label2
+	 */
+	public int multiplicity(V label1, V label2) {
+		Node n = node(label1);
+		int k = n.findTarget(index(label2));
+		return k < 0 ? 0 : n.starts[k + 1] - n.starts[k];
+	}
+
+	/**
+	 * Metodo non supportato per grafi orientati.
+	 */
+	@Override
+	public Set<V> neighbors(V label) {
+		throw new UnsupportedOperationException("Non è possibile restituire l'insieme dei nodi adiacenti in quanto il grafo è orientato.");
+	}
+
+	/**
+	 * Ritorna i successori distinti di un nodo.
+	 * @param label		etichetta del nodo
+	 * @return insieme dei successori
+	 */
+	@Override
+	public Set<V> successors(V label) {
+		Node n = node(label);
+		Set<V> result = new HashSet<V>();
+		for (int k = 0; k < n.targetCount; k++) result.add(nodes.get(n.targets[k]).el);
+		return result;
+	}
+
+	/**
+	 * Ritorna i predecessori distinti di un nodo.
+	 * @param label		etichetta del nodo
+	 * @return insieme dei predecessori
+	 */
+	@Override
+	public Set<V> predecessors(V label) {
+		Node n = node(label);
+		Set<V> result = new HashSet<V>();
+		for (int k = 0; k < n.sourceCount; k++) result.add(nodes.get(n.sources[k]).el);
+		return result;
+	}
+
+	/**
+	 * Ritorna l'insieme dei nodi del grafo.
+	 * @return insieme dei nodi
+	 */
+	@Override
+	public Set<V> getNodes() {
+		return new HashSet<V>(indices.keySet());
+	}
+
+	/**
+	 * Aggiunge un arco; tra gli stessi nodi possono esserci altri archi con
+	 * etichette diverse.
+	 * @param label1		etichetta del nodo sorgente
+	 * @param label2		etichetta del nodo destinazione
+	 * @param label			etichetta dell'arco, anche null
+	 * @return true se l'arco è stato inserito, false se esisteva già
+	 */
+	@Override
+	public boolean addEdge(V label1, V label2, E label) {
+		if (label1 == null || label2 == null) throw new NullPointerException("Tentativo di inserire un arco tra uno o entrambi nodi nulli.");
+		int u = index(label1);
+		int v = index(label2);
+		if (!nodes.get(u).addOut(v, label)) return false;
+		nodes.get(v).addIn(u, 1);
+		numEdges++;
+		version++;
+		return true;
+	}
+
+	/**
+	 * Rimuove l'arco con una certa etichetta tra due nodi, lasciando gli
+	 * altri archi paralleli.
+	 * @param label1		etichetta del nodo sorgente
+	 * @param label2		etichetta del nodo destinazione
+	 * @param label			etichetta dell'arco
+	 * @return true se l'arco era presente ed è stato rimosso
+	 */
+	@Override
+	public boolean removeEdge(V label1, V label2, E label) {
+		if (label1 == null || label2 == null) throw new NullPointerException("Tentativo di rimuovere un arco tra uno o entrambi nodi nulli.");
+		int u = index(label1);
+		int v = index(label2);
+		if (!nodes.get(u).removeOut(v, label)) return false;
+		nodes.get(v).removeIn(u, 1);
+		numEdges--;
+		version++;
+		return true;
+	}
+
+	/**
+	 * Verifica la presenza di un arco con una certa etichetta.
+	 * @param label1		etichetta del nodo sorgente
+	 * @param label2		etichetta del nodo destinazione
+	 * @param label			etichetta dell'arco
+	 * @return true se l'arco è presente
+	 */
+	@Override
+	public boolean containsEdge(V label1, V label2, E label) {
+		Node n = node(label1);
+		int k = n.findTarget(index(label2));
+		return k >= 0 && n.findLabel(k, label) != -1;
+	}
+
+	/**
+	 * Restituisce gli archi tra due nodi, in tempo proporzionale al loro
+	 * numero dopo la ricerca binaria del fascio.
+	 * @param label1		etichetta del nodo sorgente
+	 * @param label2		etichetta del nodo destinazione
+	 * @return insieme degli archi da label1 a label2
+	 */
+	@Override
+	public Set<Edge<V, E>> getEdges(V label1, V label2) {
+		Node n = node(label1);
+		int k = n.findTarget(index(label2));
+		Set<Edge<V, E>> edges = new HashSet<Edge<V, E>>();
+		if (k >= 0)
+			for (int p = n.starts[k]; p < n.starts[k + 1]; p++)
+				edges.add(new Edge<V, E>(label1, label2, edgeLabel(n.labels[p]), true));
+		return edges;
+	}
+
+	/**
+	 * Operazione non supportata per grafo diretto.
+	 */
+	@Override
+	public Set<Edge<V, E>> getEdges(V label) {
+		throw new UnsupportedOperationException("Non è possibile restituire l'insieme di tutti gli archi connessi a un certo nodo in " +
+				"quanto il grafo è orientato.");
+	}
+
+	/**
+	 * Aggiunge ad un insieme gli archi uscenti da un nodo.
+	 * @param n			nodo sorgente
+	 * @param edges		insieme da riempire
+	 */
+	private void addOutgoing(Node n, Set<Edge<V, E>> edges) {
+		for (int k = 0; k < n.targetCount; k++) {
+			V target = nodes.get(n.targets[k]).el;
+			for (int p = n.starts[k]; p < n.starts[k + 1]; p++)
+				edges.add(new Edge<V, E>(n.el, target, edgeLabel(n.labels[p]), true));
+		}
+	}
+
+	/**
+	 * Restituisce l'insieme di tutti gli archi del grafo.
+	 * @return insieme degli archi
+	 */
+	@Override
+	public Set<Edge<V, E>> getEdges() {
+		Set<Edge<V, E>> edges = new HashSet<Edge<V, E>>();
+		for (Node n : nodes) addOutgoing(n, edges);
+		return edges;
+	}
+
+	/**
+	 * Restituisce gli archi uscenti da un nodo.
+	 * @param label		etichetta del nodo
+	 * @return insieme degli archi uscenti
+	 */
+	@Override
+	public Set<Edge<V, E>> outgoingEdges(V label) {
+		Set<Edge<V, E>> edges = new HashSet<Edge<V, E>>();
+		addOutgoing(node(label), edges);
+		return edges;
+	}
+
+	/**
+	 * Restituisce gli archi entranti in un nodo, leggendo i fasci dei
+	 * predecessori.
+	 * @param label		etichetta del nodo
+	 * @return insieme degli archi entranti
+	 */
+	@Override
+	public Set<Edge<V, E>> ingoingEdges(V label) {
+		int v = index(label);
+		Node n = nodes.get(v);
+		Set<Edge<V, E>> edges = new HashSet<Edge<V, E>>();
+		for (int k = 0; k < n.sourceCount; k++) {
+			Node s = nodes.get(n.sources[k]);
+			int b = s.findTarget(v);
+			for (int p = s.starts[b]; p < s.starts[b + 1]; p++)
+				edges.add(new Edge<V, E>(s.el, label, edgeLabel(s.labels[p]), true));
+		}
+		return edges;
+	}
+
+	/**
+	 * Ritorna il numero di archi del grafo, compresi quelli paralleli.
+	 * @return numero di archi
+	 */
+	@Override
+	public int edgeCount() {
+		return numEdges;
+	}
+
+	/**
+	 * Cancella tutti i nodi e gli archi del grafo.
+	 */
+	@Override
+	public void clear() {
+		nodes.clear();
+		indices.clear();
+		numEdges = 0;
+		version++;
+	}
+
+	/**
+	 * Ritorna il contatore delle modifiche della struttura del grafo.
+	 * @return versione corrente del grafo
+	 */
+	@Override
+	public long getVersion() {
+		return version;
+	}
+
+	/**
+	 * Costruisce l'istantanea indicizzata del grafo direttamente dagli array
+	 * ordinati dei nodi, con ogni coppia di nodi collegati una sola volta;
+	 * usata da {@link IndexedGraph#of(Graph)}.
+	 * @return istantanea indicizzata del grafo
+	 */
+	IndexedGraph<V> snapshot() {
+		int n = nodes.size();
+		Object[] labels = new Object[n];
+		int[] outOffsets = new int[n + 1];
+		int[] inOffsets = new int[n + 1];
+		for (int i = 0; i < n; i++) {
+			Node node = nodes.get(i);
+			labels[i] = node.el;
+			outOffsets[i + 1] = outOffsets[i] + node.targetCount;
+			inOffsets[i + 1] = inOffsets[i] + node.sourceCount;
+		}
+		int[] outTargets = new int[outOffsets[n]];
+		int[] inTargets = new int[inOffsets[n]];
+		for (int i = 0; i < n; i++) {
+			Node node = nodes.get(i);
+			System.arraycopy(node.targets, 0, outTargets, outOffsets[i], node.targetCount);
+			System.arraycopy(node.sources, 0, inTargets, inOffsets[i], node.sourceCount);
+		}
+		return new IndexedGraph<V>(labels, new HashMap<V, Integer>(indices), outOffsets, outTargets, inOffsets, inTargets, true);
+	}
+
+	/**
+	 * Rappresentazione degli archi del grafo con le relative etichette, nello
+	 * stesso formato di {@link GraphMatrixDirected#toString()}: gli archi
+	 * paralleli compaiono su righe consecutive.
+	 */
+	@Override
+	public String toString() {
+		StringBuilder app = new StringBuilder();
+		for (Node n : nodes) {
+			for (int k = 0; k < n.targetCount; k++) {
+				V s = nodes.get(n.targets[k]).el;
+				for (int p = n.starts[k]; p < n.starts[k + 1]; p++) {
+					app.append("(" + n.el + ") --> (" + s + ")\t");
+					app.append("w(" + n.el + "," + s + ") = " + n.labels[p]);
+					app.append("\n");
+				}
+			}
+		}
+		return app.toString();
+	}
+
+}
@@ -0,0 +1,113 @@
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+public class GraphMultiDirectedTest {
+
+	public static void main(String[] args) {
+
+		/* Collegamenti di trasporto tra alcune città */
+		GraphMultiDirected<String, String> g = new GraphMultiDirected<String, String>();
+		g.addNode("Camerino");
+		g.addNode("Macerata");
+		g.addNode("Ancona");
+		g.addNode("Roma");
+		g.addEdge("Camerino", "Macerata", "autobus");
+		g.addEdge("Camerino", "Macerata", "auto");
+		g.addEdge("Macerata", "Ancona", "treno");
+		g.addEdge("Macerata", "Ancona", "autobus");
+		g.addEdge("Macerata", "Ancona", "auto");
+		g.addEdge("Ancona", "Roma", "treno");
+		g.addEdge("Ancona", "Roma", "aereo");
+		g.addEdge("Roma", "Camerino", "autobus");
+		System.out.print(g);
+		System.out.println("Arco già presente: " + !g.addEdge("Macerata", "Ancona", "treno"));
+		System.out.println("Archi: " + g.edgeCount() + ", collegamenti Macerata -> Ancona: " + g.multiplicity("Macerata", "Ancona")
+				+ " " + g.getEdges("Macerata", "Ancona").size());
+		System.out.println("Successori di Macerata: " + g.successors("Macerata") + ", grado uscente: " + g.outDegree("Macerata"));
+		System.out.println("Rimozione del treno Ancona -> Roma: " + g.removeEdge("Ancona", "Roma", "treno")
+				+ ", resta l'aereo: " + g.containsEdge("Ancona", "Roma", "aereo"));
+		System.out.println("Rimozione di Camerino: " + g.removeNode("Camerino") + ", indice di Roma: " + g.getNodeIndex("Roma"));
+		System.out.print(g);
+
+		/* La visita esamina ogni coppia di nodi collegati una sola volta */
+		GraphMultiDirected<NodeDFS, Integer> m = new GraphMultiDirected<NodeDFS, Integer>();
+		NodeDFS[] v = new NodeDFS[6];
+		for (int i = 0; i < v.length; i++) {
+			v[i] = new NodeDFS("v" + i);
+			m.addNode(v[i]);
+		}
+		for (int i = 0; i < v.length - 1; i++)
+			for (int k = 0; k < 10; k++) m.addEdge(v[i], v[i + 1], k);
+		GenericGraphDFS<NodeDFS, Integer> dfs = new GenericGraphDFS<NodeDFS, Integer>(true);
+		DFSMetrics metrics = new DFSMetrics();
+		dfs.setMetrics(metrics);
+		dfs.DFS(m);
+		System.out.println("Archi: " + m.edgeCount() + ", archi esaminati dalla visita: " + metrics.getEdgesExamined()
+				+ ", archi dell'istantanea: " + IndexedGraph.of(m).edgeCount() + ", tempi di v5: "
+				+ v[5].getTimeDiscovered() + "/" + v[5].getTimeExplored());
+
+		/* Operazioni casuali confrontate con un insieme di archi di riferimento */
+		Random random = new Random(42);
+		GraphMultiDirected<Integer, Integer> r = new GraphMultiDirected<Integer, Integer>();
+		Set<Edge<Integer, Integer>> reference = new HashSet<Edge<Integer, Integer>>();
+		int next = 0;
+		for (; next < 200; next++) r.addNode(next);
+		for (int op = 0; op < 100000; op++) {
+			int choice = random.nextInt(100);
+			if (choice < 2 && r.size() > 1) {
+				/* Rimuovo un nodo e ne aggiungo uno nuovo */
+				Integer x = r.getNodeAtIndex(random.nextInt(r.size()));
+				r.removeNode(x);
+				Set<Edge<Integer, Integer>> kept = new HashSet<Edge<Integer, Integer>>();
+				for (Edge<Integer, Integer> e : reference)
+					if (!e.getLabel1().equals(x) && !e.getLabel2().equals(x)) kept.add(e);
+				reference = kept;
+				r.addNode(next++);
+			} else {
+				Integer a = r.getNodeAtIndex(random.nextInt(r.size()));
+				Integer b = r.getNodeAtIndex(random.nextInt(r.size()));
+				Integer label = random.nextInt(4) == 0 ? null : random.nextInt(3);
+				Edge<Integer, Integer> e = new Edge<Integer, Integer>(a, b, label, true);
+				if (choice < 70) {
+					if (r.addEdge(a, b, label) != reference.add(e)) System.out.println("addEdge errato");
+				} else if (r.removeEdge(a, b, label) != reference.remove(e)) System.out.println("removeEdge errato");
+			}
+		}
+		boolean degrees = true;
+		IndexedGraph<Integer> snapshot = IndexedGraph.of(r);
+		for (int i = 0; i < r.size(); i++) {
+			Integer x = r.getNodeAtIndex(i);
+			int in = 0;
+			int out = 0;
+			Set<Integer> succ = new HashSet<Integer>();
+			for (Edge<Integer, Integer> e : reference) {
+				if (e.getLabel1().equals(x)) {
+					out++;
+					succ.add(e.getLabel2());
+				}
+				if (e.getLabel2().equals(x)) in++;
+			}
+			Set<Integer> indexed = new HashSet<Integer>();
+			for (int k = snapshot.outStart(i); k < snapshot.outEnd(i); k++) indexed.add(snapshot.labelAt(snapshot.outTarget(k)));
+			if (r.getNodeIndex(x) != i || r.inDegree(x) != in || r.outDegree(x) != out || !r.successors(x).equals(succ)
+					|| !indexed.equals(succ) || !r.ingoingEdges(x).equals(incoming(reference, x))) degrees = false;
+		}
+		System.out.println("Operazioni casuali: " + r.edgeCount() + " archi, stessi archi: " + r.getEdges().equals(reference)
+				+ ", gradi, successori e archi entranti corretti: " + degrees);
+	}
+
+	/**
+	 * Archi di riferimento entranti in un nodo.
+	 * @param edges		archi di riferimento
+	 * @param x			nodo
+	 * @return archi entranti in x
+	 */
+	private static Set<Edge<Integer, Integer>> incoming(Set<Edge<Integer, Integer>> edges, Integer x) {
+		Set<Edge<Integer, Integer>> result = new HashSet<Edge<Integer, Integer>>();
+		for (Edge<Integer, Integer> e : edges)
+			if (e.getLabel2().equals(x)) result.add(e);
+		return result;
+	}
+
+}
@@ -0,0 +1,71 @@
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Evento di Java Flight Recorder emesso dalle operazioni costose su un
+ * grafo: inserimenti a blocchi di nodi o di archi, rimozioni di nodi,
+ * compattazioni della rappresentazione e scansioni complete degli archi.
+ *
+ * La durata dell'evento è quella dell'operazione. Quando la registrazione
+ * dell'evento non è attiva il costo si riduce alla creazione di un oggetto
+ * che la JVM elimina.
+ */
+@Name("graph.GraphOperation")
+@Label("Operazione sul grafo")
+@Category({ "Graph" })
+@Description("Inserimenti a blocchi, rimozioni di nodi, compattazioni e scansioni complete degli archi di un grafo.")
+class GraphOperationEvent extends Event {
+
+	/* Nomi delle operazioni */
+	static final String ADD_NODES = "addNodes";
+	static final String ADD_EDGES = "addEdges";
+	static final String REMOVE_NODE = "removeNode";
+	static final String GET_EDGES = "getEdges";
+	static final String COMPACT = "compact";
+
+	@Label("Grafo")
+	@Description("Classe del grafo.")
+	String graphClass;
+
+	@Label("Operazione")
+	String operation;
+
+	@Label("Elementi")
+	@Description("Nodi o archi inseriti, archi rimossi con il nodo, nodi compattati o archi restituiti dalla scansione.")
+	int items;
+
+	@Label("Celle")
+	@Description("Celle della rappresentazione lette o spostate dall'operazione.")
+	long cells;
+
+	@Label("Nodi")
+	@Description("Numero di nodi del grafo al termine dell'operazione.")
+	int nodes;
+
+	@Label("Archi")
+	@Description("Numero di archi del grafo al termine dell'operazione.")
+	int edges;
+
+	/**
+	 * Completa i campi e registra l'evento, se la registrazione è attiva
+	 * e la durata supera la soglia configurata.
+	 * @param g				grafo
+	 * @param operation		nome dell'operazione
+	 * @param items			elementi coinvolti
+	 * @param cells			celle lette o spostate
+	 */
+	void commit(Graph<?, ?> g, String operation, int items, long cells) {
+		if (!shouldCommit()) return;
+		this.graphClass = g.getClass().getName();
+		this.operation = operation;
+		this.items = items;
+		this.cells = cells;
+		this.nodes = g.size();
+		this.edges = g.edgeCount();
+		commit();
+	}
+
+}
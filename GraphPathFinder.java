@@ -0,0 +1,307 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Motore per le interrogazioni di cammino punto-punto (da s a t) su un grafo.
+ *
+ * Invece di eseguire una visita in profondità completa con
+ * {@link GenericGraphDFS#DFS(Graph)} e risalire i padri a partire da t, il
+ * cammino viene cercato solo tra s e t con una delle due strategie:
+ * <ul>
+ * <li>ricerca bidirezionale: una visita in ampiezza in avanti da s lungo i
+ * successori ed una all'indietro da t lungo i predecessori, espandendo ad ogni
+ * passo la frontiera più piccola; il cammino trovato ha il minimo numero di
+ * archi;</li>
+ * <li>approfondimento iterativo (IDDFS): visite in profondità con limite di
+ * profondità crescente, che usano memoria proporzionale alla profondità del
+ * cammino oltre a due interi per nodo. In ogni giro un nodo viene espanso
+ * di nuovo solo se raggiunto ad una profondità minore di quella a cui è già
+ * stato espanso, per cui un giro costa circa quanto una visita completa e
+ * non enumera tutti i cammini semplici.</li>
+ * </ul>
+ * I cammini sono restituiti come array degli indici dei nodi attraversati, da
+ * s a t inclusi, oppure null se t non è raggiungibile da s.
+ *
+ * Le strutture di lavoro vengono riutilizzate tra un'interrogazione e l'altra,
+ * per cui un oggetto di questa classe non deve essere usato da più thread
+ * contemporaneamente.
+ */
+public class GraphPathFinder<V> {
+
+	/* Istantanea indicizzata del grafo */
+	private final IndexedGraph<V> graph;
+
+	/* Marcatura dei nodi raggiunti dalla visita in avanti (vale stamp se raggiunto) */
+	private final int[] forwardMark;
+
+	/* Marcatura dei nodi raggiunti dalla visita all'indietro (vale stamp se raggiunto) */
+	private final int[] backwardMark;
+
+	/* Padre di ogni nodo nella visita in avanti */
+	private final int[] forwardParent;
+
+	/* Figlio di ogni nodo nella visita all'indietro (nodo successivo verso t) */
+	private final int[] backwardParent;
+
+	/* Frontiere delle due visite */
+	private int[] forwardQueue;
+	private int[] backwardQueue;
+
+	/* Contrassegno dell'interrogazione corrente, evita di azzerare le marcature */
+	private int stamp = 0;
+
+	/* Marcatura dei nodi espansi nel giro corrente dell'approfondimento iterativo (vale stamp se espanso) */
+	private final int[] depthMark;
+
+	/* Profondità minima a cui ogni nodo è stato espanso nel giro corrente */
+	private final int[] shallowest;
+
+	/**
+	 * Costruisce il motore a partire da un grafo.
+	 * @param g		grafo
+	 */
+	public <E> GraphPathFinder(Graph<V, E> g) {
+		this(IndexedGraph.of(g));
+	}
+
+	/**
+	 * Costruisce il motore a partire da un'istantanea indicizzata.
+	 * @param graph		istantanea del grafo
+	 */
+	public GraphPathFinder(IndexedGraph<V> graph) {
+		if (graph == null) throw new NullPointerException("Tentativo di creare un motore di ricerca su un grafo null.");
+		this.graph = graph;
+		int n = graph.size();
+		this.forwardMark = new int[n];
+		this.backwardMark = new int[n];
+		this.forwardParent = new int[n];
+		this.backwardParent = new int[n];
+		this.forwardQueue = new int[n];
+		this.backwardQueue = new int[n];
+		this.depthMark = new int[n];
+		this.shallowest = new int[n];
+	}
+
+	/**
+	 * Ritorna l'istantanea su cui lavora questo motore.
+	 * @return istantanea del grafo
+	 */
+	public IndexedGraph<V> getGraph() {
+		return graph;
+	}
+
+	/**
+	 * Cerca con la ricerca bidirezionale un cammino tra due nodi.
+	 * @param source		etichetta del nodo sorgente
+	 * @param target		etichetta del nodo destinazione
+	 * @return indici dei nodi del cammino da source a target, null se non esiste
+	 * @throws IllegalArgumentException se uno dei nodi non esiste
+	 */
+	public int[] bidirectionalPath(V source, V target) {
+		return bidirectionalPath(graph.indexOf(source), graph.indexOf(target));
+	}
+
+	/**
+	 * Cerca con la ricerca bidirezionale un cammino di lunghezza minima tra due nodi.
+	 * @param s		indice del nodo sorgente
+	 * @param t		indice del nodo destinazione
+	 * @return indici dei nodi del cammino da s a t, null se non esiste
+	 * @throws IndexOutOfBoundsException se uno degli indici non è valido
+	 */
+	public int[] bidirectionalPath(int s, int t) {
+		checkIndex(s);
+		checkIndex(t);
+		if (s == t) return new int[] { s };
+		int mark = nextStamp();
+		forwardMark[s] = mark;
+		forwardParent[s] = -1;
+		backwardMark[t] = mark;
+		backwardParent[t] = -1;
+		/* Le frontiere sono i tratti [head, tail) delle due code */
+		int fHead = 0, fTail = 0, bHead = 0, bTail = 0;
+		forwardQueue[fTail++] = s;
+		backwardQueue[bTail++] = t;
+		while (fHead < fTail && bHead < bTail) {
+			int meet;
+			/* Espando di un livello la frontiera più piccola */
+			if (fTail - fHead <= bTail - bHead) {
+				int end = fTail;
+				meet = -1;
+				while (fHead < end && meet == -1) {
+					int u = forwardQueue[fHead++];
+					for (int k = graph.outStart(u), e = graph.outEnd(u); k < e; k++) {
+						int w = graph.outTarget(k);
+						if (forwardMark[w] == mark) continue;
+						forwardMark[w] = mark;
+						forwardParent[w] = u;
+						if (backwardMark[w] == mark) {		/* Le due visite si incontrano in w */
+							meet = w;
+							break;
+						}
+						forwardQueue[fTail++] = w;
+					}
+				}
+			} else {
+				int end = bTail;
+				meet = -1;
+				while (bHead < end && meet == -1) {
+					int u = backwardQueue[bHead++];
+					for (int k = graph.inStart(u), e = graph.inEnd(u); k < e; k++) {
+						int w = graph.inTarget(k);
+						if (backwardMark[w] == mark) continue;
+						backwardMark[w] = mark;
+						backwardParent[w] = u;
+						if (forwardMark[w] == mark) {		/* Le due visite si incontrano in w */
+							meet = w;
+							break;
+						}
+						backwardQueue[bTail++] = w;
+					}
+				}
+			}
+			if (meet != -1) return joinPath(meet);
+		}
+		return null;		/* Una delle due frontiere si è esaurita: t non è raggiungibile */
+	}
+
+	/**
+	 * Ricostruisce il cammino passante per il nodo in cui si sono incontrate le due visite.
+	 * @param meet		nodo di incontro
+	 * @return indici dei nodi del cammino
+	 */
+	private int[] joinPath(int meet) {
+		int forwardLength = 0;		/* Nodi da s al nodo di incontro incluso */
+		for (int u = meet; u != -1; u = forwardParent[u]) forwardLength++;
+		int length = forwardLength;
+		for (int u = backwardParent[meet]; u != -1; u = backwardParent[u]) length++;
+		int[] path = new int[length];
+		/* Tratto da s al nodo di incontro, risalendo i padri della visita in avanti */
+		int k = forwardLength;
+		for (int u = meet; u != -1; u = forwardParent[u]) path[--k] = u;
+		/* Tratto dal nodo di incontro a t */
+		k = forwardLength;
+		for (int u = backwardParent[meet]; u != -1; u = backwardParent[u]) path[k++] = u;
+		return path;
+	}
+
+	/**
+	 * Cerca con l'approfondimento iterativo un cammino tra due nodi.
+	 * @param source		etichetta del nodo sorgente
+	 * @param target		etichetta del nodo destinazione
+	 * @param maxDepth		massimo numero di archi del cammino
+	 * @return indici dei nodi del cammino da source a target, null se non esiste
+	 *         un cammino di al più maxDepth archi
+	 * @throws IllegalArgumentException se uno dei nodi non esiste
+	 */
+	public int[] iterativeDeepeningPath(V source, V target, int maxDepth) {
+		return iterativeDeepeningPath(graph.indexOf(source), graph.indexOf(target), maxDepth);
+	}
+
+	/**
+	 * Cerca con l'approfondimento iterativo un cammino di lunghezza minima tra
+	 * due nodi. La visita termina prima di raggiungere maxDepth se con un certo
+	 * limite non è stato troncato nessun ramo, cioè se tutti i nodi
+	 * raggiungibili da s sono già stati esaminati.
+	 * @param s				indice del nodo sorgente
+	 * @param t				indice del nodo destinazione
+	 * @param maxDepth		massimo numero di archi del cammino
+	 * @return indici dei nodi del cammino da s a t, null se non esiste un
+	 *         cammino di al più maxDepth archi
+	 * @throws IndexOutOfBoundsException se uno degli indici non è valido
+	 * @throws IllegalArgumentException se maxDepth è negativo
+	 */
+	public int[] iterativeDeepeningPath(int s, int t, int maxDepth) {
+		checkIndex(s);
+		checkIndex(t);
+		if (maxDepth < 0) throw new IllegalArgumentException("La profondità massima non può essere negativa.");
+		if (s == t) return new int[] { s };
+		int limit = Math.min(maxDepth, graph.size() - 1);
+		/* Pila del cammino corrente e posizione del prossimo arco da esaminare per ogni livello */
+		int[] path = new int[limit + 1];
+		int[] cursor = new int[limit + 1];
+		for (int depth = 1; depth <= limit; depth++) {
+			boolean cut = false;		/* true se qualche ramo è stato troncato dal limite */
+			int mark = nextStamp();
+			int top = 0;
+			path[0] = s;
+			cursor[0] = graph.outStart(s);
+			depthMark[s] = mark;
+			shallowest[s] = 0;
+			while (top >= 0) {
+				int u = path[top];
+				if (cursor[top] == graph.outEnd(u)) {		/* Successori di u esauriti: torno indietro */
+					top--;
+					continue;
+				}
+				int w = graph.outTarget(cursor[top]++);
+				if (w == t) {
+					int[] ret = new int[top + 2];
+					System.arraycopy(path, 0, ret, 0, top + 1);
+					ret[top + 1] = t;
+					return ret;
+				}
+				/* Già espanso ad una profondità non maggiore, con almeno lo stesso margine: nulla di nuovo
+				 * da trovare. Comprende i nodi sul cammino corrente, per cui non si seguono i cicli */
+				if (depthMark[w] == mark && shallowest[w] <= top + 1) continue;
+				if (top + 1 == depth) {		/* Limite raggiunto */
+					if (graph.outStart(w) != graph.outEnd(w)) cut = true;
+					continue;
+				}
+				top++;
+				path[top] = w;
+				cursor[top] = graph.outStart(w);
+				depthMark[w] = mark;
+				shallowest[w] = top;
+			}
+			if (!cut) return null;		/* Tutto il raggiungibile è stato esaminato */
+		}
+		return null;
+	}
+
+	/**
+	 * Dice se esiste un cammino tra due nodi.
+	 * @param s		indice del nodo sorgente
+	 * @param t		indice del nodo destinazione
+	 * @return true se t è raggiungibile da s
+	 */
+	public boolean pathExists(int s, int t) {
+		return bidirectionalPath(s, t) != null;
+	}
+
+	/**
+	 * Converte un cammino di indici nelle etichette dei nodi.
+	 * @param path		indici dei nodi del cammino
+	 * @return etichette dei nodi del cammino, null se path è null
+	 */
+	public List<V> toLabels(int[] path) {
+		if (path == null) return null;
+		List<V> ret = new ArrayList<V>(path.length);
+		for (int i : path) ret.add(graph.labelAt(i));
+		return ret;
+	}
+
+	/**
+	 * Controlla che un indice corrisponda ad un nodo.
+	 * @param i		indice
+	 */
+	private void checkIndex(int i) {
+		if (i < 0 || i >= graph.size()) throw new IndexOutOfBoundsException("L'indice non corrisponde a nessun nodo.");
+	}
+
+	/**
+	 * Passa al contrassegno successivo, azzerando le marcature solo quando il
+	 * contatore ricomincia da capo.
+	 * @return nuovo contrassegno
+	 */
+	private int nextStamp() {
+		if (++stamp == Integer.MAX_VALUE) {
+			Arrays.fill(forwardMark, 0);
+			Arrays.fill(backwardMark, 0);
+			Arrays.fill(depthMark, 0);
+			stamp = 1;
+		}
+		return stamp;
+	}
+
+}
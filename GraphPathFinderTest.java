@@ -0,0 +1,159 @@
+import java.util.Arrays;
+import java.util.Random;
+
+public class GraphPathFinderTest {
+
+	public static void main(String[] args) {
+
+		/* Grafo di esempio usato anche in GenericGraphDFSTest */
+		Graph<NodeDFS, WeighedEdge<Double>> g = new GraphMatrixDirected<NodeDFS, WeighedEdge<Double>>();
+		NodeDFS a = new NodeDFS("a");
+		NodeDFS b = new NodeDFS("b");
+		NodeDFS c = new NodeDFS("c");
+		NodeDFS x = new NodeDFS("x");
+		NodeDFS y = new NodeDFS("y");
+		NodeDFS z = new NodeDFS("z");
+		g.addNode(a);
+		g.addNode(b);
+		g.addNode(c);
+		g.addNode(x);
+		g.addNode(y);
+		g.addNode(z);
+		g.addEdge(a, b, new WeighedEdge<Double>(1.5));
+		g.addEdge(a, x, new WeighedEdge<Double>(-2.0));
+		g.addEdge(x, b, new WeighedEdge<Double>(null));
+		g.addEdge(b, y, new WeighedEdge<Double>(null));
+		g.addEdge(y, x, new WeighedEdge<Double>(1.0));
+		g.addEdge(z, b, new WeighedEdge<Double>(0.6));
+		g.addEdge(z, z, new WeighedEdge<Double>(0.5));
+		g.addEdge(c, z, new WeighedEdge<Double>(2.0));
+
+		GraphPathFinder<NodeDFS> finder = new GraphPathFinder<NodeDFS>(g);
+		System.out.println("Cammino bidirezionale c -> x: " + finder.toLabels(finder.bidirectionalPath(c, x)));
+		System.out.println("Cammino IDDFS c -> x: " + finder.toLabels(finder.iterativeDeepeningPath(c, x, 10)));
+		System.out.println("Cammino bidirezionale a -> c: " + finder.toLabels(finder.bidirectionalPath(a, c)));
+		System.out.println("Cammino IDDFS a -> c: " + finder.toLabels(finder.iterativeDeepeningPath(a, c, 10)));
+
+		/* Misure di latenza su grafi casuali e a invarianza di scala */
+		System.out.println();
+		System.out.println(" ----------------------------------------------------------");
+		System.out.println(" |    Latenza delle interrogazioni punto-punto.           |");
+		System.out.println(" ----------------------------------------------------------");
+		benchmark("casuale", randomGraph(1000, 4000, new Random(42)), 200);
+		benchmark("a invarianza di scala", scaleFreeGraph(1000, 3, new Random(42)), 200);
+	}
+
+	/**
+	 * Confronta la visita completa con risalita dei padri con le due strategie
+	 * del motore di ricerca dei cammini.
+	 * @param name		nome del grafo
+	 * @param g			grafo
+	 * @param queries	numero di interrogazioni
+	 */
+	private static void benchmark(String name, Graph<NodeDFS, WeighedEdge<Double>> g, int queries) {
+		Random random = new Random(7);
+		int n = g.size();
+		int[] sources = new int[queries];
+		int[] targets = new int[queries];
+		for (int i = 0; i < queries; i++) {
+			sources[i] = random.nextInt(n);
+			targets[i] = random.nextInt(n);
+		}
+		GraphPathFinder<NodeDFS> finder = new GraphPathFinder<NodeDFS>(g);
+
+		/* Visita completa e risalita dei padri, solo su poche interrogazioni perché lenta */
+		int dfsQueries = Math.min(queries, 10);
+		GenericGraphDFS<NodeDFS, WeighedEdge<Double>> dfs = new GenericGraphDFS<NodeDFS, WeighedEdge<Double>>();
+		long start = System.nanoTime();
+		for (int i = 0; i < dfsQueries; i++) {
+			NodeDFS s = g.getNodeAtIndex(sources[i]);
+			for (NodeDFS v : g.getNodes()) {
+				g.setColor(v, Graph.COLOR_WHITE);
+				v.setFather(null);
+			}
+			dfs.DFSVisit(g, s);
+			GenericDFSNode u = g.getNodeAtIndex(targets[i]);
+			while (u != null && u != s) u = u.getFather();
+		}
+		long dfsTime = (System.nanoTime() - start) / dfsQueries;
+
+		int found = 0;
+		start = System.nanoTime();
+		for (int i = 0; i < queries; i++)
+			if (finder.bidirectionalPath(sources[i], targets[i]) != null) found++;
+		long biTime = (System.nanoTime() - start) / queries;
+
+		int foundIddfs = 0;
+		start = System.nanoTime();
+		for (int i = 0; i < queries; i++)
+			if (finder.iterativeDeepeningPath(sources[i], targets[i], 12) != null) foundIddfs++;
+		long iddfsTime = (System.nanoTime() - start) / queries;
+
+		/* Verifico che i due cammini abbiano la stessa lunghezza quando entrambi esistono */
+		boolean consistent = true;
+		for (int i = 0; i < queries; i++) {
+			int[] p1 = finder.bidirectionalPath(sources[i], targets[i]);
+			int[] p2 = finder.iterativeDeepeningPath(sources[i], targets[i], 12);
+			if (p2 != null ? p1 == null || p1.length != p2.length : p1 != null && p1.length <= 13) consistent = false;
+		}
+		/* Esempio: la prima interrogazione che ha un cammino */
+		int example = 0;
+		while (example < queries - 1 && finder.bidirectionalPath(sources[example], targets[example]) == null) example++;
+
+		System.out.println("Grafo " + name + ": " + n + " nodi, " + g.edgeCount() + " archi");
+		System.out.println("  DFS completa + padri:  " + dfsTime / 1000 + " us/interrogazione");
+		System.out.println("  Ricerca bidirezionale: " + biTime / 1000 + " us/interrogazione (" + found + "/" + queries + " cammini)");
+		System.out.println("  IDDFS (profondità 12): " + iddfsTime / 1000 + " us/interrogazione (" + foundIddfs + "/" + queries + " cammini)");
+		System.out.println("  Lunghezze coerenti: " + consistent);
+		System.out.println("  Esempio " + sources[example] + " -> " + targets[example] + ": "
+				+ Arrays.toString(finder.bidirectionalPath(sources[example], targets[example])));
+	}
+
+	/**
+	 * Crea un grafo casuale con m archi scelti uniformemente.
+	 * @param n			numero di nodi
+	 * @param m			numero di archi
+	 * @param random	generatore casuale
+	 * @return il grafo
+	 */
+	private static Graph<NodeDFS, WeighedEdge<Double>> randomGraph(int n, int m, Random random) {
+		Graph<NodeDFS, WeighedEdge<Double>> g = new GraphMatrixDirected<NodeDFS, WeighedEdge<Double>>();
+		NodeDFS[] nodes = new NodeDFS[n];
+		for (int i = 0; i < n; i++) {
+			nodes[i] = new NodeDFS("n" + i);
+			g.addNode(nodes[i]);
+		}
+		for (int i = 0; i < m; i++)
+			g.addEdge(nodes[random.nextInt(n)], nodes[random.nextInt(n)], new WeighedEdge<Double>(random.nextDouble()));
+		return g;
+	}
+
+	/**
+	 * Crea un grafo a invarianza di scala con aggancio preferenziale: ogni nuovo
+	 * nodo si collega a k nodi scelti con probabilità proporzionale al grado.
+	 * @param n			numero di nodi
+	 * @param k			archi uscenti per ogni nuovo nodo
+	 * @param random	generatore casuale
+	 * @return il grafo
+	 */
+	private static Graph<NodeDFS, WeighedEdge<Double>> scaleFreeGraph(int n, int k, Random random) {
+		Graph<NodeDFS, WeighedEdge<Double>> g = new GraphMatrixDirected<NodeDFS, WeighedEdge<Double>>();
+		NodeDFS[] nodes = new NodeDFS[n];
+		int[] endpoints = new int[2 * n * k];		/* Estremi degli archi, ogni nodo compare tante volte quanto il suo grado */
+		int count = 0;
+		for (int i = 0; i < n; i++) {
+			nodes[i] = new NodeDFS("n" + i);
+			g.addNode(nodes[i]);
+			for (int j = 0; j < k && i > 0; j++) {
+				int t = count == 0 ? 0 : endpoints[random.nextInt(count)];
+				/* Orientamento casuale per avere cammini in entrambe le direzioni */
+				if (random.nextBoolean()) g.addEdge(nodes[i], nodes[t], new WeighedEdge<Double>(random.nextDouble()));
+				else g.addEdge(nodes[t], nodes[i], new WeighedEdge<Double>(random.nextDouble()));
+				endpoints[count++] = i;
+				endpoints[count++] = t;
+			}
+		}
+		return g;
+	}
+
+}
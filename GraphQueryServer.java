@@ -0,0 +1,519 @@
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Servizio di interrogazione concorrente di un grafo. Al momento della
+ * costruzione viene presa un'istantanea immutabile ({@link IndexedGraph})
+ * del grafo, condivisa in sola lettura da tutte le interrogazioni: le
+ * interrogazioni non hanno bisogno di sincronizzazione e le modifiche
+ * successive del grafo non sono visibili.
+ *
+ * Ogni interrogazione viene eseguita su un thread virtuale, se la macchina
+ * virtuale li supporta (Java 21 e successive); altrimenti su un pool fisso
+ * di thread di piattaforma. Il numero di interrogazioni in corso è limitato
+ * da un semaforo: un'interrogazione che non ottiene il permesso entro il
+ * tempo massimo viene rifiutata con {@link RejectedExecutionException}
+ * (contropressione). Il tempo massimo vale anche per l'esecuzione: una
+ * visita che lo supera si interrompe con {@link TimeoutException}.
+ *
+ * Le interrogazioni di raggiungibilità possono essere raggruppate: le
+ * coppie con la stessa sorgente sono risolte con una sola visita.
+ *
+ * Il servizio può essere esposto sull'interfaccia di loopback con un
+ * protocollo a righe di testo, in cui i nodi sono indicati dalla
+ * rappresentazione testuale della loro etichetta:
+ * <pre>
+ * REACH s t         -&gt; true | false
+ * COUNT s           -&gt; numero di nodi raggiungibili da s
+ * SUCC s            -&gt; successori di s separati da spazi
+ * BATCH s t s t ... -&gt; true | false per ogni coppia, separati da spazi
+ * </pre>
+ * Ogni errore produce una riga che comincia con ERROR.
+ */
+public class GraphQueryServer<V> implements AutoCloseable {
+
+	/* Istantanea condivisa del grafo */
+	private final IndexedGraph<V> snapshot;
+
+	/* Indice dei nodi per rappresentazione testuale, per il protocollo a righe */
+	private final HashMap<String, Integer> names;
+
+	/* Esecutore delle interrogazioni */
+	private final ExecutorService executor;
+
+	/* true se l'esecutore usa thread virtuali */
+	private final boolean virtual;
+
+	/* Permessi per le interrogazioni in corso */
+	private final Semaphore permits;
+
+	/* Tempo massimo di attesa ed esecuzione di un'interrogazione */
+	private final long timeoutNanos;
+
+	/* Socket in ascolto, null se il servizio non è esposto */
+	private volatile ServerSocket server;
+
+	/* Contatori */
+	private final AtomicLong completed = new AtomicLong();
+	private final AtomicLong rejected = new AtomicLong();
+	private final AtomicLong timedOut = new AtomicLong();
+
+	/* Numero di nodi visitati tra due controlli del tempo massimo */
+	private static final int CHECK_INTERVAL = 1024;
+
+	/**
+	 * Costruttore del servizio.
+	 * @param g					grafo da interrogare
+	 * @param maxConcurrent		numero massimo di interrogazioni in corso
+	 * @param timeoutMillis		tempo massimo di attesa ed esecuzione di un'interrogazione, in millisecondi
+	 * @throws IllegalArgumentException se uno dei limiti non è positivo
+	 */
+	public GraphQueryServer(Graph<V, ?> g, int maxConcurrent, long timeoutMillis) {
+		if (g == null) throw new NullPointerException("Il grafo passato è null.");
+		if (maxConcurrent <= 0 || timeoutMillis <= 0) throw new IllegalArgumentException("I limiti del servizio devono essere positivi.");
+		this.snapshot = IndexedGraph.of(g);
+		this.names = new HashMap<String, Integer>(2 * snapshot.size());
+		for (int i = 0; i < snapshot.size(); i++) names.put(String.valueOf(snapshot.labelAt(i)), i);
+		this.permits = new Semaphore(maxConcurrent);
+		this.timeoutNanos = TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+		ExecutorService virtualExecutor = newVirtualThreadExecutor();
+		this.virtual = virtualExecutor != null;
+		this.executor = virtual ? virtualExecutor
+				: Executors.newFixedThreadPool(Math.min(maxConcurrent, 4 * Runtime.getRuntime().availableProcessors()), daemonThreads());
+	}
+
+	/**
+	 * Crea un esecutore che avvia un thread virtuale per ogni compito. Il
+	 * metodo è cercato per riflessione, in modo che la classe si compili e
+	 * funzioni anche con versioni di Java senza thread virtuali.
+	 * @return l'esecutore, null se i thread virtuali non sono disponibili
+	 */
+	static ExecutorService newVirtualThreadExecutor() {
+		try {
+			return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+		} catch (ReflectiveOperationException e) {
+			return null;
+		}
+	}
+
+	/**
+	 * Fabbrica di thread demoni, che non impediscono la terminazione del programma.
+	 * @return fabbrica di thread
+	 */
+	static ThreadFactory daemonThreads() {
+		return new ThreadFactory() {
+			@Override
+			public Thread newThread(Runnable r) {
+				Thread t = new Thread(r, "graph-query");
+				t.setDaemon(true);
+				return t;
+			}
+		};
+	}
+
+	/**
+	 * Dice se le interrogazioni sono eseguite su thread virtuali.
+	 * @return true se si usano thread virtuali
+	 */
+	public boolean usesVirtualThreads() {
+		return virtual;
+	}
+
+	/**
+	 * Ritorna l'istantanea interrogata.
+	 * @return istantanea del grafo
+	 */
+	public IndexedGraph<V> getSnapshot() {
+		return snapshot;
+	}
+
+	/**
+	 * Dice se t è raggiungibile da s.
+	 * @param s		nodo sorgente
+	 * @param t		nodo destinazione
+	 * @return true se esiste un cammino da s a t
+	 * @throws TimeoutException se l'interrogazione supera il tempo massimo
+	 * @throws InterruptedException se il thread viene interrotto durante l'attesa
+	 * @throws RejectedExecutionException se ci sono troppe interrogazioni in corso
+	 */
+	public boolean reachable(V s, V t) throws TimeoutException, InterruptedException {
+		final int source = snapshot.indexOf(s);
+		final int target = snapshot.indexOf(t);
+		final long deadline = deadline();
+		return execute(new Callable<Boolean>() {
+			@Override
+			public Boolean call() throws TimeoutException {
+				return visit(source, target, deadline) == null;
+			}
+		});
+	}
+
+	/**
+	 * Conta i nodi raggiungibili da s, s compreso.
+	 * @param s		nodo sorgente
+	 * @return numero di nodi raggiungibili
+	 * @throws TimeoutException se l'interrogazione supera il tempo massimo
+	 * @throws InterruptedException se il thread viene interrotto durante l'attesa
+	 * @throws RejectedExecutionException se ci sono troppe interrogazioni in corso
+	 */
+	public int reachableCount(V s) throws TimeoutException, InterruptedException {
+		final int source = snapshot.indexOf(s);
+		final long deadline = deadline();
+		return execute(new Callable<Integer>() {
+			@Override
+			public Integer call() throws TimeoutException {
+				return visit(source, -1, deadline).cardinality();
+			}
+		});
+	}
+
+	/**
+	 * Risponde ad un gruppo di interrogazioni di raggiungibilità. Le coppie
+	 * sono ordinate per sorgente e le coppie con la stessa sorgente sono
+	 * risolte da una sola visita; l'intero gruppo occupa un solo permesso.
+	 * @param sources		nodi sorgente
+	 * @param targets		nodi destinazione, uno per sorgente
+	 * @return per ogni coppia, true se la destinazione è raggiungibile dalla sorgente
+	 * @throws TimeoutException se il gruppo supera il tempo massimo
+	 * @throws InterruptedException se il thread viene interrotto durante l'attesa
+	 * @throws RejectedExecutionException se ci sono troppe interrogazioni in corso
+	 */
+	public boolean[] reachable(V[] sources, V[] targets) throws TimeoutException, InterruptedException {
+		if (sources.length != targets.length) throw new IllegalArgumentException("Sorgenti e destinazioni devono essere in egual numero.");
+		final int[] s = new int[sources.length];
+		final int[] t = new int[targets.length];
+		for (int k = 0; k < s.length; k++) {
+			s[k] = snapshot.indexOf(sources[k]);
+			t[k] = snapshot.indexOf(targets[k]);
+		}
+		final long deadline = deadline();
+		return execute(new Callable<boolean[]>() {
+			@Override
+			public boolean[] call() throws TimeoutException {
+				return batch(s, t, deadline);
+			}
+		});
+	}
+
+	/**
+	 * Calcola l'istante entro cui un'interrogazione che arriva ora deve
+	 * terminare, compresa l'attesa del permesso.
+	 * @return scadenza, in nanosecondi
+	 */
+	private long deadline() {
+		return System.nanoTime() + timeoutNanos;
+	}
+
+	/**
+	 * Esegue un'interrogazione sull'esecutore, dopo averne ottenuto il permesso.
+	 * @param task		interrogazione
+	 * @return risultato dell'interrogazione
+	 * @throws TimeoutException se l'interrogazione supera il tempo massimo
+	 * @throws InterruptedException se il thread viene interrotto durante l'attesa
+	 * @throws RejectedExecutionException se il permesso non arriva entro il tempo massimo
+	 */
+	private <T> T execute(final Callable<T> task) throws TimeoutException, InterruptedException {
+		long start = System.nanoTime();
+		if (!permits.tryAcquire(timeoutNanos, TimeUnit.NANOSECONDS)) {
+			rejected.incrementAndGet();
+			throw new RejectedExecutionException("Troppe interrogazioni in corso.");
+		}
+		/* Il permesso viene restituito una sola volta: dal compito quando
+		 * termina, oppure da chi lo annulla se il compito non è ancora partito
+		 * (un compito annullato mentre è in coda non viene mai eseguito) */
+		final AtomicBoolean claimed = new AtomicBoolean();
+		Future<T> future;
+		try {
+			future = executor.submit(new Callable<T>() {
+				@Override
+				public T call() throws Exception {
+					if (!claimed.compareAndSet(false, true)) throw new CancellationException();
+					try {
+						return task.call();
+					} finally {
+						permits.release();
+					}
+				}
+			});
+		} catch (RejectedExecutionException e) {
+			permits.release();
+			throw e;
+		}
+		try {
+			T result = future.get(timeoutNanos - (System.nanoTime() - start), TimeUnit.NANOSECONDS);
+			completed.incrementAndGet();
+			return result;
+		} catch (TimeoutException e) {
+			future.cancel(true);
+			if (claimed.compareAndSet(false, true)) permits.release();
+			timedOut.incrementAndGet();
+			throw e;
+		} catch (ExecutionException e) {
+			if (e.getCause() instanceof TimeoutException) {
+				timedOut.incrementAndGet();
+				throw (TimeoutException) e.getCause();
+			}
+			if (e.getCause() instanceof RuntimeException) throw (RuntimeException) e.getCause();
+			throw new IllegalStateException(e.getCause());
+		}
+	}
+
+	/**
+	 * Visita in profondità dell'istantanea a partire da un nodo, con uno
+	 * stack esplicito.
+	 * @param source		indice del nodo sorgente
+	 * @param target		indice del nodo cercato, -1 per visitare tutto
+	 * @param deadline		scadenza della visita, in nanosecondi
+	 * @return nodi visitati, null se il nodo cercato è stato raggiunto
+	 * @throws TimeoutException se la visita supera la scadenza o il thread viene interrotto
+	 */
+	private BitSet visit(int source, int target, long deadline) throws TimeoutException {
+		BitSet visited = new BitSet(snapshot.size());
+		int[] stack = new int[16];
+		int top = 0;
+		int count = 0;
+		stack[top++] = source;
+		visited.set(source);
+		while (top > 0) {
+			int u = stack[--top];
+			if (u == target) return null;
+			if (++count % CHECK_INTERVAL == 0 && (System.nanoTime() > deadline || Thread.currentThread().isInterrupted()))
+				throw new TimeoutException("Visita interrotta dopo " + count + " nodi.");
+			for (int k = snapshot.outStart(u); k < snapshot.outEnd(u); k++) {
+				int v = snapshot.outTarget(k);
+				if (!visited.get(v)) {
+					visited.set(v);
+					if (top == stack.length) stack = Arrays.copyOf(stack, 2 * top);
+					stack[top++] = v;
+				}
+			}
+		}
+		return visited;
+	}
+
+	/**
+	 * Risolve un gruppo di coppie ordinandole per sorgente: ogni sorgente
+	 * distinta viene visitata una sola volta.
+	 * @param s				indici delle sorgenti
+	 * @param t				indici delle destinazioni
+	 * @param deadline		scadenza del gruppo, in nanosecondi
+	 * @return risultati nell'ordine delle coppie
+	 * @throws TimeoutException se il gruppo supera la scadenza
+	 */
+	private boolean[] batch(final int[] s, int[] t, long deadline) throws TimeoutException {
+		Integer[] order = new Integer[s.length];
+		for (int k = 0; k < order.length; k++) order[k] = k;
+		Arrays.sort(order, new Comparator<Integer>() {
+			@Override
+			public int compare(Integer k1, Integer k2) {
+				return Integer.compare(s[k1], s[k2]);
+			}
+		});
+		boolean[] result = new boolean[s.length];
+		BitSet visited = null;
+		for (int k = 0; k < order.length; k++) {
+			int q = order[k];
+			if (k == 0 || s[q] != s[order[k - 1]]) visited = visit(s[q], -1, deadline);
+			result[q] = visited.get(t[q]);
+		}
+		return result;
+	}
+
+	/**
+	 * Espone il servizio sull'interfaccia di loopback. Ogni connessione è
+	 * servita da un proprio thread, virtuale se disponibile, e ogni riga
+	 * ricevuta è un'interrogazione soggetta agli stessi limiti delle
+	 * interrogazioni dirette.
+	 * @param port		porta, 0 per sceglierne una libera
+	 * @return porta su cui il servizio è in ascolto
+	 * @throws IOException se la porta non può essere aperta
+	 * @throws IllegalStateException se il servizio è già esposto
+	 */
+	public synchronized int listen(int port) throws IOException {
+		if (server != null) throw new IllegalStateException("Il servizio è già in ascolto.");
+		final ServerSocket socket = new ServerSocket(port, 1024, InetAddress.getLoopbackAddress());
+		server = socket;
+		final ExecutorService connections = virtual ? newVirtualThreadExecutor() : Executors.newCachedThreadPool(daemonThreads());
+		Thread acceptor = new Thread(new Runnable() {
+			@Override
+			public void run() {
+				try {
+					while (true) {
+						final Socket client = socket.accept();
+						connections.execute(new Runnable() {
+							@Override
+							public void run() {
+								serve(client);
+							}
+						});
+					}
+				} catch (IOException e) {
+					/* Socket chiuso da close() */
+				} finally {
+					connections.shutdownNow();
+				}
+			}
+		}, "graph-query-acceptor");
+		acceptor.setDaemon(true);
+		acceptor.start();
+		return socket.getLocalPort();
+	}
+
+	/**
+	 * Serve una connessione finché il client non la chiude.
+	 * @param client		connessione
+	 */
+	private void serve(Socket client) {
+		try (Socket c = client;
+				BufferedReader in = new BufferedReader(new InputStreamReader(c.getInputStream(), StandardCharsets.UTF_8));
+				PrintWriter out = new PrintWriter(new OutputStreamWriter(c.getOutputStream(), StandardCharsets.UTF_8), true)) {
+			String line;
+			while ((line = in.readLine()) != null) out.println(answer(line));
+		} catch (IOException e) {
+			/* Connessione chiusa dal client */
+		}
+	}
+
+	/**
+	 * Risponde ad una riga del protocollo testuale.
+	 * @param line		interrogazione
+	 * @return risposta su una riga
+	 */
+	String answer(String line) {
+		String[] words = line.trim().split("\\s+");
+		try {
+			if (words[0].equals("REACH") && words.length == 3) return String.valueOf(reachable(label(words[1]), label(words[2])));
+			if (words[0].equals("COUNT") && words.length == 2) return String.valueOf(reachableCount(label(words[1])));
+			if (words[0].equals("SUCC") && words.length == 2) {
+				int u = snapshot.indexOf(label(words[1]));
+				StringBuilder app = new StringBuilder();
+				for (int k = snapshot.outStart(u); k < snapshot.outEnd(u); k++) {
+					if (app.length() > 0) app.append(' ');
+					app.append(snapshot.labelAt(snapshot.outTarget(k)));
+				}
+				return app.toString();
+			}
+			if (words[0].equals("BATCH") && words.length % 2 == 1 && words.length > 1) {
+				List<V> sources = new ArrayList<V>();
+				List<V> targets = new ArrayList<V>();
+				for (int k = 1; k < words.length; k += 2) {
+					sources.add(label(words[k]));
+					targets.add(label(words[k + 1]));
+				}
+				@SuppressWarnings("unchecked")
+				boolean[] result = reachable((V[]) sources.toArray(), (V[]) targets.toArray());
+				StringBuilder app = new StringBuilder();
+				for (boolean b : result) {
+					if (app.length() > 0) app.append(' ');
+					app.append(b);
+				}
+				return app.toString();
+			}
+			return "ERROR interrogazione non valida: " + line;
+		} catch (TimeoutException e) {
+			return "ERROR tempo massimo superato";
+		} catch (RejectedExecutionException e) {
+			return "ERROR " + e.getMessage();
+		} catch (IllegalArgumentException e) {
+			return "ERROR " + e.getMessage();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			return "ERROR interrotto";
+		}
+	}
+
+	/**
+	 * Cerca l'etichetta di un nodo a partire dalla sua rappresentazione testuale.
+	 * @param name		rappresentazione testuale dell'etichetta
+	 * @return etichetta del nodo
+	 * @throws IllegalArgumentException se nessun nodo ha quella rappresentazione
+	 */
+	private V label(String name) {
+		Integer i = names.get(name);
+		if (i == null) throw new IllegalArgumentException("Il nodo " + name + " non è presente nel grafo.");
+		return snapshot.labelAt(i);
+	}
+
+	/**
+	 * Ritorna il numero di permessi liberi, cioè di interrogazioni che
+	 * possono ancora essere avviate senza attesa.
+	 * @return permessi liberi
+	 */
+	public int availablePermits() {
+		return permits.availablePermits();
+	}
+
+	/**
+	 * Ritorna il numero di interrogazioni completate.
+	 * @return interrogazioni completate
+	 */
+	public long getCompletedCount() {
+		return completed.get();
+	}
+
+	/**
+	 * Ritorna il numero di interrogazioni rifiutate per contropressione.
+	 * @return interrogazioni rifiutate
+	 */
+	public long getRejectedCount() {
+		return rejected.get();
+	}
+
+	/**
+	 * Ritorna il numero di interrogazioni che hanno superato il tempo massimo.
+	 * @return interrogazioni scadute
+	 */
+	public long getTimedOutCount() {
+		return timedOut.get();
+	}
+
+	/**
+	 * Chiude il socket, se aperto, e termina l'esecutore; le interrogazioni
+	 * in corso vengono interrotte.
+	 */
+	@Override
+	public synchronized void close() {
+		if (server != null) {
+			try {
+				server.close();
+			} catch (IOException e) {
+				/* Nulla da fare */
+			}
+			server = null;
+		}
+		executor.shutdownNow();
+	}
+
+	@Override
+	public String toString() {
+		return "completate=" + completed + " rifiutate=" + rejected + " scadute=" + timedOut
+				+ " thread=" + (virtual ? "virtuali" : "di piattaforma");
+	}
+
+}
@@ -0,0 +1,176 @@
+import java.io.BufferedReader;
+import java.io.InputStreamReader;
+import java.io.PrintWriter;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeoutException;
+
+public class GraphQueryServerTest {
+
+	public static void main(String[] args) throws Exception {
+
+		/* Grafo casuale di 2000 nodi */
+		Random random = new Random(42);
+		GraphMatrixDirected<String, Integer> g = new GraphMatrixDirected<String, Integer>();
+		int n = 2000;
+		for (int i = 0; i < n; i++) g.addNode("v" + i);
+		for (int i = 0; i < 2 * n; i++) g.addEdge("v" + random.nextInt(n), "v" + random.nextInt(n), i);
+		final GraphQueryServer<String> server = new GraphQueryServer<String>(g, 64, 2000);
+		final ReachabilityIndex<String> expected = ReachabilityIndex.build(g);
+		System.out.println("Thread virtuali: " + server.usesVirtualThreads());
+		System.out.println("v0 raggiunge v1: " + server.reachable("v0", "v1") + " (atteso " + expected.canReach("v0", "v1")
+				+ "), nodi raggiungibili da v0: " + server.reachableCount("v0"));
+		boolean[] batch = server.reachable(new String[] { "v0", "v1", "v0" }, new String[] { "v5", "v0", "v7" });
+		System.out.println("Gruppo: " + batch[0] + " " + batch[1] + " " + batch[2]);
+
+		/* Protocollo a righe sull'interfaccia di loopback */
+		int port = server.listen(0);
+		try (Socket socket = new Socket(InetAddress.getLoopbackAddress(), port);
+				BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(), "UTF-8"));
+				PrintWriter out = new PrintWriter(socket.getOutputStream(), true)) {
+			for (String line : new String[] { "REACH v0 v1", "COUNT v0", "SUCC v0", "BATCH v0 v5 v1 v0 v0 v7", "REACH v0 w", "PING" }) {
+				out.println(line);
+				System.out.println("> " + line + "\n< " + in.readLine());
+			}
+		}
+
+		/* 10000 interrogazioni concorrenti */
+		System.out.println();
+		System.out.println(" ----------------------------------------------------------");
+		System.out.println(" |    10000 interrogazioni concorrenti.                   |");
+		System.out.println(" ----------------------------------------------------------");
+		int queries = 10000;
+		final String[] sources = new String[queries];
+		final String[] targets = new String[queries];
+		for (int k = 0; k < queries; k++) {
+			sources[k] = "v" + random.nextInt(n);
+			targets[k] = "v" + random.nextInt(n);
+		}
+		ExecutorService clients = GraphQueryServer.newVirtualThreadExecutor();
+		if (clients == null) clients = Executors.newFixedThreadPool(256, GraphQueryServer.daemonThreads());
+		long start = System.nanoTime();
+		List<Future<Integer>> results = new ArrayList<Future<Integer>>();
+		for (int k = 0; k < queries; k++) {
+			final int q = k;
+			results.add(clients.submit(new Callable<Integer>() {
+				@Override
+				public Integer call() throws Exception {
+					try {
+						return server.reachable(sources[q], targets[q]) == expected.canReach(sources[q], targets[q]) ? 1 : 0;
+					} catch (RejectedExecutionException e) {
+						return 2;
+					} catch (TimeoutException e) {
+						return 3;
+					}
+				}
+			}));
+		}
+		int[] outcome = new int[4];
+		for (Future<Integer> f : results) outcome[get(f)]++;
+		long concurrent = System.nanoTime() - start;
+		System.out.println("Client su thread " + (server.usesVirtualThreads() ? "virtuali" : "di piattaforma (256)") + ": "
+				+ concurrent / 1000000 + " ms, corrette " + outcome[1] + ", errate " + outcome[0]
+				+ ", rifiutate " + outcome[2] + ", scadute " + outcome[3]);
+
+		start = System.nanoTime();
+		boolean[] grouped = server.reachable(sources, targets);
+		long batched = System.nanoTime() - start;
+		boolean same = true;
+		for (int k = 0; k < queries; k++)
+			if (grouped[k] != expected.canReach(sources[k], targets[k])) same = false;
+		System.out.println("Un solo gruppo: " + batched / 1000000 + " ms, risultati corretti: " + same);
+		System.out.println("Servizio: " + server);
+		clients.shutdown();
+		server.close();
+
+		/* Contropressione e tempo massimo con un solo permesso ed una catena lunga */
+		GraphCSRDirected<Integer, Integer> chain = chain(2000000);
+		final GraphQueryServer<Integer> slow = new GraphQueryServer<Integer>(chain, 1, 1);
+		ExecutorService burst = Executors.newFixedThreadPool(8, GraphQueryServer.daemonThreads());
+		List<Future<Integer>> answers = new ArrayList<Future<Integer>>();
+		for (int k = 0; k < 8; k++) {
+			answers.add(burst.submit(new Callable<Integer>() {
+				@Override
+				public Integer call() throws Exception {
+					try {
+						slow.reachableCount(0);
+						return 1;
+					} catch (RejectedExecutionException e) {
+						return 2;
+					} catch (TimeoutException e) {
+						return 3;
+					}
+				}
+			}));
+		}
+		outcome = new int[4];
+		for (Future<Integer> f : answers) outcome[get(f)]++;
+		System.out.println("Catena di 2000000 nodi, 1 permesso, 1 ms: completate " + outcome[1] + ", rifiutate " + outcome[2]
+				+ ", scadute " + outcome[3] + " (" + slow + ")");
+		burst.shutdown();
+		slow.close();
+
+		/* Interrogazioni che scadono mentre sono ancora in coda: i permessi devono tornare tutti liberi */
+		final GraphQueryServer<Integer> queued = new GraphQueryServer<Integer>(chain(3000000), 16, 30);
+		ExecutorService crowd = Executors.newFixedThreadPool(16, GraphQueryServer.daemonThreads());
+		answers = new ArrayList<Future<Integer>>();
+		for (int k = 0; k < 16; k++) {
+			answers.add(crowd.submit(new Callable<Integer>() {
+				@Override
+				public Integer call() throws Exception {
+					try {
+						queued.reachableCount(0);
+						return 1;
+					} catch (RejectedExecutionException e) {
+						return 2;
+					} catch (TimeoutException e) {
+						return 3;
+					}
+				}
+			}));
+		}
+		outcome = new int[4];
+		for (Future<Integer> f : answers) outcome[get(f)]++;
+		/* Le visite interrotte si fermano al controllo successivo del tempo massimo */
+		for (int wait = 0; wait < 100 && queued.availablePermits() < 16; wait++) Thread.sleep(10);
+		System.out.println("Catena di 3000000 nodi, 16 permessi, 30 ms: completate " + outcome[1] + ", rifiutate " + outcome[2]
+				+ ", scadute " + outcome[3] + ", permessi liberi alla fine " + queued.availablePermits() + "/16");
+		crowd.shutdown();
+		queued.close();
+	}
+
+	/**
+	 * Attende il risultato di un client.
+	 * @param f		risultato
+	 * @return esito del client
+	 */
+	private static int get(Future<Integer> f) throws InterruptedException {
+		try {
+			return f.get();
+		} catch (ExecutionException e) {
+			throw new IllegalStateException(e.getCause());
+		}
+	}
+
+	/**
+	 * Costruisce una catena 0 -> 1 -> ... -> n - 1.
+	 * @param n		numero di nodi
+	 * @return catena in formato CSR
+	 */
+	private static GraphCSRDirected<Integer, Integer> chain(int n) {
+		ParallelGraphBuilder<Integer, Integer> builder = new ParallelGraphBuilder<Integer, Integer>();
+		for (int i = 0; i < n; i++) builder.addNode(i);
+		for (int i = 0; i + 1 < n; i++) builder.addEdgeByIndex(i, i + 1, null);
+		return builder.build();
+	}
+
+}
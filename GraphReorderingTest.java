@@ -0,0 +1,272 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Random;
+
+public class GraphReorderingTest {
+
+	public static void main(String[] args) {
+
+		/* Grafo di esempio usato anche in GenericGraphDFSTest */
+		Graph<NodeDFS, WeighedEdge<Double>> g = new GraphMatrixDirected<NodeDFS, WeighedEdge<Double>>();
+		NodeDFS a = new NodeDFS("a");
+		NodeDFS b = new NodeDFS("b");
+		NodeDFS c = new NodeDFS("c");
+		NodeDFS x = new NodeDFS("x");
+		NodeDFS y = new NodeDFS("y");
+		NodeDFS z = new NodeDFS("z");
+		g.addNode(a);
+		g.addNode(b);
+		g.addNode(c);
+		g.addNode(x);
+		g.addNode(y);
+		g.addNode(z);
+		g.addEdge(a, b, new WeighedEdge<Double>(1.5));
+		g.addEdge(a, x, new WeighedEdge<Double>(-2.0));
+		g.addEdge(x, b, new WeighedEdge<Double>(null));
+		g.addEdge(b, y, new WeighedEdge<Double>(null));
+		g.addEdge(y, x, new WeighedEdge<Double>(1.0));
+		g.addEdge(z, b, new WeighedEdge<Double>(0.6));
+		g.addEdge(z, z, new WeighedEdge<Double>(0.5));
+		g.addEdge(c, z, new WeighedEdge<Double>(2.0));
+
+		for (GraphReordering.Strategy strategy : GraphReordering.Strategy.values()) {
+			GraphReordering<NodeDFS, WeighedEdge<Double>> r = new GraphReordering<NodeDFS, WeighedEdge<Double>>(g, strategy);
+			Graph<NodeDFS, WeighedEdge<Double>> p = r.getGraph();
+			boolean sameEdges = p.edgeCount() == g.edgeCount();
+			for (Edge<NodeDFS, WeighedEdge<Double>> e : g.getEdges())
+				if (!p.containsEdge(e.getLabel1(), e.getLabel2(), e.getLabel())) sameEdges = false;
+			StringBuilder order = new StringBuilder();
+			for (int i = 0; i < p.size(); i++) order.append(p.getNodeAtIndex(i)).append(' ');
+			System.out.println(strategy + ": " + order + " newToOld=" + Arrays.toString(r.getNewToOld())
+					+ " stessi archi: " + sameEdges);
+		}
+
+		/* Ordine RCM confrontato con una versione di riferimento su grafi casuali */
+		Random random = new Random(42);
+		int wrongOrders = 0;
+		for (int round = 0; round < 300; round++) {
+			IndexedGraph<Integer> r = GraphGenerator.erdosRenyi(1 + random.nextInt(80), 3 * random.nextDouble() / 40, random.nextLong())
+					.toIndexedGraph();
+			if (!Arrays.equals(GraphReordering.order(r, GraphReordering.Strategy.RCM), referenceRcm(r))) wrongOrders++;
+		}
+		System.out.println("RCM su 300 grafi casuali, ordini diversi dal riferimento: " + wrongOrders);
+
+		/* Stella con un nodo centrale di grado molto alto: l'ordinamento dei vicini non deve essere quadratico */
+		System.out.println();
+		System.out.println(" ----------------------------------------------------------");
+		System.out.println(" |    Rinumerazione di una stella.                        |");
+		System.out.println(" ----------------------------------------------------------");
+		for (int n : new int[] { 100000, 400000 }) {
+			IndexedGraph<Integer> star = star(n, random);
+			long rcm = Long.MAX_VALUE, dfs = Long.MAX_VALUE;
+			for (int round = 0; round < 2; round++) {
+				long start = System.nanoTime();
+				GraphReordering.order(star, GraphReordering.Strategy.RCM);
+				rcm = Math.min(rcm, System.nanoTime() - start);
+				start = System.nanoTime();
+				GraphReordering.order(star, GraphReordering.Strategy.DFS);
+				dfs = Math.min(dfs, System.nanoTime() - start);
+			}
+			System.out.println("Stella di " + n + " nodi: RCM " + rcm / 1000000 + " ms, DFS " + dfs / 1000000 + " ms");
+		}
+
+		/* Misure di throughput su una griglia con i nodi numerati a caso */
+		System.out.println();
+		System.out.println(" ----------------------------------------------------------");
+		System.out.println(" |    Throughput delle visite prima e dopo la               |");
+		System.out.println(" |    rinumerazione dei nodi.                             |");
+		System.out.println(" ----------------------------------------------------------");
+		IndexedGraph<Integer> grid = shuffledGrid(700, new Random(42));
+		System.out.println("Griglia: " + grid.size() + " nodi, " + grid.edgeCount() + " archi");
+		benchmark("inserimento", grid);
+		for (GraphReordering.Strategy strategy : GraphReordering.Strategy.values()) {
+			long start = System.nanoTime();
+			int[] newToOld = GraphReordering.order(grid, strategy);
+			IndexedGraph<Integer> permuted = GraphReordering.permute(grid, newToOld);
+			long time = (System.nanoTime() - start) / 1000000;
+			System.out.println("Rinumerazione " + strategy + " in " + time + " ms");
+			benchmark(strategy.toString(), permuted);
+		}
+	}
+
+	/**
+	 * Misura visita in profondità e in ampiezza su un'istantanea.
+	 * @param name		nome dell'ordine dei nodi
+	 * @param graph		istantanea del grafo
+	 */
+	private static void benchmark(String name, IndexedGraph<Integer> graph) {
+		int rounds = 5;
+		long best = Long.MAX_VALUE;
+		for (int r = 0; r < rounds; r++) {
+			long start = System.nanoTime();
+			DFSIntervalIndex.build(graph);
+			best = Math.min(best, System.nanoTime() - start);
+		}
+		long dfsTime = best;
+		best = Long.MAX_VALUE;
+		int reached = 0;
+		for (int r = 0; r < rounds; r++) {
+			long start = System.nanoTime();
+			reached = bfs(graph);
+			best = Math.min(best, System.nanoTime() - start);
+		}
+		long bfsTime = best;
+		long edges = graph.edgeCount();
+		System.out.println("  " + name + ": banda " + bandwidth(graph)
+				+ ", DFS " + dfsTime / 1000000 + " ms (" + edges * 1000 / dfsTime + " Marchi/s)"
+				+ ", BFS " + bfsTime / 1000000 + " ms (" + edges * 1000 / bfsTime + " Marchi/s, " + reached + " nodi)");
+	}
+
+	/**
+	 * Visita in ampiezza completa in ordine di indice.
+	 * @param graph		istantanea del grafo
+	 * @return numero di nodi visitati
+	 */
+	private static int bfs(IndexedGraph<Integer> graph) {
+		int n = graph.size();
+		boolean[] visited = new boolean[n];
+		int[] queue = new int[n];
+		int tail = 0;
+		for (int s = 0; s < n; s++) {
+			if (visited[s]) continue;
+			int head = tail;
+			queue[tail++] = s;
+			visited[s] = true;
+			while (head < tail) {
+				int u = queue[head++];
+				for (int e = graph.outStart(u); e < graph.outEnd(u); e++) {
+					int w = graph.outTarget(e);
+					if (!visited[w]) {
+						visited[w] = true;
+						queue[tail++] = w;
+					}
+				}
+			}
+		}
+		return tail;
+	}
+
+	/**
+	 * Calcola la banda della matrice di adiacenza, massima distanza di indice tra
+	 * gli estremi di un arco.
+	 * @param graph		istantanea del grafo
+	 * @return banda
+	 */
+	private static int bandwidth(IndexedGraph<Integer> graph) {
+		int band = 0;
+		for (int u = 0; u < graph.size(); u++)
+			for (int e = graph.outStart(u); e < graph.outEnd(u); e++) band = Math.max(band, Math.abs(graph.outTarget(e) - u));
+		return band;
+	}
+
+	/**
+	 * Crea una griglia diretta side x side, con archi verso destra e verso il
+	 * basso, e ne numera i nodi in ordine casuale.
+	 * @param side		lato della griglia
+	 * @param random	generatore casuale
+	 * @return istantanea della griglia
+	 */
+	private static IndexedGraph<Integer> shuffledGrid(int side, Random random) {
+		int n = side * side;
+		int[] position = new int[n];		/* Indice assegnato ad ogni cella */
+		for (int i = 0; i < n; i++) position[i] = i;
+		for (int i = n - 1; i > 0; i--) {
+			int j = random.nextInt(i + 1);
+			int t = position[i];
+			position[i] = position[j];
+			position[j] = t;
+		}
+		int[] cell = GraphReordering.invert(position);
+		Object[] labels = new Object[n];
+		HashMap<Integer, Integer> index = new HashMap<Integer, Integer>(2 * n);
+		int[] outOffsets = new int[n + 1];
+		int[] outTargets = new int[2 * n];
+		int[] inOffsets = new int[n + 1];
+		int[] inTargets = new int[2 * n];
+		int k = 0;
+		int h = 0;
+		for (int i = 0; i < n; i++) {
+			int r = cell[i] / side;
+			int col = cell[i] % side;
+			labels[i] = cell[i];
+			index.put(cell[i], i);
+			int from = k;
+			if (col + 1 < side) outTargets[k++] = position[cell[i] + 1];
+			if (r + 1 < side) outTargets[k++] = position[cell[i] + side];
+			Arrays.sort(outTargets, from, k);
+			outOffsets[i + 1] = k;
+			from = h;
+			if (col > 0) inTargets[h++] = position[cell[i] - 1];
+			if (r > 0) inTargets[h++] = position[cell[i] - side];
+			Arrays.sort(inTargets, from, h);
+			inOffsets[i + 1] = h;
+		}
+		return new IndexedGraph<Integer>(labels, index, outOffsets, Arrays.copyOf(outTargets, k),
+				inOffsets, Arrays.copyOf(inTargets, h), true);
+	}
+
+	/**
+	 * Ordine reverse Cuthill-McKee calcolato in modo diretto, ordinando i vicini
+	 * di ogni nodo con un comparatore.
+	 * @param directed	istantanea del grafo
+	 * @return array newToOld
+	 */
+	private static int[] referenceRcm(IndexedGraph<Integer> directed) {
+		final IndexedGraph<Integer> graph = directed.undirected();
+		int n = graph.size();
+		Comparator<Integer> byDegree = new Comparator<Integer>() {
+			@Override
+			public int compare(Integer u, Integer v) {
+				int d = Integer.compare(graph.outDegree(u), graph.outDegree(v));
+				return d != 0 ? d : Integer.compare(u, v);
+			}
+		};
+		List<Integer> starts = new ArrayList<Integer>();
+		for (int i = 0; i < n; i++) starts.add(i);
+		Collections.sort(starts, byDegree);
+		boolean[] visited = new boolean[n];
+		List<Integer> order = new ArrayList<Integer>();
+		for (int s : starts) {
+			if (visited[s]) continue;
+			int head = order.size();
+			order.add(s);
+			visited[s] = true;
+			while (head < order.size()) {
+				int u = order.get(head++);
+				List<Integer> next = new ArrayList<Integer>();
+				for (int e = graph.outStart(u); e < graph.outEnd(u); e++)
+					if (!visited[graph.outTarget(e)]) {
+						visited[graph.outTarget(e)] = true;
+						next.add(graph.outTarget(e));
+					}
+				Collections.sort(next, byDegree);
+				order.addAll(next);
+			}
+		}
+		int[] ret = new int[n];
+		for (int i = 0; i < n; i++) ret[i] = order.get(n - 1 - i);
+		return ret;
+	}
+
+	/**
+	 * Crea una stella con centro nel nodo 0: ogni foglia ha grado 1 oppure,
+	 * a caso, grado 2 per un arco verso la foglia successiva.
+	 * @param n			numero di nodi
+	 * @param random	generatore casuale
+	 * @return istantanea della stella
+	 */
+	private static IndexedGraph<Integer> star(int n, Random random) {
+		ParallelGraphBuilder<Integer, Object> builder = new ParallelGraphBuilder<Integer, Object>();
+		for (int i = 0; i < n; i++) builder.addNode(i);
+		for (int i = 1; i < n; i++) {
+			builder.addEdgeByIndex(0, i, null);
+			if (i + 1 < n && random.nextBoolean()) builder.addEdgeByIndex(i, i + 1, null);
+		}
+		return IndexedGraph.of(builder.build());
+	}
+
+}
@@ -0,0 +1,179 @@
+import java.util.ArrayList;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.ToDoubleFunction;
+import java.util.stream.Collectors;
+
+public class GraphStreamTest {
+
+	public static void main(String[] args) {
+
+		/* Grafo di esempio usato anche in GenericGraphDFSTest */
+		GraphMatrixDirected<NodeDFS, WeighedEdge<Double>> g = new GraphMatrixDirected<NodeDFS, WeighedEdge<Double>>();
+		NodeDFS a = new NodeDFS("a");
+		NodeDFS b = new NodeDFS("b");
+		NodeDFS c = new NodeDFS("c");
+		NodeDFS x = new NodeDFS("x");
+		NodeDFS y = new NodeDFS("y");
+		NodeDFS z = new NodeDFS("z");
+		g.addNode(a);
+		g.addNode(b);
+		g.addNode(c);
+		g.addNode(x);
+		g.addNode(y);
+		g.addNode(z);
+		g.addEdge(a, b, new WeighedEdge<Double>(1.5));
+		g.addEdge(a, x, new WeighedEdge<Double>(-2.0));
+		g.addEdge(x, b, new WeighedEdge<Double>(null));
+		g.addEdge(b, y, new WeighedEdge<Double>(null));
+		g.addEdge(y, x, new WeighedEdge<Double>(1.0));
+		g.addEdge(z, b, new WeighedEdge<Double>(0.6));
+		g.addEdge(z, z, new WeighedEdge<Double>(0.5));
+		g.addEdge(c, z, new WeighedEdge<Double>(2.0));
+
+		System.out.println("Nodi: " + g.nodeStream().collect(Collectors.toList()));
+		System.out.println("Archi con peso positivo: " + g.edgeStream().filter(positiveWeight()).map(endpoints()).collect(Collectors.toList()));
+		System.out.println("Somma dei pesi: " + g.edgeLabelStream().mapToDouble(weight()).sum()
+				+ ", grado uscente massimo: " + g.outDegreeStream().max().getAsInt()
+				+ ", archi: " + g.edgeStream().count() + " = " + g.edgeCount());
+		System.out.println("Istogramma dei gradi entranti: " + histogram(g));
+		g.addEdge(c, a, new WeighedEdge<Double>(3.0));
+		Iterator<Edge<NodeDFS, WeighedEdge<Double>>> edges = g.edgeStream().iterator();
+		edges.next();
+		g.removeEdge(c, a, new WeighedEdge<Double>(3.0));
+		try {
+			edges.next();
+		} catch (ConcurrentModificationException e) {
+			System.out.println("Modifica durante la scansione degli archi: " + e.getClass().getSimpleName());
+		}
+
+		/* compact() rinumera gli identificativi degli archi: una scansione aperta deve restare coerente */
+		GraphMatrixDirected<Integer, String> k = new GraphMatrixDirected<Integer, String>();
+		for (int i = 0; i < 4; i++) k.addNode(i);
+		k.addEdge(0, 3, "A");
+		k.addEdge(0, 1, "B");
+		k.addEdge(1, 2, "C");
+		k.addEdge(2, 3, "D");
+		k.removeEdge(0, 3, "A");
+		Iterator<Edge<Integer, String>> open = k.edgeStream().iterator();
+		Iterator<String> openLabels = k.edgeLabelStream().iterator();
+		List<String> scanned = new ArrayList<String>();
+		List<String> scannedLabels = new ArrayList<String>();
+		scanned.add(cell(open.next()));
+		scannedLabels.add(openLabels.next());
+		k.compact();
+		while (open.hasNext()) scanned.add(cell(open.next()));
+		while (openLabels.hasNext()) scannedLabels.add(openLabels.next());
+		List<String> current = new ArrayList<String>();
+		for (Edge<Integer, String> e : k.edgeStream().collect(Collectors.toList())) current.add(cell(e));
+		System.out.println("Scansione aperta durante compact(): " + scanned + " " + scannedLabels + ", stessi archi del grafo: "
+				+ scanned.equals(current) + ", stesse etichette: " + scannedLabels.equals(k.edgeLabelStream().collect(Collectors.toList())));
+
+		/* Confronto con la copia degli archi in un insieme */
+		System.out.println();
+		System.out.println(" ----------------------------------------------------------");
+		System.out.println(" |    Somma dei pesi di un grafo più grande.              |");
+		System.out.println(" ----------------------------------------------------------");
+		Random random = new Random(42);
+		GraphMatrixDirected<Integer, WeighedEdge<Double>> r = new GraphMatrixDirected<Integer, WeighedEdge<Double>>();
+		int n = 3000;
+		for (int i = 0; i < n; i++) r.addNode(i);
+		for (int i = 0; i < 20 * n; i++) r.addEdge(random.nextInt(n), random.nextInt(n), new WeighedEdge<Double>(random.nextDouble()));
+		System.out.println("Processori disponibili: " + Runtime.getRuntime().availableProcessors() + ", archi: " + r.edgeCount());
+		for (int round = 0; round < 2; round++) {
+			/* Il primo giro serve solo a scaldare il compilatore JIT */
+			long start = System.nanoTime();
+			double set = 0;
+			for (Edge<Integer, WeighedEdge<Double>> e : r.getEdges()) set += e.getLabel().getWeight();
+			long copied = System.nanoTime();
+			double stream = r.edgeStream().mapToDouble(edgeWeight()).sum();
+			long streamed = System.nanoTime();
+			double labels = r.edgeLabelStream().mapToDouble(weight()).sum();
+			long labelled = System.nanoTime();
+			double parallel = r.edgeLabelStream().parallel().mapToDouble(weight()).sum();
+			long end = System.nanoTime();
+			if (round == 0) continue;
+			System.out.println("getEdges(): " + (copied - start) / 1000000 + " ms, edgeStream(): " + (streamed - copied) / 1000000
+					+ " ms, edgeLabelStream(): " + (labelled - streamed) / 1000000 + " ms, in parallelo: " + (end - labelled) / 1000000
+					+ " ms, stesse somme: " + (Math.abs(set - stream) < 1e-6 && Math.abs(set - labels) < 1e-6 && Math.abs(set - parallel) < 1e-6));
+		}
+	}
+
+	/**
+	 * Istogramma dei gradi entranti: per ogni grado il numero di nodi.
+	 * @param g		grafo
+	 * @return mappa ordinata dai gradi al numero di nodi
+	 */
+	private static Map<Integer, Long> histogram(GraphMatrixDirected<?, ?> g) {
+		return new TreeMap<Integer, Long>(g.inDegreeStream().boxed().collect(Collectors.groupingBy(Function.<Integer>identity(), Collectors.counting())));
+	}
+
+	/**
+	 * Predicato vero per gli archi con peso positivo.
+	 * @return predicato sugli archi
+	 */
+	private static Predicate<Edge<NodeDFS, WeighedEdge<Double>>> positiveWeight() {
+		return new Predicate<Edge<NodeDFS, WeighedEdge<Double>>>() {
+			@Override
+			public boolean test(Edge<NodeDFS, WeighedEdge<Double>> e) {
+				Double w = e.getLabel().getWeight();
+				return w != null && w > 0;
+			}
+		};
+	}
+
+	/**
+	 * Rappresentazione di un arco con i suoi estremi.
+	 * @return funzione dagli archi alle stringhe
+	 */
+	private static Function<Edge<NodeDFS, WeighedEdge<Double>>, String> endpoints() {
+		return new Function<Edge<NodeDFS, WeighedEdge<Double>>, String>() {
+			@Override
+			public String apply(Edge<NodeDFS, WeighedEdge<Double>> e) {
+				return e.getLabel1() + "->" + e.getLabel2();
+			}
+		};
+	}
+
+	/**
+	 * Peso di un'etichetta, 0 se il peso è null.
+	 * @return funzione dalle etichette ai pesi
+	 */
+	private static ToDoubleFunction<WeighedEdge<Double>> weight() {
+		return new ToDoubleFunction<WeighedEdge<Double>>() {
+			@Override
+			public double applyAsDouble(WeighedEdge<Double> label) {
+				return label.getWeight() == null ? 0 : label.getWeight();
+			}
+		};
+	}
+
+	/**
+	 * Peso di un arco, 0 se il peso è null.
+	 * @return funzione dagli archi ai pesi
+	 */
+	private static <V> ToDoubleFunction<Edge<V, WeighedEdge<Double>>> edgeWeight() {
+		return new ToDoubleFunction<Edge<V, WeighedEdge<Double>>>() {
+			@Override
+			public double applyAsDouble(Edge<V, WeighedEdge<Double>> e) {
+				return e.getLabel().getWeight() == null ? 0 : e.getLabel().getWeight();
+			}
+		};
+	}
+
+	/**
+	 * Rappresentazione di un arco con estremi ed etichetta.
+	 * @param e		arco
+	 * @return stringa sorgente-&gt;destinazione:etichetta
+	 */
+	private static String cell(Edge<Integer, String> e) {
+		return e.getLabel1() + "->" + e.getLabel2() + ":" + e.getLabel();
+	}
+
+}
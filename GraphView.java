@@ -0,0 +1,258 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Vista di sola lettura su un grafo orientato: non copia né i nodi né gli
+ * archi, ma risponde ad ogni richiesta interrogando il grafo sottostante,
+ * per cui crearla non costa nulla e le modifiche del grafo sottostante sono
+ * subito visibili attraverso la vista. Le sottoclassi stabiliscono quali
+ * nodi ed archi sono visibili e con quale orientamento.
+ *
+ * I colori dei nodi appartengono alla vista, in modo che una visita sulla
+ * vista non cambi i colori del grafo sottostante. La versione è quella del
+ * grafo sottostante.
+ */
+public abstract class GraphView<V, E> implements Graph<V, E> {
+
+	/* Grafo sottostante */
+	protected final Graph<V, E> graph;
+
+	/* Colori dei nodi della vista, indicizzati come i nodi della vista */
+	private int[] colors = new int[0];
+
+	/**
+	 * Costruttore della vista.
+	 * @param graph		grafo sottostante, diretto
+	 * @throws IllegalArgumentException se il grafo non è diretto
+	 */
+	protected GraphView(Graph<V, E> graph) {
+		if (graph == null) throw new NullPointerException("Tentativo di creare una vista su un grafo null.");
+		if (!graph.isDirected()) throw new IllegalArgumentException("Le viste sono definite solo su grafi diretti.");
+		this.graph = graph;
+	}
+
+	/**
+	 * Ritorna il grafo sottostante.
+	 * @return grafo sottostante
+	 */
+	public Graph<V, E> getGraph() {
+		return graph;
+	}
+
+	/**
+	 * Dice se il grafo è vuoto.
+	 * @return true se la vista non ha nodi
+	 */
+	@Override
+	public boolean isEmpty() {
+		return size() == 0;
+	}
+
+	/**
+	 * La vista è orientata come il grafo sottostante.
+	 * @return true
+	 */
+	@Override
+	public boolean isDirected() {
+		return true;
+	}
+
+	/**
+	 * Operazione non supportata: la vista è di sola lettura.
+	 */
+	@Override
+	public boolean addNode(V label) {
+		throw new UnsupportedOperationException("La vista è di sola lettura.");
+	}
+
+	/**
+	 * Operazione non supportata: la vista è di sola lettura.
+	 */
+	@Override
+	public boolean removeNode(V label) {
+		throw new UnsupportedOperationException("La vista è di sola lettura.");
+	}
+
+	/**
+	 * Operazione non supportata: la vista è di sola lettura.
+	 */
+	@Override
+	public boolean addEdge(V label1, V label2, E label) {
+		throw new UnsupportedOperationException("La vista è di sola lettura.");
+	}
+
+	/**
+	 * Operazione non supportata: la vista è di sola lettura.
+	 */
+	@Override
+	public boolean removeEdge(V label1, V label2, E label) {
+		throw new UnsupportedOperationException("La vista è di sola lettura.");
+	}
+
+	/**
+	 * Operazione non supportata: la vista è di sola lettura.
+	 */
+	@Override
+	public void clear() {
+		throw new UnsupportedOperationException("La vista è di sola lettura.");
+	}
+
+	/**
+	 * Ritorna la versione del grafo sottostante.
+	 * @return versione del grafo sottostante
+	 */
+	@Override
+	public long getVersion() {
+		return graph.getVersion();
+	}
+
+	/**
+	 * Ritorna il colore di un nodo della vista.
+	 * @param label		etichetta del nodo
+	 * @return colore del nodo
+	 */
+	@Override
+	public int getColor(V label) {
+		int i = getNodeIndex(label);
+		return i < colors.length ? colors[i] : Graph.COLOR_WHITE;
+	}
+
+	/**
+	 * Imposta il colore di un nodo della vista, senza cambiare quello del
+	 * grafo sottostante.
+	 * @param label		etichetta del nodo
+	 * @param color		colore da impostare
+	 */
+	@Override
+	public void setColor(V label, int color) {
+		int i = getNodeIndex(label);
+		if (i >= colors.length) colors = Arrays.copyOf(colors, Math.max(size(), 2 * colors.length));
+		colors[i] = color;
+	}
+
+	/**
+	 * Restituisce il grado di un nodo, somma del grado entrante e uscente.
+	 * @param label		etichetta del nodo
+	 * @return grado del nodo
+	 */
+	@Override
+	public int getDegree(V label) {
+		return inDegree(label) + outDegree(label);
+	}
+
+	/**
+	 * Restituisce il grado entrante di un nodo.
+	 * @param label		etichetta del nodo
+	 * @return numero di archi entranti visibili
+	 */
+	@Override
+	public int inDegree(V label) {
+		return ingoingEdges(label).size();
+	}
+
+	/**
+	 * Restituisce il grado uscente di un nodo.
+	 * @param label		etichetta del nodo
+	 * @return numero di archi uscenti visibili
+	 */
+	@Override
+	public int outDegree(V label) {
+		return outgoingEdges(label).size();
+	}
+
+	/**
+	 * Metodo non supportato per grafi orientati.
+	 */
+	@Override
+	public Set<V> neighbors(V label) {
+		throw new UnsupportedOperationException("Non è possibile restituire l'insieme dei nodi adiacenti in quanto il grafo è orientato.");
+	}
+
+	/**
+	 * Ritorna l'insieme dei nodi della vista.
+	 * @return insieme dei nodi
+	 */
+	@Override
+	public Set<V> getNodes() {
+		Set<V> nodes = new HashSet<V>();
+		for (int i = 0; i < size(); i++) nodes.add(getNodeAtIndex(i));
+		return nodes;
+	}
+
+	/**
+	 * Restituisce gli archi visibili tra due nodi.
+	 * @param label1		etichetta del nodo sorgente
+	 * @param label2		etichetta del nodo destinazione
+	 * @return insieme degli archi
+	 */
+	@Override
+	public Set<Edge<V, E>> getEdges(V label1, V label2) {
+		getNodeIndex(label2);		/* Controllo che la destinazione sia visibile */
+		Set<Edge<V, E>> edges = new HashSet<Edge<V, E>>();
+		for (Edge<V, E> e : outgoingEdges(label1))
+			if (e.getLabel2().equals(label2)) edges.add(e);
+		return edges;
+	}
+
+	/**
+	 * Operazione non supportata per grafo diretto.
+	 */
+	@Override
+	public Set<Edge<V, E>> getEdges(V label) {
+		throw new UnsupportedOperationException("Non è possibile restituire l'insieme di tutti gli archi connessi a un certo nodo in " +
+				"quanto il grafo è orientato.");
+	}
+
+	/**
+	 * Restituisce l'insieme di tutti gli archi visibili.
+	 * @return insieme degli archi
+	 */
+	@Override
+	public Set<Edge<V, E>> getEdges() {
+		Set<Edge<V, E>> edges = new HashSet<Edge<V, E>>();
+		for (int i = 0; i < size(); i++) edges.addAll(outgoingEdges(getNodeAtIndex(i)));
+		return edges;
+	}
+
+	/**
+	 * Ritorna il numero di archi visibili contandoli nodo per nodo.
+	 * @return numero di archi
+	 */
+	@Override
+	public int edgeCount() {
+		int count = 0;
+		for (int i = 0; i < size(); i++) count += outDegree(getNodeAtIndex(i));
+		return count;
+	}
+
+	/**
+	 * Rappresentazione degli archi visibili con le relative etichette,
+	 * nello stesso formato di {@link GraphMatrixDirected#toString()}.
+	 */
+	@Override
+	public String toString() {
+		StringBuilder app = new StringBuilder();
+		for (int i = 0; i < size(); i++) {
+			/* Archi uscenti ordinati per indice della destinazione, come nella matrice */
+			List<Edge<V, E>> edges = new ArrayList<Edge<V, E>>(outgoingEdges(getNodeAtIndex(i)));
+			Collections.sort(edges, new Comparator<Edge<V, E>>() {
+				@Override
+				public int compare(Edge<V, E> e1, Edge<V, E> e2) {
+					return Integer.compare(getNodeIndex(e1.getLabel2()), getNodeIndex(e2.getLabel2()));
+				}
+			});
+			for (Edge<V, E> e : edges) {
+				app.append("(" + e.getLabel1() + ") --> (" + e.getLabel2() + ")\t");
+				app.append("w(" + e.getLabel1() + "," + e.getLabel2() + ") = " + e.getLabel());
+				app.append("\n");
+			}
+		}
+		return app.toString();
+	}
+
+}
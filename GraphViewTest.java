@@ -0,0 +1,137 @@
+import java.util.BitSet;
+import java.util.ConcurrentModificationException;
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+import java.util.function.Predicate;
+
+public class GraphViewTest {
+
+	public static void main(String[] args) {
+
+		/* Grafo di esempio usato anche in GenericGraphDFSTest */
+		Graph<NodeDFS, WeighedEdge<Double>> g = new GraphMatrixDirected<NodeDFS, WeighedEdge<Double>>();
+		NodeDFS a = new NodeDFS("a");
+		NodeDFS b = new NodeDFS("b");
+		NodeDFS c = new NodeDFS("c");
+		NodeDFS x = new NodeDFS("x");
+		NodeDFS y = new NodeDFS("y");
+		NodeDFS z = new NodeDFS("z");
+		g.addNode(a);
+		g.addNode(b);
+		g.addNode(c);
+		g.addNode(x);
+		g.addNode(y);
+		g.addNode(z);
+		g.addEdge(a, b, new WeighedEdge<Double>(1.5));
+		g.addEdge(a, x, new WeighedEdge<Double>(-2.0));
+		g.addEdge(x, b, new WeighedEdge<Double>(null));
+		g.addEdge(b, y, new WeighedEdge<Double>(null));
+		g.addEdge(y, x, new WeighedEdge<Double>(1.0));
+		g.addEdge(z, b, new WeighedEdge<Double>(0.6));
+		g.addEdge(z, z, new WeighedEdge<Double>(0.5));
+		g.addEdge(c, z, new WeighedEdge<Double>(2.0));
+
+		GenericGraphDFS<NodeDFS, WeighedEdge<Double>> dfs = new GenericGraphDFS<NodeDFS, WeighedEdge<Double>>(true);
+
+		/* Grafo trasposto */
+		System.out.println("Grafo trasposto:");
+		Graph<NodeDFS, WeighedEdge<Double>> reversed = new ReversedGraph<NodeDFS, WeighedEdge<Double>>(g);
+		System.out.print(reversed);
+		dfs.DFS(reversed);
+		System.out.println("Visita del trasposto: a " + a.getTimeDiscovered() + "/" + a.getTimeExplored() + ", padre di x: " + x.getFather()
+				+ ", colore di a nel grafo: " + g.getColor(a));
+
+		/* Solo gli archi con peso positivo */
+		System.out.println();
+		System.out.println("Archi con peso positivo:");
+		Graph<NodeDFS, WeighedEdge<Double>> positive = new FilteredGraph<NodeDFS, WeighedEdge<Double>>(g, positiveWeight());
+		System.out.print(positive);
+		System.out.println("Successori di a: " + positive.successors(a) + ", archi: " + positive.edgeCount());
+
+		/* Sottografo indotto da a, b, x, y */
+		System.out.println();
+		System.out.println("Sottografo indotto da a, b, x, y:");
+		BitSet nodes = new BitSet();
+		nodes.set(g.getNodeIndex(a));
+		nodes.set(g.getNodeIndex(b));
+		nodes.set(g.getNodeIndex(x));
+		nodes.set(g.getNodeIndex(y));
+		Graph<NodeDFS, WeighedEdge<Double>> induced = new InducedSubgraph<NodeDFS, WeighedEdge<Double>>(g, nodes);
+		System.out.print(induced);
+		System.out.println("Nodi: " + induced.size() + ", indice di y: " + induced.getNodeIndex(y) + ", contiene z: "
+				+ induced.containsNode(z) + ", archi: " + induced.edgeCount());
+		StronglyConnectedComponents<NodeDFS> scc = new StronglyConnectedComponents<NodeDFS>(induced);
+		System.out.println("Componenti fortemente connesse: " + scc.getComponents());
+		g.removeEdge(a, b, new WeighedEdge<Double>(1.5));
+		try {
+			induced.size();
+		} catch (ConcurrentModificationException e) {
+			System.out.println("Dopo una modifica del grafo: " + e.getMessage());
+		}
+		System.out.println("Il trasposto vede la modifica: " + !reversed.successors(b).contains(a));
+
+		/* Viste e copie di un grafo più grande */
+		System.out.println();
+		System.out.println(" ----------------------------------------------------------");
+		System.out.println(" |    Visite su viste e su copie.                         |");
+		System.out.println(" ----------------------------------------------------------");
+		Random random = new Random(42);
+		GraphMatrixDirected<NodeDFS, WeighedEdge<Double>> r = new GraphMatrixDirected<NodeDFS, WeighedEdge<Double>>();
+		NodeDFS[] v = new NodeDFS[2000];
+		for (int i = 0; i < v.length; i++) {
+			v[i] = new NodeDFS("v" + i);
+			r.addNode(v[i]);
+		}
+		for (int i = 0; i < 4 * v.length; i++)
+			r.addEdge(v[random.nextInt(v.length)], v[random.nextInt(v.length)], new WeighedEdge<Double>(random.nextGaussian()));
+
+		long start = System.nanoTime();
+		Set<Edge<NodeDFS, WeighedEdge<Double>>> transposed = new HashSet<Edge<NodeDFS, WeighedEdge<Double>>>();
+		for (Edge<NodeDFS, WeighedEdge<Double>> e : r.getEdges())
+			transposed.add(new Edge<NodeDFS, WeighedEdge<Double>>(e.getLabel2(), e.getLabel1(), e.getLabel(), true));
+		Graph<NodeDFS, WeighedEdge<Double>> copy = new GraphMatrixDirected<NodeDFS, WeighedEdge<Double>>(r.getNodes(), transposed);
+		long built = System.nanoTime();
+		dfs.DFS(copy);
+		long copied = System.nanoTime();
+		Graph<NodeDFS, WeighedEdge<Double>> view = new ReversedGraph<NodeDFS, WeighedEdge<Double>>(r);
+		long created = System.nanoTime();
+		dfs.DFS(view);
+		long viewed = System.nanoTime();
+		System.out.println("Trasposto: copia " + (built - start) / 1000000 + " ms + visita " + (copied - built) / 1000000
+				+ " ms, vista " + (created - copied) / 1000 + " us + visita " + (viewed - created) / 1000000
+				+ " ms, stessi archi: " + view.getEdges().equals(copy.getEdges()));
+
+		start = System.nanoTime();
+		Set<Edge<NodeDFS, WeighedEdge<Double>>> kept = new HashSet<Edge<NodeDFS, WeighedEdge<Double>>>();
+		Predicate<Edge<NodeDFS, WeighedEdge<Double>>> filter = positiveWeight();
+		for (Edge<NodeDFS, WeighedEdge<Double>> e : r.getEdges())
+			if (filter.test(e)) kept.add(e);
+		copy = new GraphMatrixDirected<NodeDFS, WeighedEdge<Double>>(r.getNodes(), kept);
+		built = System.nanoTime();
+		dfs.DFS(copy);
+		copied = System.nanoTime();
+		view = new FilteredGraph<NodeDFS, WeighedEdge<Double>>(r, filter);
+		created = System.nanoTime();
+		dfs.DFS(view);
+		viewed = System.nanoTime();
+		System.out.println("Peso positivo: copia " + (built - start) / 1000000 + " ms + visita " + (copied - built) / 1000000
+				+ " ms, vista " + (created - copied) / 1000 + " us + visita " + (viewed - created) / 1000000
+				+ " ms, stessi archi: " + view.getEdges().equals(copy.getEdges()));
+	}
+
+	/**
+	 * Predicato vero per gli archi con peso positivo.
+	 * @return predicato sugli archi
+	 */
+	private static Predicate<Edge<NodeDFS, WeighedEdge<Double>>> positiveWeight() {
+		return new Predicate<Edge<NodeDFS, WeighedEdge<Double>>>() {
+			@Override
+			public boolean test(Edge<NodeDFS, WeighedEdge<Double>> e) {
+				Double w = e.getLabel().getWeight();
+				return w != null && w > 0;
+			}
+		};
+	}
+
+}
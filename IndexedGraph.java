@@ -0,0 +1,358 @@
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Set;
+
+/**
+ * Istantanea immutabile della struttura di un grafo in cui i nodi sono
+ * identificati dal loro indice nell'intervallo <code>[0, size() - 1]</code>
+ * (lo stesso restituito da {@link Graph#getNodeIndex(Object)} al momento
+ * della costruzione) e le adiacenze sono memorizzate in formato CSR
+ * (Compressed Sparse Row) con array di interi primitivi.
+ *
+ * Gli algoritmi che lavorano sugli indici possono così visitare il grafo senza
+ * pagare, per ogni arco, le ricerche lineari delle etichette ed i set creati
+ * da {@link Graph#successors(Object)}. Se il grafo non è diretto i vicini
+ * sono usati sia come successori che come predecessori.
+ *
+ * L'istantanea non segue le modifiche successive del grafo da cui è stata
+ * costruita.
+ */
+public class IndexedGraph<V> {
+
+	/* Etichette dei nodi, indicizzate per indice */
+	private final Object[] labels;
+
+	/* Tabella inversa etichetta -> indice */
+	private final HashMap<V, Integer> index;
+
+	/* Inizio della lista dei successori di ogni nodo in outTargets (size() + 1 elementi) */
+	private final int[] outOffsets;
+
+	/* Successori di tutti i nodi, ordinati per indice all'interno di ogni lista */
+	private final int[] outTargets;
+
+	/* Inizio della lista dei predecessori di ogni nodo in inTargets (size() + 1 elementi) */
+	private final int[] inOffsets;
+
+	/* Predecessori di tutti i nodi, ordinati per indice all'interno di ogni lista */
+	private final int[] inTargets;
+
+	/* true se il grafo di partenza è diretto */
+	private final boolean directed;
+
+	/**
+	 * Costruttore a partire dagli array già calcolati.
+	 * @param labels		etichette dei nodi
+	 * @param index			tabella inversa etichetta -> indice
+	 * @param outOffsets	offset delle liste dei successori
+	 * @param outTargets	successori
+	 * @param inOffsets		offset delle liste dei predecessori
+	 * @param inTargets		predecessori
+	 * @param directed		true se il grafo è diretto
+	 */
+	IndexedGraph(Object[] labels, HashMap<V, Integer> index, int[] outOffsets, int[] outTargets,
+			int[] inOffsets, int[] inTargets, boolean directed) {
+		this.labels = labels;
+		this.index = index;
+		this.outOffsets = outOffsets;
+		this.outTargets = outTargets;
+		this.inOffsets = inOffsets;
+		this.inTargets = inTargets;
+		this.directed = directed;
+	}
+
+	/**
+	 * Costruisce l'istantanea di un grafo.
+	 * @param g		grafo
+	 * @return l'istantanea indicizzata del grafo
+	 * @throws NullPointerException se il grafo è null
+	 */
+	public static <V, E> IndexedGraph<V> of(Graph<V, E> g) {
+		if (g == null) throw new NullPointerException("Tentativo di indicizzare un grafo null.");
+		/* Un grafo CSR ha già la struttura indicizzata, che è immutabile */
+		if (g instanceof GraphCSRDirected) return ((GraphCSRDirected<V, E>) g).snapshot();
+		/* La matrice di adiacenza si legge direttamente per indici */
+		if (g instanceof GraphMatrixDirected) return ((GraphMatrixDirected<V, E>) g).snapshot();
+		/* Un multigrafo ha già le adiacenze ordinate e senza ripetizioni */
+		if (g instanceof GraphMultiDirected) return ((GraphMultiDirected<V, E>) g).snapshot();
+		int n = g.size();		/* Numero di nodi */
+		Object[] labels = new Object[n];
+		HashMap<V, Integer> index = new HashMap<V, Integer>(2 * n);
+		/* Registro le etichette una sola volta */
+		for (int i = 0; i < n; i++) {
+			V label = g.getNodeAtIndex(i);
+			labels[i] = label;
+			index.put(label, i);
+		}
+		boolean directed = g.isDirected();
+		/* Liste di adiacenza temporanee per nodo */
+		int[][] out = new int[n][];
+		int[][] in = new int[n][];
+		int outCount = 0;
+		int inCount = 0;
+		for (int i = 0; i < n; i++) {
+			@SuppressWarnings("unchecked")
+			V label = (V) labels[i];
+			out[i] = toSortedIndices(directed ? g.successors(label) : g.neighbors(label), index);
+			in[i] = directed ? toSortedIndices(g.predecessors(label), index) : out[i];
+			outCount += out[i].length;
+			inCount += in[i].length;
+		}
+		int[] outOffsets = new int[n + 1];
+		int[] outTargets = new int[outCount];
+		int[] inOffsets = new int[n + 1];
+		int[] inTargets = new int[inCount];
+		/* Copio le liste negli array compatti */
+		for (int i = 0; i < n; i++) {
+			System.arraycopy(out[i], 0, outTargets, outOffsets[i], out[i].length);
+			outOffsets[i + 1] = outOffsets[i] + out[i].length;
+			System.arraycopy(in[i], 0, inTargets, inOffsets[i], in[i].length);
+			inOffsets[i + 1] = inOffsets[i] + in[i].length;
+		}
+		return new IndexedGraph<V>(labels, index, outOffsets, outTargets, inOffsets, inTargets, directed);
+	}
+
+	/**
+	 * Converte un insieme di etichette nell'array ordinato dei relativi indici.
+	 * @param set		etichette
+	 * @param index		tabella etichetta -> indice
+	 * @return array ordinato degli indici
+	 */
+	private static <V> int[] toSortedIndices(Set<V> set, HashMap<V, Integer> index) {
+		int[] ret = new int[set.size()];
+		int k = 0;
+		for (V label : set) ret[k++] = index.get(label);
+		Arrays.sort(ret);
+		return ret;
+	}
+
+	/**
+	 * Ritorna la versione non diretta di questa istantanea: ogni nodo ha come
+	 * vicini l'unione, senza ripetizioni, dei suoi successori e predecessori.
+	 * Gli archi che collegano un nodo a se stesso vengono scartati.
+	 * @return istantanea non diretta con gli stessi indici dei nodi
+	 */
+	public IndexedGraph<V> undirected() {
+		int n = size();
+		int[] offsets = new int[n + 1];
+		int[] targets = new int[outTargets.length + inTargets.length];
+		int count = 0;
+		for (int i = 0; i < n; i++) {
+			/* Fusione delle due liste ordinate scartando i doppioni ed i cappi */
+			int a = outOffsets[i], aEnd = outOffsets[i + 1];
+			int b = inOffsets[i], bEnd = inOffsets[i + 1];
+			int last = -1;
+			while (a < aEnd || b < bEnd) {
+				int w;
+				if (b == bEnd || (a < aEnd && outTargets[a] <= inTargets[b])) w = outTargets[a++];
+				else w = inTargets[b++];
+				if (w != last && w != i) targets[count++] = w;
+				last = w;
+			}
+			offsets[i + 1] = count;
+		}
+		targets = Arrays.copyOf(targets, count);
+		return new IndexedGraph<V>(labels, index, offsets, targets, offsets, targets, false);
+	}
+
+	/**
+	 * Ritorna il numero di nodi.
+	 * @return numero di nodi dell'istantanea
+	 */
+	public int size() {
+		return labels.length;
+	}
+
+	/**
+	 * Ritorna il numero di archi (coppie sorgente-destinazione distinte).
+	 * @return numero di archi dell'istantanea
+	 */
+	public int edgeCount() {
+		return outTargets.length;
+	}
+
+	/**
+	 * Dice se il grafo da cui è stata costruita l'istantanea è diretto.
+	 * @return true se il grafo è diretto
+	 */
+	public boolean isDirected() {
+		return directed;
+	}
+
+	/**
+	 * Ritorna l'indice associato ad un'etichetta.
+	 * @param label		etichetta del nodo
+	 * @return indice del nodo
+	 * @throws NullPointerException se l'etichetta è null
+	 * @throws IllegalArgumentException se il nodo non esiste
+	 */
+	public int indexOf(V label) {
+		if (label == null) throw new NullPointerException("Tentativo di ricerca dell'indice di un nodo nullo.");
+		Integer i = index.get(label);
+		if (i == null) throw new IllegalArgumentException("Il nodo non è presente nel grafo.");
+		return i;
+	}
+
+	/**
+	 * Dice se un'etichetta è presente nell'istantanea.
+	 * @param label		etichetta del nodo
+	 * @return true se il nodo è presente
+	 */
+	public boolean containsNode(V label) {
+		return index.containsKey(label);
+	}
+
+	/**
+	 * Ritorna l'etichetta del nodo con un certo indice.
+	 * @param i		indice del nodo
+	 * @return etichetta del nodo
+	 */
+	@SuppressWarnings("unchecked")
+	public V labelAt(int i) {
+		return (V) labels[i];
+	}
+
+	/**
+	 * Ritorna la posizione in {@link #outTarget(int)} del primo successore di un nodo.
+	 * @param i		indice del nodo
+	 * @return posizione del primo successore
+	 */
+	public int outStart(int i) {
+		return outOffsets[i];
+	}
+
+	/**
+	 * Ritorna la posizione in {@link #outTarget(int)} successiva all'ultimo successore di un nodo.
+	 * @param i		indice del nodo
+	 * @return posizione successiva all'ultimo successore
+	 */
+	public int outEnd(int i) {
+		return outOffsets[i + 1];
+	}
+
+	/**
+	 * Ritorna il successore memorizzato in una certa posizione.
+	 * @param k		posizione compresa tra outStart(i) e outEnd(i) di un nodo i
+	 * @return indice del successore
+	 */
+	public int outTarget(int k) {
+		return outTargets[k];
+	}
+
+	/**
+	 * Ritorna la posizione in {@link #inTarget(int)} del primo predecessore di un nodo.
+	 * @param i		indice del nodo
+	 * @return posizione del primo predecessore
+	 */
+	public int inStart(int i) {
+		return inOffsets[i];
+	}
+
+	/**
+	 * Ritorna la posizione in {@link #inTarget(int)} successiva all'ultimo predecessore di un nodo.
+	 * @param i		indice del nodo
+	 * @return posizione successiva all'ultimo predecessore
+	 */
+	public int inEnd(int i) {
+		return inOffsets[i + 1];
+	}
+
+	/**
+	 * Ritorna il predecessore memorizzato in una certa posizione.
+	 * @param k		posizione compresa tra inStart(i) e inEnd(i) di un nodo i
+	 * @return indice del predecessore
+	 */
+	public int inTarget(int k) {
+		return inTargets[k];
+	}
+
+	/**
+	 * Ritorna il grado uscente di un nodo.
+	 * @param i		indice del nodo
+	 * @return numero di successori
+	 */
+	public int outDegree(int i) {
+		return outOffsets[i + 1] - outOffsets[i];
+	}
+
+	/**
+	 * Ritorna il grado entrante di un nodo.
+	 * @param i		indice del nodo
+	 * @return numero di predecessori
+	 */
+	public int inDegree(int i) {
+		return inOffsets[i + 1] - inOffsets[i];
+	}
+
+	/**
+	 * Risponde a molte interrogazioni di raggiungibilità: per ogni k
+	 * result[k] diventa true se esiste un cammino da sources[k] a
+	 * targets[k]. Le interrogazioni con la stessa sorgente sono risolte da
+	 * una sola visita in profondità.
+	 * @param sources		indici dei nodi sorgente
+	 * @param targets		indici dei nodi destinazione
+	 * @param result		risposte, lungo almeno quanto sources
+	 * @throws IllegalArgumentException se gli array non hanno lunghezze compatibili
+	 */
+	public void reachable(int[] sources, int[] targets, boolean[] result) {
+		checkBatch(sources.length, targets.length, sources.length, result.length);
+		int[] order = orderBySource(sources, size());
+		/* Ogni visita marca i nodi con un proprio numero: non serve azzerare gli array */
+		int[] mark = new int[size()];
+		int[] stack = new int[size()];
+		int visit = 0;
+		for (int k = 0; k < order.length; k++) {
+			int q = order[k];
+			int s = sources[q];
+			if (k == 0 || s != sources[order[k - 1]]) {
+				visit++;
+				int top = 0;
+				stack[top++] = s;
+				mark[s] = visit;
+				while (top > 0) {
+					int u = stack[--top];
+					for (int e = outOffsets[u]; e < outOffsets[u + 1]; e++) {
+						int v = outTargets[e];
+						if (mark[v] != visit) {
+							mark[v] = visit;
+							stack[top++] = v;
+						}
+					}
+				}
+			}
+			result[q] = mark[targets[q]] == visit;
+		}
+	}
+
+	/**
+	 * Ordina le posizioni di un gruppo di interrogazioni per indice della
+	 * sorgente, a parità di sorgente nell'ordine originale. Usa un
+	 * ordinamento per conteggio, lineare nel numero di interrogazioni e di
+	 * nodi.
+	 * @param sources		indici dei nodi sorgente
+	 * @param n				numero di nodi del grafo
+	 * @return posizioni delle interrogazioni in ordine di sorgente
+	 */
+	static int[] orderBySource(int[] sources, int n) {
+		int[] start = new int[n + 1];
+		for (int s : sources) start[s + 1]++;
+		for (int i = 0; i < n; i++) start[i + 1] += start[i];
+		int[] order = new int[sources.length];
+		for (int k = 0; k < sources.length; k++) order[start[sources[k]]++] = k;
+		return order;
+	}
+
+	/**
+	 * Controlla le lunghezze degli array di un gruppo di interrogazioni.
+	 * @param sources		numero di sorgenti
+	 * @param targets		numero di destinazioni
+	 * @param labels		numero di etichette degli archi
+	 * @param result		lunghezza dell'array delle risposte
+	 * @throws IllegalArgumentException se le lunghezze non sono compatibili
+	 */
+	static void checkBatch(int sources, int targets, int labels, int result) {
+		if (sources != targets || sources != labels) throw new IllegalArgumentException("Gli array delle interrogazioni hanno lunghezze diverse.");
+		if (result < sources) throw new IllegalArgumentException("L'array delle risposte è troppo corto.");
+	}
+
+}
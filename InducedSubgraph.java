@@ -0,0 +1,198 @@
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.ConcurrentModificationException;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Vista del sottografo indotto da un insieme di nodi, dato come insieme di
+ * indici del grafo sottostante: sono visibili i nodi dell'insieme e gli
+ * archi con entrambi gli estremi nell'insieme. I nodi della vista hanno
+ * indici consecutivi nell'ordine dei loro indici nel grafo sottostante.
+ *
+ * Gli indici del grafo sottostante cambiano quando vengono rimossi dei
+ * nodi, per cui la vista vale solo per la versione del grafo su cui è stata
+ * creata: dopo una modifica del grafo ogni operazione lancia
+ * {@link ConcurrentModificationException}.
+ */
+public class InducedSubgraph<V, E> extends GraphView<V, E> {
+
+	/* Indici dei nodi visibili nel grafo sottostante */
+	private final BitSet visible;
+
+	/* Indici dei nodi visibili in ordine crescente: l'indice nella vista è la posizione */
+	private final int[] members;
+
+	/* Versione del grafo sottostante alla creazione della vista */
+	private final long version;
+
+	/**
+	 * Costruttore della vista; costa un tempo proporzionale al numero di
+	 * nodi dell'insieme, senza leggere gli archi.
+	 * @param graph		grafo sottostante, diretto
+	 * @param nodes		indici dei nodi visibili nel grafo sottostante
+	 * @throws IllegalArgumentException se un indice non corrisponde a un nodo
+	 */
+	public InducedSubgraph(Graph<V, E> graph, BitSet nodes) {
+		super(graph);
+		if (nodes == null) throw new NullPointerException("Insieme dei nodi null.");
+		if (nodes.length() > graph.size()) throw new IllegalArgumentException("L'indice " + (nodes.length() - 1) + " non corrisponde a nessun nodo.");
+		this.visible = (BitSet) nodes.clone();
+		this.members = new int[nodes.cardinality()];
+		int k = 0;
+		for (int i = nodes.nextSetBit(0); i >= 0; i = nodes.nextSetBit(i + 1)) members[k++] = i;
+		this.version = graph.getVersion();
+	}
+
+	/**
+	 * Controlla che il grafo sottostante non sia cambiato.
+	 */
+	private void check() {
+		if (graph.getVersion() != version) throw new ConcurrentModificationException("Il grafo è cambiato dopo la creazione della vista.");
+	}
+
+	/**
+	 * Dice se un nodo del grafo sottostante è visibile.
+	 * @param label		etichetta di un nodo del grafo sottostante
+	 * @return true se il nodo appartiene all'insieme
+	 */
+	private boolean isVisible(V label) {
+		return visible.get(graph.getNodeIndex(label));
+	}
+
+	/**
+	 * Ritorna il numero di nodi visibili.
+	 * @return numero di nodi
+	 */
+	@Override
+	public int size() {
+		check();
+		return members.length;
+	}
+
+	/**
+	 * Verifica la presenza di un nodo nella vista.
+	 * @param label		etichetta del nodo
+	 * @return true se il nodo è presente nel grafo ed appartiene all'insieme
+	 */
+	@Override
+	public boolean containsNode(V label) {
+		check();
+		return graph.containsNode(label) && isVisible(label);
+	}
+
+	/**
+	 * Ritorna l'indice di un nodo nella vista.
+	 * @param label		etichetta del nodo
+	 * @return posizione del nodo tra i nodi visibili
+	 */
+	@Override
+	public int getNodeIndex(V label) {
+		check();
+		int i = graph.getNodeIndex(label);
+		if (i == -1 || !visible.get(i)) throw new IllegalArgumentException("Il nodo " + label + " non è presente nella vista.");
+		return Arrays.binarySearch(members, i);
+	}
+
+	/**
+	 * Restituisce il nodo all'indice i della vista.
+	 * @param i		indice del nodo
+	 * @return etichetta del nodo
+	 */
+	@Override
+	public V getNodeAtIndex(int i) {
+		check();
+		if (i < 0 || i >= members.length) throw new IndexOutOfBoundsException("L'indice non corrisponde a nessun nodo.");
+		return graph.getNodeAtIndex(members[i]);
+	}
+
+	/**
+	 * Seleziona i nodi visibili di un insieme.
+	 * @param nodes		nodi del grafo sottostante
+	 * @return nodi visibili
+	 */
+	private Set<V> visibleNodes(Set<V> nodes) {
+		Set<V> result = new HashSet<V>();
+		for (V n : nodes)
+			if (isVisible(n)) result.add(n);
+		return result;
+	}
+
+	/**
+	 * Ritorna i successori visibili di un nodo.
+	 * @param label		etichetta del nodo
+	 * @return insieme dei successori
+	 */
+	@Override
+	public Set<V> successors(V label) {
+		getNodeIndex(label);
+		return visibleNodes(graph.successors(label));
+	}
+
+	/**
+	 * Ritorna i predecessori visibili di un nodo.
+	 * @param label		etichetta del nodo
+	 * @return insieme dei predecessori
+	 */
+	@Override
+	public Set<V> predecessors(V label) {
+		getNodeIndex(label);
+		return visibleNodes(graph.predecessors(label));
+	}
+
+	/**
+	 * Verifica la presenza di un arco tra due nodi visibili.
+	 * @param label1		etichetta del nodo sorgente
+	 * @param label2		etichetta del nodo destinazione
+	 * @param label			etichetta dell'arco
+	 * @return true se l'arco è presente
+	 */
+	@Override
+	public boolean containsEdge(V label1, V label2, E label) {
+		getNodeIndex(label1);
+		getNodeIndex(label2);
+		return graph.containsEdge(label1, label2, label);
+	}
+
+	/**
+	 * Restituisce gli archi tra due nodi visibili.
+	 * @param label1		etichetta del nodo sorgente
+	 * @param label2		etichetta del nodo destinazione
+	 * @return insieme degli archi
+	 */
+	@Override
+	public Set<Edge<V, E>> getEdges(V label1, V label2) {
+		getNodeIndex(label1);
+		getNodeIndex(label2);
+		return graph.getEdges(label1, label2);
+	}
+
+	/**
+	 * Restituisce gli archi uscenti verso nodi visibili.
+	 * @param label		etichetta del nodo
+	 * @return insieme degli archi uscenti
+	 */
+	@Override
+	public Set<Edge<V, E>> outgoingEdges(V label) {
+		getNodeIndex(label);
+		Set<Edge<V, E>> edges = new HashSet<Edge<V, E>>();
+		for (Edge<V, E> e : graph.outgoingEdges(label))
+			if (isVisible(e.getLabel2())) edges.add(e);
+		return edges;
+	}
+
+	/**
+	 * Restituisce gli archi entranti da nodi visibili.
+	 * @param label		etichetta del nodo
+	 * @return insieme degli archi entranti
+	 */
+	@Override
+	public Set<Edge<V, E>> ingoingEdges(V label) {
+		getNodeIndex(label);
+		Set<Edge<V, E>> edges = new HashSet<Edge<V, E>>();
+		for (Edge<V, E> e : graph.ingoingEdges(label))
+			if (isVisible(e.getLabel1())) edges.add(e);
+		return edges;
+	}
+
+}
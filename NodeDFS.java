@@ -7,10 +7,10 @@ public class NodeDFS implements GenericDFSNode {
     /* Padre del nodo */
     private NodeDFS father;
     
-    /* Tempo in cui il nodo  stato scoperto */
+    /* Tempo in cui il nodo è stato scoperto */
     private int timeDiscovered;
     
-    /* Tempo in cui il nodo  stato esplorato */
+    /* Tempo in cui il nodo è stato esplorato */
     private int timeExplored;
 
     /**
@@ -40,7 +40,7 @@ public class NodeDFS implements GenericDFSNode {
 	}
 
 	   /**
-     * Ritorna il tempo discreto in cui  stato scoperto un nodo.
+     * Ritorna il tempo discreto in cui è stato scoperto un nodo.
      * @return time			tempo di scoperta del nodo
      */
 	@Override
@@ -58,7 +58,7 @@ public class NodeDFS implements GenericDFSNode {
 	}
 
 	/**
-     * Ritorna il tempo discreto in cui  stato esplorato un nodo.
+     * Ritorna il tempo discreto in cui è stato esplorato un nodo.
      * @return time			tempo di esplorazione del nodo
      */
 	@Override
@@ -81,11 +81,11 @@ public class NodeDFS implements GenericDFSNode {
      */
 	@Override
 	public void setFather(GenericDFSNode father) {
-        if (father == null) {		/* Controllo se il padre  null */
+        if (father == null) {		/* Controllo se il padre è null */
             this.father = null;
             return;
         }
-        if (father instanceof NodeDFS)		/* Se non  null verifico che appartenga alla classe NodeDFS */
+        if (father instanceof NodeDFS)		/* Se non è null verifico che appartenga alla classe NodeDFS */
             this.father = (NodeDFS) father;		/* In tal caso, lo imposto */
         else		/* Altrimenti lancio un'eccezione */
             throw new IllegalArgumentException("Inserimento di un nodo padre non del tipo NodeDFS");
@@ -119,10 +119,10 @@ public class NodeDFS implements GenericDFSNode {
 	@Override
 	public boolean equals(Object obj) {
 		if (this == obj) return true;		/* Controllo se gli oggetti sono uguali */
-		if (obj == null) return false;		/* Controllo se obj  null */
-		if(!(obj instanceof NodeDFS)) return false;		/* Controllo se obj  un'istanza di NodeDFS */
+		if (obj == null) return false;		/* Controllo se obj è null */
+		if(!(obj instanceof NodeDFS)) return false;		/* Controllo se obj è un'istanza di NodeDFS */
 		NodeDFS other = (NodeDFS) obj;
-		/* Verifico se uno dei due id  null mentre l'altro no */
+		/* Verifico se uno dei due id è null mentre l'altro no */
 		if (id == null) {
 			if (other.id != null) return false;
 		/* Verifico se gli id sono uguali */
@@ -132,14 +132,14 @@ public class NodeDFS implements GenericDFSNode {
 
 	/**
 	 * Ritorna una stringa contenente l'etichetta del nodo ed il tempo in cui
-	 * tale nodo  stato scoperto e successivamente esplorato.
+	 * tale nodo è stato scoperto e successivamente esplorato.
 	 * @return app		stringa contenete l'etichetta del nodo ed i tempi in cui 
-	 * 					 stato scoperto ed esplorato completamente
+	 * 					è stato scoperto ed esplorato completamente
 	 */
 	public String printNodeTime() {
     	String app = new String();		/* Stringa vuota */
-    	/* Inserisco nella stringa l'etichetta del nodo, il tempo in cui  stato
-    	 * scoperto e quello in cui  stato completamente esplorato
+    	/* Inserisco nella stringa l'etichetta del nodo, il tempo in cui è stato
+    	 * scoperto e quello in cui è stato completamente esplorato
     	 */
     	app += "Node: " +this.id + "\t\t Discovered at:" + this.getTimeDiscovered() +"\t Explored at: " + this.getTimeExplored();
     	app += "\n";
@@ -0,0 +1,148 @@
+import java.util.Arrays;
+import java.util.HashMap;
+
+/**
+ * Registro che associa ad ogni etichetta di nodo un identificativo intero
+ * nell'intervallo <code>[0, size() - 1]</code>. L'etichetta viene
+ * confrontata e ne viene calcolato il codice hash una sola volta, quando
+ * viene registrata o cercata; da quel momento le strutture che usano il
+ * registro lavorano sugli identificativi, e l'etichetta di un
+ * identificativo si ottiene da un array senza calcolare codici hash.
+ *
+ * La rimozione di un'etichetta assegna il suo identificativo all'ultima
+ * etichetta registrata, in modo che gli identificativi restino contigui.
+ * Il registro non è sincronizzato.
+ */
+public class NodeRegistry<V> {
+
+	/* Identificativo di ogni etichetta */
+	private final HashMap<V, Integer> ids;
+
+	/* Etichetta di ogni identificativo */
+	private Object[] labels;
+
+	/* Numero di etichette registrate */
+	private int size;
+
+	/* Capacità iniziale della tabella delle etichette */
+	private static final int INITIAL_CAPACITY = 8;
+
+	/**
+	 * Costruttore del registro vuoto.
+	 */
+	public NodeRegistry() {
+		this(INITIAL_CAPACITY);
+	}
+
+	/**
+	 * Costruttore del registro vuoto con una capacità iniziale.
+	 * @param capacity		numero di etichette previste
+	 */
+	public NodeRegistry(int capacity) {
+		this.ids = new HashMap<V, Integer>(2 * Math.max(INITIAL_CAPACITY, capacity));
+		this.labels = new Object[Math.max(INITIAL_CAPACITY, capacity)];
+	}
+
+	/**
+	 * Registra un'etichetta, se non è già registrata.
+	 * @param label		etichetta del nodo
+	 * @return identificativo dell'etichetta, nuovo o già assegnato
+	 * @throws NullPointerException se l'etichetta è null
+	 */
+	public int intern(V label) {
+		if (label == null) throw new NullPointerException("Tentativo di registrare un nodo null.");
+		Integer id = ids.get(label);
+		if (id != null) return id;
+		if (size == labels.length) labels = Arrays.copyOf(labels, 2 * labels.length);
+		labels[size] = label;
+		ids.put(label, size);
+		return size++;
+	}
+
+	/**
+	 * Cerca l'identificativo di un'etichetta.
+	 * @param label		etichetta del nodo
+	 * @return identificativo dell'etichetta, -1 se non è registrata
+	 * @throws NullPointerException se l'etichetta è null
+	 */
+	public int idOf(V label) {
+		if (label == null) throw new NullPointerException("Tentativo di ricerca di nodo null.");
+		Integer id = ids.get(label);
+		return id == null ? -1 : id;
+	}
+
+	/**
+	 * Dice se un'etichetta è registrata.
+	 * @param label		etichetta del nodo
+	 * @return true se l'etichetta è registrata
+	 */
+	public boolean contains(V label) {
+		return idOf(label) != -1;
+	}
+
+	/**
+	 * Ritorna l'etichetta di un identificativo.
+	 * @param id	identificativo
+	 * @return etichetta registrata con quell'identificativo
+	 * @throws IndexOutOfBoundsException se l'identificativo non è assegnato
+	 */
+	@SuppressWarnings("unchecked")
+	public V labelOf(int id) {
+		if (id < 0 || id >= size) throw new IndexOutOfBoundsException("L'indice non corrisponde a nessun nodo.");
+		return (V) labels[id];
+	}
+
+	/**
+	 * Rimuove un'etichetta. L'ultima etichetta registrata, se diversa,
+	 * prende l'identificativo di quella rimossa.
+	 * @param label		etichetta del nodo
+	 * @return identificativo che l'etichetta aveva, -1 se non era registrata
+	 */
+	@SuppressWarnings("unchecked")
+	public int remove(V label) {
+		int id = idOf(label);
+		if (id == -1) return -1;
+		ids.remove(label);
+		size--;
+		if (id != size) {
+			labels[id] = labels[size];
+			ids.put((V) labels[id], id);
+		}
+		labels[size] = null;
+		return id;
+	}
+
+	/**
+	 * Ritorna il numero di etichette registrate.
+	 * @return numero di etichette
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Rimuove tutte le etichette.
+	 */
+	public void clear() {
+		ids.clear();
+		Arrays.fill(labels, 0, size, null);
+		size = 0;
+	}
+
+	/**
+	 * Copia della tabella delle etichette in ordine di identificativo.
+	 * @return array delle etichette
+	 */
+	public Object[] toArray() {
+		return Arrays.copyOf(labels, size);
+	}
+
+	/**
+	 * Copia della tabella degli identificativi.
+	 * @return mappa dalle etichette agli identificativi
+	 */
+	public HashMap<V, Integer> toMap() {
+		return new HashMap<V, Integer>(ids);
+	}
+
+}
@@ -0,0 +1,534 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.function.IntBinaryOperator;
+
+/**
+ * Costruttore di grafi orientati {@link GraphCSRDirected} che accetta archi da
+ * più thread produttori contemporaneamente.
+ *
+ * La costruzione avviene in tre fasi:
+ * <ol>
+ * <li>i nodi vengono registrati con {@link #addNode(Object)} da un solo thread;</li>
+ * <li>i produttori aggiungono gli archi con {@link #addEdge(Object, Object, Object)}
+ *     in parallelo: ogni thread scrive in un proprio buffer, senza
+ *     sincronizzazione tra i produttori;</li>
+ * <li>{@link #build(ForkJoinPool)} conta in parallelo il grado uscente di ogni
+ *     nodo, calcola gli offset delle righe con una somma prefissa parallela
+ *     ({@link Arrays#parallelPrefix(int[], IntBinaryOperator)}), distribuisce
+ *     gli archi nelle righe (counting sort), ordina e compatta le righe ed
+ *     infine costruisce allo stesso modo le liste dei predecessori.</li>
+ * </ol>
+ * {@link #buildCompressed(ForkJoinPool)} esegue le stesse fasi fino
+ * all'ordinamento delle righe, che poi passa una alla volta ad un
+ * {@link GraphCompressed.Builder}.
+ *
+ * Come in {@link GraphMatrixDirected} tra due nodi esiste al più un arco: se
+ * lo stesso arco viene aggiunto più volte ne resta uno solo. Gli archi sono
+ * numerati per buffer, nell'ordine in cui i thread hanno aggiunto il loro
+ * primo arco, e dentro ogni buffer nell'ordine di aggiunta; resta
+ * l'etichetta dell'aggiunta con il numero più basso. Con un solo produttore
+ * è quindi la prima aggiunta; con più produttori è la prima del thread che
+ * ha cominciato prima, per cui dipende dalla loro temporizzazione.
+ *
+ * Il costruttore può produrre un solo grafo: dopo la costruzione i buffer
+ * vengono svuotati, anche quelli ancora raggiungibili dai thread produttori.
+ */
+public class ParallelGraphBuilder<V, E> {
+
+	/* Numero di archi o di nodi elaborati da ogni compito parallelo */
+	private static final int GRAIN = 1 << 14;
+
+	/* Capacità iniziale dei buffer dei produttori */
+	private static final int INITIAL_CAPACITY = 1024;
+
+	/* Etichette dei nodi registrati, in ordine di indice */
+	private final ArrayList<V> nodes;
+
+	/* Tabella inversa etichetta -> indice */
+	private final HashMap<V, Integer> index;
+
+	/* Buffer di ogni thread produttore */
+	private final ThreadLocal<EdgeBuffer> local;
+
+	/* Tutti i buffer creati, in ordine di creazione */
+	private final ConcurrentLinkedQueue<EdgeBuffer> buffers;
+
+	/* true dopo che il grafo è stato costruito */
+	private volatile boolean built;
+
+	/*
+	 * Buffer degli archi aggiunti da un singolo thread: sorgenti, destinazioni
+	 * ed etichette in array paralleli.
+	 */
+	private static class EdgeBuffer {
+		private int[] sources = new int[INITIAL_CAPACITY];
+		private int[] targets = new int[INITIAL_CAPACITY];
+		private Object[] labels = new Object[INITIAL_CAPACITY];
+		private int size;
+
+		/* Posizione del primo arco del buffer nella numerazione globale, assegnata alla costruzione */
+		private int base;
+
+		/* Rilascia gli array; il buffer non può più ricevere archi */
+		private void release() {
+			sources = null;
+			targets = null;
+			labels = null;
+			size = 0;
+		}
+
+		private void add(int source, int target, Object label) {
+			if (sources == null) throw new IllegalStateException("Il grafo è già stato costruito.");
+			if (size == sources.length) {
+				sources = Arrays.copyOf(sources, 2 * size);
+				targets = Arrays.copyOf(targets, 2 * size);
+				labels = Arrays.copyOf(labels, 2 * size);
+			}
+			sources[size] = source;
+			targets[size] = target;
+			labels[size] = label;
+			size++;
+		}
+	}
+
+	/**
+	 * Costruttore con nessun nodo registrato.
+	 */
+	public ParallelGraphBuilder() {
+		this.nodes = new ArrayList<V>();
+		this.index = new HashMap<V, Integer>();
+		this.buffers = new ConcurrentLinkedQueue<EdgeBuffer>();
+		this.local = new ThreadLocal<EdgeBuffer>() {
+			@Override
+			protected EdgeBuffer initialValue() {
+				EdgeBuffer buffer = new EdgeBuffer();
+				buffers.add(buffer);
+				return buffer;
+			}
+		};
+	}
+
+	/**
+	 * Registra un nodo. Non è thread-safe e va chiamato prima che venga
+	 * aggiunto qualunque arco.
+	 * @param label		etichetta del nodo
+	 * @return true se il nodo è stato registrato, false se era già presente
+	 * @throws IllegalStateException se sono già stati aggiunti archi
+	 */
+	public boolean addNode(V label) {
+		if (label == null) throw new NullPointerException("Tentativo di inserimento di nodo null");
+		if (!buffers.isEmpty() || built) throw new IllegalStateException("I nodi vanno registrati prima degli archi.");
+		if (index.containsKey(label)) return false;
+		index.put(label, nodes.size());
+		nodes.add(label);
+		return true;
+	}
+
+	/**
+	 * Ritorna il numero di nodi registrati.
+	 * @return numero di nodi
+	 */
+	public int size() {
+		return nodes.size();
+	}
+
+	/**
+	 * Ritorna l'indice assegnato ad un nodo registrato.
+	 * @param label		etichetta del nodo
+	 * @return indice del nodo, che sarà anche il suo indice nel grafo costruito
+	 * @throws IllegalArgumentException se il nodo non è registrato
+	 */
+	public int getNodeIndex(V label) {
+		if (label == null) throw new NullPointerException("Tentativo di ricerca dell'indice di un nodo nullo.");
+		Integer i = index.get(label);
+		if (i == null) throw new IllegalArgumentException("Il nodo non è stato registrato.");
+		return i;
+	}
+
+	/**
+	 * Aggiunge un arco. Può essere chiamato contemporaneamente da più thread.
+	 * @param label1		etichetta del nodo sorgente
+	 * @param label2		etichetta del nodo destinazione
+	 * @param label			etichetta dell'arco, anche null
+	 * @throws IllegalArgumentException se uno dei nodi non è registrato
+	 * @throws IllegalStateException se il grafo è già stato costruito
+	 */
+	public void addEdge(V label1, V label2, E label) {
+		addEdgeByIndex(getNodeIndex(label1), getNodeIndex(label2), label);
+	}
+
+	/**
+	 * Aggiunge un arco tra due nodi identificati dal loro indice. Può essere
+	 * chiamato contemporaneamente da più thread.
+	 * @param u			indice del nodo sorgente
+	 * @param v			indice del nodo destinazione
+	 * @param label		etichetta dell'arco, anche null
+	 * @throws IndexOutOfBoundsException se uno degli indici non corrisponde a un nodo
+	 * @throws IllegalStateException se il grafo è già stato costruito
+	 */
+	public void addEdgeByIndex(int u, int v, E label) {
+		if (built) throw new IllegalStateException("Il grafo è già stato costruito.");
+		int n = nodes.size();
+		if (u < 0 || u >= n || v < 0 || v >= n) throw new IndexOutOfBoundsException("L'indice non corrisponde a nessun nodo.");
+		local.get().add(u, v, label);
+	}
+
+	/**
+	 * Costruisce il grafo usando il pool comune.
+	 * @return il grafo costruito
+	 */
+	public GraphCSRDirected<V, E> build() {
+		return build(ForkJoinPool.commonPool());
+	}
+
+	/**
+	 * Costruisce il grafo. Tutti i produttori devono aver terminato di
+	 * aggiungere archi; il costruttore non può più essere usato.
+	 * @param pool		pool di thread da usare
+	 * @return il grafo costruito
+	 * @throws IllegalStateException se il grafo è già stato costruito
+	 */
+	public GraphCSRDirected<V, E> build(ForkJoinPool pool) {
+		if (pool == null) throw new NullPointerException("Il pool di thread passato è null.");
+		Rows rows = sortRows(pool);
+		final int n = nodes.size();
+		final List<EdgeBuffer> all = rows.all;
+		final int[] bases = rows.bases;
+		final long[] keys = rows.keys;
+		final int[] offsets = rows.offsets;
+		final int[] outOffsets = prefixSums(rows.distinct, n);
+
+		/* 4. Compattazione delle righe senza archi ripetuti */
+		final int[] outTargets = new int[outOffsets[n]];
+		final Object[] edgeLabels = new Object[outOffsets[n]];
+		final AtomicIntegerArray inDegree = new AtomicIntegerArray(n);
+		runOnNodes(pool, n, new NodePhase() {
+			@Override
+			void run(int from, int to) {
+				for (int u = from; u < to; u++) {
+					int j = outOffsets[u];
+					long last = -1;
+					for (int k = offsets[u]; k < offsets[u + 1]; k++) {
+						long target = keys[k] >>> 32;
+						if (target == last) continue;
+						last = target;
+						outTargets[j] = (int) target;
+						edgeLabels[j] = labelOf(all, bases, (int) keys[k]);
+						inDegree.getAndIncrement((int) target);
+						j++;
+					}
+				}
+			}
+		});
+
+		/* 5. Liste dei predecessori: chiave (sorgente << 32) | posizione dell'arco uscente */
+		final int[] inOffsets = prefixSums(inDegree, n);
+		final long[] inKeys = new long[outTargets.length];
+		final AtomicIntegerArray inCursor = new AtomicIntegerArray(Arrays.copyOf(inOffsets, n));
+		runOnNodes(pool, n, new NodePhase() {
+			@Override
+			void run(int from, int to) {
+				for (int u = from; u < to; u++)
+					for (int k = outOffsets[u]; k < outOffsets[u + 1]; k++)
+						inKeys[inCursor.getAndIncrement(outTargets[k])] = ((long) u << 32) | k;
+			}
+		});
+		final int[] inTargets = new int[inKeys.length];
+		final int[] inEdges = new int[inKeys.length];
+		runOnNodes(pool, n, new NodePhase() {
+			@Override
+			void run(int from, int to) {
+				for (int v = from; v < to; v++) {
+					Arrays.sort(inKeys, inOffsets[v], inOffsets[v + 1]);
+					for (int k = inOffsets[v]; k < inOffsets[v + 1]; k++) {
+						inTargets[k] = (int) (inKeys[k] >>> 32);
+						inEdges[k] = (int) inKeys[k];
+					}
+				}
+			}
+		});
+
+		IndexedGraph<V> structure = new IndexedGraph<V>(nodes.toArray(), index, outOffsets, outTargets,
+				inOffsets, inTargets, true);
+		release(all);
+		return new GraphCSRDirected<V, E>(structure, edgeLabels, inEdges);
+	}
+
+	/**
+	 * Costruisce il grafo in formato compresso usando il pool comune.
+	 * @return il grafo costruito
+	 */
+	public GraphCompressed<V, E> buildCompressed() {
+		return buildCompressed(ForkJoinPool.commonPool());
+	}
+
+	/**
+	 * Costruisce il grafo in formato {@link GraphCompressed}: le righe
+	 * ordinate vengono passate una alla volta ad un
+	 * {@link GraphCompressed.Builder}, senza costruire gli array CSR né le
+	 * liste dei predecessori non compresse. Tutti i produttori devono aver
+	 * terminato di aggiungere archi; il costruttore non può più essere usato.
+	 * @param pool		pool di thread da usare
+	 * @return il grafo costruito
+	 * @throws IllegalStateException se il grafo è già stato costruito o ha
+	 * più di {@link GraphCompressed#MAX_EDGES} archi
+	 */
+	public GraphCompressed<V, E> buildCompressed(ForkJoinPool pool) {
+		if (pool == null) throw new NullPointerException("Il pool di thread passato è null.");
+		/* Le righe non compresse non sono più raggiungibili quando vengono calcolati i predecessori */
+		return compressRows(sortRows(pool)).build();
+	}
+
+	/**
+	 * Passa le righe ordinate, senza archi ripetuti, ad un costruttore di
+	 * grafi compressi e rilascia i buffer.
+	 * @param rows		righe ordinate
+	 * @return costruttore con tutti i nodi e gli archi
+	 */
+	@SuppressWarnings("unchecked")
+	private GraphCompressed.Builder<V, E> compressRows(Rows rows) {
+		GraphCompressed.Builder<V, E> builder = new GraphCompressed.Builder<V, E>();
+		for (V v : nodes) builder.addNode(v);
+		for (int u = 0; u < nodes.size(); u++) {
+			long last = -1;
+			for (int k = rows.offsets[u]; k < rows.offsets[u + 1]; k++) {
+				long target = rows.keys[k] >>> 32;
+				if (target == last) continue;
+				last = target;
+				builder.addEdgeByIndex(u, (int) target, (E) labelOf(rows.all, rows.bases, (int) rows.keys[k]));
+			}
+		}
+		release(rows.all);
+		return builder;
+	}
+
+	/*
+	 * Archi distribuiti nelle righe delle sorgenti ed ordinati.
+	 */
+	private static class Rows {
+
+		/* Buffer in ordine di numerazione e primo numero globale di ognuno */
+		private List<EdgeBuffer> all;
+		private int[] bases;
+
+		/* Chiavi (destinazione << 32) | numero globale, ordinate dentro ogni riga */
+		private long[] keys;
+
+		/* Inizio di ogni riga in keys (n + 1 elementi) */
+		private int[] offsets;
+
+		/* Destinazioni distinte di ogni riga */
+		private AtomicIntegerArray distinct;
+	}
+
+	/**
+	 * Prime fasi della costruzione, comuni a tutti i formati: numera gli
+	 * archi, li distribuisce nelle righe delle sorgenti e ordina le righe.
+	 * Sorgenti e destinazioni dei buffer non servono più e vengono
+	 * rilasciate; restano le etichette.
+	 * @param pool		pool di thread da usare
+	 * @return righe ordinate
+	 * @throws IllegalStateException se il grafo è già stato costruito
+	 */
+	private Rows sortRows(ForkJoinPool pool) {
+		if (built) throw new IllegalStateException("Il grafo è già stato costruito.");
+		built = true;
+		final int n = nodes.size();
+		/* Numerazione globale degli archi: ogni buffer occupa un blocco contiguo */
+		final List<EdgeBuffer> all = new ArrayList<EdgeBuffer>(buffers);
+		long total = 0;
+		for (EdgeBuffer b : all) {
+			b.base = (int) total;
+			total += b.size;
+			if (total > Integer.MAX_VALUE - 8) throw new IllegalStateException("Troppi archi per un solo grafo.");
+		}
+		final int m = (int) total;
+
+		/* 1. Grado uscente di ogni nodo */
+		final AtomicIntegerArray degree = new AtomicIntegerArray(n);
+		runOnEdges(pool, all, new EdgePhase() {
+			@Override
+			void run(EdgeBuffer b, int from, int to) {
+				for (int k = from; k < to; k++) degree.getAndIncrement(b.sources[k]);
+			}
+		});
+		final int[] offsets = prefixSums(degree, n);
+
+		/* 2. Distribuzione degli archi nelle righe: chiave (destinazione << 32) | numero globale */
+		final long[] keys = new long[m];
+		final AtomicIntegerArray cursor = new AtomicIntegerArray(Arrays.copyOf(offsets, n));
+		runOnEdges(pool, all, new EdgePhase() {
+			@Override
+			void run(EdgeBuffer b, int from, int to) {
+				for (int k = from; k < to; k++)
+					keys[cursor.getAndIncrement(b.sources[k])] = ((long) b.targets[k] << 32) | (b.base + k);
+			}
+		});
+		for (EdgeBuffer b : all) {
+			b.sources = null;
+			b.targets = null;
+		}
+
+		/* 3. Ordinamento delle righe e conteggio delle destinazioni distinte */
+		final AtomicIntegerArray distinct = new AtomicIntegerArray(n);
+		runOnNodes(pool, n, new NodePhase() {
+			@Override
+			void run(int from, int to) {
+				for (int u = from; u < to; u++) {
+					Arrays.sort(keys, offsets[u], offsets[u + 1]);
+					int count = 0;
+					long last = -1;
+					for (int k = offsets[u]; k < offsets[u + 1]; k++) {
+						long target = keys[k] >>> 32;
+						if (target != last) count++;
+						last = target;
+					}
+					distinct.set(u, count);
+				}
+			}
+		});
+
+		Rows rows = new Rows();
+		rows.all = all;
+		rows.bases = new int[all.size()];
+		for (int i = 0; i < rows.bases.length; i++) rows.bases[i] = all.get(i).base;
+		rows.keys = keys;
+		rows.offsets = offsets;
+		rows.distinct = distinct;
+		return rows;
+	}
+
+	/**
+	 * Svuota i buffer dopo la costruzione.
+	 * @param all		buffer usati
+	 */
+	private void release(List<EdgeBuffer> all) {
+		/* I buffer restano raggiungibili dalle variabili locali dei thread produttori, che possono vivere a lungo */
+		for (EdgeBuffer b : all) b.release();
+		buffers.clear();
+		local.remove();
+	}
+
+	/**
+	 * Ritorna l'etichetta dell'arco con un certo numero globale.
+	 * @param all		buffer in ordine di numerazione
+	 * @param bases		primo numero globale di ogni buffer
+	 * @param id		numero globale dell'arco
+	 * @return etichetta dell'arco
+	 */
+	private static Object labelOf(List<EdgeBuffer> all, int[] bases, int id) {
+		/* I buffer non sono mai vuoti, per cui le basi sono tutte distinte */
+		int b = Arrays.binarySearch(bases, id);
+		if (b < 0) b = -b - 2;
+		return all.get(b).labels[id - bases[b]];
+	}
+
+	/**
+	 * Calcola con una somma prefissa parallela gli offset delle righe a
+	 * partire dal numero di elementi di ogni riga.
+	 * @param counts	numero di elementi di ogni riga
+	 * @param n			numero di righe
+	 * @return array di n + 1 offset
+	 */
+	private static int[] prefixSums(AtomicIntegerArray counts, int n) {
+		int[] offsets = new int[n + 1];
+		for (int i = 0; i < n; i++) offsets[i + 1] = counts.get(i);
+		Arrays.parallelPrefix(offsets, new IntBinaryOperator() {
+			@Override
+			public int applyAsInt(int a, int b) {
+				return a + b;
+			}
+		});
+		return offsets;
+	}
+
+	/*
+	 * Lavoro da eseguire su un blocco di archi di un buffer.
+	 */
+	private abstract static class EdgePhase {
+		abstract void run(EdgeBuffer b, int from, int to);
+	}
+
+	/*
+	 * Lavoro da eseguire su un intervallo di nodi.
+	 */
+	private abstract static class NodePhase {
+		abstract void run(int from, int to);
+	}
+
+	/**
+	 * Esegue una fase su tutti gli archi, divisi in blocchi di GRAIN archi.
+	 * @param pool		pool di thread
+	 * @param all		buffer degli archi
+	 * @param phase		lavoro da eseguire
+	 */
+	private static void runOnEdges(ForkJoinPool pool, List<EdgeBuffer> all, final EdgePhase phase) {
+		final List<RecursiveAction> tasks = new ArrayList<RecursiveAction>();
+		for (final EdgeBuffer b : all) {
+			for (int from = 0; from < b.size; from += GRAIN) {
+				final int start = from;
+				final int end = Math.min(b.size, from + GRAIN);
+				tasks.add(new RecursiveAction() {
+					private static final long serialVersionUID = 1L;
+
+					@Override
+					protected void compute() {
+						phase.run(b, start, end);
+					}
+				});
+			}
+		}
+		pool.invoke(new RecursiveAction() {
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected void compute() {
+				invokeAll(tasks);
+			}
+		});
+	}
+
+	/**
+	 * Esegue una fase su tutti i nodi, divisi ricorsivamente in intervalli di
+	 * al più GRAIN nodi.
+	 * @param pool		pool di thread
+	 * @param n			numero di nodi
+	 * @param phase		lavoro da eseguire
+	 */
+	private static void runOnNodes(ForkJoinPool pool, int n, NodePhase phase) {
+		pool.invoke(new NodeRange(phase, 0, n));
+	}
+
+	/*
+	 * Intervallo di nodi diviso a metà finché non è abbastanza piccolo.
+	 */
+	private static class NodeRange extends RecursiveAction {
+		private static final long serialVersionUID = 1L;
+		private final NodePhase phase;
+		private final int from;
+		private final int to;
+
+		private NodeRange(NodePhase phase, int from, int to) {
+			this.phase = phase;
+			this.from = from;
+			this.to = to;
+		}
+
+		@Override
+		protected void compute() {
+			if (to - from <= GRAIN) {
+				phase.run(from, to);
+				return;
+			}
+			int mid = (from + to) >>> 1;
+			invokeAll(new NodeRange(phase, from, mid), new NodeRange(phase, mid, to));
+		}
+	}
+
+}
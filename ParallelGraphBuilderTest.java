@@ -0,0 +1,167 @@
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+
+public class ParallelGraphBuilderTest {
+
+	public static void main(String[] args) throws InterruptedException, ExecutionException {
+
+		/* Grafo di esempio usato anche in GenericGraphDFSTest */
+		Graph<NodeDFS, WeighedEdge<Double>> g = new GraphMatrixDirected<NodeDFS, WeighedEdge<Double>>();
+		NodeDFS a = new NodeDFS("a");
+		NodeDFS b = new NodeDFS("b");
+		NodeDFS c = new NodeDFS("c");
+		NodeDFS x = new NodeDFS("x");
+		NodeDFS y = new NodeDFS("y");
+		NodeDFS z = new NodeDFS("z");
+		g.addNode(a);
+		g.addNode(b);
+		g.addNode(c);
+		g.addNode(x);
+		g.addNode(y);
+		g.addNode(z);
+		g.addEdge(a, b, new WeighedEdge<Double>(1.5));
+		g.addEdge(a, x, new WeighedEdge<Double>(-2.0));
+		g.addEdge(x, b, new WeighedEdge<Double>(null));
+		g.addEdge(b, y, new WeighedEdge<Double>(null));
+		g.addEdge(y, x, new WeighedEdge<Double>(1.0));
+		g.addEdge(z, b, new WeighedEdge<Double>(0.6));
+		g.addEdge(z, z, new WeighedEdge<Double>(0.5));
+		g.addEdge(c, z, new WeighedEdge<Double>(2.0));
+
+		GraphCSRDirected<NodeDFS, WeighedEdge<Double>> csr = GraphCSRDirected.copyOf(g);
+		System.out.print(csr);
+		System.out.println("Archi: " + csr.edgeCount() + ", grado di b: " + csr.inDegree(b) + " entrante, "
+				+ csr.outDegree(b) + " uscente");
+		System.out.println("Stessi archi della matrice: " + sameEdges(g, csr));
+		try {
+			csr.addEdge(a, c, null);
+		} catch (UnsupportedOperationException e) {
+			System.out.println("addEdge: " + e.getMessage());
+		}
+
+		/* Confronto con la matrice su un grafo casuale con archi ripetuti */
+		Random random = new Random(42);
+		Graph<Integer, Integer> m = new GraphMatrixDirected<Integer, Integer>();
+		final ParallelGraphBuilder<Integer, Integer> builder = new ParallelGraphBuilder<Integer, Integer>();
+		for (int i = 0; i < 500; i++) {
+			m.addNode(i);
+			builder.addNode(i);
+		}
+		for (int i = 0; i < 4000; i++) {
+			int u = random.nextInt(500);
+			int v = random.nextInt(500);
+			m.addEdge(u, v, u * 1000 + v);
+			builder.addEdge(u, v, u * 1000 + v);
+		}
+		GraphCSRDirected<Integer, Integer> built = builder.build();
+		boolean degrees = true;
+		for (int i = 0; i < 500; i++)
+			if (m.inDegree(i) != built.inDegree(i) || m.outDegree(i) != built.outDegree(i)
+					|| !m.predecessors(i).equals(built.predecessors(i))) degrees = false;
+		System.out.println("Grafo casuale: " + built.edgeCount() + " archi, stessi archi: " + sameEdges(m, built)
+				+ ", stessi gradi e predecessori: " + degrees);
+
+		/* Archi ripetuti da un solo produttore: resta l'etichetta della prima aggiunta */
+		ParallelGraphBuilder<String, Integer> repeated = new ParallelGraphBuilder<String, Integer>();
+		repeated.addNode("u");
+		repeated.addNode("v");
+		repeated.addEdge("u", "v", 1);
+		repeated.addEdge("u", "v", 2);
+		repeated.addEdge("v", "u", 3);
+		repeated.addEdge("u", "v", 4);
+		GraphCSRDirected<String, Integer> merged = repeated.build();
+		System.out.println("Archi ripetuti: " + merged.edgeCount() + " archi, u -> v con etichetta 1: " + merged.containsEdge("u", "v", 1)
+				+ ", con etichetta 2: " + merged.containsEdge("u", "v", 2));
+
+		/* Un produttore di lunga durata non trattiene i buffer dopo la costruzione */
+		ExecutorService producer = Executors.newSingleThreadExecutor(GraphQueryServer.daemonThreads());
+		long before = usedMemory();
+		final ParallelGraphBuilder<Integer, Integer> pooled = new ParallelGraphBuilder<Integer, Integer>();
+		for (int i = 0; i < 1000; i++) pooled.addNode(i);
+		producer.submit(new Runnable() {
+			@Override
+			public void run() {
+				Integer label = 7;
+				for (int k = 0; k < 2000000; k++) pooled.addEdgeByIndex(k % 1000, (k / 1000) % 1000, label);
+			}
+		}).get();
+		long filled = usedMemory();
+		int edges = pooled.build().edgeCount();
+		System.out.println("Produttore in un pool: " + edges + " archi, buffer di " + (filled - before) / (1 << 20) + " MB, trattenuti dopo la costruzione "
+				+ Math.max(0, usedMemory() - before) / (1 << 20) + " MB");
+		producer.shutdown();
+
+		/* Misure di throughput al variare del numero di produttori */
+		System.out.println();
+		System.out.println(" ----------------------------------------------------------");
+		System.out.println(" |    Costruzione parallela di un grafo CSR.              |");
+		System.out.println(" ----------------------------------------------------------");
+		System.out.println("Processori disponibili: " + Runtime.getRuntime().availableProcessors());
+		int[] threads = { 1, 2, 4, 8 };
+		for (int t : threads) benchmark(1000000, 4000000, t);
+	}
+
+	/**
+	 * Confronta gli archi di due grafi.
+	 * @param g1	primo grafo
+	 * @param g2	secondo grafo
+	 * @return true se i due grafi hanno gli stessi archi con le stesse etichette
+	 */
+	private static <V, E> boolean sameEdges(Graph<V, E> g1, Graph<V, E> g2) {
+		if (g1.edgeCount() != g2.edgeCount()) return false;
+		Set<Edge<V, E>> edges = g1.getEdges();
+		for (Edge<V, E> e : edges)
+			if (!g2.containsEdge(e.getLabel1(), e.getLabel2(), e.getLabel())) return false;
+		return true;
+	}
+
+	/**
+	 * Misura il tempo di inserimento e costruzione di un grafo casuale con
+	 * archi prodotti da più thread, ognuno dei quali genera la propria parte.
+	 * @param n			numero di nodi
+	 * @param m			numero di archi
+	 * @param threads	numero di produttori
+	 * @throws InterruptedException se l'attesa dei produttori viene interrotta
+	 */
+	private static void benchmark(final int n, final int m, int threads) throws InterruptedException {
+		final ParallelGraphBuilder<Integer, Object> builder = new ParallelGraphBuilder<Integer, Object>();
+		for (int i = 0; i < n; i++) builder.addNode(i);
+		ForkJoinPool pool = new ForkJoinPool(threads);
+		long start = System.nanoTime();
+		Thread[] producers = new Thread[threads];
+		for (int t = 0; t < threads; t++) {
+			final int part = t;
+			final int count = m / threads + (t < m % threads ? 1 : 0);
+			producers[t] = new Thread() {
+				@Override
+				public void run() {
+					Random random = new Random(part);
+					for (int i = 0; i < count; i++) builder.addEdgeByIndex(random.nextInt(n), random.nextInt(n), null);
+				}
+			};
+			producers[t].start();
+		}
+		for (Thread p : producers) p.join();
+		long ingest = System.nanoTime() - start;
+		GraphCSRDirected<Integer, Object> g = builder.build(pool);
+		long total = System.nanoTime() - start;
+		pool.shutdown();
+		System.out.println("Produttori: " + threads + ", " + g.size() + " nodi, " + g.edgeCount() + " archi: inserimento "
+				+ ingest / 1000000 + " ms, costruzione " + (total - ingest) / 1000000 + " ms, "
+				+ (long) m * 1000000 / total + " migliaia di archi/s");
+	}
+
+	/**
+	 * Memoria occupata dopo una raccolta dei rifiuti.
+	 * @return memoria occupata, in byte
+	 */
+	private static long usedMemory() {
+		for (int r = 0; r < 3; r++) System.gc();
+		return Runtime.getRuntime().totalMemory() - Runtime.getRuntime().freeMemory();
+	}
+
+}
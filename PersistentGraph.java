@@ -0,0 +1,1093 @@
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * Grafo orientato su matrice di adiacenza ({@link GraphMatrixDirected}) le
+ * cui modifiche sopravvivono al riavvio del processo. Ogni inserimento o
+ * rimozione di nodi ed archi viene scritto in un registro binario (write-ahead
+ * log) in una directory: i nodi inseriti sono codificati con un
+ * {@link Codec}, mentre le altre operazioni fanno riferimento ai nodi per
+ * indice, con interi a lunghezza variabile.
+ *
+ * Le operazioni vengono raccolte in memoria e scritte insieme (group commit):
+ * un gruppo è un record del registro con lunghezza e CRC32, scritto con una
+ * sola scrittura ed un solo {@code force}. Un gruppo viene scritto quando
+ * raggiunge {@link #getGroupSize()} operazioni, con {@link #commit()} e con
+ * {@link #close()}; dopo un arresto improvviso si perdono al più le
+ * operazioni del gruppo non ancora scritto, mai una parte di un gruppo.
+ *
+ * Quando il registro supera {@link #getCheckpointBytes()} byte, o con
+ * {@link #checkpoint()}, il grafo viene scritto in un'istantanea e si
+ * riparte da un registro vuoto. L'istantanea viene scritta in un file
+ * temporaneo e poi rinominata in modo atomico, per cui all'apertura esiste
+ * sempre un'istantanea completa (o nessuna) ed il registro della sua
+ * generazione: {@link #open(Path, Codec, Codec)} carica l'istantanea e
+ * riapplica il registro, ignorando un eventuale gruppo scritto a metà.
+ *
+ * I colori dei nodi non sono persistenti. La classe non è sincronizzata,
+ * come il grafo su cui si appoggia.
+ */
+public class PersistentGraph<V, E> implements Graph<V, E>, Closeable {
+
+	/**
+	 * Codifica binaria delle etichette dei nodi o degli archi.
+	 * @param <T>	tipo delle etichette
+	 */
+	public interface Codec<T> {
+
+		/**
+		 * Scrive un'etichetta, mai null.
+		 * @param out		destinazione
+		 * @param value		etichetta
+		 * @throws IOException se la scrittura non riesce
+		 */
+		void write(DataOutput out, T value) throws IOException;
+
+		/**
+		 * Legge un'etichetta scritta con {@link #write(DataOutput, Object)}.
+		 * @param in		sorgente
+		 * @return etichetta letta
+		 * @throws IOException se la lettura non riesce
+		 */
+		T read(DataInput in) throws IOException;
+	}
+
+	/** Codifica delle stringhe in UTF-8 modificato, fino a 65535 byte. */
+	public static final Codec<String> STRINGS = new Codec<String>() {
+		@Override
+		public void write(DataOutput out, String value) throws IOException {
+			out.writeUTF(value);
+		}
+
+		@Override
+		public String read(DataInput in) throws IOException {
+			return in.readUTF();
+		}
+	};
+
+	/** Codifica degli interi su 4 byte. */
+	public static final Codec<Integer> INTEGERS = new Codec<Integer>() {
+		@Override
+		public void write(DataOutput out, Integer value) throws IOException {
+			out.writeInt(value);
+		}
+
+		@Override
+		public Integer read(DataInput in) throws IOException {
+			return in.readInt();
+		}
+	};
+
+	/** Codifica dei long su 8 byte. */
+	public static final Codec<Long> LONGS = new Codec<Long>() {
+		@Override
+		public void write(DataOutput out, Long value) throws IOException {
+			out.writeLong(value);
+		}
+
+		@Override
+		public Long read(DataInput in) throws IOException {
+			return in.readLong();
+		}
+	};
+
+	/** Codifica dei double su 8 byte. */
+	public static final Codec<Double> DOUBLES = new Codec<Double>() {
+		@Override
+		public void write(DataOutput out, Double value) throws IOException {
+			out.writeDouble(value);
+		}
+
+		@Override
+		public Double read(DataInput in) throws IOException {
+			return in.readDouble();
+		}
+	};
+
+	/* Codici delle operazioni nel registro */
+	private static final byte ADD_NODE = 1;
+	private static final byte REMOVE_NODE = 2;
+	private static final byte ADD_EDGE = 3;
+	private static final byte REMOVE_EDGE = 4;
+	private static final byte CLEAR = 5;
+
+	/* Intestazioni dei file: "GLOG" e "GSNP", versione del formato, generazione */
+	private static final int LOG_MAGIC = 0x474c4f47;
+	private static final int SNAPSHOT_MAGIC = 0x47534e50;
+	private static final int FORMAT = 1;
+	private static final int HEADER = 16;
+
+	/* Byte di lunghezza e CRC all'inizio di ogni gruppo */
+	private static final int FRAME_HEADER = 8;
+
+	/* Nomi dei file nella directory */
+	private static final String SNAPSHOT = "graph.snapshot";
+	private static final String SNAPSHOT_TMP = "graph.snapshot.tmp";
+	private static final String LOG_PREFIX = "graph.log.";
+
+	/* Grafo in memoria */
+	private final GraphMatrixDirected<V, E> graph = new GraphMatrixDirected<V, E>();
+
+	/* Directory dei file */
+	private final Path directory;
+
+	/* Codifiche delle etichette */
+	private final Codec<V> nodeCodec;
+	private final Codec<E> labelCodec;
+
+	/* Registro della generazione corrente, aperto in scrittura */
+	private FileChannel log;
+
+	/* Generazione dell'istantanea corrente, 0 se non esiste */
+	private long generation;
+
+	/* Gruppo di operazioni non ancora scritte */
+	private final Frame pending = new Frame();
+	private final DataOutputStream out = new DataOutputStream(pending);
+	private int pendingOperations;
+
+	/* Parametri di scrittura */
+	private int groupSize = 128;
+	private long checkpointBytes = 16L << 20;
+
+	/* Contatori */
+	private int replayed;
+	private long commits;
+	private long checkpoints;
+
+	/* Errore di scrittura che ha reso inutilizzabile il registro */
+	private IOException failure;
+	private boolean closed;
+
+	/**
+	 * Buffer del gruppo corrente: i primi 8 byte sono riservati alla
+	 * lunghezza ed al CRC, scritti al momento del commit.
+	 */
+	private static class Frame extends ByteArrayOutputStream {
+
+		Frame() {
+			super(4096);
+			count = FRAME_HEADER;
+		}
+
+		/**
+		 * Riporta il buffer ad una lunghezza precedente, scartando
+		 * un'operazione non completata.
+		 * @param mark		lunghezza da ripristinare
+		 */
+		void truncate(int mark) {
+			count = mark;
+		}
+
+		/**
+		 * Completa l'intestazione e restituisce il gruppo da scrivere.
+		 * @return gruppo con lunghezza, CRC e operazioni
+		 */
+		ByteBuffer frame() {
+			CRC32 crc = new CRC32();
+			crc.update(buf, FRAME_HEADER, count - FRAME_HEADER);
+			ByteBuffer frame = ByteBuffer.wrap(buf, 0, count);
+			frame.putInt(0, count - FRAME_HEADER);
+			frame.putInt(4, (int) crc.getValue());
+			return frame;
+		}
+
+		/**
+		 * Svuota il buffer dopo la scrittura del gruppo.
+		 */
+		void clear() {
+			count = FRAME_HEADER;
+		}
+	}
+
+	/**
+	 * Costruttore privato: i grafi persistenti si aprono con
+	 * {@link #open(Path, Codec, Codec)}.
+	 * @param directory		directory dei file
+	 * @param nodeCodec		codifica delle etichette dei nodi
+	 * @param labelCodec	codifica delle etichette degli archi
+	 */
+	private PersistentGraph(Path directory, Codec<V> nodeCodec, Codec<E> labelCodec) {
+		if (directory == null || nodeCodec == null || labelCodec == null)
+			throw new NullPointerException("Directory e codifiche del grafo persistente non possono essere null.");
+		this.directory = directory;
+		this.nodeCodec = nodeCodec;
+		this.labelCodec = labelCodec;
+	}
+
+	/**
+	 * Apre un grafo persistente, creando la directory se non esiste. Il
+	 * grafo viene ricostruito dall'ultima istantanea e dal registro
+	 * successivo; un gruppo finale incompleto o con CRC errato, lasciato da
+	 * un arresto durante la scrittura, viene scartato e tagliato dal file.
+	 * @param directory		directory dei file del grafo
+	 * @param nodeCodec		codifica delle etichette dei nodi
+	 * @param labelCodec	codifica delle etichette degli archi non null
+	 * @return grafo persistente
+	 * @throws IOException se i file non si possono leggere o sono corrotti
+	 */
+	public static <V, E> PersistentGraph<V, E> open(Path directory, Codec<V> nodeCodec, Codec<E> labelCodec) throws IOException {
+		PersistentGraph<V, E> g = new PersistentGraph<V, E>(directory, nodeCodec, labelCodec);
+		g.recover();
+		return g;
+	}
+
+	/**
+	 * Carica l'istantanea, elimina i file rimasti da un checkpoint
+	 * interrotto e riapplica il registro della generazione corrente.
+	 * @throws IOException se i file non si possono leggere o sono corrotti
+	 */
+	private void recover() throws IOException {
+		Files.createDirectories(directory);
+		Files.deleteIfExists(directory.resolve(SNAPSHOT_TMP));
+		Path snapshot = directory.resolve(SNAPSHOT);
+		generation = Files.exists(snapshot) ? readSnapshot(snapshot) : 0;
+		/* I registri delle generazioni precedenti sono già contenuti nell'istantanea */
+		try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, LOG_PREFIX + "*")) {
+			for (Path p : files) {
+				String suffix = p.getFileName().toString().substring(LOG_PREFIX.length());
+				try {
+					if (Long.parseLong(suffix) < generation) Files.delete(p);
+				} catch (NumberFormatException e) {
+					/* File estraneo: lo lascio dove si trova */
+				}
+			}
+		}
+		Path path = logPath(generation);
+		log = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+		if (log.size() < HEADER) {
+			/* Registro appena creato, o interrotto prima che l'intestazione fosse completa */
+			log.truncate(0);
+			writeHeader(log, generation);
+			syncDirectory();
+		} else {
+			ByteBuffer header = ByteBuffer.allocate(HEADER);
+			readFully(header, 0);
+			if (header.getInt(0) != LOG_MAGIC || header.getInt(4) != FORMAT || header.getLong(8) != generation)
+				throw new IOException("Il file " + path + " non è il registro della generazione " + generation + ".");
+		}
+		long end = replay();
+		if (end < log.size()) {
+			log.truncate(end);
+			log.force(false);
+		}
+		log.position(end);
+	}
+
+	/**
+	 * Riapplica i gruppi del registro, fermandosi al primo incompleto.
+	 * @return posizione della fine dell'ultimo gruppo valido
+	 * @throws IOException se il registro non è coerente con l'istantanea
+	 */
+	private long replay() throws IOException {
+		long position = HEADER;
+		long size = log.size();
+		ByteBuffer header = ByteBuffer.allocate(FRAME_HEADER);
+		while (position + FRAME_HEADER <= size) {
+			header.clear();
+			readFully(header, position);
+			int length = header.getInt(0);
+			if (length <= 0 || length > size - position - FRAME_HEADER) break;
+			ByteBuffer payload = ByteBuffer.allocate(length);
+			readFully(payload, position + FRAME_HEADER);
+			CRC32 crc = new CRC32();
+			crc.update(payload.array(), 0, length);
+			if ((int) crc.getValue() != header.getInt(4)) break;
+			DataInputStream in = new DataInputStream(new ByteArrayInputStream(payload.array()));
+			try {
+				while (in.available() > 0) {
+					apply(in);
+					replayed++;
+				}
+			} catch (RuntimeException e) {
+				throw new IOException("Il registro " + logPath(generation) + " non è coerente con l'istantanea.", e);
+			}
+			position += FRAME_HEADER + length;
+		}
+		return position;
+	}
+
+	/**
+	 * Applica al grafo in memoria un'operazione letta dal registro.
+	 * @param in		operazioni del gruppo
+	 * @throws IOException se l'operazione non è valida
+	 */
+	private void apply(DataInputStream in) throws IOException {
+		byte op = in.readByte();
+		switch (op) {
+		case ADD_NODE:
+			graph.addNode(nodeCodec.read(in));
+			break;
+		case REMOVE_NODE:
+			graph.removeNode(graph.getNodeAtIndex(readVarint(in)));
+			break;
+		case ADD_EDGE: {
+			int i = readVarint(in);
+			int j = readVarint(in);
+			graph.addEdgeByIndex(i, j, readLabel(in));
+			break;
+		}
+		case REMOVE_EDGE: {
+			int i = readVarint(in);
+			int j = readVarint(in);
+			graph.removeEdgeByIndex(i, j);
+			break;
+		}
+		case CLEAR:
+			graph.clear();
+			break;
+		default:
+			throw new IOException("Operazione sconosciuta nel registro: " + op + ".");
+		}
+	}
+
+	/**
+	 * Legge un'istantanea verificandone il CRC e la carica nel grafo.
+	 * @param path		file dell'istantanea
+	 * @return generazione dell'istantanea
+	 * @throws IOException se il file non si può leggere o è corrotto
+	 */
+	private long readSnapshot(Path path) throws IOException {
+		/* L'istantanea è al più grande quanto la matrice: la leggo tutta e verifico il CRC prima di caricarla */
+		byte[] bytes = Files.readAllBytes(path);
+		if (bytes.length < HEADER + 4) throw new IOException("L'istantanea " + path + " è troppo corta.");
+		CRC32 crc = new CRC32();
+		crc.update(bytes, 0, bytes.length - 4);
+		if ((int) crc.getValue() != ByteBuffer.wrap(bytes).getInt(bytes.length - 4))
+			throw new IOException("L'istantanea " + path + " è corrotta: il CRC non corrisponde.");
+		DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes, 0, bytes.length - 4));
+		try {
+			if (in.readInt() != SNAPSHOT_MAGIC || in.readInt() != FORMAT)
+				throw new IOException("Il file " + path + " non è un'istantanea di un grafo.");
+			long snapshotGeneration = in.readLong();
+			int n = readVarint(in);
+			List<V> nodes = new ArrayList<V>(n);
+			for (int i = 0; i < n; i++) nodes.add(nodeCodec.read(in));
+			/* Un solo ridimensionamento della matrice: gli indici sono quelli dell'ordine di scrittura */
+			graph.addNodes(nodes);
+			for (int i = 0; i < n; i++) {
+				int degree = readVarint(in);
+				int j = 0;
+				for (int k = 0; k < degree; k++) {
+					j += readVarint(in);
+					graph.addEdgeByIndex(i, j, readLabel(in));
+				}
+			}
+			return snapshotGeneration;
+		} catch (RuntimeException e) {
+			throw new IOException("L'istantanea " + path + " non è valida.", e);
+		}
+	}
+
+	/**
+	 * Scrive il gruppo corrente nel registro e lo rende persistente.
+	 * @throws IOException se la scrittura non riesce
+	 */
+	private void flush() throws IOException {
+		if (failure != null) throw new IOException("Il registro non è più utilizzabile dopo un errore di scrittura.", failure);
+		if (pendingOperations == 0) return;
+		try {
+			ByteBuffer frame = pending.frame();
+			while (frame.hasRemaining()) log.write(frame);
+			log.force(false);
+		} catch (IOException e) {
+			/* Il file può contenere un gruppo scritto a metà: le scritture successive non sarebbero rilette */
+			failure = e;
+			throw e;
+		}
+		pending.clear();
+		pendingOperations = 0;
+		commits++;
+	}
+
+	/**
+	 * Scrive nel registro le operazioni non ancora scritte ed attende che
+	 * siano sul disco; se il registro ha superato la soglia esegue un
+	 * checkpoint.
+	 * @throws IOException se la scrittura non riesce
+	 */
+	public void commit() throws IOException {
+		ensureOpen();
+		flush();
+		if (log.size() - HEADER >= checkpointBytes) checkpoint();
+	}
+
+	/**
+	 * Scrive l'istantanea del grafo e riparte da un registro vuoto. Costa
+	 * un tempo proporzionale al numero di nodi al quadrato, come la
+	 * scansione della matrice.
+	 * @throws IOException se la scrittura non riesce
+	 */
+	public void checkpoint() throws IOException {
+		ensureOpen();
+		flush();
+		long next = generation + 1;
+		Path tmp = directory.resolve(SNAPSHOT_TMP);
+		CRC32 crc = new CRC32();
+		try (FileChannel file = FileChannel.open(tmp, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+			DataOutputStream data = new DataOutputStream(new BufferedOutputStream(new CheckedOutputStream(Channels.newOutputStream(file), crc), 1 << 16));
+			data.writeInt(SNAPSHOT_MAGIC);
+			data.writeInt(FORMAT);
+			data.writeLong(next);
+			int n = graph.size();
+			writeVarint(data, n);
+			for (int i = 0; i < n; i++) nodeCodec.write(data, graph.getNodeAtIndex(i));
+			/* Successori di ogni nodo in ordine crescente, come distanze dal precedente */
+			for (int i = 0; i < n; i++) {
+				writeVarint(data, graph.outDegreeByIndex(i));
+				int previous = 0;
+				for (int j = graph.nextSuccessorIndex(i, 0); j != -1; j = graph.nextSuccessorIndex(i, j + 1)) {
+					writeVarint(data, j - previous);
+					writeLabel(data, graph.getEdgeLabelByIndex(i, j));
+					previous = j;
+				}
+			}
+			data.flush();
+			data.writeInt((int) crc.getValue());
+			data.flush();
+			file.force(true);
+		}
+		Files.move(tmp, directory.resolve(SNAPSHOT), StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+		syncDirectory();
+		/* Da qui l'istantanea è valida: il vecchio registro non serve più */
+		Path old = logPath(generation);
+		FileChannel channel = FileChannel.open(logPath(next), StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+				StandardOpenOption.READ, StandardOpenOption.WRITE);
+		writeHeader(channel, next);
+		log.close();
+		log = channel;
+		generation = next;
+		Files.deleteIfExists(old);
+		syncDirectory();
+		checkpoints++;
+	}
+
+	/**
+	 * Scrive le operazioni non ancora scritte e chiude il registro.
+	 * @throws IOException se la scrittura non riesce
+	 */
+	@Override
+	public void close() throws IOException {
+		if (closed) return;
+		closed = true;
+		try {
+			flush();
+		} finally {
+			log.close();
+		}
+	}
+
+	/**
+	 * Ritorna il numero di operazioni raccolte in un gruppo.
+	 * @return operazioni per gruppo
+	 */
+	public int getGroupSize() {
+		return groupSize;
+	}
+
+	/**
+	 * Imposta il numero di operazioni raccolte in un gruppo prima di
+	 * scriverle: con 1 ogni operazione è sul disco prima di ritornare.
+	 * @param groupSize		operazioni per gruppo
+	 */
+	public void setGroupSize(int groupSize) {
+		if (groupSize < 1) throw new IllegalArgumentException("Un gruppo contiene almeno un'operazione.");
+		this.groupSize = groupSize;
+	}
+
+	/**
+	 * Ritorna la dimensione del registro oltre la quale viene scritta
+	 * un'istantanea.
+	 * @return soglia in byte
+	 */
+	public long getCheckpointBytes() {
+		return checkpointBytes;
+	}
+
+	/**
+	 * Imposta la dimensione del registro oltre la quale viene scritta
+	 * un'istantanea: un registro più corto rende più veloce l'apertura,
+	 * ma le istantanee costano una scansione dell'intera matrice.
+	 * @param checkpointBytes		soglia in byte
+	 */
+	public void setCheckpointBytes(long checkpointBytes) {
+		if (checkpointBytes < 1) throw new IllegalArgumentException("La soglia del checkpoint deve essere positiva.");
+		this.checkpointBytes = checkpointBytes;
+	}
+
+	/**
+	 * Ritorna la generazione corrente, cioè il numero di istantanee scritte
+	 * dalla creazione della directory.
+	 * @return generazione corrente
+	 */
+	public long getGeneration() {
+		return generation;
+	}
+
+	/**
+	 * Ritorna il numero di operazioni riapplicate dal registro all'apertura.
+	 * @return operazioni riapplicate
+	 */
+	public int replayedOperations() {
+		return replayed;
+	}
+
+	/**
+	 * Ritorna il numero di operazioni non ancora scritte nel registro.
+	 * @return operazioni in attesa
+	 */
+	public int pendingOperations() {
+		return pendingOperations;
+	}
+
+	/**
+	 * Ritorna il numero di gruppi scritti nel registro da questa apertura.
+	 * @return gruppi scritti
+	 */
+	public long commits() {
+		return commits;
+	}
+
+	/**
+	 * Ritorna il numero di istantanee scritte da questa apertura.
+	 * @return istantanee scritte
+	 */
+	public long checkpoints() {
+		return checkpoints;
+	}
+
+	/**
+	 * Ritorna la dimensione del registro corrente.
+	 * @return byte del registro, intestazione compresa
+	 * @throws IOException se la dimensione non si può leggere
+	 */
+	public long logSize() throws IOException {
+		return log.size();
+	}
+
+	/**
+	 * Segnala un'operazione completata e scrive il gruppo se è pieno.
+	 */
+	private void logged() {
+		if (++pendingOperations < groupSize) return;
+		try {
+			commit();
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	/**
+	 * Verifica che il grafo non sia stato chiuso.
+	 */
+	private void ensureOpen() {
+		if (closed) throw new IllegalStateException("Il grafo persistente è stato chiuso.");
+	}
+
+	/**
+	 * Aggiunge un nodo e registra l'operazione.
+	 * @param label		nodo da inserire nel grafo
+	 * @return true se il nodo è stato inserito
+	 */
+	@Override
+	public boolean addNode(V label) {
+		ensureOpen();
+		int mark = pending.size();
+		boolean changed = false;
+		try {
+			/* Codifico prima di modificare il grafo: una codifica fallita non lascia modifiche */
+			if (label != null) {
+				out.writeByte(ADD_NODE);
+				nodeCodec.write(out, label);
+			}
+			changed = graph.addNode(label);
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		} finally {
+			if (!changed) pending.truncate(mark);
+		}
+		if (changed) logged();
+		return changed;
+	}
+
+	/**
+	 * Rimuove un nodo con i suoi archi e registra l'operazione.
+	 * @param label		nodo da cancellare dal grafo
+	 * @return true se il nodo è stato cancellato
+	 */
+	@Override
+	public boolean removeNode(V label) {
+		ensureOpen();
+		int mark = pending.size();
+		boolean changed = false;
+		try {
+			if (label != null && graph.containsNode(label)) {
+				out.writeByte(REMOVE_NODE);
+				writeVarint(out, graph.getNodeIndex(label));
+			}
+			changed = graph.removeNode(label);
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		} finally {
+			if (!changed) pending.truncate(mark);
+		}
+		if (changed) logged();
+		return changed;
+	}
+
+	/**
+	 * Aggiunge un arco, o ne cambia l'etichetta, e registra l'operazione.
+	 * @param label1		etichetta del nodo sorgente
+	 * @param label2		etichetta del nodo destinazione
+	 * @param label			etichetta dell'arco
+	 * @return true se l'arco è stato aggiunto o l'etichetta è cambiata
+	 */
+	@Override
+	public boolean addEdge(V label1, V label2, E label) {
+		ensureOpen();
+		int mark = pending.size();
+		boolean changed = false;
+		try {
+			if (label1 != null && label2 != null) {
+				out.writeByte(ADD_EDGE);
+				writeVarint(out, graph.getNodeIndex(label1));
+				writeVarint(out, graph.getNodeIndex(label2));
+				writeLabel(out, label);
+			}
+			changed = graph.addEdge(label1, label2, label);
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		} finally {
+			if (!changed) pending.truncate(mark);
+		}
+		if (changed) logged();
+		return changed;
+	}
+
+	/**
+	 * Rimuove un arco e registra l'operazione.
+	 * @param label1		etichetta del nodo sorgente
+	 * @param label2		etichetta del nodo destinazione
+	 * @param label			etichetta dell'arco
+	 * @return true se l'arco era presente ed è stato rimosso
+	 */
+	@Override
+	public boolean removeEdge(V label1, V label2, E label) {
+		ensureOpen();
+		int mark = pending.size();
+		boolean changed = false;
+		try {
+			if (label1 != null && label2 != null) {
+				out.writeByte(REMOVE_EDGE);
+				writeVarint(out, graph.getNodeIndex(label1));
+				writeVarint(out, graph.getNodeIndex(label2));
+			}
+			changed = graph.removeEdge(label1, label2, label);
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		} finally {
+			if (!changed) pending.truncate(mark);
+		}
+		if (changed) logged();
+		return changed;
+	}
+
+	/**
+	 * Cancella tutti i nodi e gli archi e registra l'operazione.
+	 */
+	@Override
+	public void clear() {
+		ensureOpen();
+		graph.clear();
+		pending.write(CLEAR);
+		logged();
+	}
+
+	/**
+	 * Scrive l'intestazione di un registro vuoto e la rende persistente.
+	 * @param channel		registro
+	 * @param generation	generazione del registro
+	 * @throws IOException se la scrittura non riesce
+	 */
+	private static void writeHeader(FileChannel channel, long generation) throws IOException {
+		ByteBuffer header = ByteBuffer.allocate(HEADER);
+		header.putInt(LOG_MAGIC).putInt(FORMAT).putLong(generation).flip();
+		while (header.hasRemaining()) channel.write(header);
+		channel.force(true);
+	}
+
+	/**
+	 * Legge dal registro fino a riempire un buffer.
+	 * @param buffer		buffer da riempire
+	 * @param position		posizione nel file
+	 * @throws IOException se il file finisce prima
+	 */
+	private void readFully(ByteBuffer buffer, long position) throws IOException {
+		while (buffer.hasRemaining()) {
+			if (log.read(buffer, position + buffer.position()) < 0) throw new IOException("Fine inattesa del registro.");
+		}
+	}
+
+	/**
+	 * Rende persistenti le creazioni, i rinomi e le cancellazioni di file
+	 * nella directory, dove il sistema operativo lo permette.
+	 */
+	private void syncDirectory() {
+		try (FileChannel dir = FileChannel.open(directory, StandardOpenOption.READ)) {
+			dir.force(true);
+		} catch (IOException e) {
+			/* Non tutti i sistemi permettono di aprire una directory */
+		}
+	}
+
+	/**
+	 * Percorso del registro di una generazione.
+	 * @param generation	generazione
+	 * @return percorso del registro
+	 */
+	private Path logPath(long generation) {
+		return directory.resolve(LOG_PREFIX + generation);
+	}
+
+	/**
+	 * Scrive l'etichetta di un arco, preceduta da un byte che indica se è null.
+	 * @param out		destinazione
+	 * @param label		etichetta, anche null
+	 * @throws IOException se la scrittura non riesce
+	 */
+	private void writeLabel(DataOutput out, E label) throws IOException {
+		out.writeBoolean(label != null);
+		if (label != null) labelCodec.write(out, label);
+	}
+
+	/**
+	 * Legge l'etichetta di un arco scritta con {@link #writeLabel(DataOutput, Object)}.
+	 * @param in		sorgente
+	 * @return etichetta, anche null
+	 * @throws IOException se la lettura non riesce
+	 */
+	private E readLabel(DataInput in) throws IOException {
+		return in.readBoolean() ? labelCodec.read(in) : null;
+	}
+
+	/**
+	 * Scrive un intero non negativo a lunghezza variabile: 7 bit per byte,
+	 * l'ottavo indica se segue un altro byte.
+	 * @param out		destinazione
+	 * @param value		intero da scrivere
+	 * @throws IOException se la scrittura non riesce
+	 */
+	private static void writeVarint(DataOutput out, int value) throws IOException {
+		while ((value & ~0x7f) != 0) {
+			out.writeByte((value & 0x7f) | 0x80);
+			value >>>= 7;
+		}
+		out.writeByte(value);
+	}
+
+	/**
+	 * Legge un intero scritto con {@link #writeVarint(DataOutput, int)}.
+	 * @param in		sorgente
+	 * @return intero letto
+	 * @throws IOException se la lettura non riesce
+	 */
+	private static int readVarint(DataInput in) throws IOException {
+		int value = 0;
+		for (int shift = 0; shift < 35; shift += 7) {
+			byte b = in.readByte();
+			value |= (b & 0x7f) << shift;
+			if (b >= 0) return value;
+		}
+		throw new IOException("Intero a lunghezza variabile non valido.");
+	}
+
+	/**
+	 * Ritorna il numero di nodi.
+	 * @return numero di nodi
+	 */
+	@Override
+	public int size() {
+		return graph.size();
+	}
+
+	/**
+	 * Dice se il grafo è vuoto.
+	 * @return true se il grafo non ha nodi
+	 */
+	@Override
+	public boolean isEmpty() {
+		return graph.isEmpty();
+	}
+
+	/**
+	 * Il grafo è orientato.
+	 * @return true
+	 */
+	@Override
+	public boolean isDirected() {
+		return true;
+	}
+
+	/**
+	 * Verifica la presenza di un nodo.
+	 * @param label		etichetta del nodo
+	 * @return true se il nodo è presente
+	 */
+	@Override
+	public boolean containsNode(V label) {
+		return graph.containsNode(label);
+	}
+
+	/**
+	 * Ritorna l'indice di un nodo, lo stesso usato nel registro.
+	 * @param label		etichetta del nodo
+	 * @return indice del nodo, -1 se non è presente
+	 */
+	@Override
+	public int getNodeIndex(V label) {
+		return graph.getNodeIndex(label);
+	}
+
+	/**
+	 * Restituisce il nodo all'indice i.
+	 * @param i		indice del nodo
+	 * @return etichetta del nodo
+	 */
+	@Override
+	public V getNodeAtIndex(int i) {
+		return graph.getNodeAtIndex(i);
+	}
+
+	/**
+	 * Ritorna il colore di un nodo; i colori non vengono registrati.
+	 * @param label		etichetta del nodo
+	 * @return colore del nodo
+	 */
+	@Override
+	public int getColor(V label) {
+		return graph.getColor(label);
+	}
+
+	/**
+	 * Imposta il colore di un nodo; i colori non vengono registrati.
+	 * @param label		etichetta del nodo
+	 * @param color		colore da impostare
+	 */
+	@Override
+	public void setColor(V label, int color) {
+		graph.setColor(label, color);
+	}
+
+	/**
+	 * Ritorna il grado di un nodo.
+	 * @param label		etichetta del nodo
+	 * @return numero di archi del nodo
+	 */
+	@Override
+	public int getDegree(V label) {
+		return graph.getDegree(label);
+	}
+
+	/**
+	 * Ritorna il grado entrante di un nodo.
+	 * @param label		etichetta del nodo
+	 * @return numero di archi entranti
+	 */
+	@Override
+	public int inDegree(V label) {
+		return graph.inDegree(label);
+	}
+
+	/**
+	 * Ritorna il grado uscente di un nodo.
+	 * @param label		etichetta del nodo
+	 * @return numero di archi uscenti
+	 */
+	@Override
+	public int outDegree(V label) {
+		return graph.outDegree(label);
+	}
+
+	/**
+	 * Ritorna i nodi adiacenti ad un nodo.
+	 * @param label		etichetta del nodo
+	 * @return insieme dei nodi adiacenti
+	 */
+	@Override
+	public Set<V> neighbors(V label) {
+		return graph.neighbors(label);
+	}
+
+	/**
+	 * Ritorna i successori di un nodo.
+	 * @param label		etichetta del nodo
+	 * @return insieme dei successori
+	 */
+	@Override
+	public Set<V> successors(V label) {
+		return graph.successors(label);
+	}
+
+	/**
+	 * Ritorna i predecessori di un nodo.
+	 * @param label		etichetta del nodo
+	 * @return insieme dei predecessori
+	 */
+	@Override
+	public Set<V> predecessors(V label) {
+		return graph.predecessors(label);
+	}
+
+	/**
+	 * Ritorna i nodi del grafo.
+	 * @return insieme dei nodi
+	 */
+	@Override
+	public Set<V> getNodes() {
+		return graph.getNodes();
+	}
+
+	/**
+	 * Verifica la presenza di un arco.
+	 * @param label1		etichetta del nodo sorgente
+	 * @param label2		etichetta del nodo destinazione
+	 * @param label			etichetta dell'arco
+	 * @return true se l'arco è presente
+	 */
+	@Override
+	public boolean containsEdge(V label1, V label2, E label) {
+		return graph.containsEdge(label1, label2, label);
+	}
+
+	/**
+	 * Restituisce gli archi tra due nodi.
+	 * @param label1		etichetta del nodo sorgente
+	 * @param label2		etichetta del nodo destinazione
+	 * @return insieme degli archi
+	 */
+	@Override
+	public Set<Edge<V, E>> getEdges(V label1, V label2) {
+		return graph.getEdges(label1, label2);
+	}
+
+	/**
+	 * Restituisce gli archi di un nodo.
+	 * @param label		etichetta del nodo
+	 * @return insieme degli archi
+	 */
+	@Override
+	public Set<Edge<V, E>> getEdges(V label) {
+		return graph.getEdges(label);
+	}
+
+	/**
+	 * Restituisce gli archi uscenti da un nodo.
+	 * @param label		etichetta del nodo
+	 * @return insieme degli archi uscenti
+	 */
+	@Override
+	public Set<Edge<V, E>> outgoingEdges(V label) {
+		return graph.outgoingEdges(label);
+	}
+
+	/**
+	 * Restituisce gli archi entranti in un nodo.
+	 * @param label		etichetta del nodo
+	 * @return insieme degli archi entranti
+	 */
+	@Override
+	public Set<Edge<V, E>> ingoingEdges(V label) {
+		return graph.ingoingEdges(label);
+	}
+
+	/**
+	 * Restituisce tutti gli archi del grafo.
+	 * @return insieme degli archi
+	 */
+	@Override
+	public Set<Edge<V, E>> getEdges() {
+		return graph.getEdges();
+	}
+
+	/**
+	 * Ritorna il numero di archi.
+	 * @return numero di archi
+	 */
+	@Override
+	public int edgeCount() {
+		return graph.edgeCount();
+	}
+
+	/**
+	 * Ritorna il contatore delle modifiche del grafo in memoria, che riparte da zero ad ogni apertura.
+	 * @return versione corrente del grafo
+	 */
+	@Override
+	public long getVersion() {
+		return graph.getVersion();
+	}
+
+	/**
+	 * Verifica la presenza di molti archi con il metodo della matrice.
+	 * @param sources		etichette dei nodi sorgente
+	 * @param targets		etichette dei nodi destinazione
+	 * @param labels		etichette degli archi
+	 * @param result		array delle risposte
+	 */
+	@Override
+	public void containsEdges(V[] sources, V[] targets, E[] labels, boolean[] result) {
+		graph.containsEdges(sources, targets, labels, result);
+	}
+
+	/**
+	 * Conta i successori di un gruppo di nodi.
+	 * @param nodes		etichette dei nodi
+	 * @return somma dei gradi uscenti
+	 */
+	@Override
+	public int successorCount(V[] nodes) {
+		return graph.successorCount(nodes);
+	}
+
+	/**
+	 * Scrive gli indici dei successori di un gruppo di nodi in formato CSR.
+	 * @param nodes		etichette dei nodi
+	 * @param offsets		inizio dei successori di ogni nodo (nodes.length + 1 elementi)
+	 * @param targets		indici dei successori
+	 * @return numero di indici scritti
+	 */
+	@Override
+	public int successors(V[] nodes, int[] offsets, int[] targets) {
+		return graph.successors(nodes, offsets, targets);
+	}
+
+	/**
+	 * Rappresentazione del grafo in memoria.
+	 */
+	@Override
+	public String toString() {
+		return graph.toString();
+	}
+
+}
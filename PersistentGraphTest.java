@@ -0,0 +1,163 @@
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+
+public class PersistentGraphTest {
+
+	public static void main(String[] args) throws IOException {
+
+		Path dir = Files.createTempDirectory("graph");
+		PersistentGraph.Codec<WeighedEdge<Double>> weights = new PersistentGraph.Codec<WeighedEdge<Double>>() {
+			@Override
+			public void write(DataOutput out, WeighedEdge<Double> value) throws IOException {
+				out.writeBoolean(value.getWeight() != null);
+				if (value.getWeight() != null) out.writeDouble(value.getWeight());
+			}
+
+			@Override
+			public WeighedEdge<Double> read(DataInput in) throws IOException {
+				return new WeighedEdge<Double>(in.readBoolean() ? in.readDouble() : null);
+			}
+		};
+
+		/* Grafo di esempio usato anche in GenericGraphDFSTest, con nodi di tipo String */
+		PersistentGraph<String, WeighedEdge<Double>> g = PersistentGraph.open(dir.resolve("esempio"), PersistentGraph.STRINGS, weights);
+		for (String v : new String[] { "a", "b", "c", "x", "y", "z", "w" }) g.addNode(v);
+		g.addEdge("a", "b", new WeighedEdge<Double>(1.5));
+		g.addEdge("a", "x", new WeighedEdge<Double>(-2.0));
+		g.addEdge("x", "b", new WeighedEdge<Double>(null));
+		g.addEdge("b", "y", new WeighedEdge<Double>(null));
+		g.addEdge("y", "x", new WeighedEdge<Double>(1.0));
+		g.addEdge("z", "b", new WeighedEdge<Double>(0.6));
+		g.addEdge("z", "z", new WeighedEdge<Double>(0.5));
+		g.addEdge("c", "z", new WeighedEdge<Double>(2.0));
+		g.addEdge("w", "a", null);
+		g.removeNode("w");
+		String before = g.toString();
+		g.close();
+		g = PersistentGraph.open(dir.resolve("esempio"), PersistentGraph.STRINGS, weights);
+		System.out.print(g);
+		System.out.println("Dopo la riapertura: stesso grafo " + before.equals(g.toString()) + ", operazioni riapplicate "
+				+ g.replayedOperations() + ", registro di " + g.logSize() + " byte");
+		g.checkpoint();
+		g.removeEdge("z", "z", new WeighedEdge<Double>(0.5));
+		g.close();
+		g = PersistentGraph.open(dir.resolve("esempio"), PersistentGraph.STRINGS, weights);
+		System.out.println("Dopo il checkpoint: generazione " + g.getGeneration() + ", operazioni riapplicate " + g.replayedOperations()
+				+ ", z -> z presente: " + g.containsEdge("z", "z", new WeighedEdge<Double>(0.5)) + ", archi: " + g.edgeCount());
+		g.close();
+
+		/* Arresto improvviso: il grafo non viene chiuso ed il registro termina con un gruppo scritto a metà */
+		Path crash = dir.resolve("arresto");
+		PersistentGraph<Integer, Integer> c = PersistentGraph.open(crash, PersistentGraph.INTEGERS, PersistentGraph.INTEGERS);
+		c.setGroupSize(4);
+		for (int i = 0; i < 10; i++) c.addNode(i);
+		long committed = c.logSize();
+		try (RandomAccessFile file = new RandomAccessFile(new File(crash.toFile(), "graph.log.0"), "rw")) {
+			file.seek(committed);
+			file.write(new byte[] { 12, 0, 0, 0, 1, 2, 3, 4, 1, 0 });
+		}
+		PersistentGraph<Integer, Integer> r = PersistentGraph.open(crash, PersistentGraph.INTEGERS, PersistentGraph.INTEGERS);
+		System.out.println("Dopo l'arresto: " + r.size() + " nodi su 10 (gruppi da 4), registro riportato da " + (committed + 10)
+				+ " a " + r.logSize() + " byte");
+		r.close();
+
+		/* Grafo più grande: scrittura, riapertura dal solo registro e da istantanea più registro corto */
+		System.out.println();
+		System.out.println(" ----------------------------------------------------------");
+		System.out.println(" |    Registro e istantanee di un grafo più grande.       |");
+		System.out.println(" ----------------------------------------------------------");
+		Random random = new Random(42);
+		int n = 3000;
+		int m = 60000;
+		int[] sources = new int[m];
+		int[] targets = new int[m];
+		for (int k = 0; k < m; k++) {
+			sources[k] = random.nextInt(n);
+			targets[k] = random.nextInt(n);
+		}
+		long start = System.nanoTime();
+		GraphMatrixDirected<Integer, Integer> memory = new GraphMatrixDirected<Integer, Integer>();
+		build(memory, n, sources, targets);
+		long rebuilt = System.nanoTime() - start;
+		for (int groupSize : new int[] { 1, 16, 128, 1024 }) {
+			Path path = dir.resolve("gruppi" + groupSize);
+			PersistentGraph<Integer, Integer> p = PersistentGraph.open(path, PersistentGraph.INTEGERS, PersistentGraph.INTEGERS);
+			p.setGroupSize(groupSize);
+			int ops = groupSize == 1 ? 2000 : m;
+			start = System.nanoTime();
+			build(p, n, sources, targets, ops);
+			p.close();
+			long written = System.nanoTime() - start;
+			System.out.println("Gruppi da " + groupSize + ": " + (n + ops) + " operazioni in " + written / 1000000 + " ms ("
+					+ (n + ops) * 1000000000L / Math.max(1, written) + " operazioni/s), " + p.commits() + " scritture su disco");
+		}
+
+		Path path = dir.resolve("grande");
+		PersistentGraph<Integer, Integer> p = PersistentGraph.open(path, PersistentGraph.INTEGERS, PersistentGraph.INTEGERS);
+		build(p, n, sources, targets);
+		for (int k = 0; k < 1000; k++) p.removeEdge(sources[k], targets[k], k % 7);
+		p.close();
+		long logBytes = Files.size(path.resolve("graph.log.0"));
+		start = System.nanoTime();
+		p = PersistentGraph.open(path, PersistentGraph.INTEGERS, PersistentGraph.INTEGERS);
+		long replayed = System.nanoTime() - start;
+		System.out.println("Ricostruzione in memoria: " + rebuilt / 1000000 + " ms, dal registro (" + logBytes / 1024 + " KB, "
+				+ p.replayedOperations() + " operazioni): " + replayed / 1000000 + " ms");
+		p.checkpoint();
+		for (int k = 1000; k < 2000; k++) p.removeEdge(sources[k], targets[k], k % 7);
+		for (int k = 0; k < 1000; k++) memory.removeEdge(sources[k], targets[k], k % 7);
+		for (int k = 1000; k < 2000; k++) memory.removeEdge(sources[k], targets[k], k % 7);
+		p.close();
+		long snapshotBytes = Files.size(path.resolve("graph.snapshot"));
+		start = System.nanoTime();
+		p = PersistentGraph.open(path, PersistentGraph.INTEGERS, PersistentGraph.INTEGERS);
+		long restarted = System.nanoTime() - start;
+		System.out.println("Da istantanea (" + snapshotBytes / 1024 + " KB) e registro corto (" + p.replayedOperations() + " operazioni): "
+				+ restarted / 1000000 + " ms, archi " + p.edgeCount() + ", stesso grafo: " + p.getEdges().equals(memory.getEdges()));
+		p.close();
+
+		delete(dir.toFile());
+	}
+
+	/**
+	 * Inserisce i nodi 0 .. n - 1 e gli archi, con etichetta pari all'indice modulo 7.
+	 * @param g			grafo
+	 * @param n			numero di nodi
+	 * @param sources	sorgenti degli archi
+	 * @param targets	destinazioni degli archi
+	 */
+	private static void build(Graph<Integer, Integer> g, int n, int[] sources, int[] targets) {
+		build(g, n, sources, targets, sources.length);
+	}
+
+	/**
+	 * Inserisce i nodi 0 .. n - 1 ed i primi archi.
+	 * @param g			grafo
+	 * @param n			numero di nodi
+	 * @param sources	sorgenti degli archi
+	 * @param targets	destinazioni degli archi
+	 * @param m			numero di archi da inserire
+	 */
+	private static void build(Graph<Integer, Integer> g, int n, int[] sources, int[] targets, int m) {
+		for (int i = 0; i < n; i++) g.addNode(i);
+		for (int k = 0; k < m; k++) g.addEdge(sources[k], targets[k], k % 7);
+	}
+
+	/**
+	 * Cancella una directory temporanea con il suo contenuto.
+	 * @param file		file o directory
+	 */
+	private static void delete(File file) {
+		File[] children = file.listFiles();
+		if (children != null)
+			for (File child : children) delete(child);
+		file.delete();
+	}
+
+}
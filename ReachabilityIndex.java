@@ -0,0 +1,273 @@
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Arrays;
+
+/**
+ * Indice di raggiungibilità precalcolato di un grafo diretto, che risponde
+ * alla domanda "il nodo u può raggiungere il nodo v?" senza eseguire una
+ * visita ad ogni interrogazione.
+ *
+ * L'indice è costruito sul grafo delle componenti fortemente connesse (vedi
+ * {@link StronglyConnectedComponents}): due nodi della stessa componente si
+ * raggiungono sempre, per cui basta sapere quali componenti raggiunge ogni
+ * componente. Poiché le componenti sono numerate secondo l'ordine di
+ * completamento della visita in profondità, l'insieme delle componenti
+ * raggiungibili da una componente è formato in gran parte da intervalli
+ * contigui di numeri (il suo sottoalbero nella visita occupa un intervallo):
+ * ogni riga della chiusura transitiva viene quindi memorizzata compressa come
+ * lista ordinata di intervalli disgiunti, e un'interrogazione costa una
+ * ricerca binaria su tale lista, O(log k) con k numero di intervalli della
+ * riga.
+ *
+ * L'indice può essere salvato con {@link #write(OutputStream)} e ricaricato
+ * con {@link #read(InputStream, IndexedGraph)}; le etichette dei nodi non
+ * vengono salvate, per cui le interrogazioni per etichetta richiedono di
+ * fornire al caricamento un'istantanea con gli stessi indici.
+ */
+public class ReachabilityIndex<V> {
+
+	/* Numero magico e versione del formato di salvataggio */
+	private static final int MAGIC = 0x52454143;
+	private static final int FORMAT_VERSION = 1;
+
+	/* Istantanea con le etichette dei nodi, null se non disponibile */
+	private final IndexedGraph<V> graph;
+
+	/* Componente fortemente connessa di ogni nodo */
+	private final int[] component;
+
+	/* Inizio della riga di ogni componente in intervals (numero componenti + 1 elementi) */
+	private final int[] rowOffsets;
+
+	/* Intervalli di componenti raggiungibili: coppie (inizio, fine) incluse, ordinate per riga */
+	private final int[] intervals;
+
+	/**
+	 * Costruttore a partire dagli array già calcolati.
+	 * @param graph			istantanea con le etichette, può essere null
+	 * @param component		componente di ogni nodo
+	 * @param rowOffsets	inizio delle righe
+	 * @param intervals		intervalli delle righe
+	 */
+	private ReachabilityIndex(IndexedGraph<V> graph, int[] component, int[] rowOffsets, int[] intervals) {
+		this.graph = graph;
+		this.component = component;
+		this.rowOffsets = rowOffsets;
+		this.intervals = intervals;
+	}
+
+	/**
+	 * Costruisce l'indice di un grafo.
+	 * @param g		grafo
+	 * @return l'indice di raggiungibilità
+	 */
+	public static <V, E> ReachabilityIndex<V> build(Graph<V, E> g) {
+		return build(new StronglyConnectedComponents<V>(g));
+	}
+
+	/**
+	 * Costruisce l'indice a partire dalle componenti fortemente connesse già calcolate.
+	 * @param scc		componenti fortemente connesse
+	 * @return l'indice di raggiungibilità
+	 */
+	public static <V> ReachabilityIndex<V> build(StronglyConnectedComponents<V> scc) {
+		IndexedGraph<V> graph = scc.getGraph();
+		int count = scc.componentCount();
+		int[] component = scc.getComponentArray();
+		int[] rowOffsets = new int[count + 1];
+		int[] intervals = new int[Math.max(16, 2 * count)];
+		int used = 0;
+		int[] seen = new int[count];		/* Marcatura dei figli già considerati, vale c + 1 */
+		long[] buffer = new long[16];		/* Intervalli da fondere codificati come (inizio << 32) | fine */
+		/* I figli di una componente hanno numero minore, per cui le righe sono già pronte */
+		for (int c = 0; c < count; c++) {
+			int k = 0;
+			buffer[k++] = ((long) c << 32) | c;
+			int[] nodes = scc.getComponentIndices(c);
+			for (int u : nodes) {
+				for (int e = graph.outStart(u); e < graph.outEnd(u); e++) {
+					int d = component[graph.outTarget(e)];
+					if (d == c || seen[d] == c + 1) continue;
+					seen[d] = c + 1;
+					int rowSize = rowOffsets[d + 1] - rowOffsets[d];
+					if (k + rowSize / 2 > buffer.length) buffer = Arrays.copyOf(buffer, Math.max(2 * buffer.length, k + rowSize / 2));
+					for (int i = rowOffsets[d]; i < rowOffsets[d + 1]; i += 2)
+						buffer[k++] = ((long) intervals[i] << 32) | intervals[i + 1];
+				}
+			}
+			Arrays.sort(buffer, 0, k);
+			/* Fusione degli intervalli sovrapposti o adiacenti */
+			int start = (int) (buffer[0] >>> 32);
+			int end = (int) buffer[0];
+			for (int i = 1; i < k; i++) {
+				int s = (int) (buffer[i] >>> 32);
+				int t = (int) buffer[i];
+				if (s <= end + 1) {
+					if (t > end) end = t;
+					continue;
+				}
+				if (used + 2 > intervals.length) intervals = Arrays.copyOf(intervals, 2 * intervals.length);
+				intervals[used++] = start;
+				intervals[used++] = end;
+				start = s;
+				end = t;
+			}
+			if (used + 2 > intervals.length) intervals = Arrays.copyOf(intervals, 2 * intervals.length);
+			intervals[used++] = start;
+			intervals[used++] = end;
+			rowOffsets[c + 1] = used;
+		}
+		return new ReachabilityIndex<V>(graph, component, rowOffsets, Arrays.copyOf(intervals, used));
+	}
+
+	/**
+	 * Dice se un nodo può raggiungere un altro nodo.
+	 * @param u		indice del nodo di partenza
+	 * @param v		indice del nodo di arrivo
+	 * @return true se esiste un cammino da u a v (sempre vero se u == v)
+	 * @throws IndexOutOfBoundsException se uno degli indici non è valido
+	 */
+	public boolean canReach(int u, int v) {
+		int cu = component[u];
+		int cv = component[v];
+		if (cu == cv) return true;
+		if (cv > cu) return false;		/* Ordine topologico inverso: le componenti raggiungibili hanno numero minore */
+		/* Ricerca binaria dell'ultimo intervallo con inizio <= cv */
+		int lo = rowOffsets[cu] / 2;
+		int hi = rowOffsets[cu + 1] / 2 - 1;
+		while (lo <= hi) {
+			int mid = (lo + hi) >>> 1;
+			if (intervals[2 * mid] <= cv) lo = mid + 1;
+			else hi = mid - 1;
+		}
+		return hi >= rowOffsets[cu] / 2 && cv <= intervals[2 * hi + 1];
+	}
+
+	/**
+	 * Dice se un nodo può raggiungere un altro nodo.
+	 * @param label1		etichetta del nodo di partenza
+	 * @param label2		etichetta del nodo di arrivo
+	 * @return true se esiste un cammino da label1 a label2
+	 * @throws IllegalStateException se l'indice è stato caricato senza etichette
+	 * @throws IllegalArgumentException se uno dei nodi non esiste
+	 */
+	public boolean canReach(V label1, V label2) {
+		if (graph == null) throw new IllegalStateException("L'indice è stato caricato senza le etichette dei nodi.");
+		return canReach(graph.indexOf(label1), graph.indexOf(label2));
+	}
+
+	/**
+	 * Ritorna il numero di nodi indicizzati.
+	 * @return numero di nodi
+	 */
+	public int size() {
+		return component.length;
+	}
+
+	/**
+	 * Ritorna il numero di componenti fortemente connesse.
+	 * @return numero di componenti
+	 */
+	public int componentCount() {
+		return rowOffsets.length - 1;
+	}
+
+	/**
+	 * Ritorna il numero totale di intervalli memorizzati, misura della
+	 * dimensione dell'indice.
+	 * @return numero di intervalli
+	 */
+	public int intervalCount() {
+		return intervals.length / 2;
+	}
+
+	/**
+	 * Salva l'indice su un flusso in formato binario. Il flusso non viene chiuso.
+	 * @param out		flusso di uscita
+	 * @throws IOException se la scrittura fallisce
+	 */
+	public void write(OutputStream out) throws IOException {
+		DataOutputStream data = new DataOutputStream(new BufferedOutputStream(out));
+		data.writeInt(MAGIC);
+		data.writeInt(FORMAT_VERSION);
+		writeArray(data, component);
+		writeArray(data, rowOffsets);
+		writeArray(data, intervals);
+		data.flush();
+	}
+
+	/**
+	 * Carica un indice salvato con {@link #write(OutputStream)}. Il flusso non
+	 * viene chiuso; per flussi su file conviene passarne uno bufferizzato.
+	 * @param in		flusso di ingresso
+	 * @param graph		istantanea con le etichette dei nodi negli stessi indici
+	 *                  usati alla costruzione, oppure null
+	 * @return l'indice caricato
+	 * @throws IOException se la lettura fallisce, il formato non è valido o
+	 *                     gli array letti non sono coerenti
+	 */
+	public static <V> ReachabilityIndex<V> read(InputStream in, IndexedGraph<V> graph) throws IOException {
+		DataInputStream data = new DataInputStream(in);
+		if (data.readInt() != MAGIC) throw new IOException("Il flusso non contiene un indice di raggiungibilità.");
+		if (data.readInt() != FORMAT_VERSION) throw new IOException("Versione del formato dell'indice non supportata.");
+		int[] component = readArray(data);
+		int[] rowOffsets = readArray(data);
+		int[] intervals = readArray(data);
+		validate(component, rowOffsets, intervals);
+		if (graph != null && graph.size() != component.length)
+			throw new IllegalArgumentException("L'istantanea non ha lo stesso numero di nodi dell'indice.");
+		return new ReachabilityIndex<V>(graph, component, rowOffsets, intervals);
+	}
+
+	/**
+	 * Controlla la coerenza degli array letti, in modo che un flusso troncato
+	 * o alterato venga rifiutato al caricamento invece di far fallire le
+	 * interrogazioni successive.
+	 * @param component		componente di ogni nodo
+	 * @param rowOffsets	inizio delle righe
+	 * @param intervals		intervalli delle righe
+	 * @throws IOException se gli array non descrivono un indice valido
+	 */
+	private static void validate(int[] component, int[] rowOffsets, int[] intervals) throws IOException {
+		if (rowOffsets.length == 0 || rowOffsets[0] != 0) throw new IOException("Inizio delle righe dell'indice non valido.");
+		if (intervals.length % 2 != 0) throw new IOException("Gli intervalli dell'indice devono essere coppie.");
+		if (rowOffsets[rowOffsets.length - 1] != intervals.length)
+			throw new IOException("L'ultima riga dell'indice non termina con gli intervalli.");
+		for (int c = 0; c + 1 < rowOffsets.length; c++)
+			if (rowOffsets[c + 1] < rowOffsets[c] || rowOffsets[c + 1] % 2 != 0)
+				throw new IOException("Le righe dell'indice non sono ordinate o non contengono coppie.");
+		int count = rowOffsets.length - 1;
+		for (int c : component)
+			if (c < 0 || c >= count) throw new IOException("Componente di un nodo fuori intervallo: " + c + ".");
+	}
+
+	/**
+	 * Scrive un array di interi preceduto dalla sua lunghezza.
+	 * @param data		flusso di uscita
+	 * @param a			array
+	 * @throws IOException se la scrittura fallisce
+	 */
+	private static void writeArray(DataOutputStream data, int[] a) throws IOException {
+		data.writeInt(a.length);
+		for (int x : a) data.writeInt(x);
+	}
+
+	/**
+	 * Legge un array di interi preceduto dalla sua lunghezza.
+	 * @param data		flusso di ingresso
+	 * @return array letto
+	 * @throws IOException se la lettura fallisce
+	 */
+	private static int[] readArray(DataInputStream data) throws IOException {
+		int length = data.readInt();
+		if (length < 0) throw new IOException("Lunghezza di un array non valida.");
+		int[] a = new int[length];
+		for (int i = 0; i < length; i++) a[i] = data.readInt();
+		return a;
+	}
+
+}
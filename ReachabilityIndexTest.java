@@ -0,0 +1,164 @@
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Random;
+
+public class ReachabilityIndexTest {
+
+	public static void main(String[] args) throws IOException {
+
+		/* Grafo di esempio usato anche in GenericGraphDFSTest */
+		GraphMatrixDirected<String, Integer> g = new GraphMatrixDirected<String, Integer>();
+		for (String v : new String[] { "a", "b", "c", "x", "y", "z" }) g.addNode(v);
+		String[] edges = { "ab", "ax", "xb", "by", "yx", "zb", "zz", "cz" };
+		for (String e : edges) g.addEdge(e.substring(0, 1), e.substring(1), 0);
+		StronglyConnectedComponents<String> scc = new StronglyConnectedComponents<String>(g);
+		ReachabilityIndex<String> index = ReachabilityIndex.build(scc);
+		System.out.println("Componenti fortemente connesse: " + scc.getComponents());
+		System.out.println("a raggiunge y: " + index.canReach("a", "y") + ", y raggiunge a: " + index.canReach("y", "a")
+				+ ", c raggiunge x: " + index.canReach("c", "x") + ", intervalli: " + index.intervalCount());
+
+		/* Confronto con una visita in ampiezza su grafi casuali, prima e dopo il salvataggio */
+		Random random = new Random(42);
+		int rounds = 200;
+		int wrongPartition = 0, wrongOrder = 0, wrongAnswers = 0, wrongReloaded = 0;
+		for (int round = 0; round < rounds; round++) {
+			int n = 1 + random.nextInt(60);
+			GraphMatrixDirected<Integer, Integer> r = new GraphMatrixDirected<Integer, Integer>();
+			for (int i = 0; i < n; i++) r.addNode(i);
+			for (int k = random.nextInt(3 * n); k > 0; k--) r.addEdge(random.nextInt(n), random.nextInt(n), 0);
+			StronglyConnectedComponents<Integer> components = new StronglyConnectedComponents<Integer>(r);
+			IndexedGraph<Integer> snapshot = components.getGraph();
+			ReachabilityIndex<Integer> built = ReachabilityIndex.build(components);
+			ByteArrayOutputStream out = new ByteArrayOutputStream();
+			built.write(out);
+			ReachabilityIndex<Integer> reloaded = ReachabilityIndex.read(new ByteArrayInputStream(out.toByteArray()), snapshot);
+			boolean[][] reach = new boolean[n][];
+			for (int u = 0; u < n; u++) reach[u] = bfs(snapshot, u);
+			for (int u = 0; u < n; u++) {
+				/* Le componenti numerate in ordine topologico inverso: gli archi vanno verso numeri non maggiori */
+				for (int e = snapshot.outStart(u); e < snapshot.outEnd(u); e++)
+					if (components.componentOf(snapshot.outTarget(e)) > components.componentOf(u)) wrongOrder++;
+				for (int v = 0; v < n; v++) {
+					if ((components.componentOf(u) == components.componentOf(v)) != (reach[u][v] && reach[v][u])) wrongPartition++;
+					if (built.canReach(u, v) != reach[u][v]) wrongAnswers++;
+					if (reloaded.canReach(snapshot.labelAt(u), snapshot.labelAt(v)) != reach[u][v]) wrongReloaded++;
+				}
+			}
+		}
+		System.out.println(rounds + " grafi casuali, differenze dalla visita in ampiezza: partizione " + wrongPartition + ", ordine "
+				+ wrongOrder + ", risposte " + wrongAnswers + ", risposte dopo write/read " + wrongReloaded);
+
+		/* Flussi troncati o alterati vengono rifiutati da read */
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		index.write(out);
+		byte[] saved = out.toByteArray();
+		int n = index.size();
+		int count = index.componentCount();
+		int componentAt = 12;							/* Dopo numero magico, versione e lunghezza */
+		int rowsAt = componentAt + 4 * n + 4;			/* Primo elemento di rowOffsets */
+		int lastRowAt = rowsAt + 4 * count;				/* Ultimo elemento di rowOffsets */
+		int intervalsAt = lastRowAt + 4;				/* Lunghezza di intervals */
+		System.out.println("Flusso integro: " + outcome(saved));
+		System.out.println("Flusso troncato: " + outcome(Arrays.copyOf(saved, saved.length - 3)));
+		System.out.println("Componente fuori intervallo: " + outcome(patch(saved, componentAt, count)));
+		System.out.println("Componente negativa: " + outcome(patch(saved, componentAt + 4, -1)));
+		System.out.println("Righe non ordinate: " + outcome(patch(saved, rowsAt + 4, 1 << 20)));
+		System.out.println("Ultima riga diversa dagli intervalli: " + outcome(patch(saved, lastRowAt, ByteBuffer.wrap(saved, lastRowAt, 4).getInt() - 2)));
+		/* rowOffsets con un elemento in meno: l'ultimo elemento letto non termina gli intervalli */
+		byte[] shorter = new byte[saved.length - 4];
+		System.arraycopy(saved, 0, shorter, 0, lastRowAt);
+		System.arraycopy(saved, intervalsAt, shorter, lastRowAt, saved.length - intervalsAt);
+		System.out.println("rowOffsets troncato: " + outcome(patch(shorter, rowsAt - 4, count)));
+		/* Intervalli in numero dispari */
+		byte[] odd = Arrays.copyOf(saved, saved.length + 4);
+		ByteBuffer.wrap(odd).putInt(intervalsAt, ByteBuffer.wrap(saved).getInt(intervalsAt) + 1);
+		System.out.println("Intervalli in numero dispari: " + outcome(odd));
+
+		/* Costruzione e interrogazioni su un grafo più grande */
+		System.out.println();
+		System.out.println(" ----------------------------------------------------------");
+		System.out.println(" |    Indice di un grafo con 200000 nodi.                 |");
+		System.out.println(" ----------------------------------------------------------");
+		IndexedGraph<Integer> large = GraphGenerator.erdosRenyi(200000, 1.2 / 200000, 7).toIndexedGraph();
+		long start = System.nanoTime();
+		ReachabilityIndex<Integer> big = ReachabilityIndex.build(new StronglyConnectedComponents<Integer>(large));
+		long built = System.nanoTime() - start;
+		int queries = 1000;
+		int[] sources = new int[queries];
+		int[] targets = new int[queries];
+		for (int k = 0; k < queries; k++) {
+			sources[k] = random.nextInt(large.size());
+			targets[k] = random.nextInt(large.size());
+		}
+		start = System.nanoTime();
+		int found = 0;
+		for (int k = 0; k < queries; k++)
+			if (big.canReach(sources[k], targets[k])) found++;
+		long indexed = System.nanoTime() - start;
+		start = System.nanoTime();
+		boolean same = true;
+		for (int k = 0; k < queries; k++)
+			if (bfs(large, sources[k])[targets[k]] != big.canReach(sources[k], targets[k])) same = false;
+		long visited = System.nanoTime() - start;
+		System.out.println(large.size() + " nodi, " + large.edgeCount() + " archi, " + big.componentCount() + " componenti, "
+				+ big.intervalCount() + " intervalli, costruzione " + built / 1000000 + " ms");
+		System.out.println(queries + " interrogazioni (" + found + " raggiungibili): indice " + indexed / 1000 + " us, visite in ampiezza "
+				+ visited / 1000000 + " ms, stesse risposte: " + same);
+	}
+
+	/**
+	 * Nodi raggiungibili da un nodo con una visita in ampiezza.
+	 * @param g			istantanea del grafo
+	 * @param source	nodo di partenza
+	 * @return nodi raggiungibili, source compreso
+	 */
+	private static boolean[] bfs(IndexedGraph<Integer> g, int source) {
+		boolean[] seen = new boolean[g.size()];
+		int[] queue = new int[g.size()];
+		int head = 0, tail = 0;
+		queue[tail++] = source;
+		seen[source] = true;
+		while (head < tail) {
+			int u = queue[head++];
+			for (int e = g.outStart(u); e < g.outEnd(u); e++) {
+				int v = g.outTarget(e);
+				if (!seen[v]) {
+					seen[v] = true;
+					queue[tail++] = v;
+				}
+			}
+		}
+		return seen;
+	}
+
+	/**
+	 * Copia un flusso salvato sostituendo un intero.
+	 * @param saved		flusso salvato
+	 * @param offset	posizione dell'intero
+	 * @param value		nuovo valore
+	 * @return copia modificata
+	 */
+	private static byte[] patch(byte[] saved, int offset, int value) {
+		byte[] copy = saved.clone();
+		ByteBuffer.wrap(copy).putInt(offset, value);
+		return copy;
+	}
+
+	/**
+	 * Carica un indice senza etichette e ne descrive l'esito.
+	 * @param saved		flusso salvato
+	 * @return esito del caricamento
+	 */
+	private static String outcome(byte[] saved) {
+		try {
+			ReachabilityIndex<Object> index = ReachabilityIndex.read(new ByteArrayInputStream(saved), null);
+			return "caricato, " + index.componentCount() + " componenti";
+		} catch (IOException e) {
+			return e.getClass().getSimpleName() + " (" + e.getMessage() + ")";
+		}
+	}
+
+}
@@ -0,0 +1,165 @@
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Vista del grafo trasposto: stessi nodi con gli stessi indici ed ogni arco
+ * percorso in senso opposto. I successori di un nodo nella vista sono i suoi
+ * predecessori nel grafo sottostante e viceversa, per cui una visita sulla
+ * vista, ad esempio la seconda visita dell'algoritmo di Kosaraju per le
+ * componenti fortemente connesse, non richiede di costruire il trasposto.
+ */
+public class ReversedGraph<V, E> extends GraphView<V, E> {
+
+	/**
+	 * Costruttore della vista trasposta.
+	 * @param graph		grafo sottostante, diretto
+	 */
+	public ReversedGraph(Graph<V, E> graph) {
+		super(graph);
+	}
+
+	/**
+	 * Inverte il verso di un insieme di archi.
+	 * @param edges		archi del grafo sottostante
+	 * @return archi con sorgente e destinazione scambiate
+	 */
+	private Set<Edge<V, E>> reverse(Set<Edge<V, E>> edges) {
+		Set<Edge<V, E>> reversed = new HashSet<Edge<V, E>>();
+		for (Edge<V, E> e : edges) reversed.add(new Edge<V, E>(e.getLabel2(), e.getLabel1(), e.getLabel(), true));
+		return reversed;
+	}
+
+	/**
+	 * Ritorna il numero di nodi.
+	 * @return numero di nodi del grafo sottostante
+	 */
+	@Override
+	public int size() {
+		return graph.size();
+	}
+
+	/**
+	 * Verifica la presenza di un nodo.
+	 * @param label		etichetta del nodo
+	 * @return true se il nodo è presente
+	 */
+	@Override
+	public boolean containsNode(V label) {
+		return graph.containsNode(label);
+	}
+
+	/**
+	 * Ritorna l'indice di un nodo, lo stesso del grafo sottostante.
+	 * @param label		etichetta del nodo
+	 * @return indice del nodo
+	 */
+	@Override
+	public int getNodeIndex(V label) {
+		int i = graph.getNodeIndex(label);
+		if (i == -1) throw new IllegalArgumentException("Il nodo " + label + " non è presente nel grafo.");
+		return i;
+	}
+
+	/**
+	 * Restituisce il nodo all'indice i.
+	 * @param i		indice del nodo
+	 * @return etichetta del nodo
+	 */
+	@Override
+	public V getNodeAtIndex(int i) {
+		return graph.getNodeAtIndex(i);
+	}
+
+	/**
+	 * Il grado entrante è il grado uscente nel grafo sottostante.
+	 * @param label		etichetta del nodo
+	 * @return numero di archi entranti
+	 */
+	@Override
+	public int inDegree(V label) {
+		return graph.outDegree(label);
+	}
+
+	/**
+	 * Il grado uscente è il grado entrante nel grafo sottostante.
+	 * @param label		etichetta del nodo
+	 * @return numero di archi uscenti
+	 */
+	@Override
+	public int outDegree(V label) {
+		return graph.inDegree(label);
+	}
+
+	/**
+	 * I successori sono i predecessori nel grafo sottostante.
+	 * @param label		etichetta del nodo
+	 * @return insieme dei successori
+	 */
+	@Override
+	public Set<V> successors(V label) {
+		return graph.predecessors(label);
+	}
+
+	/**
+	 * I predecessori sono i successori nel grafo sottostante.
+	 * @param label		etichetta del nodo
+	 * @return insieme dei predecessori
+	 */
+	@Override
+	public Set<V> predecessors(V label) {
+		return graph.successors(label);
+	}
+
+	/**
+	 * Verifica la presenza di un arco, cioè dell'arco opposto nel grafo sottostante.
+	 * @param label1		etichetta del nodo sorgente
+	 * @param label2		etichetta del nodo destinazione
+	 * @param label			etichetta dell'arco
+	 * @return true se l'arco è presente
+	 */
+	@Override
+	public boolean containsEdge(V label1, V label2, E label) {
+		return graph.containsEdge(label2, label1, label);
+	}
+
+	/**
+	 * Restituisce gli archi tra due nodi.
+	 * @param label1		etichetta del nodo sorgente
+	 * @param label2		etichetta del nodo destinazione
+	 * @return insieme degli archi
+	 */
+	@Override
+	public Set<Edge<V, E>> getEdges(V label1, V label2) {
+		return reverse(graph.getEdges(label2, label1));
+	}
+
+	/**
+	 * Gli archi uscenti sono gli archi entranti nel grafo sottostante.
+	 * @param label		etichetta del nodo
+	 * @return insieme degli archi uscenti
+	 */
+	@Override
+	public Set<Edge<V, E>> outgoingEdges(V label) {
+		return reverse(graph.ingoingEdges(label));
+	}
+
+	/**
+	 * Gli archi entranti sono gli archi uscenti nel grafo sottostante.
+	 * @param label		etichetta del nodo
+	 * @return insieme degli archi entranti
+	 */
+	@Override
+	public Set<Edge<V, E>> ingoingEdges(V label) {
+		return reverse(graph.outgoingEdges(label));
+	}
+
+	/**
+	 * Ritorna il numero di archi.
+	 * @return numero di archi del grafo sottostante
+	 */
+	@Override
+	public int edgeCount() {
+		return graph.edgeCount();
+	}
+
+}
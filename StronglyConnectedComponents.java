@@ -0,0 +1,169 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Calcola le componenti fortemente connesse di un grafo diretto con
+ * l'algoritmo di Tarjan, in una visita in profondità iterativa sugli indici
+ * dei nodi in tempo O(V + E).
+ *
+ * Le componenti sono numerate nell'ordine in cui la visita le completa,
+ * che è un ordine topologico inverso del grafo delle componenti: se esiste un
+ * arco da un nodo della componente c1 ad uno della componente c2, con c1
+ * diversa da c2, allora c2 &lt; c1.
+ */
+public class StronglyConnectedComponents<V> {
+
+	/* Istantanea su cui sono state calcolate le componenti */
+	private final IndexedGraph<V> graph;
+
+	/* Componente di appartenenza di ogni nodo */
+	private final int[] component;
+
+	/* Inizio dei nodi di ogni componente in members (componentCount() + 1 elementi) */
+	private final int[] offsets;
+
+	/* Nodi raggruppati per componente */
+	private final int[] members;
+
+	/**
+	 * Calcola le componenti fortemente connesse di un grafo.
+	 * @param g		grafo
+	 */
+	public <E> StronglyConnectedComponents(Graph<V, E> g) {
+		this(IndexedGraph.of(g));
+	}
+
+	/**
+	 * Calcola le componenti fortemente connesse di un'istantanea.
+	 * @param graph		istantanea del grafo
+	 */
+	public StronglyConnectedComponents(IndexedGraph<V> graph) {
+		if (graph == null) throw new NullPointerException("Tentativo di analizzare un grafo null.");
+		this.graph = graph;
+		int n = graph.size();
+		int[] disc = new int[n];		/* Tempo di scoperta, 0 se non ancora scoperto */
+		int[] low = new int[n];			/* Minimo tempo di scoperta raggiungibile restando sulla pila */
+		int[] cursor = new int[n];		/* Prossimo successore da esaminare */
+		int[] callStack = new int[n];	/* Pila della visita */
+		int[] sccStack = new int[n];	/* Pila dei nodi non ancora assegnati ad una componente */
+		boolean[] onStack = new boolean[n];
+		this.component = new int[n];
+		this.members = new int[n];
+		int[] ends = new int[n + 1];
+		int count = 0;		/* Numero di componenti trovate */
+		int assigned = 0;	/* Numero di nodi assegnati */
+		int sccTop = 0;
+		int time = 0;
+
+		for (int root = 0; root < n; root++) {
+			if (disc[root] != 0) continue;
+			int top = 0;
+			callStack[0] = root;
+			disc[root] = low[root] = ++time;
+			cursor[root] = graph.outStart(root);
+			sccStack[sccTop++] = root;
+			onStack[root] = true;
+			while (top >= 0) {
+				int u = callStack[top];
+				if (cursor[u] < graph.outEnd(u)) {
+					int v = graph.outTarget(cursor[u]++);
+					if (disc[v] == 0) {
+						disc[v] = low[v] = ++time;
+						cursor[v] = graph.outStart(v);
+						sccStack[sccTop++] = v;
+						onStack[v] = true;
+						callStack[++top] = v;
+					} else if (onStack[v] && disc[v] < low[u]) {
+						low[u] = disc[v];
+					}
+					continue;
+				}
+				top--;
+				if (top >= 0) {
+					int p = callStack[top];
+					if (low[u] < low[p]) low[p] = low[u];
+				}
+				if (low[u] == disc[u]) {		/* u è la radice di una componente */
+					int w;
+					do {
+						w = sccStack[--sccTop];
+						onStack[w] = false;
+						component[w] = count;
+						members[assigned++] = w;
+					} while (w != u);
+					ends[++count] = assigned;
+				}
+			}
+		}
+		this.offsets = Arrays.copyOf(ends, count + 1);
+	}
+
+	/**
+	 * Ritorna l'istantanea su cui sono state calcolate le componenti.
+	 * @return istantanea del grafo
+	 */
+	public IndexedGraph<V> getGraph() {
+		return graph;
+	}
+
+	/**
+	 * Ritorna il numero di componenti fortemente connesse.
+	 * @return numero di componenti
+	 */
+	public int componentCount() {
+		return offsets.length - 1;
+	}
+
+	/**
+	 * Ritorna la componente a cui appartiene un nodo.
+	 * @param i		indice del nodo
+	 * @return numero della componente
+	 */
+	public int componentOf(int i) {
+		return component[i];
+	}
+
+	/**
+	 * Ritorna la componente a cui appartiene ogni nodo.
+	 * @return array indicizzato per nodo con il numero della componente
+	 */
+	public int[] getComponentArray() {
+		return component.clone();
+	}
+
+	/**
+	 * Ritorna il numero di nodi di una componente.
+	 * @param c		numero della componente
+	 * @return numero di nodi della componente
+	 */
+	public int componentSize(int c) {
+		return offsets[c + 1] - offsets[c];
+	}
+
+	/**
+	 * Ritorna gli indici dei nodi di una componente.
+	 * @param c		numero della componente
+	 * @return indici dei nodi della componente
+	 */
+	public int[] getComponentIndices(int c) {
+		return Arrays.copyOfRange(members, offsets[c], offsets[c + 1]);
+	}
+
+	/**
+	 * Ritorna le componenti come insiemi di etichette, nell'ordine della loro numerazione.
+	 * @return lista delle componenti
+	 */
+	public List<Set<V>> getComponents() {
+		List<Set<V>> ret = new ArrayList<Set<V>>(componentCount());
+		for (int c = 0; c < componentCount(); c++) {
+			Set<V> s = new HashSet<V>();
+			for (int k = offsets[c]; k < offsets[c + 1]; k++) s.add(graph.labelAt(members[k]));
+			ret.add(s);
+		}
+		return ret;
+	}
+
+}
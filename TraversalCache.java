@@ -0,0 +1,406 @@
+import java.util.BitSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Cache dei risultati delle visite di un grafo, valida finché il grafo non
+ * cambia.
+ *
+ * Ogni risultato (istantanea indicizzata, foresta della visita in profondità,
+ * ordine topologico, componenti fortemente connesse, insiemi di nodi
+ * raggiungibili da una sorgente) viene calcolato alla prima richiesta e
+ * restituito dalla cache alle richieste successive. La cache ricorda la
+ * versione del grafo ({@link Graph#getVersion()}) su cui i risultati sono
+ * stati calcolati: appena la versione cambia tutti i risultati vengono
+ * scartati.
+ *
+ * La cache è limitata sia nel numero di risultati sia nella memoria occupata,
+ * stimata in byte dalla dimensione degli array di ogni risultato; quando uno
+ * dei due limiti viene superato si scartano i risultati usati meno di
+ * recente (LRU). Un risultato che da solo supera il limite di memoria non
+ * viene memorizzato e viene ricalcolato ad ogni richiesta. L'istantanea
+ * indicizzata è invece tenuta fuori dai limiti finché il grafo non cambia:
+ * tutti gli altri risultati la usano e la referenziano, per cui scartarla
+ * non libererebbe memoria e costringerebbe a ricostruirla ad ogni richiesta.
+ *
+ * Sono contati i successi, le mancate corrispondenze, gli scarti per i
+ * limiti e gli scarti dovuti alle modifiche del grafo. Ogni richiesta
+ * conta una sola volta: i risultati usati internamente per calcolarne un
+ * altro (l'istantanea, le componenti per l'ordine topologico) non
+ * modificano i contatori.
+ *
+ * I metodi sono sincronizzati; il grafo non deve però essere modificato
+ * mentre un risultato viene calcolato.
+ */
+public class TraversalCache<V, E> {
+
+	/* Tipi di risultato */
+	private static final int DFS = 0;
+	private static final int TOPOLOGICAL_ORDER = 1;
+	private static final int SCC = 2;
+	private static final int REACHABLE = 3;
+
+	/* Valore memorizzato per l'ordine topologico di un grafo con cicli */
+	private static final Object NO_ORDER = new Object();
+
+	/* Grafo di cui si memorizzano i risultati */
+	private final Graph<V, E> graph;
+
+	/* Numero massimo di risultati memorizzati */
+	private final int maxEntries;
+
+	/* Memoria massima stimata dei risultati memorizzati, in byte */
+	private final long maxBytes;
+
+	/* Istantanea della versione corrente, fuori dai limiti; null se non ancora costruita */
+	private IndexedGraph<V> snapshot;
+
+	/* Risultati in ordine di accesso, dal meno recente */
+	private final LinkedHashMap<Key, Entry> entries;
+
+	/* Versione del grafo su cui sono stati calcolati i risultati */
+	private long version;
+
+	/* Memoria stimata dei risultati memorizzati */
+	private long bytes;
+
+	/* Contatori */
+	private long hits;
+	private long misses;
+	private long evictions;
+	private long invalidations;
+
+	/*
+	 * Chiave di un risultato: tipo ed eventuale indice della sorgente.
+	 */
+	private static class Key {
+		private final int kind;
+		private final int source;
+
+		private Key(int kind, int source) {
+			this.kind = kind;
+			this.source = source;
+		}
+
+		@Override
+		public int hashCode() {
+			return 31 * kind + source;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (this == obj) return true;
+			if (!(obj instanceof Key)) return false;
+			Key other = (Key) obj;
+			return kind == other.kind && source == other.source;
+		}
+	}
+
+	/*
+	 * Risultato memorizzato con la sua dimensione stimata.
+	 */
+	private static class Entry {
+		private final Object value;
+		private final long bytes;
+
+		private Entry(Object value, long bytes) {
+			this.value = value;
+			this.bytes = bytes;
+		}
+	}
+
+	/**
+	 * Costruttore di una cache per un grafo.
+	 * @param graph			grafo
+	 * @param maxEntries	numero massimo di risultati memorizzati
+	 * @param maxBytes		memoria massima stimata dei risultati, in byte
+	 * @throws IllegalArgumentException se uno dei limiti non è positivo
+	 */
+	public TraversalCache(Graph<V, E> graph, int maxEntries, long maxBytes) {
+		if (graph == null) throw new NullPointerException("Il grafo passato è null.");
+		if (maxEntries <= 0 || maxBytes <= 0) throw new IllegalArgumentException("I limiti della cache devono essere positivi.");
+		this.graph = graph;
+		this.maxEntries = maxEntries;
+		this.maxBytes = maxBytes;
+		this.entries = new LinkedHashMap<Key, Entry>(16, 0.75f, true);
+		this.version = graph.getVersion();
+	}
+
+	/**
+	 * Ritorna l'istantanea indicizzata del grafo, condivisa dagli altri
+	 * risultati e tenuta fuori dai limiti della cache.
+	 * @return istantanea della versione corrente del grafo
+	 */
+	public synchronized IndexedGraph<V> snapshot() {
+		validate();
+		if (snapshot != null) hits++;
+		else misses++;
+		return currentSnapshot();
+	}
+
+	/**
+	 * Ritorna l'istantanea della versione corrente, costruendola se manca,
+	 * senza modificare i contatori.
+	 * @return istantanea della versione corrente del grafo
+	 */
+	private IndexedGraph<V> currentSnapshot() {
+		validate();
+		if (snapshot == null) snapshot = IndexedGraph.of(graph);
+		return snapshot;
+	}
+
+	/**
+	 * Ritorna la foresta della visita in profondità deterministica (radici e
+	 * successori in ordine di indice) del grafo.
+	 * @return indice della foresta
+	 */
+	@SuppressWarnings("unchecked")
+	public synchronized DFSIntervalIndex<V> dfs() {
+		IndexedGraph<V> snapshot = currentSnapshot();
+		Key key = new Key(DFS, 0);
+		Object value = lookup(key);
+		if (value != null) return (DFSIntervalIndex<V>) value;
+		DFSIntervalIndex<V> forest = DFSIntervalIndex.build(snapshot);
+		store(key, forest, 12L * snapshot.size());
+		return forest;
+	}
+
+	/**
+	 * Ritorna le componenti fortemente connesse del grafo.
+	 * @return componenti fortemente connesse
+	 */
+	public synchronized StronglyConnectedComponents<V> scc() {
+		return components(currentSnapshot(), true);
+	}
+
+	/**
+	 * Ritorna le componenti fortemente connesse, calcolandole se mancano.
+	 * @param snapshot		istantanea della versione corrente
+	 * @param counted		true se la richiesta va contata tra successi e mancate corrispondenze
+	 * @return componenti fortemente connesse
+	 */
+	@SuppressWarnings("unchecked")
+	private StronglyConnectedComponents<V> components(IndexedGraph<V> snapshot, boolean counted) {
+		Key key = new Key(SCC, 0);
+		Object value = counted ? lookup(key) : find(key);
+		if (value != null) return (StronglyConnectedComponents<V>) value;
+		StronglyConnectedComponents<V> scc = new StronglyConnectedComponents<V>(snapshot);
+		store(key, scc, 12L * snapshot.size() + 4);
+		return scc;
+	}
+
+	/**
+	 * Ritorna un ordine topologico dei nodi del grafo, se il grafo è aciclico.
+	 * @return indici dei nodi in ordine topologico (copia modificabile), null se il grafo ha cicli
+	 */
+	public synchronized int[] topologicalOrder() {
+		IndexedGraph<V> snapshot = currentSnapshot();
+		Key key = new Key(TOPOLOGICAL_ORDER, 0);
+		Object value = lookup(key);
+		if (value == null) {
+			value = computeTopologicalOrder(snapshot, components(snapshot, false));
+			store(key, value, value == NO_ORDER ? 16 : 4L * snapshot.size());
+		}
+		return value == NO_ORDER ? null : ((int[]) value).clone();
+	}
+
+	/**
+	 * Calcola un ordine topologico dalle componenti fortemente connesse: il
+	 * grafo è aciclico se ogni componente ha un solo nodo e non ci sono
+	 * cappi, ed in tal caso la numerazione delle componenti è un ordine
+	 * topologico inverso.
+	 * @param snapshot		istantanea del grafo
+	 * @param scc			componenti fortemente connesse
+	 * @return ordine topologico, oppure NO_ORDER se il grafo ha cicli
+	 */
+	private static Object computeTopologicalOrder(IndexedGraph<?> snapshot, StronglyConnectedComponents<?> scc) {
+		int n = snapshot.size();
+		if (scc.componentCount() != n) return NO_ORDER;
+		int[] order = new int[n];
+		for (int u = 0; u < n; u++) {
+			for (int k = snapshot.outStart(u); k < snapshot.outEnd(u); k++)
+				if (snapshot.outTarget(k) == u) return NO_ORDER;
+			order[n - 1 - scc.componentOf(u)] = u;
+		}
+		return order;
+	}
+
+	/**
+	 * Ritorna l'insieme dei nodi raggiungibili da un nodo, nodo compreso.
+	 * @param source		etichetta del nodo di partenza
+	 * @return insieme degli indici dei nodi raggiungibili (copia modificabile)
+	 * @throws IllegalArgumentException se il nodo non esiste
+	 */
+	public synchronized BitSet reachable(V source) {
+		return reachable(currentSnapshot().indexOf(source));
+	}
+
+	/**
+	 * Ritorna l'insieme dei nodi raggiungibili da un nodo, nodo compreso.
+	 * @param source		indice del nodo di partenza
+	 * @return insieme degli indici dei nodi raggiungibili (copia modificabile)
+	 * @throws IndexOutOfBoundsException se l'indice non corrisponde a un nodo
+	 */
+	public synchronized BitSet reachable(int source) {
+		IndexedGraph<V> snapshot = currentSnapshot();
+		if (source < 0 || source >= snapshot.size()) throw new IndexOutOfBoundsException("L'indice non corrisponde a nessun nodo.");
+		Key key = new Key(REACHABLE, source);
+		BitSet value = (BitSet) lookup(key);
+		if (value == null) {
+			value = computeReachable(snapshot, source);
+			store(key, value, snapshot.size() / 8 + 16);
+		}
+		return (BitSet) value.clone();
+	}
+
+	/**
+	 * Visita in ampiezza dei nodi raggiungibili da una sorgente.
+	 * @param snapshot		istantanea del grafo
+	 * @param source		indice della sorgente
+	 * @return insieme dei nodi raggiungibili
+	 */
+	private static BitSet computeReachable(IndexedGraph<?> snapshot, int source) {
+		BitSet visited = new BitSet(snapshot.size());
+		int[] queue = new int[snapshot.size()];
+		int head = 0;
+		int tail = 0;
+		queue[tail++] = source;
+		visited.set(source);
+		while (head < tail) {
+			int u = queue[head++];
+			for (int k = snapshot.outStart(u); k < snapshot.outEnd(u); k++) {
+				int w = snapshot.outTarget(k);
+				if (!visited.get(w)) {
+					visited.set(w);
+					queue[tail++] = w;
+				}
+			}
+		}
+		return visited;
+	}
+
+	/**
+	 * Scarta tutti i risultati se il grafo è cambiato dall'ultima richiesta.
+	 */
+	private void validate() {
+		long current = graph.getVersion();
+		if (current == version) return;
+		invalidations += entries.size() + (snapshot != null ? 1 : 0);
+		entries.clear();
+		snapshot = null;
+		bytes = 0;
+		version = current;
+	}
+
+	/**
+	 * Cerca un risultato aggiornando i contatori e l'ordine di accesso.
+	 * @param key		chiave del risultato
+	 * @return risultato memorizzato, null se assente
+	 */
+	private Object lookup(Key key) {
+		Object value = find(key);
+		if (value == null) misses++;
+		else hits++;
+		return value;
+	}
+
+	/**
+	 * Cerca un risultato aggiornando l'ordine di accesso ma non i contatori.
+	 * @param key		chiave del risultato
+	 * @return risultato memorizzato, null se assente
+	 */
+	private Object find(Key key) {
+		Entry entry = entries.get(key);
+		return entry == null ? null : entry.value;
+	}
+
+	/**
+	 * Memorizza un risultato scartando i meno recenti finché i limiti non
+	 * sono rispettati. Un risultato che da solo supera il limite di memoria
+	 * non viene memorizzato, per cui verrà ricalcolato alla prossima richiesta.
+	 * @param key		chiave del risultato
+	 * @param value		risultato
+	 * @param size		dimensione stimata del risultato in byte
+	 */
+	private void store(Key key, Object value, long size) {
+		if (size > maxBytes) return;
+		entries.put(key, new Entry(value, size));
+		bytes += size;
+		Iterator<Map.Entry<Key, Entry>> it = entries.entrySet().iterator();
+		while ((entries.size() > maxEntries || bytes > maxBytes) && it.hasNext()) {
+			Map.Entry<Key, Entry> eldest = it.next();
+			if (eldest.getKey().equals(key)) continue;
+			bytes -= eldest.getValue().bytes;
+			it.remove();
+			evictions++;
+		}
+	}
+
+	/**
+	 * Scarta tutti i risultati, istantanea compresa, senza contarli come invalidazioni.
+	 */
+	public synchronized void clear() {
+		entries.clear();
+		snapshot = null;
+		bytes = 0;
+	}
+
+	/**
+	 * Ritorna il numero di risultati memorizzati, esclusa l'istantanea.
+	 * @return numero di risultati
+	 */
+	public synchronized int size() {
+		return entries.size();
+	}
+
+	/**
+	 * Ritorna la memoria stimata dei risultati memorizzati, esclusa l'istantanea.
+	 * @return memoria in byte
+	 */
+	public synchronized long estimatedBytes() {
+		return bytes;
+	}
+
+	/**
+	 * Ritorna il numero di richieste soddisfatte dalla cache.
+	 * @return numero di successi
+	 */
+	public synchronized long getHitCount() {
+		return hits;
+	}
+
+	/**
+	 * Ritorna il numero di richieste che hanno richiesto un calcolo.
+	 * @return numero di mancate corrispondenze
+	 */
+	public synchronized long getMissCount() {
+		return misses;
+	}
+
+	/**
+	 * Ritorna il numero di risultati scartati per rispettare i limiti.
+	 * @return numero di scarti
+	 */
+	public synchronized long getEvictionCount() {
+		return evictions;
+	}
+
+	/**
+	 * Ritorna il numero di risultati scartati perché il grafo è cambiato.
+	 * @return numero di invalidazioni
+	 */
+	public synchronized long getInvalidationCount() {
+		return invalidations;
+	}
+
+	/**
+	 * Riassunto dei contatori della cache.
+	 */
+	@Override
+	public synchronized String toString() {
+		return "risultati=" + entries.size() + " byte=" + bytes + " successi=" + hits + " mancati=" + misses
+				+ " scartati=" + evictions + " invalidati=" + invalidations;
+	}
+
+}
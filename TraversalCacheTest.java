@@ -0,0 +1,112 @@
+import java.util.Arrays;
+import java.util.Random;
+
+public class TraversalCacheTest {
+
+	public static void main(String[] args) {
+
+		/* Grafo di esempio usato anche in GenericGraphDFSTest */
+		Graph<NodeDFS, WeighedEdge<Double>> g = new GraphMatrixDirected<NodeDFS, WeighedEdge<Double>>();
+		NodeDFS a = new NodeDFS("a");
+		NodeDFS b = new NodeDFS("b");
+		NodeDFS c = new NodeDFS("c");
+		NodeDFS x = new NodeDFS("x");
+		NodeDFS y = new NodeDFS("y");
+		NodeDFS z = new NodeDFS("z");
+		g.addNode(a);
+		g.addNode(b);
+		g.addNode(c);
+		g.addNode(x);
+		g.addNode(y);
+		g.addNode(z);
+		g.addEdge(a, b, new WeighedEdge<Double>(1.5));
+		g.addEdge(a, x, new WeighedEdge<Double>(-2.0));
+		g.addEdge(x, b, new WeighedEdge<Double>(null));
+		g.addEdge(b, y, new WeighedEdge<Double>(null));
+		g.addEdge(y, x, new WeighedEdge<Double>(1.0));
+		g.addEdge(z, b, new WeighedEdge<Double>(0.6));
+		g.addEdge(z, z, new WeighedEdge<Double>(0.5));
+		g.addEdge(c, z, new WeighedEdge<Double>(2.0));
+
+		TraversalCache<NodeDFS, WeighedEdge<Double>> cache = new TraversalCache<NodeDFS, WeighedEdge<Double>>(g, 100, 1 << 20);
+		System.out.println("Versione del grafo: " + g.getVersion());
+		System.out.println("Raggiungibili da c: " + cache.reachable(c));
+		System.out.println("Raggiungibili da c: " + cache.reachable(c));
+		System.out.println("Componenti: " + cache.scc().getComponents());
+		System.out.println("Ordine topologico: " + Arrays.toString(cache.topologicalOrder()));
+		System.out.println("Stessa foresta alla seconda richiesta: " + (cache.dfs() == cache.dfs()));
+		System.out.println(cache);
+
+		/* Rimuovo i cicli: la cache si accorge della modifica */
+		g.removeEdge(y, x, new WeighedEdge<Double>(1.0));
+		g.removeEdge(z, z, new WeighedEdge<Double>(0.5));
+		System.out.println();
+		System.out.println("Versione del grafo: " + g.getVersion());
+		System.out.println("Raggiungibili da c: " + cache.reachable(c));
+		int[] order = cache.topologicalOrder();
+		String labels = "";
+		for (int i : order) labels += g.getNodeAtIndex(i) + " ";
+		System.out.println("Ordine topologico: " + labels);
+		System.out.println(cache);
+
+		/* Limite sul numero di risultati */
+		System.out.println();
+		TraversalCache<NodeDFS, WeighedEdge<Double>> small = new TraversalCache<NodeDFS, WeighedEdge<Double>>(g, 3, 1 << 20);
+		for (int i = 0; i < g.size(); i++) small.reachable(i);
+		small.reachable(g.size() - 1);
+		small.reachable(0);
+		System.out.println("Cache con 3 risultati: " + small);
+
+		/* Ogni richiesta conta una sola volta, anche se usa l'istantanea o le componenti */
+		TraversalCache<NodeDFS, WeighedEdge<Double>> counted = new TraversalCache<NodeDFS, WeighedEdge<Double>>(g, 100, 1 << 20);
+		counted.dfs();
+		counted.dfs();
+		System.out.println("Due visite: successi " + counted.getHitCount() + ", mancati " + counted.getMissCount());
+		counted.reachable(c);
+		counted.reachable(c);
+		counted.topologicalOrder();
+		counted.scc();
+		System.out.println("Più due raggiungibilità, un ordine topologico e le componenti: successi " + counted.getHitCount()
+				+ ", mancati " + counted.getMissCount());
+
+		/* Limite di memoria minore dell'istantanea: l'istantanea resta, i risultati troppo grandi vengono ricalcolati */
+		TraversalCache<NodeDFS, WeighedEdge<Double>> tiny = new TraversalCache<NodeDFS, WeighedEdge<Double>>(g, 100, 16);
+		System.out.println("Limite di 16 byte: stessa istantanea " + (tiny.snapshot() == tiny.snapshot()) + ", stessa foresta "
+				+ (tiny.dfs() == tiny.dfs()) + ", " + tiny);
+
+		/* Interrogazioni ripetute su un grafo che non cambia */
+		System.out.println();
+		System.out.println(" ----------------------------------------------------------");
+		System.out.println(" |    Interrogazioni di raggiungibilità ripetute.         |");
+		System.out.println(" ----------------------------------------------------------");
+		Random random = new Random(42);
+		Graph<Integer, Object> r = new GraphMatrixDirected<Integer, Object>();
+		int n = 2000;
+		for (int i = 0; i < n; i++) r.addNode(i);
+		for (int i = 0; i < 4 * n; i++) r.addEdge(random.nextInt(n), random.nextInt(n), null);
+		int[] sources = new int[5000];
+		for (int i = 0; i < sources.length; i++) sources[i] = random.nextInt(50);
+		long start = System.nanoTime();
+		long total = 0;
+		for (int i = 0; i < 20; i++) total += uncachedReachable(r, sources[i]);
+		long uncached = (System.nanoTime() - start) / 20;
+		TraversalCache<Integer, Object> rc = new TraversalCache<Integer, Object>(r, 64, 1 << 24);
+		start = System.nanoTime();
+		for (int s : sources) total += rc.reachable(s).cardinality();
+		long cached = (System.nanoTime() - start) / sources.length;
+		System.out.println("Senza cache: " + uncached / 1000 + " us/interrogazione, con cache: " + cached / 1000
+				+ " us/interrogazione, " + total + " nodi raggiunti in totale");
+		System.out.println(rc);
+	}
+
+	/**
+	 * Calcola i nodi raggiungibili con una nuova istantanea ad ogni chiamata.
+	 * @param g			grafo
+	 * @param source	indice della sorgente
+	 * @return numero di nodi raggiungibili
+	 */
+	private static int uncachedReachable(Graph<Integer, Object> g, int source) {
+		return new TraversalCache<Integer, Object>(g, 1, Long.MAX_VALUE).reachable(source).cardinality();
+	}
+
+}
@@ -0,0 +1,140 @@
+import java.util.Arrays;
+
+/**
+ * Partiziona i nodi di un grafo nelle sue componenti debolmente connesse,
+ * cioè nelle componenti connesse della versione non diretta, con una
+ * struttura union-find (unione per dimensione e dimezzamento dei cammini) in
+ * tempo quasi lineare nel numero di archi.
+ *
+ * Le componenti sono numerate in ordine crescente del loro nodo di indice
+ * minimo, ed i nodi di ogni componente sono elencati in ordine crescente di
+ * indice: due visite che considerano i nodi in ordine di indice trovano
+ * quindi le componenti nello stesso ordine.
+ */
+public class WeaklyConnectedComponents {
+
+	/* Componente di appartenenza di ogni nodo */
+	private final int[] component;
+
+	/* Inizio dei nodi di ogni componente in members (componentCount() + 1 elementi) */
+	private final int[] offsets;
+
+	/* Nodi raggruppati per componente, in ordine crescente all'interno di ognuna */
+	private final int[] members;
+
+	/**
+	 * Calcola le componenti debolmente connesse di un'istantanea.
+	 * @param graph		istantanea del grafo
+	 */
+	public WeaklyConnectedComponents(IndexedGraph<?> graph) {
+		if (graph == null) throw new NullPointerException("Tentativo di analizzare un grafo null.");
+		int n = graph.size();
+		int[] parent = new int[n];
+		int[] size = new int[n];
+		for (int i = 0; i < n; i++) {
+			parent[i] = i;
+			size[i] = 1;
+		}
+		/* Unisco gli estremi di ogni arco */
+		for (int u = 0; u < n; u++) {
+			for (int k = graph.outStart(u); k < graph.outEnd(u); k++) {
+				int a = find(parent, u);
+				int b = find(parent, graph.outTarget(k));
+				if (a == b) continue;
+				if (size[a] < size[b]) {
+					int t = a;
+					a = b;
+					b = t;
+				}
+				parent[b] = a;
+				size[a] += size[b];
+			}
+		}
+		/* Numero le componenti nell'ordine del loro nodo di indice minimo */
+		this.component = new int[n];
+		int[] number = new int[n];
+		Arrays.fill(number, -1);
+		int count = 0;
+		int[] counts = new int[n + 1];
+		for (int i = 0; i < n; i++) {
+			int r = find(parent, i);
+			if (number[r] == -1) number[r] = count++;
+			component[i] = number[r];
+			counts[component[i] + 1]++;
+		}
+		this.offsets = Arrays.copyOf(counts, count + 1);
+		for (int c = 0; c < count; c++) offsets[c + 1] += offsets[c];
+		/* Distribuzione dei nodi, in ordine di indice, nelle rispettive componenti */
+		this.members = new int[n];
+		int[] next = Arrays.copyOf(offsets, count);
+		for (int i = 0; i < n; i++) members[next[component[i]]++] = i;
+	}
+
+	/**
+	 * Trova il rappresentante di un nodo dimezzando il cammino percorso.
+	 * @param parent	foresta union-find
+	 * @param i			indice del nodo
+	 * @return rappresentante dell'insieme del nodo
+	 */
+	private static int find(int[] parent, int i) {
+		while (parent[i] != i) {
+			parent[i] = parent[parent[i]];
+			i = parent[i];
+		}
+		return i;
+	}
+
+	/**
+	 * Ritorna il numero di componenti debolmente connesse.
+	 * @return numero di componenti
+	 */
+	public int componentCount() {
+		return offsets.length - 1;
+	}
+
+	/**
+	 * Ritorna la componente a cui appartiene un nodo.
+	 * @param i		indice del nodo
+	 * @return numero della componente
+	 */
+	public int componentOf(int i) {
+		return component[i];
+	}
+
+	/**
+	 * Ritorna il numero di nodi di una componente.
+	 * @param c		numero della componente
+	 * @return numero di nodi della componente
+	 */
+	public int componentSize(int c) {
+		return offsets[c + 1] - offsets[c];
+	}
+
+	/**
+	 * Ritorna la posizione in {@link #member(int)} del primo nodo di una componente.
+	 * @param c		numero della componente
+	 * @return posizione del primo nodo
+	 */
+	public int membersStart(int c) {
+		return offsets[c];
+	}
+
+	/**
+	 * Ritorna la posizione in {@link #member(int)} successiva all'ultimo nodo di una componente.
+	 * @param c		numero della componente
+	 * @return posizione successiva all'ultimo nodo
+	 */
+	public int membersEnd(int c) {
+		return offsets[c + 1];
+	}
+
+	/**
+	 * Ritorna il nodo memorizzato in una certa posizione.
+	 * @param k		posizione compresa tra membersStart(c) e membersEnd(c) di una componente c
+	 * @return indice del nodo
+	 */
+	public int member(int k) {
+		return members[k];
+	}
+
+}
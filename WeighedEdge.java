@@ -52,8 +52,8 @@ public class WeighedEdge<E> implements Weight<E> {
 	@Override
 	public boolean equals(Object obj) {
 		if (this == obj) return true;		/* Controllo se gli oggetti sono uguali */
-		if (obj == null) return false;		/* Controllo se obj  null */
-		if(!(obj instanceof WeighedEdge)) return false;		/* Controllo se obj  un'istanza di WeighedEdge */
+		if (obj == null) return false;		/* Controllo se obj è null */
+		if(!(obj instanceof WeighedEdge)) return false;		/* Controllo se obj è un'istanza di WeighedEdge */
 		@SuppressWarnings("unchecked")
 		WeighedEdge<E> other = (WeighedEdge<E>) obj;
 		/* Controllo se uno dei due archi ha peso nullo mentre l'altro no */